@@ -28,7 +28,7 @@ public class CorsConfig {
         corsConfig.setAllowCredentials(true);
 
         // Expose headers that frontend might need
-        corsConfig.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        corsConfig.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Next-Before-Id", "Retry-After"));
 
         // Cache preflight response for 1 hour
         corsConfig.setMaxAge(3600L);
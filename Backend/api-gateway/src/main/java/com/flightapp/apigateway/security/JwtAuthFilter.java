@@ -47,15 +47,14 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
 
         Claims claims;
         try {
-            jwtUtil.validateToken(token); // I validate token expiry and signature
-            claims = jwtUtil.extractAllClaims(token); // I extract claims from token
+            claims = jwtUtil.verify(token); // I validate signature and expiry (once per token) and get its claims
         } catch (Exception e) {
             log.warn(" JWT invalid: {}", e.getMessage());
             return onError(exchange, HttpStatus.UNAUTHORIZED);
         }
 
         String username = claims.getSubject(); // I extracted username from token
-        String role = jwtUtil.extractRole(token); // I extracted role from token
+        String role = JwtUtil.roleOf(claims); // I extracted role from the same claims
         log.info(" Authenticated: {} [{}]", username, role);
 
         // I check if endpoint is ADMIN-only and validate user role
@@ -76,8 +75,8 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
     }
 
     private boolean isPublic(String path, HttpMethod method) {
-        // I mark auth endpoints and flight search endpoints as public
-        if (path.startsWith("/auth/")) {
+        // I mark auth endpoints (except auth admin) and flight search endpoints as public
+        if (path.startsWith("/auth/") && !path.startsWith("/auth/admin/")) {
             return true;
         }
         if (method == HttpMethod.GET && path.startsWith("/flight-service/flights")) {
@@ -91,8 +90,15 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
 
     private boolean isAdminOnly(String path, HttpMethod method) {
         // I consider POST to /flights as ADMIN-only
-        return (path.equals("/flight-service/flights")
-                && method == HttpMethod.POST);
+        if (path.equals("/flight-service/flights") && method == HttpMethod.POST) {
+            return true;
+        }
+        // I restrict cancelling all bookings of a flight (and its progress), booking exports
+        // and bulk user provisioning to ADMIN
+        return path.startsWith("/auth/admin/")
+                || path.startsWith("/booking-service/bookings/bulk-cancellations/")
+                || path.startsWith("/booking-service/bookings/admin/")
+                || (path.startsWith("/booking-service/bookings/flight/") && path.endsWith("/cancel-all"));
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, HttpStatus status) {
@@ -35,10 +35,8 @@ public class JwtLoggingFilter implements GlobalFilter, Ordered {
             String token = authHeader.substring(7); // I extract the token
 
             try {
-                // I validate the JWT token
-                jwtUtil.validateToken(token);
-                // I extract claims from the token for logging
-                Claims claims = jwtUtil.extractAllClaims(token);
+                // I validate the JWT token and extract its claims for logging
+                Claims claims = jwtUtil.verify(token);
 
                 // I log the authenticated user's username and role
                 log.info(" Authenticated user: {}, role: {}",
@@ -1,55 +1,149 @@
 package com.flightapp.apigateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
+/**
+ * Verifies JWTs once and caches the verified claims.
+ *
+ * The parser is built once and reused (it is immutable and thread-safe). Verified claims
+ * are cached by the SHA-256 of the token, so a repeat request costs one hash instead of
+ * an HMAC and a JSON parse, and the raw bearer tokens are not kept in memory. Each entry
+ * expires when its token does, and the cache holds at most gateway.jwt.cache.max-size
+ * tokens. Invalid tokens are never cached.
+ *
+ * Hit rate and size are exposed as the cache.* metrics with cache=jwt.claims.
+ */
 @Component
 public class JwtUtil {
 
-    private final Key key; // I store the secret key used for signing and validating JWTs
+    private final JwtParser parser; // I build the parser once, with the secret key used to validate JWTs
+    private final Cache<String, Claims> verified;
+    private final LongSupplier clockMillis;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${gateway.jwt.cache.max-size:100000}") long maxCachedTokens,
+                   MeterRegistry registry) {
+        this(secret, maxCachedTokens, registry, System::currentTimeMillis);
+    }
+
+    // The clock drives both the expiry check and the cache, so tests can move time forward
+    JwtUtil(String secret, long maxCachedTokens, MeterRegistry registry, LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
         // I convert the secret string into a Key object for HMAC SHA signing
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .setClock(() -> new Date(clockMillis.getAsLong()))
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clockMillis.getAsLong()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt.claims");
+    }
+
+    /**
+     * Returns the claims of a valid token, checking signature and expiry only the first
+     * time a token is seen. Throws JwtException if the token is invalid or expired.
+     * The returned claims are shared between requests and must not be modified.
+     */
+    public Claims verify(String token) {
+        return verified.get(hash(token), k -> parse(token));
+    }
+
+    private Claims parse(String token) {
+        // I parse the JWT; this checks the signature and the expiry and throws if the token is invalid
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiry");
+        }
+        return claims;
     }
 
     public Claims extractAllClaims(String token) {
-        // I parse the JWT and extract all claims; this will throw if token is invalid
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token);
     }
 
     public String extractUsername(String token) {
         // I get the username (subject) from the token
-        return extractAllClaims(token).getSubject();
+        return verify(token).getSubject();
     }
 
     public String extractRole(String token) {
+        return roleOf(verify(token));
+    }
+
+    public static String roleOf(Claims claims) {
         // I get the role claim from the token, if present
-        Object role = extractAllClaims(token).get("role");
+        Object role = claims.get("role");
         return role != null ? role.toString() : null;
     }
 
     public boolean isTokenExpired(String token) {
         // I check if the token expiration date is before current time
-        Date expiration = extractAllClaims(token).getExpiration();
-        return expiration.before(new Date());
+        Date expiration = verify(token).getExpiration();
+        return expiration.getTime() < clockMillis.getAsLong();
     }
 
     public void validateToken(String token) {
-        // I validate the token expiration; any other invalid token issues will throw in extractAllClaims
-        if (isTokenExpired(token)) {
-            throw new RuntimeException("Token expired");
+        // Expired or otherwise invalid tokens throw in verify
+        verify(token);
+    }
+
+    private static String hash(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    // Drops each entry at its token's exp claim, so an expired token is never served from the cache
+    private final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - clockMillis.getAsLong();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,92 @@
+package com.flightapp.apigateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_767_225_600_000L);
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    private JwtAuthFilter filter;
+    private String userToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthFilter(new JwtUtil(JwtUtilTest.SECRET, 1_000, new SimpleMeterRegistry(), now::get));
+        userToken = JwtUtilTest.token("alice", "USER", now.get(), 60_000);
+        adminToken = JwtUtilTest.token("root", "ADMIN", now.get(), 60_000);
+    }
+
+    @Test
+    void adminPath_userToken_isForbiddenOnEveryRequest() {
+        // The second request is answered from the claims cache and must still be refused
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = send(MockServerHttpRequest.post("/auth/admin/users/bulk"), userToken);
+            assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        }
+        MockServerWebExchange addFlight = send(MockServerHttpRequest.post("/flight-service/flights"), userToken);
+        assertEquals(HttpStatus.FORBIDDEN, addFlight.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void adminPath_adminToken_isForwardedWithIdentityHeaders() {
+        send(MockServerHttpRequest.post("/auth/admin/users/bulk"), adminToken);
+        send(MockServerHttpRequest.post("/auth/admin/users/bulk"), adminToken);
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertEquals("root", headers.getFirst("X-User-Name"));
+        assertEquals("ADMIN", headers.getFirst("X-User-Role"));
+    }
+
+    @Test
+    void securedPath_expiredCachedToken_isUnauthorized() {
+        send(MockServerHttpRequest.get("/booking-service/bookings/email/alice@test.com"), userToken);
+        assertNotNull(forwarded.getAndSet(null));
+
+        now.addAndGet(60_001);
+        MockServerWebExchange exchange =
+                send(MockServerHttpRequest.get("/booking-service/bookings/email/alice@test.com"), userToken);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void securedPath_withoutToken_isUnauthorized_publicPathIsNot() {
+        MockServerWebExchange secured = MockServerWebExchange.from(MockServerHttpRequest.get("/booking-service/bookings/1"));
+        filter.filter(secured, chain).block();
+        assertEquals(HttpStatus.UNAUTHORIZED, secured.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+
+        MockServerWebExchange login = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login"));
+        filter.filter(login, chain).block();
+        assertSame(login, forwarded.get());
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request, String token) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token).build());
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+}
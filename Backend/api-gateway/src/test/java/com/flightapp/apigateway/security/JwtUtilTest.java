@@ -0,0 +1,100 @@
+package com.flightapp.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    private final AtomicLong now = new AtomicLong(1_767_225_600_000L);
+    private SimpleMeterRegistry registry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(SECRET, 1_000, registry, now::get);
+    }
+
+    @Test
+    void verify_sameTokenTwice_returnsCachedClaims() {
+        String token = token("alice", "USER", now.get(), 60_000);
+
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        assertSame(first, second);
+        assertEquals("alice", second.getSubject());
+        assertEquals("USER", JwtUtil.roleOf(second));
+        assertEquals(1, cacheGets("hit"));
+        assertEquals(1, cacheGets("miss"));
+    }
+
+    @Test
+    void verify_expiredToken_isNotServedFromCache() {
+        String token = token("alice", "USER", now.get(), 60_000);
+        jwtUtil.verify(token);
+
+        now.addAndGet(60_001);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+        assertEquals(0, cacheGets("hit"));
+    }
+
+    @Test
+    void verify_tamperedToken_isRejectedAndNotCached() {
+        String token = token("alice", "USER", now.get(), 60_000);
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String forged = parts[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        payload.replace("\"USER\"", "\"ADMIN\"").getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(forged));
+        assertThrows(JwtException.class, () -> jwtUtil.verify(forged));
+
+        assertEquals(0, cacheGets("hit"));
+        assertEquals(0, registry.get("cache.size").tag("cache", "jwt.claims").gauge().value());
+        assertEquals("USER", jwtUtil.extractRole(token));
+    }
+
+    @Test
+    void verify_tokenWithoutExpiry_isRejected() {
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .claim("role", "ADMIN")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    static String token(String subject, String role, long issuedAtMillis, long validForMillis) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("role", role)
+                .setIssuedAt(new Date(issuedAtMillis))
+                .setExpiration(new Date(issuedAtMillis + validForMillis))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private double cacheGets(String result) {
+        return registry.get("cache.gets").tag("cache", "jwt.claims").tag("result", result).functionCounter().count();
+    }
+}
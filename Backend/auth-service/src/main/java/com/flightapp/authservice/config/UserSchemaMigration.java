@@ -0,0 +1,49 @@
+package com.flightapp.authservice.config;
+
+import com.flightapp.authservice.entity.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives the unique constraints on users.username and users.email the names in
+ * {@link User}, which ddl-auto=update cannot do on an existing database: older versions
+ * let Hibernate generate the names (UK_...), and it never renames or drops constraints.
+ *
+ * Runs once Hibernate has updated the schema and before the application takes traffic.
+ * The named constraint is added first and the old one dropped after, in one transaction,
+ * so the columns are never left without a unique constraint. Safe to run on every startup.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class UserSchemaMigration {
+
+    private static final String NAME_UNIQUE_CONSTRAINTS =
+            "DO $$ DECLARE c record; BEGIN " +
+                    "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'users'::regclass " +
+                    "AND conname = '" + User.USERNAME_UNIQUE + "') THEN " +
+                    "ALTER TABLE users ADD CONSTRAINT " + User.USERNAME_UNIQUE + " UNIQUE (username); END IF; " +
+                    "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'users'::regclass " +
+                    "AND conname = '" + User.EMAIL_UNIQUE + "') THEN " +
+                    "ALTER TABLE users ADD CONSTRAINT " + User.EMAIL_UNIQUE + " UNIQUE (email); END IF; " +
+                    "FOR c IN SELECT con.conname FROM pg_constraint con " +
+                    "JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1] " +
+                    "WHERE con.conrelid = 'users'::regclass AND con.contype = 'u' AND cardinality(con.conkey) = 1 " +
+                    "AND att.attname IN ('username', 'email') " +
+                    "AND con.conname NOT IN ('" + User.USERNAME_UNIQUE + "', '" + User.EMAIL_UNIQUE + "') LOOP " +
+                    "EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', c.conname); " +
+                    "END LOOP; END $$";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        jdbcTemplate.execute(NAME_UNIQUE_CONSTRAINTS);
+        log.info("Users table constraints are up to date");
+    }
+}
@@ -0,0 +1,41 @@
+package com.flightapp.authservice.controller;
+
+import com.flightapp.authservice.dto.request.BulkSignupRequest;
+import com.flightapp.authservice.dto.response.BulkSignupStatus;
+import com.flightapp.authservice.service.UserProvisioningService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+// ADMIN only; the role is checked by the API gateway
+@RestController
+@RequestMapping("/auth/admin")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final UserProvisioningService provisioningService;
+
+    /**
+     * POST /auth/admin/users/bulk - Starts creating many USER accounts (corporate onboarding).
+     * Returns 202 at once; poll the Location for progress. Accounts whose username or email
+     * already exists are skipped and listed in the status.
+     */
+    @PostMapping("/users/bulk")
+    public ResponseEntity<BulkSignupStatus> provisionUsers(@Valid @RequestBody BulkSignupRequest request) {
+        BulkSignupStatus status = provisioningService.start(request.getUsers());
+        return ResponseEntity.accepted()
+                .location(URI.create("/auth/admin/users/bulk/" + status.getJobId()))
+                .body(status);
+    }
+
+    // GET /auth/admin/users/bulk/{jobId} - Progress of a bulk provisioning job
+    @GetMapping("/users/bulk/{jobId}")
+    public ResponseEntity<BulkSignupStatus> getStatus(@PathVariable String jobId) {
+        return provisioningService.findStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
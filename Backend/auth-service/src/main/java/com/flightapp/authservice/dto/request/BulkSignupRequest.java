@@ -0,0 +1,17 @@
+package com.flightapp.authservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkSignupRequest {
+
+    // Every account is created as USER; adminSecret is ignored here
+    @NotEmpty(message = "Users are required")
+    @Size(max = 10000, message = "At most 10000 users per request")
+    private List<@Valid SignupRequest> users;
+}
@@ -0,0 +1,25 @@
+package com.flightapp.authservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Progress of a bulk user provisioning job
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSignupStatus {
+    private String jobId;
+    private String state; // QUEUED / RUNNING / COMPLETED / FAILED
+    private int requested;
+    private int created;
+    private List<String> skipped; // usernames not created because the username or email was taken
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_UNIQUE, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_UNIQUE, columnNames = "email")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,14 +16,18 @@ import java.time.LocalDateTime;
 @Builder
 public class User {
 
+    // Named, so a violation can be traced back to the field that was taken
+    public static final String USERNAME_UNIQUE = "uk_users_username";
+    public static final String EMAIL_UNIQUE = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email; // unique email for each user
 
     @Column(nullable = false)
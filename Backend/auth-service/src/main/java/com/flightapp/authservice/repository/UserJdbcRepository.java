@@ -0,0 +1,47 @@
+package com.flightapp.authservice.repository;
+
+import com.flightapp.authservice.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Batched inserts on the users table (User ids are IDENTITY columns, so Hibernate
+// inserts rows one by one).
+@Repository
+@RequiredArgsConstructor
+public class UserJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Rows whose username or email is already taken are skipped, not failed, so one
+    // duplicate does not abort the rest of the batch
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, email, password, role, password_changed_at) " +
+                    "VALUES (?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Returns, for each user, whether its row was inserted. Relies on per-row update
+    // counts, so the datasource must not use reWriteBatchedInserts.
+    public boolean[] insertAll(List<User> users) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_USER, users, BATCH_SIZE, (ps, u) -> {
+            ps.setString(1, u.getUsername());
+            ps.setString(2, u.getEmail());
+            ps.setString(3, u.getPassword());
+            ps.setString(4, u.getRole());
+            ps.setTimestamp(5, u.getPasswordChangedAt() != null ? Timestamp.valueOf(u.getPasswordChangedAt()) : null);
+        });
+
+        boolean[] inserted = new boolean[users.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted[i++] = count > 0;
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,283 @@
+package com.flightapp.authservice.security;
+
+import com.flightapp.authservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing and verification on a pool with one thread per CPU instead of on
+ * the Tomcat request threads.
+ *
+ * BCrypt is CPU-bound by design, so more threads than cores only adds contention. Work
+ * waits in a bounded queue, and once that is full the request is rejected at once with
+ * ServiceOverloadedException (503 + Retry-After) instead of piling up. Logins may only
+ * use queue-capacity of the queue; signup and change-password get reserved-capacity more
+ * and are taken ahead of waiting logins, so a login storm cannot starve them. Bulk
+ * provisioning is taken last of all (see {@link #encodeAll}).
+ *
+ * Exposed as auth.password.wait and auth.password.work (per operation),
+ * auth.password.rejected and auth.password.pending.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    // In priority order: earlier operations are taken from the queue first
+    public enum Operation {
+        SIGNUP,
+        CHANGE_PASSWORD,
+        LOGIN,
+        BULK
+    }
+
+    // Passwords hashed per bulk task: how long a login can wait behind bulk work
+    private static final int BULK_CHUNK = 8;
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final int loginLimit;
+    private final int totalLimit;
+    private final long retryAfterSeconds;
+
+    // Admitted and not yet finished, running or queued
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Operation, Timer> waitTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> workTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> rejected = new EnumMap<>(Operation.class);
+
+    public PasswordHasher(
+            PasswordEncoder encoder,
+            MeterRegistry registry,
+            @Value("${auth.password.pool.threads:0}") int threads,
+            @Value("${auth.password.pool.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password.pool.reserved-capacity:16}") int reservedCapacity,
+            @Value("${auth.password.pool.retry-after-seconds:1}") long retryAfterSeconds) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.encoder = encoder;
+        this.loginLimit = workers + queueCapacity;
+        this.totalLimit = loginLimit + reservedCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger ids = new AtomicInteger();
+        // Admission is bounded by pending, so the queue itself never grows past totalLimit
+        this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + ids.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        for (Operation op : Operation.values()) {
+            String tag = op.name().toLowerCase();
+            waitTimers.put(op, Timer.builder("auth.password.wait")
+                    .tag("operation", tag)
+                    .description("Time a password check waited for a BCrypt thread")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry));
+            workTimers.put(op, Timer.builder("auth.password.work")
+                    .tag("operation", tag)
+                    .description("BCrypt time spent on one request")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry));
+            rejected.put(op, Counter.builder("auth.password.rejected")
+                    .tag("operation", tag)
+                    .description("Password checks refused because the BCrypt queue was full")
+                    .register(registry));
+        }
+        Gauge.builder("auth.password.pending", pending, AtomicInteger::get)
+                .description("Password checks running or waiting for a BCrypt thread")
+                .register(registry);
+    }
+
+    public boolean matches(Operation op, CharSequence rawPassword, String encodedPassword) {
+        return run(op, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(Operation op, CharSequence rawPassword) {
+        return run(op, () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Runs all the BCrypt steps of one request as a single task, so it only queues once.
+     * Runtime exceptions thrown by the work reach the caller unchanged.
+     */
+    public <T> T run(Operation op, Supplier<T> work) {
+        admit(op);
+        Task<T> task = new Task<>(op, timed(op, work));
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Only after shutdown
+            pending.decrementAndGet();
+            throw overloaded(op);
+        }
+
+        return await(task);
+    }
+
+    /**
+     * Hashes passwords for bulk provisioning, in the order given. Chunks of BULK_CHUNK run
+     * in parallel with at most one chunk per pool thread outstanding, at the lowest
+     * priority, so logins and signups arriving meanwhile wait for one chunk at most.
+     * Bulk chunks are not subject to the queue limits; the window already bounds them.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        Semaphore window = new Semaphore(pool.getCorePoolSize());
+        List<Task<List<String>>> tasks = new ArrayList<>();
+        try {
+            for (int from = 0; from < rawPasswords.size(); from += BULK_CHUNK) {
+                List<? extends CharSequence> chunk =
+                        rawPasswords.subList(from, Math.min(rawPasswords.size(), from + BULK_CHUNK));
+                window.acquire();
+                Task<List<String>> task = new Task<>(Operation.BULK, timed(Operation.BULK, () -> {
+                    try {
+                        List<String> hashes = new ArrayList<>(chunk.size());
+                        for (CharSequence raw : chunk) {
+                            hashes.add(encoder.encode(raw));
+                        }
+                        return hashes;
+                    } finally {
+                        window.release();
+                    }
+                }));
+                pending.incrementAndGet();
+                try {
+                    pool.execute(task);
+                } catch (RejectedExecutionException e) {
+                    pending.decrementAndGet();
+                    throw overloaded(Operation.BULK);
+                }
+                tasks.add(task);
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (RuntimeException e) {
+            tasks.forEach(task -> task.cancel(false));
+            throw e;
+        }
+
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (Task<List<String>> task : tasks) {
+            hashes.addAll(await(task));
+        }
+        return hashes;
+    }
+
+    private <T> T await(Task<T> task) {
+        try {
+            return task.get();
+        } catch (CancellationException e) {
+            // Dropped from the queue at shutdown; another instance can take the retry
+            throw overloaded(task.op);
+        } catch (InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password check", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void admit(Operation op) {
+        int limit = op == Operation.LOGIN ? loginLimit : totalLimit;
+        while (true) {
+            int current = pending.get();
+            if (current >= limit) {
+                throw overloaded(op);
+            }
+            if (pending.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    private ServiceOverloadedException overloaded(Operation op) {
+        rejected.get(op).increment();
+        return new ServiceOverloadedException("Server is busy, please try again shortly", retryAfterSeconds);
+    }
+
+    private <T> Callable<T> timed(Operation op, Supplier<T> work) {
+        Timer timer = workTimers.get(op);
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private final class Task<T> extends FutureTask<T> implements Comparable<Task<?>> {
+
+        private final Operation op;
+        private final long seq = sequence.getAndIncrement();
+        private final long enqueuedAt = System.nanoTime();
+
+        private Task(Operation op, Callable<T> work) {
+            super(work);
+            this.op = op;
+        }
+
+        @Override
+        public void run() {
+            try {
+                waitTimers.get(op).record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                // A task cancelled while queued returns straight away
+                super.run();
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+
+        // By operation priority, then first come first served
+        @Override
+        public int compareTo(Task<?> other) {
+            int byOp = Integer.compare(op.ordinal(), other.op.ordinal());
+            return byOp != 0 ? byOp : Long.compare(seq, other.seq);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Releases callers still waiting on queued work; those tasks never run, so they
+        // are taken off pending here
+        for (Runnable queued : pool.shutdownNow()) {
+            ((FutureTask<?>) queued).cancel(false);
+            pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.flightapp.authservice.service;
+
+import com.flightapp.authservice.dto.request.SignupRequest;
+import com.flightapp.authservice.dto.response.BulkSignupStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs bulk user provisioning in the background, so a large onboarding file neither
+ * holds a request open past the gateway timeout nor ties up a Tomcat thread.
+ *
+ * Jobs run one at a time on a single thread, in chunks of CHUNK_SIZE users; each chunk's
+ * passwords are hashed at bulk priority on the BCrypt pool (logins and signups go first)
+ * and written with one batched insert. Progress is kept in memory for a day.
+ */
+@Slf4j
+@Service
+public class UserProvisioningService {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    static final int CHUNK_SIZE = 500;
+    private static final Duration KEEP_FINISHED = Duration.ofDays(1);
+
+    private final UserService userService;
+    private final Executor executor;
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserProvisioningService(UserService userService) {
+        this(userService, Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "user-provisioning");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    UserProvisioningService(UserService userService, Executor executor) {
+        this.userService = userService;
+        this.executor = executor;
+    }
+
+    public BulkSignupStatus start(List<SignupRequest> users) {
+        pruneFinished();
+        Job job = new Job(UUID.randomUUID().toString(), List.copyOf(users));
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RuntimeException ex) {
+            job.fail(ex);
+        }
+        return job.toStatus();
+    }
+
+    public Optional<BulkSignupStatus> findStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toStatus);
+    }
+
+    private void run(Job job) {
+        job.state = RUNNING;
+        try {
+            for (int from = 0; from < job.users.size(); from += CHUNK_SIZE) {
+                List<SignupRequest> chunk = job.users.subList(from, Math.min(job.users.size(), from + CHUNK_SIZE));
+                List<String> skipped = userService.provisionUsers(chunk);
+                job.chunkDone(chunk.size(), skipped);
+            }
+            job.complete();
+            log.info("Provisioned {} of {} users", job.created, job.users.size());
+        } catch (RuntimeException ex) {
+            log.error("Bulk provisioning stopped after {} of {} users", job.created, job.users.size(), ex);
+            job.fail(ex);
+        }
+    }
+
+    private void pruneFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(KEEP_FINISHED);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final List<SignupRequest> users;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final List<String> skipped = new ArrayList<>();
+        private volatile int created;
+        private volatile String state = QUEUED;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, List<SignupRequest> users) {
+            this.id = id;
+            this.users = users;
+        }
+
+        private synchronized void chunkDone(int size, List<String> skippedInChunk) {
+            skipped.addAll(skippedInChunk);
+            created += size - skippedInChunk.size();
+        }
+
+        private void complete() {
+            finishedAt = LocalDateTime.now();
+            state = COMPLETED;
+        }
+
+        private void fail(RuntimeException ex) {
+            error = ex.getMessage();
+            finishedAt = LocalDateTime.now();
+            state = FAILED;
+        }
+
+        private synchronized BulkSignupStatus toStatus() {
+            return BulkSignupStatus.builder()
+                    .jobId(id)
+                    .state(state)
+                    .requested(users.size())
+                    .created(created)
+                    .skipped(List.copyOf(skipped))
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
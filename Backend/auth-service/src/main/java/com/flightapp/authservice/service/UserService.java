@@ -4,10 +4,14 @@ import com.flightapp.authservice.dto.response.*;
 import com.flightapp.authservice.dto.request.*;
 
 import com.flightapp.authservice.entity.User;
+import com.flightapp.authservice.repository.UserJdbcRepository;
 import com.flightapp.authservice.repository.UserRepository;
 import com.flightapp.authservice.security.JwtService;
+import com.flightapp.authservice.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,13 +19,17 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserJdbcRepository userJdbcRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
 
     // Password expiry period in days
@@ -32,20 +40,6 @@ public class UserService {
 
     public SignupResponse signup(SignupRequest request) {
 
-        // Check if username already exists
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Username already exists");
-        }
-
-        // Check if email already exists
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Email already exists");
-        }
-
         // Set default role as USER; only if correct secret is provided, mark as ADMIN
         String role = "USER";
         if (request.getAdminSecret() != null &&
@@ -57,16 +51,68 @@ public class UserService {
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(PasswordHasher.Operation.SIGNUP, request.getPassword()))
                 .role(role)
                 .passwordChangedAt(LocalDateTime.now()) // Set initial password change time
                 .build();
 
-        user = userRepository.save(user);
+        // Username and email uniqueness is left to the table's unique constraints, so a
+        // signup is a single INSERT and two racing signups cannot both succeed
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e);
+        }
 
         return new SignupResponse(user.getId(), user.getUsername(), user.getRole());
     }
 
+    // Maps a unique-constraint violation back to the field that was taken
+    private static RuntimeException duplicateUser(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        if (User.USERNAME_UNIQUE.equalsIgnoreCase(constraint)) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already exists");
+        }
+        if (User.EMAIL_UNIQUE.equalsIgnoreCase(constraint)) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already exists");
+        }
+        return e;
+    }
+
+    /**
+     * Creates USER accounts for one chunk of a bulk provisioning job (see
+     * UserProvisioningService). Passwords are hashed in parallel on the BCrypt pool and
+     * the rows are written with batched inserts. Returns the usernames that were skipped
+     * because their username or email was already taken, including earlier in the chunk.
+     */
+    public List<String> provisionUsers(List<SignupRequest> requests) {
+        List<String> hashes = passwordHasher.encodeAll(
+                requests.stream().map(SignupRequest::getPassword).toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            SignupRequest request = requests.get(i);
+            users.add(User.builder()
+                    .username(request.getUsername())
+                    .email(request.getEmail())
+                    .password(hashes.get(i))
+                    .role("USER")
+                    .passwordChangedAt(now)
+                    .build());
+        }
+
+        boolean[] inserted = userJdbcRepository.insertAll(users);
+        List<String> skipped = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (!inserted[i]) {
+                skipped.add(users.get(i).getUsername());
+            }
+        }
+        return skipped;
+    }
+
     public LoginResponse login(LoginRequest request) {
 
         // Fetch user by username
@@ -75,8 +121,8 @@ public class UserService {
                         HttpStatus.BAD_REQUEST,
                         "Invalid username or password"));
 
-        // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // Verify password (on the BCrypt pool, not this request thread)
+        if (!passwordHasher.matches(PasswordHasher.Operation.LOGIN, request.getPassword(), user.getPassword())) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     "Invalid username or password");
@@ -119,22 +165,27 @@ public class UserService {
                         HttpStatus.NOT_FOUND,
                         "User not found"));
 
-        // Verify current password matches
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Current password is incorrect");
-        }
+        // Both checks and the new hash run as one task on the BCrypt pool
+        String newPassword = passwordHasher.run(PasswordHasher.Operation.CHANGE_PASSWORD, () -> {
+            // Verify current password matches
+            if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Current password is incorrect");
+            }
 
-        // Ensure new password is different from current password
-        if (passwordEncoder.matches(request.getNewPassword(), user.getPassword())) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "New password must be different from current password");
-        }
+            // Ensure new password is different from current password
+            if (passwordEncoder.matches(request.getNewPassword(), user.getPassword())) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "New password must be different from current password");
+            }
+
+            return passwordEncoder.encode(request.getNewPassword());
+        });
 
-        // Encode new password and update passwordChangedAt
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        // Update the encoded password and passwordChangedAt
+        user.setPassword(newPassword);
         user.setPasswordChangedAt(LocalDateTime.now()); // Reset password change timestamp
         userRepository.save(user);
     }
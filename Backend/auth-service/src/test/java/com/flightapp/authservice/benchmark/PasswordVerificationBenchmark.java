@@ -0,0 +1,67 @@
+package com.flightapp.authservice.benchmark;
+
+import com.flightapp.authservice.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one BCrypt verification (a login) at different work factors, on the calling
+ * thread and through PasswordHasher with every core logging in at once. The
+ * all-cores figure is roughly the login throughput one instance can sustain.
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.authservice.benchmark.PasswordVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordVerificationBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHasher hasher;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+        // Queue large enough that the benchmark threads are never shed
+        hasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), 0, 1_024, 0, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.destroy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean matches_callingThread() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean matches_pool_allCores() {
+        return hasher.matches(PasswordHasher.Operation.LOGIN, PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
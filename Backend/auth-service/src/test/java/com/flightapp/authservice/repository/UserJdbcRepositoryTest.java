@@ -0,0 +1,63 @@
+package com.flightapp.authservice.repository;
+
+import com.flightapp.authservice.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class UserJdbcRepositoryTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertAll_mapsCountsAcrossBatches() {
+        List<User> users = users(502);
+        // ON CONFLICT DO NOTHING reports 0 for a row it skipped
+        int[] first = new int[500];
+        Arrays.fill(first, 1);
+        first[3] = 0;
+        when(jdbcTemplate.batchUpdate(anyString(), eq(users), eq(500), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{first, {0, 1}});
+
+        boolean[] inserted = new UserJdbcRepository(jdbcTemplate).insertAll(users);
+
+        assertEquals(502, inserted.length);
+        assertFalse(inserted[3]);
+        assertTrue(inserted[499]);
+        assertFalse(inserted[500]);
+        assertTrue(inserted[501]);
+    }
+
+    @Test
+    void insertAll_skipsConflictsInsteadOfFailing() {
+        List<User> users = users(2);
+        when(jdbcTemplate.batchUpdate(anyString(), eq(users), eq(500), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}});
+
+        new UserJdbcRepository(jdbcTemplate).insertAll(users);
+
+        verify(jdbcTemplate).batchUpdate(contains("ON CONFLICT DO NOTHING"), eq(users), eq(500),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static List<User> users(int n) {
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            users.add(User.builder().username("u" + i).email("u" + i + "@example.com")
+                    .password("hash").role("USER").build());
+        }
+        return users;
+    }
+}
@@ -0,0 +1,155 @@
+package com.flightapp.authservice.security;
+
+import com.flightapp.authservice.exception.GlobalExceptionHandler;
+import com.flightapp.authservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordingEncoder encoder = new RecordingEncoder();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.destroy();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void login_isServedBeforeQueuedBulkWork() throws Exception {
+        hasher = new PasswordHasher(encoder, registry, 1, 64, 16, 1);
+        CompletableFuture<String> blocker = occupyTheOnlyThread();
+
+        CompletableFuture<List<String>> bulk = call(() -> hasher.encodeAll(List.of("bulk-1", "bulk-2")));
+        awaitPending(2);
+        CompletableFuture<Boolean> login = call(() -> hasher.matches(PasswordHasher.Operation.LOGIN, "login", "hash"));
+        awaitPending(3);
+        release.countDown();
+
+        assertEquals("done", blocker.get(5, TimeUnit.SECONDS));
+        assertTrue(login.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("hash:bulk-1", "hash:bulk-2"), bulk.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("login", "bulk-1", "bulk-2"), encoder.calls);
+    }
+
+    @Test
+    void loginsOverTheLimit_areRejectedWith503() throws Exception {
+        // One thread and one queue slot: a running and a queued request fill it
+        hasher = new PasswordHasher(encoder, registry, 1, 1, 0, 7);
+        occupyTheOnlyThread();
+        call(() -> hasher.matches(PasswordHasher.Operation.LOGIN, "queued", "hash"));
+        awaitPending(2);
+
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                () -> hasher.matches(PasswordHasher.Operation.LOGIN, "shed", "hash"));
+        assertEquals(1.0, registry.get("auth.password.rejected").tag("operation", "login").counter().count());
+
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleOverloaded(ex);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse(encoder.calls.contains("shed"));
+    }
+
+    @Test
+    void signup_usesReservedCapacityWhenLoginsAreShed() throws Exception {
+        hasher = new PasswordHasher(encoder, registry, 1, 1, 1, 1);
+        occupyTheOnlyThread();
+        call(() -> hasher.matches(PasswordHasher.Operation.LOGIN, "queued", "hash"));
+        awaitPending(2);
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> hasher.matches(PasswordHasher.Operation.LOGIN, "shed", "hash"));
+        CompletableFuture<String> signup = call(() -> hasher.encode(PasswordHasher.Operation.SIGNUP, "signup"));
+        awaitPending(3);
+        release.countDown();
+
+        assertEquals("hash:signup", signup.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void destroy_releasesQueuedCallersAndRejectsNewWork() throws Exception {
+        hasher = new PasswordHasher(encoder, registry, 1, 64, 16, 1);
+        CompletableFuture<String> blocker = occupyTheOnlyThread();
+        CompletableFuture<Boolean> queued = call(() -> hasher.matches(PasswordHasher.Operation.LOGIN, "queued", "hash"));
+        awaitPending(2);
+
+        hasher.destroy();
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceOverloadedException.class, ex.getCause());
+        assertEquals("done", blocker.get(5, TimeUnit.SECONDS));
+        awaitPending(0);
+        assertThrows(ServiceOverloadedException.class,
+                () -> hasher.matches(PasswordHasher.Operation.LOGIN, "late", "hash"));
+        assertFalse(encoder.calls.contains("queued"));
+    }
+
+    // Holds the single BCrypt thread until release (or until interrupted by shutdown)
+    private CompletableFuture<String> occupyTheOnlyThread() throws InterruptedException {
+        CompletableFuture<String> blocker = call(() -> hasher.run(PasswordHasher.Operation.SIGNUP, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "done";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return blocker;
+    }
+
+    private <T> CompletableFuture<T> call(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, callers);
+    }
+
+    private void awaitPending(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("auth.password.pending").gauge().value() != expected) {
+            assertTrue(System.nanoTime() < deadline, "pending never reached " + expected);
+            Thread.sleep(5);
+        }
+    }
+
+    // Stands in for BCrypt and records the order passwords were processed in
+    private static final class RecordingEncoder implements PasswordEncoder {
+
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            calls.add(rawPassword.toString());
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            calls.add(rawPassword.toString());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.flightapp.authservice.service;
+
+import com.flightapp.authservice.dto.request.SignupRequest;
+import com.flightapp.authservice.dto.response.BulkSignupStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class UserProvisioningServiceTest {
+
+    @Mock
+    UserService userService;
+
+    @Test
+    void start_provisionsInChunksAndCountsSkipped() {
+        when(userService.provisionUsers(anyList()))
+                .thenReturn(List.of("u7"))
+                .thenReturn(List.of("u501"));
+
+        UserProvisioningService service = new UserProvisioningService(userService, Runnable::run);
+        String jobId = service.start(requests(502)).getJobId();
+
+        BulkSignupStatus status = service.findStatus(jobId).orElseThrow();
+        assertEquals(UserProvisioningService.COMPLETED, status.getState());
+        assertEquals(502, status.getRequested());
+        assertEquals(500, status.getCreated());
+        assertEquals(List.of("u7", "u501"), status.getSkipped());
+        assertNotNull(status.getFinishedAt());
+        verify(userService).provisionUsers(argThat(chunk -> chunk.size() == UserProvisioningService.CHUNK_SIZE));
+        verify(userService).provisionUsers(argThat(chunk -> chunk.size() == 2));
+    }
+
+    @Test
+    void start_returnsBeforeTheJobRuns() {
+        List<Runnable> queued = new ArrayList<>();
+        UserProvisioningService service = new UserProvisioningService(userService, queued::add);
+
+        BulkSignupStatus status = service.start(requests(3));
+
+        assertEquals(UserProvisioningService.QUEUED, status.getState());
+        verifyNoInteractions(userService);
+
+        when(userService.provisionUsers(anyList())).thenReturn(List.of());
+        queued.forEach(Runnable::run);
+        assertEquals(3, service.findStatus(status.getJobId()).orElseThrow().getCreated());
+    }
+
+    @Test
+    void start_failingChunk_keepsProgressAndFails() {
+        when(userService.provisionUsers(anyList()))
+                .thenReturn(List.of())
+                .thenThrow(new IllegalStateException("database down"));
+
+        UserProvisioningService service = new UserProvisioningService(userService, Runnable::run);
+        BulkSignupStatus status = service.findStatus(service.start(requests(600)).getJobId()).orElseThrow();
+
+        assertEquals(UserProvisioningService.FAILED, status.getState());
+        assertEquals(500, status.getCreated());
+        assertEquals("database down", status.getError());
+    }
+
+    @Test
+    void start_executorRejects_jobFails() {
+        Executor rejecting = r -> {
+            throw new RejectedExecutionException("shut down");
+        };
+
+        BulkSignupStatus status = new UserProvisioningService(userService, rejecting).start(requests(1));
+
+        assertEquals(UserProvisioningService.FAILED, status.getState());
+    }
+
+    @Test
+    void findStatus_unknownJob_isEmpty() {
+        assertTrue(new UserProvisioningService(userService, Runnable::run).findStatus("nope").isEmpty());
+    }
+
+    private static List<SignupRequest> requests(int n) {
+        List<SignupRequest> requests = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            SignupRequest request = new SignupRequest();
+            request.setUsername("u" + i);
+            request.setEmail("u" + i + "@example.com");
+            request.setPassword("pw");
+            requests.add(request);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,122 @@
+package com.flightapp.authservice.service;
+
+import com.flightapp.authservice.dto.request.SignupRequest;
+import com.flightapp.authservice.entity.User;
+import com.flightapp.authservice.repository.UserJdbcRepository;
+import com.flightapp.authservice.repository.UserRepository;
+import com.flightapp.authservice.security.JwtService;
+import com.flightapp.authservice.security.PasswordHasher;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    UserJdbcRepository userJdbcRepository;
+
+    @Mock
+    PasswordEncoder passwordEncoder;
+
+    @Mock
+    PasswordHasher passwordHasher;
+
+    @Mock
+    JwtService jwtService;
+
+    @InjectMocks
+    UserService userService;
+
+    @Test
+    void signup_usernameTaken_reportsUsername() {
+        when(userRepository.saveAndFlush(any())).thenThrow(violation(User.USERNAME_UNIQUE));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> userService.signup(request("alice")));
+        assertEquals("Username already exists", ex.getReason());
+    }
+
+    @Test
+    void signup_emailTaken_reportsEmail() {
+        when(userRepository.saveAndFlush(any())).thenThrow(violation(User.EMAIL_UNIQUE));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> userService.signup(request("alice")));
+        assertEquals("Email already exists", ex.getReason());
+    }
+
+    @Test
+    void signup_otherViolation_isRethrown() {
+        // e.g. a NOT NULL column: not the client's fault, so not a 400
+        DataIntegrityViolationException violation = violation("users_role_check");
+        when(userRepository.saveAndFlush(any())).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> userService.signup(request("alice"))));
+    }
+
+    @Test
+    void signup_violationWithoutConstraintName_isRethrown() {
+        when(userRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("Key (username)=(alice) already exists"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.signup(request("alice")));
+    }
+
+    @Test
+    void provisionUsers_returnsUsernamesTheInsertSkipped() {
+        when(passwordHasher.encodeAll(anyList())).thenReturn(List.of("h1", "h2", "h3"));
+        when(userJdbcRepository.insertAll(anyList())).thenReturn(new boolean[]{true, false, true});
+
+        List<String> skipped = userService.provisionUsers(List.of(request("a"), request("b"), request("c")));
+
+        assertEquals(List.of("b"), skipped);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void provisionUsers_insertsUsersWithTheirOwnHashes() {
+        when(passwordHasher.encodeAll(List.of("a-pw", "b-pw"))).thenReturn(List.of("h1", "h2"));
+        when(userJdbcRepository.insertAll(anyList())).thenReturn(new boolean[]{true, true});
+
+        assertTrue(userService.provisionUsers(List.of(request("a"), request("b"))).isEmpty());
+
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(userJdbcRepository).insertAll(users.capture());
+        assertEquals("a", users.getValue().get(0).getUsername());
+        assertEquals("h1", users.getValue().get(0).getPassword());
+        assertEquals("h2", users.getValue().get(1).getPassword());
+        assertEquals("USER", users.getValue().get(1).getRole());
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"), constraint));
+    }
+
+    private static SignupRequest request(String username) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword(username + "-pw");
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.flightapp.bookingservice.cache;
+
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Bounded local copy of flight details, kept current by the change events flight-service
+ * publishes on flight_events_exchange and by every successful getFlightById.
+ *
+ * A snapshot younger than booking.flight-snapshot.fresh-seconds is used in place of a
+ * remote lookup for data that rarely changes, such as the departure time checked on
+ * cancellation. Older snapshots are kept (up to stale-seconds) only as a fallback while
+ * flight-service is unreachable. Seat counts read from here are never used to decide a
+ * booking; flight-service checks seats itself in reduceSeats.
+ */
+@Component
+public class FlightSnapshotCache {
+
+    private record Snapshot(FlightResponse flight, Instant takenAt) {
+    }
+
+    private final Cache<Integer, Snapshot> snapshots;
+    private final Duration freshFor;
+    private final Clock clock;
+
+    private final Counter freshReads;
+    private final Counter staleReads;
+
+    public FlightSnapshotCache(
+            MeterRegistry registry,
+            @Value("${booking.flight-snapshot.max-entries:10000}") long maxEntries,
+            @Value("${booking.flight-snapshot.fresh-seconds:600}") long freshSeconds,
+            @Value("${booking.flight-snapshot.stale-seconds:86400}") long staleSeconds) {
+        this(registry, maxEntries, freshSeconds, staleSeconds, Clock.systemUTC());
+    }
+
+    FlightSnapshotCache(MeterRegistry registry, long maxEntries, long freshSeconds, long staleSeconds, Clock clock) {
+        this.freshFor = Duration.ofSeconds(freshSeconds);
+        this.clock = clock;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(staleSeconds))
+                .build();
+        this.freshReads = readCounter(registry, "fresh");
+        this.staleReads = readCounter(registry, "stale");
+        registry.gauge("booking.flight.snapshots.size", snapshots, Cache::estimatedSize);
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String kind) {
+        return Counter.builder("booking.flight.snapshot.reads")
+                .description("Flight details served from the local snapshot cache")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    public void put(FlightResponse flight) {
+        if (flight != null && flight.getId() != null) {
+            snapshots.put(flight.getId(), new Snapshot(flight, clock.instant()));
+        }
+    }
+
+    public void evict(Integer flightId) {
+        snapshots.invalidate(flightId);
+    }
+
+    // Snapshot recent enough to be used instead of asking flight-service
+    public Optional<FlightResponse> getFresh(Integer flightId) {
+        Snapshot snapshot = snapshots.getIfPresent(flightId);
+        if (snapshot == null || snapshot.takenAt().plus(freshFor).isBefore(clock.instant())) {
+            return Optional.empty();
+        }
+        freshReads.increment();
+        return Optional.of(snapshot.flight());
+    }
+
+    // Any snapshot still held, for use only when flight-service cannot be reached
+    public Optional<FlightResponse> getStale(Integer flightId) {
+        Snapshot snapshot = snapshots.getIfPresent(flightId);
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        staleReads.increment();
+        return Optional.of(snapshot.flight());
+    }
+}
@@ -0,0 +1,70 @@
+package com.flightapp.bookingservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schema changes that ddl-auto=update cannot make on an existing database: it adds
+ * tables, columns and indexes but never drops or alters what is already there.
+ *
+ * Runs once Hibernate has updated the schema and before the application takes traffic.
+ * Every step is idempotent, so it is safe on each startup and on every instance.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class BookingSchemaMigration {
+
+    // A group booking stores one row per passenger under the same PNR, so the single-column
+    // unique constraint that older versions created on bookings.pnr has to go
+    private static final String DROP_PNR_UNIQUE =
+            "DO $$ DECLARE c record; BEGIN " +
+                    "FOR c IN SELECT con.conname FROM pg_constraint con " +
+                    "JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1] " +
+                    "WHERE con.conrelid = 'bookings'::regclass AND con.contype = 'u' " +
+                    "AND cardinality(con.conkey) = 1 AND att.attname = 'pnr' LOOP " +
+                    "EXECUTE format('ALTER TABLE bookings DROP CONSTRAINT %I', c.conname); " +
+                    "END LOOP; END $$";
+
+    // The database guard on PNRs now that bookings.pnr is shared by a group: every PNR handed
+    // out claims one row here first. Created (and filled from existing bookings) only once
+    public static final String BOOKING_PNRS_TABLE = "booking_pnrs";
+    private static final String CREATE_BOOKING_PNRS =
+            "DO $$ BEGIN " +
+                    "IF to_regclass('" + BOOKING_PNRS_TABLE + "') IS NULL THEN " +
+                    "CREATE TABLE " + BOOKING_PNRS_TABLE + " (pnr varchar(255) PRIMARY KEY, " +
+                    "created_at timestamp NOT NULL DEFAULT now()); " +
+                    "INSERT INTO " + BOOKING_PNRS_TABLE + " (pnr) SELECT DISTINCT pnr FROM bookings; " +
+                    "END IF; END $$";
+
+    // At most one live booking per seat, so two requests racing for the same seat cannot
+    // both commit; the loser gets a unique violation, answered as a seat conflict
+    public static final String BOOKED_SEAT_INDEX = "uq_bookings_booked_seat";
+    private static final String CREATE_BOOKED_SEAT_INDEX =
+            "CREATE UNIQUE INDEX IF NOT EXISTS " + BOOKED_SEAT_INDEX + " ON bookings (flight_id, seat_number) " +
+                    "WHERE status = 'BOOKED' AND seat_number <> ''";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        jdbcTemplate.execute(DROP_PNR_UNIQUE);
+        jdbcTemplate.execute(CREATE_BOOKING_PNRS);
+        try {
+            jdbcTemplate.execute(CREATE_BOOKED_SEAT_INDEX);
+        } catch (DataAccessException ex) {
+            // Seats double-booked before the index existed; they have to be resolved by hand.
+            // Group and auto-seat bookings rely on the index to reject a taken seat, so the
+            // service does not start without it
+            throw new IllegalStateException("Could not create " + BOOKED_SEAT_INDEX + "; cancel the duplicate " +
+                    "BOOKED seats and restart: " + ex.getMostSpecificCause().getMessage(), ex);
+        }
+        log.info("Booking schema is up to date");
+    }
+}
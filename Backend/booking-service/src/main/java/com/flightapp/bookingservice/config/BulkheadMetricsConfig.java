@@ -0,0 +1,28 @@
+package com.flightapp.bookingservice.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts bulkhead rejections as booking.bulkhead.rejected{name=...}. resilience4j only
+ * publishes the available and maximum concurrent calls for bulkheads.
+ */
+@Configuration
+public class BulkheadMetricsConfig {
+
+    public BulkheadMetricsConfig(BulkheadRegistry bulkheads, MeterRegistry meters) {
+        bulkheads.getAllBulkheads().forEach(b -> countRejections(b, meters));
+        bulkheads.getEventPublisher().onEntryAdded(e -> countRejections(e.getAddedEntry(), meters));
+    }
+
+    private static void countRejections(Bulkhead bulkhead, MeterRegistry meters) {
+        Counter rejected = Counter.builder("booking.bulkhead.rejected")
+                .description("Requests turned away because the bulkhead was full")
+                .tag("name", bulkhead.getName())
+                .register(meters);
+        bulkhead.getEventPublisher().onCallRejected(e -> rejected.increment());
+    }
+}
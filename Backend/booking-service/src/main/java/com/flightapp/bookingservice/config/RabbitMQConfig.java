@@ -1,6 +1,9 @@
 package com.flightapp.bookingservice.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.producer.BookingNotificationConverter;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,6 +14,16 @@ public class RabbitMQConfig {
     public static final String EXCHANGE = "booking_exchange";
     public static final String ROUTING_KEY = "booking_routing_key";
 
+    // Consumed by flight-service, which gives the seats back
+    public static final String SEAT_RELEASE_QUEUE = "seat_release_queue";
+    public static final String SEAT_RELEASE_ROUTING_KEY = "seat_release_routing_key";
+
+    // Published by flight-service; every booking-service instance gets its own copy
+    public static final String FLIGHT_EVENTS_EXCHANGE = "flight_events_exchange";
+
+    // Booking lifecycle events, fanned out to every booking-service instance's read model
+    public static final String BOOKING_EVENTS_EXCHANGE = "booking_events_exchange";
+
     @Bean
     public Queue queue() {
         return new Queue(QUEUE);
@@ -25,4 +38,51 @@ public class RabbitMQConfig {
     public Binding binding(Queue queue, DirectExchange exchange) {
         return BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY);
     }
+
+    @Bean
+    public Queue seatReleaseQueue() {
+        return new Queue(SEAT_RELEASE_QUEUE);
+    }
+
+    @Bean
+    public Binding seatReleaseBinding() {
+        return BindingBuilder.bind(seatReleaseQueue()).to(exchange()).with(SEAT_RELEASE_ROUTING_KEY);
+    }
+
+    @Bean
+    public FanoutExchange flightEventsExchange() {
+        return new FanoutExchange(FLIGHT_EVENTS_EXCHANGE);
+    }
+
+    // Server-named, auto-delete queue: removed when this instance disconnects
+    @Bean
+    public AnonymousQueue flightEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding flightEventsBinding() {
+        return BindingBuilder.bind(flightEventsQueue()).to(flightEventsExchange());
+    }
+
+    @Bean
+    public FanoutExchange bookingEventsExchange() {
+        return new FanoutExchange(BOOKING_EVENTS_EXCHANGE);
+    }
+
+    @Bean
+    public AnonymousQueue bookingEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bookingEventsBinding() {
+        return BindingBuilder.bind(bookingEventsQueue()).to(bookingEventsExchange());
+    }
+
+    // Picked up by the auto-configured RabbitTemplate; Strings are still sent as text
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        return new BookingNotificationConverter(objectMapper);
+    }
 }
@@ -0,0 +1,65 @@
+package com.flightapp.bookingservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * booking.pnr.single-instance lets the service start without a PNR node id, which is only
+ * safe while it is the sole booking-service instance. On startup this refuses to run when
+ * the registry already lists another one; an instance started later sees this one and
+ * refuses in turn. The booking_pnrs table still rejects any duplicate that slips through.
+ */
+@Slf4j
+@Component
+public class SingleInstanceCheck {
+
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final String serviceId;
+    private final boolean singleInstance;
+    private final boolean nodeIdSet;
+
+    public SingleInstanceCheck(DiscoveryClient discoveryClient,
+                               ObjectProvider<Registration> registration,
+                               @Value("${spring.application.name}") String serviceId,
+                               @Value("${booking.pnr.single-instance:false}") boolean singleInstance,
+                               @Value("${booking.pnr.node-id:}") String nodeId) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.serviceId = serviceId;
+        this.singleInstance = singleInstance;
+        this.nodeIdSet = nodeId != null && !nodeId.isBlank();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        if (!singleInstance || nodeIdSet) {
+            return;
+        }
+        Registration self = registration.getIfAvailable();
+        List<String> others = discoveryClient.getInstances(serviceId).stream()
+                .filter(i -> self == null || !sameInstance(i, self))
+                .map(i -> i.getHost() + ":" + i.getPort())
+                .toList();
+        if (!others.isEmpty()) {
+            // Thrown from a ready listener, this stops the application
+            throw new IllegalStateException("booking.pnr.single-instance is set but other " + serviceId +
+                    " instances are registered (" + String.join(", ", others) + "); give every instance " +
+                    "its own booking.pnr.node-id (BOOKING_NODE_ID) instead");
+        }
+        log.info("Running as the only {} instance, PNR node id 0", serviceId);
+    }
+
+    private static boolean sameInstance(ServiceInstance instance, Registration self) {
+        return instance.getHost().equals(self.getHost()) && instance.getPort() == self.getPort();
+    }
+}
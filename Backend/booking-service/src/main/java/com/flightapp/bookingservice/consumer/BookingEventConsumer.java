@@ -0,0 +1,30 @@
+package com.flightapp.bookingservice.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingEventConsumer {
+
+    private final BookingReadModel readModel;
+    private final ObjectMapper objectMapper;
+
+    @RabbitListener(queues = "#{bookingEventsQueue.name}")
+    public void onBookingEvent(Message message) {
+        try {
+            readModel.apply(objectMapper.readValue(message.getBody(), BookingLifecycleEvent.class));
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable booking event: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.flightapp.bookingservice.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.cache.FlightSnapshotCache;
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlightEventConsumer {
+
+    private final FlightSnapshotCache snapshots;
+    private final BookingReadModel readModel;
+    private final ObjectMapper objectMapper;
+
+    // Body is parsed by hand: the service's BookingNotificationConverter only maps
+    // BookingNotification and would hand any other payload over as plain text
+    @RabbitListener(queues = "#{flightEventsQueue.name}")
+    public void onFlightChanged(Message message) {
+        try {
+            FlightResponse flight = objectMapper.readValue(message.getBody(), FlightResponse.class);
+            snapshots.put(flight);
+            readModel.flightChanged(flight);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable flight change event: {}", ex.getMessage());
+        }
+    }
+}
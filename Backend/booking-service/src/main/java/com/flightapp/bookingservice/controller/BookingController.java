@@ -1,9 +1,14 @@
 package com.flightapp.bookingservice.controller;
 
 import com.flightapp.bookingservice.dto.request.BookingRequest;
+import com.flightapp.bookingservice.dto.request.GroupBookingRequest;
 import com.flightapp.bookingservice.dto.response.BookingResponse;
+import com.flightapp.bookingservice.dto.response.BookingSummary;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
 import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.exception.BookingInvalidException;
 import com.flightapp.bookingservice.service.BookingService;
+import com.flightapp.bookingservice.service.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -11,25 +16,64 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
 public class BookingController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String NEXT_PAGE_HEADER = "X-Next-Before-Id";
+
     private final BookingService service;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ResponseEntity<BookingResponse> bookTicket(@Valid @RequestBody BookingRequest request) {
+    public ResponseEntity<BookingResponse> bookTicket(
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        // Without a key every POST is a new booking, as before
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(book(request));
+        }
+
+        if (idempotencyKey.length() > 100) {
+            throw new BookingInvalidException("Idempotency-Key must be at most 100 characters");
+        }
+
+        // Retries with the same key get the first result back
+        BookingResponse response = idempotencyService.execute(idempotencyKey, request, () -> book(request));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    // Several passengers under one PNR, all or nothing
+    @PostMapping("/group")
+    public ResponseEntity<GroupBookingResponse> bookGroup(@Valid @RequestBody GroupBookingRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.bookGroup(request));
+    }
+
+    private BookingResponse book(BookingRequest request) {
         Booking booking = service.bookTicket(request); // PNR is already set
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new BookingResponse(booking.getId(), booking.getPnr()));
+        return new BookingResponse(booking.getId(), booking.getPnr());
     }
 
+    // Newest bookings first. When more are available, X-Next-Before-Id holds the
+    // beforeId to pass for the next (older) page: rows with a lower id than it.
     @GetMapping("/email/{email}")
-    public ResponseEntity<List<Booking>> getByEmail(@PathVariable String email) {
-        return ResponseEntity.ok(service.getBookingsByEmail(email));
+    public ResponseEntity<List<BookingSummary>> getByEmail(
+            @PathVariable String email,
+            @RequestParam(required = false) Integer beforeId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeFlights) {
+
+        List<BookingSummary> page = service.getBookingsByEmail(email, beforeId, size, includeFlights);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() >= Math.min(size, BookingService.MAX_HISTORY_PAGE_SIZE)) {
+            response.header(NEXT_PAGE_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
     }
 
     @GetMapping("/id/{id}")
@@ -53,4 +97,9 @@ public class BookingController {
     public ResponseEntity<List<String>> getBookedSeats(@PathVariable Integer flightId) {
         return ResponseEntity.ok(service.getBookedSeats(flightId));
     }
+
+    @GetMapping("/flight/{flightId}/booked-count")
+    public ResponseEntity<Integer> getBookedCount(@PathVariable Integer flightId) {
+        return ResponseEntity.ok(service.getBookedCount(flightId));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.flightapp.bookingservice.controller;
+
+import com.flightapp.bookingservice.exception.BookingInvalidException;
+import com.flightapp.bookingservice.export.BookingExporter;
+import com.flightapp.bookingservice.export.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Full booking exports for finance and ops (ADMIN only at the gateway)
+@RestController
+@RequestMapping("/bookings/admin")
+@RequiredArgsConstructor
+public class BookingExportController {
+
+    private final BookingExporter exporter;
+
+    // from and to are booking dates, both inclusive; gzip=true returns a .gz file
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Integer flightId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BookingInvalidException("from must not be after to");
+        }
+        ExportFormat exportFormat = parseFormat(format);
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        String filename = "bookings." + exportFormat.extension() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8");
+
+        StreamingResponseBody body = out -> exporter.export(flightId, fromTime, toTime, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private static ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BookingInvalidException("format must be csv or ndjson");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.flightapp.bookingservice.controller;
+
+import com.flightapp.bookingservice.dto.response.BulkCancellationStatus;
+import com.flightapp.bookingservice.service.BulkCancellationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+// Airline-side cancellation of whole flights (ADMIN only at the gateway)
+@RestController
+@RequestMapping("/bookings")
+@RequiredArgsConstructor
+public class BulkCancellationController {
+
+    private final BulkCancellationService service;
+
+    // Runs in the background; poll the Location for progress
+    @PostMapping("/flight/{flightId}/cancel-all")
+    public ResponseEntity<BulkCancellationStatus> cancelAllForFlight(@PathVariable Integer flightId) {
+        BulkCancellationStatus status = service.cancelAllForFlight(flightId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/bookings/bulk-cancellations/" + status.getJobId()))
+                .body(status);
+    }
+
+    @GetMapping("/bulk-cancellations/{jobId}")
+    public ResponseEntity<BulkCancellationStatus> getStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(service.getStatus(jobId));
+    }
+}
@@ -0,0 +1,32 @@
+package com.flightapp.bookingservice.controller;
+
+import com.flightapp.bookingservice.dto.request.AutoSeatGroupRequest;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
+import com.flightapp.bookingservice.service.SeatAllocationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Group bookings where the service picks adjacent seats
+@RestController
+@RequestMapping("/bookings")
+@RequiredArgsConstructor
+public class SeatAllocationController {
+
+    private final SeatAllocationService service;
+
+    @PostMapping("/group/auto-seat")
+    public ResponseEntity<GroupBookingResponse> bookWithAutoSeats(@Valid @RequestBody AutoSeatGroupRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.bookWithAutoSeats(request));
+    }
+
+    // Preview of the seats a group would get; nothing is held
+    @GetMapping("/flight/{flightId}/seats/suggest")
+    public ResponseEntity<List<String>> suggest(@PathVariable Integer flightId, @RequestParam int count) {
+        return ResponseEntity.ok(service.suggest(flightId, count));
+    }
+}
@@ -0,0 +1,23 @@
+package com.flightapp.bookingservice.controller;
+
+import com.flightapp.bookingservice.dto.response.FlightSeatSummary;
+import com.flightapp.bookingservice.service.SeatSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/bookings")
+@RequiredArgsConstructor
+public class SeatSummaryController {
+
+    private final SeatSummaryService service;
+
+    // e.g. /bookings/flights/seat-summary?flightIds=3,7,9, in the order given
+    @GetMapping("/flights/seat-summary")
+    public ResponseEntity<List<FlightSeatSummary>> getSeatSummaries(@RequestParam List<Integer> flightIds) {
+        return ResponseEntity.ok(service.getSeatSummaries(flightIds));
+    }
+}
@@ -0,0 +1,106 @@
+package com.flightapp.bookingservice.dto.event;
+
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.entity.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Booking notification sent to email-service on booking_email_queue, one per PNR.
+ *
+ * Sent as JSON with content type {@link #CONTENT_TYPE}; email-service keeps its own copy
+ * of this class. Schema rules, so either side can be deployed first:
+ * - fields are only added, never renamed, retyped or given a new meaning;
+ * - readers ignore fields they do not know and treat missing fields as null;
+ * - a change that breaks these rules bumps {@link #CURRENT_VERSION}; consumers that
+ *   understand the new version are deployed before the producer starts sending it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingNotification {
+
+    public static final String CONTENT_TYPE = "application/vnd.flightapp.booking-notification+json";
+    public static final int CURRENT_VERSION = 1;
+
+    public enum Type {
+        CONFIRMED,
+        CANCELLED
+    }
+
+    @Builder.Default
+    private int version = CURRENT_VERSION;
+    private Type type;
+    private Instant occurredAt;
+    private String pnr;
+    // The bookings this event is about; several cancellations can share one PNR
+    private List<Integer> bookingIds;
+    private String email;
+    private List<Passenger> passengers;
+    private int tickets;
+    private FlightInfo flight;
+    private BigDecimal totalAmount;
+    private String reason;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Passenger {
+        private String name;
+        private String seatNumber;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FlightInfo {
+        private Integer id;
+        private String flightNumber;
+        private String fromCity;
+        private String toCity;
+        private LocalDateTime departureTime;
+        private LocalDateTime arrivalTime;
+    }
+
+    // bookings share one PNR; flight may be null when its details are not at hand
+    public static BookingNotification confirmed(List<Booking> bookings, FlightResponse flight) {
+        return of(Type.CONFIRMED, bookings, flight, null);
+    }
+
+    public static BookingNotification cancelled(List<Booking> bookings, FlightResponse flight, String reason) {
+        return of(Type.CANCELLED, bookings, flight, reason);
+    }
+
+    private static BookingNotification of(Type type, List<Booking> bookings, FlightResponse flight, String reason) {
+        Booking lead = bookings.get(0);
+        int tickets = bookings.stream()
+                .mapToInt(b -> b.getNumberOfTickets() != null ? b.getNumberOfTickets() : 1)
+                .sum();
+        return BookingNotification.builder()
+                .type(type)
+                .occurredAt(Instant.now())
+                .pnr(lead.getPnr())
+                .bookingIds(bookings.stream().map(Booking::getId).filter(Objects::nonNull).toList())
+                .email(lead.getEmail())
+                .passengers(bookings.stream()
+                        .map(b -> new Passenger(b.getPassengerName(), b.getSeatNumber()))
+                        .toList())
+                .tickets(tickets)
+                .flight(flight == null ? null : new FlightInfo(flight.getId(), flight.getFlightNumber(),
+                        flight.getFromCity(), flight.getToCity(), flight.getDepartureTime(), flight.getArrivalTime()))
+                .totalAmount(flight == null || flight.getCost() == null ? null
+                        : flight.getCost().multiply(BigDecimal.valueOf(tickets)).setScale(2, RoundingMode.HALF_UP))
+                .reason(reason)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.flightapp.bookingservice.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Seats handed back to flight-service when a booking is cancelled, or rolled back after
+// flight-service had already taken them.
+// bookingId makes redelivery and repeated cancels harmless on the consumer side.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReleaseEvent {
+    private Integer bookingId;
+    private Integer flightId;
+    private Integer seats;
+}
@@ -0,0 +1,28 @@
+package com.flightapp.bookingservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+
+// Several passengers on one flight, booked together under one PNR
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupBookingRequest {
+
+    @NotNull(message = "flightId is required")
+    private Integer flightId;
+
+    @Email(message = "Invalid email")
+    @NotBlank(message = "Email is required")
+    private String email;
+
+    @Valid
+    @NotEmpty(message = "At least one passenger is required")
+    @Size(max = 50, message = "At most 50 passengers per group booking")
+    private List<PassengerRequest> passengers;
+}
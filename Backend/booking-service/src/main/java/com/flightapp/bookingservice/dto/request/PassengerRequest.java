@@ -0,0 +1,31 @@
+package com.flightapp.bookingservice.dto.request;
+
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.enums.MEAL;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+// One traveller of a group booking
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PassengerRequest {
+
+    @NotBlank(message = "Passenger name is required")
+    private String passengerName;
+
+    @NotNull(message = "Age is required")
+    @Min(value = 1, message = "Age must be greater than 0")
+    private Integer age;
+
+    @NotNull(message = "Gender is required")
+    private GENDER gender;
+
+    @NotNull(message = "Meal is required")
+    private MEAL meal;
+
+    @NotBlank(message = "Seat number is required")
+    private String seatNumber;
+}
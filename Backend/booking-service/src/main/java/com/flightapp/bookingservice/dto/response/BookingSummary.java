@@ -0,0 +1,36 @@
+package com.flightapp.bookingservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.flightapp.bookingservice.enums.MEAL;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Row of the booking history screen, selected directly by BookingRepository.findHistoryPage
+@Data
+@NoArgsConstructor
+public class BookingSummary {
+    private Integer id;
+    private Integer flightId;
+    private String passengerName;
+    private MEAL meal;
+    private Integer numberOfTickets;
+    private String seatNumber;
+    private String status;
+    private String pnr;
+
+    // Only filled when the caller asks for flight details
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private FlightResponse flight;
+
+    public BookingSummary(Integer id, Integer flightId, String passengerName, MEAL meal,
+                          Integer numberOfTickets, String seatNumber, String status, String pnr) {
+        this.id = id;
+        this.flightId = flightId;
+        this.passengerName = passengerName;
+        this.meal = meal;
+        this.numberOfTickets = numberOfTickets;
+        this.seatNumber = seatNumber;
+        this.status = status;
+        this.pnr = pnr;
+    }
+}
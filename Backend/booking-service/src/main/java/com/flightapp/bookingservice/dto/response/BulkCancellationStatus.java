@@ -0,0 +1,24 @@
+package com.flightapp.bookingservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Progress of a "cancel every booking on this flight" job
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCancellationStatus {
+    private String jobId;
+    private Integer flightId;
+    private String state; // RUNNING / COMPLETED / FAILED
+    private long cancelled;
+    private long notified;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -1,6 +1,8 @@
 package com.flightapp.bookingservice.dto.response;
 
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -11,6 +13,21 @@ public class FlightResponse {
     private String toCity;
     private LocalDateTime departureTime;
     private LocalDateTime arrivalTime;
-    private float cost;
+    // Read straight from the JSON text, so 5999.99 stays 5999.99 (a float would not)
+    private BigDecimal cost;
     private Integer seatsAvailable;
+
+    // Independent instance for a caller, so a cached or shared one is never changed
+    public FlightResponse copy() {
+        FlightResponse copy = new FlightResponse();
+        copy.setId(id);
+        copy.setFlightNumber(flightNumber);
+        copy.setFromCity(fromCity);
+        copy.setToCity(toCity);
+        copy.setDepartureTime(departureTime);
+        copy.setArrivalTime(arrivalTime);
+        copy.setCost(cost);
+        copy.setSeatsAvailable(seatsAvailable);
+        return copy;
+    }
 }
@@ -0,0 +1,17 @@
+package com.flightapp.bookingservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Booked tickets and seat map of one flight. seatBitmap is base64; seat n is taken
+// when bit (n-1) % 8 of byte (n-1) / 8 is set.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSeatSummary {
+    private Integer flightId;
+    private int bookedCount;
+    private int totalSeats;
+    private String seatBitmap;
+}
@@ -0,0 +1,13 @@
+package com.flightapp.bookingservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class GroupBookingResponse {
+    private String pnr;
+    private List<String> seats;
+}
@@ -4,13 +4,23 @@ import com.flightapp.bookingservice.enums.GENDER;
 import com.flightapp.bookingservice.enums.MEAL;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_email_id", columnList = "email, id"),
+        @Index(name = "idx_bookings_pnr", columnList = "pnr"),
+        @Index(name = "idx_bookings_flight_id_id", columnList = "flightId, id"),
+        @Index(name = "idx_bookings_created_at", columnList = "createdAt"),
+        @Index(name = "idx_bookings_updated_at", columnList = "updatedAt")
+})
 public class Booking {
 
     @Id
@@ -35,7 +45,25 @@ public class Booking {
 
     private String status; // BOOKED / CANCELLED
 
-    @Column(unique = true, nullable = false)
+    // Shared by all passengers of a group booking, so not unique; BookingSchemaMigration
+    // drops the unique constraint that databases created by older versions still have
+    @Column(nullable = false)
     private String pnr;
 
+    // Bumped on every status change, so consumers of booking events can drop ones older
+    // than what they have already applied. Not a JPA @Version: rows created before this
+    // column existed have none, and read as 0.
+    @Builder.Default
+    private Long version = 0L;
+
+    // Set once on insert; rows created before this column existed have none
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    // Set on insert and on every change, so the read model can catch up on changed rows
+    // only; rows last changed before this column existed have none
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
 }
@@ -0,0 +1,40 @@
+package com.flightapp.bookingservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Result of the first POST /bookings made with a given Idempotency-Key.
+// A row without a pnr is a claim held by a request that is still running; its expiresAt is
+// pushed forward by a heartbeat while that request runs.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 100)
+    private String idempotencyKey;
+
+    private Integer bookingId;
+
+    private String pnr;
+
+    // SHA-256 (hex) of the request body the key was first used with
+    @Column(length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isCompleted() {
+        return pnr != null;
+    }
+}
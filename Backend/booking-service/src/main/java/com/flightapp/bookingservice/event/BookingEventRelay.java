@@ -0,0 +1,60 @@
+package com.flightapp.bookingservice.event;
+
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.event.SeatReleaseEvent;
+import com.flightapp.bookingservice.producer.RabbitMQProducer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards committed booking lifecycle events to booking_events_exchange, so the read
+ * model on every instance sees bookings made on any of them. Best effort: an event lost
+ * here is picked up by the read model's next rebuild from the database.
+ *
+ * Also sends the messages that must wait for a booking transaction to finish: booking
+ * emails once it commits, and seat releases for seats reduced in a transaction that
+ * then rolled back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingEventRelay {
+
+    private final RabbitMQProducer producer;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingLifecycleEvent event) {
+        try {
+            producer.sendBookingEvent(event);
+        } catch (AmqpException ex) {
+            log.warn("Could not publish {} event for booking {}: {}", event.type(), event.bookingId(), ex.getMessage());
+        }
+    }
+
+    // Never emails a booking that did not commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingNotification(BookingNotification notification) {
+        try {
+            producer.sendBookingNotification(notification);
+        } catch (AmqpException ex) {
+            log.error("Booking {} committed but its {} email could not be queued: {}",
+                    notification.getPnr(), notification.getType(), ex.getMessage());
+        }
+    }
+
+    // Published once flight-service has taken the seats; only acted on if the booking is then rolled back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onSeatsReducedThenRolledBack(SeatReleaseEvent release) {
+        log.warn("Booking on flight {} rolled back after taking {} seats, releasing them",
+                release.getFlightId(), release.getSeats());
+        try {
+            producer.sendSeatRelease(release);
+        } catch (AmqpException ex) {
+            log.error("Could not release {} seats on flight {}: {}", release.getSeats(), release.getFlightId(), ex.getMessage());
+        }
+    }
+}
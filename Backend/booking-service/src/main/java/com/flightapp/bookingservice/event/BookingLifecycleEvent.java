@@ -0,0 +1,46 @@
+package com.flightapp.bookingservice.event;
+
+import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.enums.MEAL;
+
+/**
+ * Something that happened to a booking, with the booking as it was right after.
+ * Published in-process by the booking services; the journal and read models consume it.
+ * version is the booking row's version after the change: of two events for the same
+ * booking, the one with the lower version is stale.
+ */
+public record BookingLifecycleEvent(
+        Type type,
+        long timestamp,
+        Integer bookingId,
+        Integer flightId,
+        String pnr,
+        String seatNumber,
+        Integer seats,
+        String passengerName,
+        String email,
+        Integer age,
+        GENDER gender,
+        MEAL meal,
+        long version) {
+
+    public enum Type {
+        BOOKED,
+        CANCELLED
+    }
+
+    public static BookingLifecycleEvent booked(Booking b) {
+        return of(Type.BOOKED, b);
+    }
+
+    public static BookingLifecycleEvent cancelled(Booking b) {
+        return of(Type.CANCELLED, b);
+    }
+
+    private static BookingLifecycleEvent of(Type type, Booking b) {
+        return new BookingLifecycleEvent(type, System.currentTimeMillis(), b.getId(), b.getFlightId(),
+                b.getPnr(), b.getSeatNumber(), b.getNumberOfTickets(), b.getPassengerName(), b.getEmail(),
+                b.getAge(), b.getGender(), b.getMeal(), b.getVersion() != null ? b.getVersion() : 0);
+    }
+}
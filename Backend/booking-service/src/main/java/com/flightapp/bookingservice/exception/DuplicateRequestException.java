@@ -0,0 +1,5 @@
+package com.flightapp.bookingservice.exception;
+
+public class DuplicateRequestException extends RuntimeException {
+    public DuplicateRequestException(String msg) { super(msg); }
+}
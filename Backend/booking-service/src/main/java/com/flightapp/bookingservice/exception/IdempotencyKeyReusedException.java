@@ -0,0 +1,5 @@
+package com.flightapp.bookingservice.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String msg) { super(msg); }
+}
@@ -0,0 +1,7 @@
+package com.flightapp.bookingservice.exception;
+
+// A seat was booked by someone else first. Still a BookingInvalidException, so callers that
+// treat it as a failed booking keep working; answered with 409 instead of 400
+public class SeatConflictException extends BookingInvalidException {
+    public SeatConflictException(String msg) { super(msg); }
+}
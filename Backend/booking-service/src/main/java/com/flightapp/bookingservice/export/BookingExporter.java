@@ -0,0 +1,191 @@
+package com.flightapp.bookingservice.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes bookings as CSV or NDJSON straight from a forward-only JDBC cursor.
+ *
+ * Each row is copied from the ResultSet to the output as it is read; no entities or
+ * lists are built, so memory use is bounded by booking.export.fetch-size whatever the
+ * size of the export.
+ */
+@Slf4j
+@Component
+public class BookingExporter {
+
+    // Same order as the export query's select list
+    static final List<String> COLUMNS = List.of("id", "pnr", "flightId", "passengerName", "age", "gender",
+            "meal", "email", "numberOfTickets", "seatNumber", "status", "createdAt");
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final BookingJdbcRepository jdbcRepo;
+    private final int fetchSize;
+
+    @Autowired
+    public BookingExporter(BookingJdbcRepository jdbcRepo,
+                           @Value("${booking.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcRepo = jdbcRepo;
+        this.fetchSize = fetchSize;
+    }
+
+    // Returns the number of rows written
+    public long export(Integer flightId, LocalDateTime from, LocalDateTime to,
+                       ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        RowWriter writer = format == ExportFormat.CSV ? new CsvWriter(target) : new NdjsonWriter(target);
+
+        long[] rows = {0};
+        try {
+            writer.begin();
+            jdbcRepo.streamForExport(flightId, from, to, fetchSize, (RowCallbackHandler) rs -> {
+                try {
+                    writer.row(rs);
+                } catch (IOException ex) {
+                    // Usually the client going away; stops the cursor
+                    throw new UncheckedIOException(ex);
+                }
+                rows[0]++;
+            });
+            writer.end();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (target instanceof GZIPOutputStream zip) {
+            zip.finish();
+        }
+        out.flush();
+        log.info("Exported {} bookings as {}", rows[0], format);
+        return rows[0];
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp ts ? ts.toLocalDateTime().toString() : value;
+    }
+
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void end() throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private static final String FORMULA_START = "=+-@\t\r";
+
+        private final Writer out;
+
+        private CsvWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write(String.join(",", COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.size(); i++) {
+                if (i > 1) {
+                    out.write(',');
+                }
+                Object value = value(rs, i);
+                if (value instanceof String text) {
+                    writeField(text);
+                } else if (value != null) {
+                    out.write(value.toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks. Text that a
+        // spreadsheet would run as a formula (passenger names and emails are user input) is
+        // prefixed with ' and quoted, so it opens as plain text
+        private void writeField(String field) throws IOException {
+            boolean quote = !field.isEmpty() && FORMULA_START.indexOf(field.charAt(0)) >= 0;
+            if (quote) {
+                field = "'" + field;
+            }
+            for (int i = 0; i < field.length() && !quote; i++) {
+                char c = field.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(field);
+                return;
+            }
+            out.write('"');
+            out.write(field.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.json = JSON.createGenerator(out);
+            // The generator must not close the response stream; rows are split by newlines only
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 1; i <= COLUMNS.size(); i++) {
+                Object value = value(rs, i);
+                json.writeFieldName(COLUMNS.get(i - 1));
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof Number n) {
+                    json.writeNumber(n.longValue());
+                } else {
+                    json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            json.flush();
+        }
+    }
+}
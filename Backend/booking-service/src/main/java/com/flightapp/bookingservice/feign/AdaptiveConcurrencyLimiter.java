@@ -0,0 +1,135 @@
+package com.flightapp.bookingservice.feign;
+
+import com.flightapp.bookingservice.exception.ServiceOverloadedException;
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * AIMD concurrency limit for calls to flight-service.
+ *
+ * Every finished call is a sample: if it took longer than latency-threshold-millis, timed
+ * out or got a 5xx, the limit is multiplied by backoff-ratio; otherwise, while at least
+ * half the limit is in use, it grows by one. Calls over the limit are rejected at once
+ * with ServiceOverloadedException (503 + Retry-After) instead of tying up a request thread
+ * behind a slow flight-service.
+ *
+ * Exposed as booking.flight.concurrency.limit, .in_flight and .rejected.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final long retryAfterSeconds;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    private final Counter rejected;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(
+            MeterRegistry registry,
+            @Value("${booking.flight-client.limit.initial:20}") int initialLimit,
+            @Value("${booking.flight-client.limit.min:2}") int minLimit,
+            @Value("${booking.flight-client.limit.max:200}") int maxLimit,
+            @Value("${booking.flight-client.limit.latency-threshold-millis:1000}") long latencyThresholdMillis,
+            @Value("${booking.flight-client.limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${booking.flight-client.limit.retry-after-seconds:1}") long retryAfterSeconds) {
+        this(registry, initialLimit, minLimit, maxLimit, latencyThresholdMillis, backoffRatio,
+                retryAfterSeconds, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(MeterRegistry registry, int initialLimit, int minLimit, int maxLimit,
+                               long latencyThresholdMillis, double backoffRatio, long retryAfterSeconds,
+                               LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("booking.flight-client.limit needs 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+
+        Gauge.builder("booking.flight.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrent flight-service calls")
+                .register(registry);
+        Gauge.builder("booking.flight.concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("flight-service calls currently running")
+                .register(registry);
+        this.rejected = Counter.builder("booking.flight.concurrency.rejected")
+                .description("flight-service calls shed because the limit was reached")
+                .register(registry);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    // Runs the call if there is room under the limit, otherwise fails fast
+    public <T> T execute(Supplier<T> call) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                throw new ServiceOverloadedException("Flight service is busy, please retry shortly", retryAfterSeconds);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return measure(call, current + 1);
+    }
+
+    // For calls that must not be shed (they finish work already committed), but still count
+    public <T> T executeUnlimited(Supplier<T> call) {
+        return measure(call, inFlight.incrementAndGet());
+    }
+
+    private <T> T measure(Supplier<T> call, int inFlightAtStart) {
+        long start = nanoClock.getAsLong();
+        boolean dropped = false;
+        try {
+            return call.get();
+        } catch (RuntimeException ex) {
+            dropped = isOverloadSignal(ex);
+            throw ex;
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(nanoClock.getAsLong() - start, dropped, inFlightAtStart);
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, boolean dropped, int inFlightAtStart) {
+        if (dropped || rttNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlightAtStart * 2 >= limit) {
+            // Only grow while the current limit is actually being used
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    // Timeouts, connection failures and 5xx mean flight-service is struggling; 4xx do not
+    private static boolean isOverloadSignal(RuntimeException ex) {
+        if (ex instanceof RetryableException) {
+            return true;
+        }
+        return ex instanceof FeignException feign && feign.status() >= 500;
+    }
+}
@@ -0,0 +1,147 @@
+package com.flightapp.bookingservice.feign;
+
+import com.flightapp.bookingservice.cache.FlightSnapshotCache;
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.exception.ServiceOverloadedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight layer in front of the Feign FlightServiceClient.
+ *
+ * Concurrent getFlightById calls for the same flight share one HTTP request, and a
+ * result is reused for a short freshness window (booking.flight-lookup.freshness-millis).
+ * Seat counts seen here can therefore be slightly stale; flight-service still checks
+ * seats authoritatively in reduceSeats, which always goes straight through.
+ * Every remote result also refreshes the longer-lived FlightSnapshotCache. Each caller gets
+ * its own copy of the result, so one caller changing it cannot affect the others or the
+ * cache. A caller that joined an in-flight call waits no longer than the Feign read
+ * timeout, the longest the call itself can take.
+ *
+ * Remote calls go through the AdaptiveConcurrencyLimiter. Lookups are shed when it is
+ * full; reduceSeats is never shed because it completes a booking that is already saved.
+ *
+ * booking.flight.lookups counts lookups by source: remote (real HTTP call),
+ * coalesced (joined an in-flight call) and fresh (served from the window).
+ */
+@Primary
+@Component
+public class CoalescingFlightServiceClient implements FlightServiceClient {
+
+    private final FlightServiceClient delegate;
+    private final FlightSnapshotCache snapshots;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Cache<Integer, FlightResponse> recent;
+    private final long waitTimeoutMillis;
+    private final ConcurrentMap<Integer, CompletableFuture<FlightResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter remoteLookups;
+    private final Counter coalescedLookups;
+    private final Counter freshLookups;
+
+    public CoalescingFlightServiceClient(
+            @Qualifier(FlightServiceClient.FEIGN_CLIENT) FlightServiceClient delegate,
+            FlightSnapshotCache snapshots,
+            AdaptiveConcurrencyLimiter limiter,
+            MeterRegistry registry,
+            @Value("${booking.flight-lookup.freshness-millis:500}") long freshnessMillis,
+            @Value("${spring.cloud.openfeign.client.config.default.read-timeout:60000}") long waitTimeoutMillis) {
+        this.delegate = delegate;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.snapshots = snapshots;
+        this.limiter = limiter;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(freshnessMillis))
+                .build();
+        this.remoteLookups = lookupCounter(registry, "remote");
+        this.coalescedLookups = lookupCounter(registry, "coalesced");
+        this.freshLookups = lookupCounter(registry, "fresh");
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String source) {
+        return Counter.builder("booking.flight.lookups")
+                .description("getFlightById calls by how they were served")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    @Override
+    public FlightResponse getFlightById(Integer id) {
+
+        FlightResponse fresh = recent.getIfPresent(id);
+        if (fresh != null) {
+            freshLookups.increment();
+            return fresh.copy();
+        }
+
+        CompletableFuture<FlightResponse> mine = new CompletableFuture<>();
+        CompletableFuture<FlightResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            coalescedLookups.increment();
+            return join(running).copy();
+        }
+
+        try {
+            remoteLookups.increment();
+            FlightResponse flight = limiter.execute(() -> delegate.getFlightById(id));
+            recent.put(id, flight);
+            snapshots.put(flight);
+            mine.complete(flight);
+            return flight.copy();
+        } catch (RuntimeException ex) {
+            // Waiters see the same failure; nothing is cached
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @Override
+    public List<FlightResponse> getFlightsByIds(List<Integer> ids) {
+        return limiter.execute(() -> delegate.getFlightsByIds(ids));
+    }
+
+    @Override
+    public void reduceSeats(Integer id, Integer count) {
+        limiter.executeUnlimited(() -> {
+            delegate.reduceSeats(id, count);
+            return null;
+        });
+        // Seat count changed, don't serve the old one
+        recent.invalidate(id);
+    }
+
+    private FlightResponse join(CompletableFuture<FlightResponse> running) {
+        try {
+            return running.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ServiceOverloadedException("Flight lookup is taking too long, please retry", 1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Flight lookup was interrupted, please retry", 1);
+        }
+    }
+}
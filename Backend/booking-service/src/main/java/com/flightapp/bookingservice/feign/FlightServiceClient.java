@@ -7,12 +7,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "FLIGHT-SERVICE")
+import java.util.List;
+
+// The raw Feign client is not primary: callers get CoalescingFlightServiceClient,
+// which wraps it.
+@FeignClient(name = "FLIGHT-SERVICE", primary = false, qualifiers = FlightServiceClient.FEIGN_CLIENT)
 public interface FlightServiceClient {
 
+    String FEIGN_CLIENT = "flightServiceFeignClient";
+
     @GetMapping("/flights/{id}")
     FlightResponse getFlightById(@PathVariable("id") Integer id);
 
+    // Fetch several flights in one call
+    @GetMapping("/flights/bulk")
+    List<FlightResponse> getFlightsByIds(@RequestParam("ids") List<Integer> ids);
+
     // Reduce seats after booking
     @PutMapping("/flights/{id}/seats")
     void reduceSeats(@PathVariable("id") Integer id, @RequestParam("reduce") Integer count);
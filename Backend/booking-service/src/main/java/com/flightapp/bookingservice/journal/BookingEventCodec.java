@@ -0,0 +1,96 @@
+package com.flightapp.bookingservice.journal;
+
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.enums.MEAL;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Fixed-order binary layout of a journal payload. Cheap to decode, no reflection:
+// type, timestamp, bookingId, flightId, seats, age, gender, meal, pnr, seatNumber, passengerName, email,
+// version. Null ints are stored as Integer.MIN_VALUE, null enums as -1, null strings as length -1.
+// Records written before version was added end after email and decode with version 0.
+final class BookingEventCodec {
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final BookingLifecycleEvent.Type[] TYPES = BookingLifecycleEvent.Type.values();
+    private static final GENDER[] GENDERS = GENDER.values();
+    private static final MEAL[] MEALS = MEAL.values();
+
+    private BookingEventCodec() {
+    }
+
+    static void encode(BookingLifecycleEvent e, ByteBuffer out) {
+        out.put((byte) e.type().ordinal());
+        out.putLong(e.timestamp());
+        putInt(out, e.bookingId());
+        putInt(out, e.flightId());
+        putInt(out, e.seats());
+        putInt(out, e.age());
+        out.put(e.gender() == null ? -1 : (byte) e.gender().ordinal());
+        out.put(e.meal() == null ? -1 : (byte) e.meal().ordinal());
+        putString(out, e.pnr());
+        putString(out, e.seatNumber());
+        putString(out, e.passengerName());
+        putString(out, e.email());
+        out.putLong(e.version());
+    }
+
+    static BookingLifecycleEvent decode(ByteBuffer in) {
+        BookingLifecycleEvent.Type type = TYPES[in.get()];
+        long timestamp = in.getLong();
+        Integer bookingId = getInt(in);
+        Integer flightId = getInt(in);
+        Integer seats = getInt(in);
+        Integer age = getInt(in);
+        byte gender = in.get();
+        byte meal = in.get();
+        String pnr = getString(in);
+        String seatNumber = getString(in);
+        String passengerName = getString(in);
+        String email = getString(in);
+        long version = in.remaining() >= Long.BYTES ? in.getLong() : 0;
+        return new BookingLifecycleEvent(type, timestamp, bookingId, flightId, pnr, seatNumber, seats,
+                passengerName, email, age, gender < 0 ? null : GENDERS[gender], meal < 0 ? null : MEALS[meal], version);
+    }
+
+    private static void putInt(ByteBuffer out, Integer value) {
+        out.putInt(value == null ? NULL_INT : value);
+    }
+
+    private static Integer getInt(ByteBuffer in) {
+        int value = in.getInt();
+        return value == NULL_INT ? null : value;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal field longer than " + Short.MAX_VALUE + " bytes");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+}
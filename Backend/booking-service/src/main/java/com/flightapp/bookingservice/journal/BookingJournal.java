@@ -0,0 +1,297 @@
+package com.flightapp.bookingservice.journal;
+
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log of booking lifecycle events.
+ *
+ * The journal is a directory of fixed-size segment files named after the offset of their
+ * first byte. Records are written back to back as [length][crc32c][payload]; a length of
+ * zero marks the end of the written data. The length is written last, so a reader never
+ * sees a half-written record, and the checksum catches torn or corrupted writes.
+ *
+ * An offset is a byte position across all segments. append returns the offset of the
+ * record. The journal is a write-only audit trail: nothing in the service reads it back
+ * (the read model loads from the bookings table, which also covers other instances'
+ * writes). replay(from, consumer) stays package-private, for the tests that check what
+ * was written and what survives a crash.
+ *
+ * Writes go to the page cache; force() is called every fsyncEvery records and on flush(),
+ * so at most that many records can be lost if the machine (not just the process) crashes.
+ * On open the last segment is scanned and anything after the last valid record is dropped.
+ *
+ * The journal only grows; deleteOldSegments removes whole segments from the front.
+ */
+public class BookingJournal implements AutoCloseable {
+
+    static final int HEADER_SIZE = 8;
+    private static final String SUFFIX = ".journal";
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int fsyncEvery;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final CRC32C writeCrc = new CRC32C();
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    private Segment active;
+    private int unsynced;
+    private volatile long endOffset;
+
+    private BookingJournal(Path dir, int segmentSize, int fsyncEvery) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.fsyncEvery = fsyncEvery;
+    }
+
+    public static BookingJournal open(Path dir, int segmentSize, int fsyncEvery) throws IOException {
+        if (segmentSize < 4096 || fsyncEvery < 1) {
+            throw new IllegalArgumentException("Journal segments must be at least 4096 bytes and fsyncEvery at least 1");
+        }
+        Files.createDirectories(dir);
+        BookingJournal journal = new BookingJournal(dir, segmentSize, fsyncEvery);
+        journal.load();
+        return journal;
+    }
+
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            segments.add(Segment.map(file, base, (int) Files.size(file)));
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(dir, 0, segmentSize));
+        }
+
+        active = segments.get(segments.size() - 1);
+        active.position = recover(active);
+        endOffset = active.base + active.position;
+    }
+
+    // Finds the end of the valid records and wipes a torn tail, if any
+    private static int recover(Segment segment) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_SIZE <= segment.size) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > segment.size
+                    || checksum(crc, buffer, position, length) != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        if (position + HEADER_SIZE <= segment.size) {
+            buffer.putInt(position, 0);
+        }
+        return position;
+    }
+
+    // ---------- WRITE ----------
+    public synchronized long append(BookingLifecycleEvent event) {
+        ByteBuffer payload = encode(event);
+        int length = payload.remaining();
+        if (HEADER_SIZE + length + HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Event too large for a journal segment: " + length + " bytes");
+        }
+
+        // Keep room for the end-of-data marker after the record
+        if (active.position + HEADER_SIZE + length + HEADER_SIZE > active.size) {
+            roll();
+        }
+
+        writeCrc.reset();
+        writeCrc.update(payload.array(), 0, length);
+
+        int position = active.position;
+        MappedByteBuffer buffer = active.buffer;
+        buffer.put(position + HEADER_SIZE, payload.array(), 0, length);
+        buffer.putInt(position + 4, (int) writeCrc.getValue());
+        buffer.putInt(position + HEADER_SIZE + length, 0);
+        buffer.putInt(position, length);
+
+        active.position = position + HEADER_SIZE + length;
+        long offset = active.base + position;
+        endOffset = active.base + active.position;
+
+        if (++unsynced >= fsyncEvery) {
+            flush();
+        }
+        return offset;
+    }
+
+    private ByteBuffer encode(BookingLifecycleEvent event) {
+        while (true) {
+            scratch.clear();
+            try {
+                BookingEventCodec.encode(event, scratch);
+                return scratch.flip();
+            } catch (BufferOverflowException ex) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private void roll() {
+        active.buffer.force();
+        Segment next;
+        try {
+            next = Segment.create(dir, active.base + active.size, segmentSize);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create journal segment", ex);
+        }
+        segments.add(next);
+        active = next;
+        unsynced = 0;
+    }
+
+    // Forces everything appended so far to disk
+    public synchronized void flush() {
+        if (unsynced > 0) {
+            active.buffer.force();
+            unsynced = 0;
+        }
+    }
+
+    // Offset the next record will be written at
+    public long endOffset() {
+        return endOffset;
+    }
+
+    // ---------- READ ----------
+
+    /**
+     * Passes every record from fromOffset up to the current end to the consumer, in order,
+     * and returns the offset to continue from. Safe to call while appends are going on.
+     */
+    long replay(long fromOffset, Consumer<BookingLifecycleEvent> consumer) {
+        long end = endOffset;
+        CRC32C crc = new CRC32C();
+        long offset = fromOffset;
+
+        for (Segment segment : segments) {
+            if (offset >= end) {
+                break;
+            }
+            if (segment.base + segment.size <= offset) {
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int position = (int) Math.max(0, offset - segment.base);
+            int limit = (int) Math.min(segment.size, end - segment.base);
+
+            while (position + HEADER_SIZE <= limit) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || position + HEADER_SIZE + length > limit
+                        || checksum(crc, buffer, position, length) != buffer.getInt(position + 4)) {
+                    throw new IllegalStateException("Corrupt journal record at offset " + (segment.base + position));
+                }
+                consumer.accept(BookingEventCodec.decode(buffer.slice(position + HEADER_SIZE, length)));
+                position += HEADER_SIZE + length;
+            }
+            // Continue in the next segment (the rest of this one is unused)
+            offset = segment.base + segment.size;
+            if (segment.base + position >= end) {
+                return end;
+            }
+        }
+        return Math.max(fromOffset, end);
+    }
+
+    // ---------- RETENTION ----------
+
+    /**
+     * Deletes the oldest segments while the journal is larger than maxBytes or the oldest
+     * segment was last written more than maxAge ago. The segment being written is never
+     * deleted. Returns the number of segments deleted. A replay from an offset inside a
+     * deleted segment starts at the oldest record left.
+     */
+    public synchronized int deleteOldSegments(long maxBytes, Duration maxAge) {
+        long cutoff = System.currentTimeMillis() - maxAge.toMillis();
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+
+        int deleted = 0;
+        while (segments.size() > 1) {
+            Segment oldest = segments.get(0);
+            try {
+                if (total <= maxBytes && Files.getLastModifiedTime(oldest.file).toMillis() >= cutoff) {
+                    break;
+                }
+                Files.deleteIfExists(oldest.file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not delete journal segment " + oldest.file, ex);
+            }
+            // A replay still reading it keeps its mapping until it is done
+            segments.remove(0);
+            total -= oldest.size;
+            deleted++;
+        }
+        return deleted;
+    }
+
+    private static int checksum(CRC32C crc, ByteBuffer buffer, int position, int length) {
+        crc.reset();
+        crc.update(buffer.slice(position + HEADER_SIZE, length));
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        segments.clear();
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long base;
+        private final int size;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        private Segment(Path file, long base, int size, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.size = size;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path dir, long base, int size) throws IOException {
+            return map(dir.resolve(String.format("%020d%s", base, SUFFIX)), base, size);
+        }
+
+        static Segment map(Path file, long base, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(file, base, size, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+    }
+}
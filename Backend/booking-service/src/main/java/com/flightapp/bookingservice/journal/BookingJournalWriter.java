@@ -0,0 +1,89 @@
+package com.flightapp.bookingservice.journal;
+
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Appends every booking lifecycle event to the journal.
+ *
+ * Events published inside a transaction are written once it commits, so a rolled-back
+ * group booking never reaches the journal; events published outside one are written
+ * straight away. Besides the every-N-events fsync done by the journal itself, buffered
+ * records are forced to disk every booking.journal.fsync-interval-millis, which bounds how
+ * long a quiet period can leave them unsynced.
+ *
+ * A failed append is logged and counted but never fails the booking that caused it.
+ *
+ * Old segments are deleted every booking.journal.retention.check-interval-millis once the
+ * journal outgrows booking.journal.retention.max-size-mb or they are older than
+ * booking.journal.retention.max-age-hours.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.journal.enabled", havingValue = "true")
+public class BookingJournalWriter {
+
+    private final BookingJournal journal;
+    private final long maxBytes;
+    private final Duration maxAge;
+    private final Counter appended;
+    private final Counter failed;
+
+    public BookingJournalWriter(
+            BookingJournal journal,
+            MeterRegistry registry,
+            @Value("${booking.journal.retention.max-size-mb:1024}") long maxSizeMb,
+            @Value("${booking.journal.retention.max-age-hours:168}") long maxAgeHours) {
+        this.journal = journal;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.appended = Counter.builder("booking.journal.appended")
+                .description("Booking lifecycle events written to the journal")
+                .register(registry);
+        this.failed = Counter.builder("booking.journal.append.failures")
+                .description("Booking lifecycle events that could not be written to the journal")
+                .register(registry);
+        Gauge.builder("booking.journal.end.offset", journal, BookingJournal::endOffset)
+                .description("Bytes written to the journal")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingLifecycleEvent event) {
+        try {
+            journal.append(event);
+            appended.increment();
+        } catch (RuntimeException ex) {
+            failed.increment();
+            log.error("Could not journal {} event for booking {}", event.type(), event.bookingId(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.journal.fsync-interval-millis:100}")
+    public void flush() {
+        journal.flush();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.journal.retention.check-interval-millis:60000}")
+    public void deleteOldSegments() {
+        try {
+            int deleted = journal.deleteOldSegments(maxBytes, maxAge);
+            if (deleted > 0) {
+                log.info("Deleted {} old journal segments", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not delete old journal segments: {}", ex.getMessage());
+        }
+    }
+}
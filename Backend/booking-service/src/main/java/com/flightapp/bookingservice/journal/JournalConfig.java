@@ -0,0 +1,27 @@
+package com.flightapp.bookingservice.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens the booking event journal in booking.journal.dir when booking.journal.enabled=true.
+ * Off by default: nothing in the service reads the journal back (the read model loads from
+ * the bookings table), so it is only worth the disk as an audit trail.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public BookingJournal bookingJournal(
+            @Value("${booking.journal.dir:./data/journal}") String dir,
+            @Value("${booking.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${booking.journal.fsync-every-events:256}") int fsyncEvery) throws IOException {
+        return BookingJournal.open(Path.of(dir), segmentSizeMb * 1024 * 1024, fsyncEvery);
+    }
+}
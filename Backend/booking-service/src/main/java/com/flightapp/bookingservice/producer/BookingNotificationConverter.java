@@ -0,0 +1,61 @@
+package com.flightapp.bookingservice.producer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes {@link BookingNotification}s as versioned JSON and leaves every other payload
+ * to SimpleMessageConverter, so the String messages this service already sends
+ * (seat releases, booking events) go out exactly as before.
+ */
+public class BookingNotificationConverter implements MessageConverter {
+
+    private final ObjectMapper mapper;
+    private final SimpleMessageConverter fallback = new SimpleMessageConverter();
+
+    public BookingNotificationConverter(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties properties) {
+        if (!(object instanceof BookingNotification notification)) {
+            return fallback.toMessage(object, properties);
+        }
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(notification);
+        } catch (JsonProcessingException ex) {
+            throw new MessageConversionException("Could not serialize notification for PNR " + notification.getPnr(), ex);
+        }
+        properties.setContentType(BookingNotification.CONTENT_TYPE);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setContentLength(body.length);
+        return new Message(body, properties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (!BookingNotification.CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return fallback.fromMessage(message);
+        }
+        try {
+            return mapper.readValue(message.getBody(), BookingNotification.class);
+        } catch (IOException ex) {
+            throw new MessageConversionException("Could not read booking notification", ex);
+        }
+    }
+}
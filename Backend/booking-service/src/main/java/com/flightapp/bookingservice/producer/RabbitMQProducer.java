@@ -1,19 +1,62 @@
 package com.flightapp.bookingservice.producer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.event.SeatReleaseEvent;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 import static com.flightapp.bookingservice.config.RabbitMQConfig.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RabbitMQProducer {
 
     private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Written as versioned JSON by BookingNotificationConverter
+    public void sendBookingNotification(BookingNotification notification) {
+        rabbitTemplate.convertAndSend(EXCHANGE, ROUTING_KEY, notification);
+        log.info("Sent {} notification for PNR {}", notification.getType(), notification.getPnr());
+    }
+
+    // Many notifications over one channel instead of a channel checkout per message
+    public void sendBookingNotifications(List<BookingNotification> notifications) {
+        rabbitTemplate.invoke(ops -> {
+            notifications.forEach(n -> ops.convertAndSend(EXCHANGE, ROUTING_KEY, n));
+            return null;
+        });
+    }
+
+    // Sent as JSON text so flight-service can bind it to its own event class
+    public void sendSeatRelease(SeatReleaseEvent event) {
+        sendJson(EXCHANGE, SEAT_RELEASE_ROUTING_KEY, event, "seat release for booking " + event.getBookingId());
+    }
+
+    // Fanned out to every booking-service instance, which updates its read model
+    public void sendBookingEvent(BookingLifecycleEvent event) {
+        sendJson(BOOKING_EVENTS_EXCHANGE, "", event, event.type() + " event for booking " + event.bookingId());
+    }
 
-    public void sendBookingEmail(String message) {
-        rabbitTemplate.convertAndSend(EXCHANGE, ROUTING_KEY, message);
-        System.out.println(" Sent to RabbitMQ: " + message);
+    private void sendJson(String exchange, String routingKey, Object payload, String what) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + what, ex);
+        }
+        rabbitTemplate.convertAndSend(exchange, routingKey, json, message -> {
+            message.getMessageProperties().setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            return message;
+        });
     }
 }
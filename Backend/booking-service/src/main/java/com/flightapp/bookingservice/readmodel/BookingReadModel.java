@@ -0,0 +1,409 @@
+package com.flightapp.bookingservice.readmodel;
+
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.feign.FlightServiceClient;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory read side for the booking lookups that are served on every page view:
+ * the booking behind a PNR, the booked seats of a flight and its booked ticket count.
+ *
+ * Only flights that have not departed yet are held; the departure times come from
+ * flight-service (bulk lookup) and its change events. A departed flight is evicted with
+ * its bookings and PNRs, so memory follows the flights still on sale rather than the
+ * whole history, and lookups for it (or any flight not held) return empty, which sends
+ * callers to the database.
+ *
+ * The projections are updated asynchronously from the booking events fanned out on
+ * booking_events_exchange. On startup they are loaded from the bookings table (live
+ * flights only); after that every booking.read-model.refresh-interval-millis only the rows
+ * changed since the previous refresh are read again (updated_at, with
+ * booking.read-model.refresh-overlap-seconds of overlap for late commits and clock skew),
+ * which repairs anything a lost event left behind. Events received during the initial
+ * load are applied to the old store and replayed on the new one before it is swapped in.
+ * Applying an event or row is idempotent, so seeing it twice is harmless, and a state
+ * older than the one already held for its booking (a lower version, e.g. a BOOKED
+ * delivered after the CANCELLED) is ignored.
+ *
+ * Until the first load has finished every lookup returns empty, and callers read the
+ * database instead. booking.read-model.lag records how far behind the writes the
+ * projections run.
+ */
+@Slf4j
+@Component
+public class BookingReadModel {
+
+    // Flight ids per bulk lookup
+    private static final int DEPARTURE_BATCH = 100;
+
+    private final BookingJdbcRepository jdbcRepo;
+    private final FlightServiceClient flightClient;
+    private final int fetchSize;
+    private final Duration refreshOverlap;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+    private volatile Store store = new Store();
+    private volatile boolean ready;
+    private volatile long lastRefreshMillis;
+    // Rows changed at or after this (minus the overlap) are read on the next refresh
+    private LocalDateTime changedSince;
+    private List<BookingLifecycleEvent> duringRebuild;
+
+    private final Timer lag;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public BookingReadModel(
+            BookingJdbcRepository jdbcRepo,
+            FlightServiceClient flightClient,
+            MeterRegistry registry,
+            @Value("${booking.read-model.rebuild-fetch-size:1000}") int fetchSize,
+            @Value("${booking.read-model.refresh-overlap-seconds:300}") long refreshOverlapSeconds) {
+        this(jdbcRepo, flightClient, registry, fetchSize, refreshOverlapSeconds, Clock.systemDefaultZone());
+    }
+
+    BookingReadModel(BookingJdbcRepository jdbcRepo, FlightServiceClient flightClient, MeterRegistry registry,
+                     int fetchSize, long refreshOverlapSeconds, Clock clock) {
+        this.jdbcRepo = jdbcRepo;
+        this.flightClient = flightClient;
+        this.fetchSize = fetchSize;
+        this.refreshOverlap = Duration.ofSeconds(refreshOverlapSeconds);
+        this.clock = clock;
+        this.lag = Timer.builder("booking.read-model.lag")
+                .description("Time from a booking change to its appearance in the read model")
+                .register(registry);
+        this.hits = readCounter(registry, "hit");
+        this.misses = readCounter(registry, "miss");
+        Gauge.builder("booking.read-model.rebuild.age", this, BookingReadModel::rebuildAgeSeconds)
+                .description("Seconds since the read model last caught up with the database")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("booking.read-model.pnrs", this, m -> m.store.byPnr.size())
+                .description("PNRs held in the read model")
+                .register(registry);
+        Gauge.builder("booking.read-model.flights", this, m -> m.store.flights.size())
+                .description("Flights not yet departed held in the read model")
+                .register(registry);
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String result) {
+        return Counter.builder("booking.read-model.reads")
+                .description("Lookups answered by the read model")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    // ---------- QUERIES ----------
+
+    // Lead passenger's booking for a PNR
+    public Optional<Booking> findByPnr(String pnr) {
+        return count(ready ? Optional.ofNullable(store.byPnr.get(pnr)) : Optional.empty());
+    }
+
+    public Optional<List<String>> bookedSeats(Integer flightId) {
+        FlightSeats seats = ready ? store.flights.get(flightId) : null;
+        return count(seats == null ? Optional.empty() : Optional.of(seats.seatNumbers()));
+    }
+
+    public Optional<Integer> bookedCount(Integer flightId) {
+        FlightSeats seats = ready ? store.flights.get(flightId) : null;
+        return count(seats == null ? Optional.empty() : Optional.of(seats.tickets.get()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private <T> Optional<T> count(Optional<T> result) {
+        (result.isPresent() ? hits : misses).increment();
+        return result;
+    }
+
+    // ---------- UPDATES ----------
+
+    public void apply(BookingLifecycleEvent event) {
+        if (event.bookingId() == null || event.flightId() == null) {
+            return;
+        }
+        Booking booking = toBooking(event);
+        synchronized (lock) {
+            store.put(booking);
+            if (duringRebuild != null) {
+                duringRebuild.add(event);
+            }
+        }
+        lag.record(Math.max(0, clock.millis() - event.timestamp()), TimeUnit.MILLISECONDS);
+    }
+
+    // A rescheduled flight moves its eviction with it
+    public void flightChanged(FlightResponse flight) {
+        if (flight == null || flight.getId() == null || flight.getDepartureTime() == null) {
+            return;
+        }
+        FlightSeats seats = store.flights.get(flight.getId());
+        if (seats != null) {
+            seats.departure = flight.getDepartureTime();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.read-model.refresh-interval-millis:60000}")
+    public void refresh() {
+        if (!ready) {
+            rebuild();
+            return;
+        }
+        try {
+            catchUp();
+            evictDeparted();
+            lastRefreshMillis = clock.millis();
+        } catch (RuntimeException ex) {
+            log.error("Could not refresh booking read model", ex);
+        }
+    }
+
+    // Full load of the flights that have not departed yet
+    public void rebuild() {
+        long started = clock.millis();
+        LocalDateTime since = now();
+        synchronized (lock) {
+            duringRebuild = new ArrayList<>();
+        }
+        try {
+            Store next = new Store();
+            List<Integer> flightIds = jdbcRepo.findBookedFlightIds();
+            Map<Integer, LocalDateTime> departures = departures(flightIds);
+            List<Integer> live = new ArrayList<>();
+            for (Integer flightId : flightIds) {
+                LocalDateTime departure = departures.get(flightId);
+                if (departure == null || departure.isBefore(since)) {
+                    next.departed.add(flightId);
+                } else {
+                    next.flight(flightId).departure = departure;
+                    live.add(flightId);
+                }
+            }
+            if (!live.isEmpty()) {
+                jdbcRepo.forEachBookingOfFlights(live, fetchSize, next::put);
+            }
+
+            synchronized (lock) {
+                duringRebuild.forEach(e -> next.put(toBooking(e)));
+                store = next;
+                changedSince = since;
+            }
+            ready = true;
+            lastRefreshMillis = clock.millis();
+            log.info("Loaded booking read model: {} PNRs, {} flights ({} departed left out) in {} ms",
+                    next.byPnr.size(), next.flights.size(), next.departed.size(), lastRefreshMillis - started);
+        } catch (RuntimeException ex) {
+            log.error("Could not load booking read model", ex);
+        } finally {
+            synchronized (lock) {
+                duringRebuild = null;
+            }
+        }
+    }
+
+    // Re-reads the rows changed since the last refresh
+    private void catchUp() {
+        LocalDateTime since = now();
+        Store current = store;
+        jdbcRepo.forEachBookingChangedSince(changedSince.minus(refreshOverlap), fetchSize, b -> {
+            synchronized (lock) {
+                current.put(b);
+            }
+        });
+        changedSince = since;
+    }
+
+    private void evictDeparted() {
+        Store current = store;
+        // Flights first seen after the load, through an event or a changed row
+        List<Integer> unknown = current.flights.entrySet().stream()
+                .filter(e -> e.getValue().departure == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        Set<Integer> gone = new HashSet<>();
+        if (!unknown.isEmpty()) {
+            try {
+                Map<Integer, LocalDateTime> departures = departures(unknown);
+                for (Integer flightId : unknown) {
+                    LocalDateTime departure = departures.get(flightId);
+                    if (departure == null) {
+                        // No longer known to flight-service
+                        gone.add(flightId);
+                    } else {
+                        current.flights.get(flightId).departure = departure;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                // Kept until flight-service can tell when they leave
+                log.warn("Could not look up departures of {} flights: {}", unknown.size(), ex.getMessage());
+            }
+        }
+        LocalDateTime now = now();
+        current.flights.forEach((flightId, seats) -> {
+            if (seats.departure != null && seats.departure.isBefore(now)) {
+                gone.add(flightId);
+            }
+        });
+        if (gone.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            gone.forEach(current::evict);
+        }
+        log.info("Evicted {} departed flights from the booking read model", gone.size());
+    }
+
+    private Map<Integer, LocalDateTime> departures(Collection<Integer> flightIds) {
+        List<Integer> ids = new ArrayList<>(flightIds);
+        Map<Integer, LocalDateTime> departures = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += DEPARTURE_BATCH) {
+            List<Integer> batch = ids.subList(from, Math.min(from + DEPARTURE_BATCH, ids.size()));
+            for (FlightResponse flight : flightClient.getFlightsByIds(batch)) {
+                if (flight.getId() != null && flight.getDepartureTime() != null) {
+                    departures.put(flight.getId(), flight.getDepartureTime());
+                }
+            }
+        }
+        return departures;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private double rebuildAgeSeconds() {
+        return ready ? Duration.ofMillis(clock.millis() - lastRefreshMillis).toSeconds() : Double.NaN;
+    }
+
+    private static Booking toBooking(BookingLifecycleEvent e) {
+        return Booking.builder()
+                .id(e.bookingId())
+                .flightId(e.flightId())
+                .passengerName(e.passengerName())
+                .age(e.age())
+                .gender(e.gender())
+                .meal(e.meal())
+                .email(e.email())
+                .numberOfTickets(e.seats())
+                .seatNumber(e.seatNumber())
+                .status(e.type() == BookingLifecycleEvent.Type.CANCELLED ? "CANCELLED" : "BOOKED")
+                .pnr(e.pnr())
+                .version(e.version())
+                .build();
+    }
+
+    private static final class Store {
+        private final ConcurrentMap<String, Booking> byPnr = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Integer, FlightSeats> flights = new ConcurrentHashMap<>();
+        // Version of every booking held; only touched by writers, one at a time
+        private final Map<Integer, Long> versions = new HashMap<>();
+        // Evicted flights, so a late event or row cannot bring back part of one
+        private final Set<Integer> departed = new HashSet<>();
+
+        private FlightSeats flight(Integer flightId) {
+            return flights.computeIfAbsent(flightId, id -> new FlightSeats());
+        }
+
+        // Latest state of one booking row; older states are ignored
+        private void put(Booking b) {
+            if (departed.contains(b.getFlightId())) {
+                return;
+            }
+            long version = b.getVersion() != null ? b.getVersion() : 0;
+            Long applied = versions.get(b.getId());
+            if (applied != null && version < applied) {
+                log.debug("Ignoring stale state of booking {}: version {} < {}", b.getId(), version, applied);
+                return;
+            }
+            versions.put(b.getId(), version);
+            if (b.getPnr() != null) {
+                // Group bookings share a PNR; the lowest id is the lead passenger
+                byPnr.merge(b.getPnr(), b, (old, fresh) -> fresh.getId() <= old.getId() ? fresh : old);
+            }
+            FlightSeats seats = flight(b.getFlightId());
+            seats.bookingIds.add(b.getId());
+            if ("BOOKED".equals(b.getStatus())) {
+                seats.book(b);
+            } else {
+                seats.release(b.getId());
+            }
+        }
+
+        private void evict(Integer flightId) {
+            departed.add(flightId);
+            FlightSeats seats = flights.remove(flightId);
+            if (seats == null) {
+                return;
+            }
+            seats.bookingIds.forEach(versions::remove);
+            byPnr.values().removeIf(b -> flightId.equals(b.getFlightId()));
+        }
+    }
+
+    private static final class FlightSeats {
+        private record Seat(String number, int tickets) {
+        }
+
+        private final ConcurrentMap<Integer, Seat> live = new ConcurrentHashMap<>();
+        private final AtomicInteger tickets = new AtomicInteger();
+        // Every booking of the flight, cancelled ones included; only touched by writers
+        private final Set<Integer> bookingIds = new HashSet<>();
+        // Null until flight-service has been asked
+        private volatile LocalDateTime departure;
+        private void book(Booking b) {
+            Seat seat = new Seat(b.getSeatNumber(), b.getNumberOfTickets() != null ? b.getNumberOfTickets() : 1);
+            Seat previous = live.put(b.getId(), seat);
+            tickets.addAndGet(seat.tickets() - (previous != null ? previous.tickets() : 0));
+        }
+
+        private void release(Integer bookingId) {
+            Seat previous = live.remove(bookingId);
+            if (previous != null) {
+                tickets.addAndGet(-previous.tickets());
+            }
+        }
+
+        private List<String> seatNumbers() {
+            List<String> numbers = new ArrayList<>(live.size());
+            for (Map.Entry<Integer, Seat> e : live.entrySet()) {
+                String number = e.getValue().number();
+                if (number != null && !number.isEmpty()) {
+                    numbers.add(number);
+                }
+            }
+            return numbers;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.flightapp.bookingservice.repository;
+
+import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.enums.MEAL;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Set-based statements on the bookings table that JPA cannot batch
+// (Booking ids are IDENTITY columns, so Hibernate inserts rows one by one).
+@Repository
+@RequiredArgsConstructor
+public class BookingJdbcRepository {
+
+    private static final String INSERT_BOOKING =
+            "INSERT INTO bookings (flight_id, passenger_name, age, gender, meal, email, " +
+                    "number_of_tickets, seat_number, status, pnr, created_at, updated_at, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now(), 0)";
+
+    private static final String CLAIM_PNR = "INSERT INTO booking_pnrs (pnr) VALUES (?)";
+
+    // Cancels the next chunk of live bookings on a flight in one statement, lowest ids first
+    private static final String CANCEL_CHUNK =
+            "UPDATE bookings SET status = 'CANCELLED', version = COALESCE(version, 0) + 1, updated_at = now() " +
+                    "WHERE id IN (" +
+                    "SELECT id FROM bookings WHERE flight_id = ? AND status = 'BOOKED' AND id > ? " +
+                    "ORDER BY id LIMIT ?) " +
+                    "RETURNING id, flight_id, passenger_name, age, gender, meal, email, " +
+                    "number_of_tickets, seat_number, status, pnr, version";
+
+    private static final String SELECT_BOOKING =
+            "SELECT id, flight_id, passenger_name, age, gender, meal, email, " +
+                    "number_of_tickets, seat_number, status, pnr, version FROM bookings ";
+    private static final String SELECT_OF_FLIGHTS = SELECT_BOOKING + "WHERE flight_id = ANY (?) ORDER BY id";
+    private static final String SELECT_CHANGED_SINCE = SELECT_BOOKING + "WHERE updated_at >= ? ORDER BY id";
+
+    private static final String BOOKED_FLIGHT_IDS = "SELECT DISTINCT flight_id FROM bookings";
+
+    private static final String SELECT_EXPORT =
+            "SELECT id, pnr, flight_id, passenger_name, age, gender, meal, email, " +
+                    "number_of_tickets, seat_number, status, created_at FROM bookings";
+
+    // Booked tickets and seat numbers of many flights in one grouped query
+    private static final String BOOKED_SEATS_BY_FLIGHT =
+            "SELECT flight_id, SUM(COALESCE(number_of_tickets, 1)) AS booked, " +
+                    "array_agg(seat_number) FILTER (WHERE seat_number <> '') AS seats " +
+                    "FROM bookings WHERE status = 'BOOKED' AND flight_id = ANY (?) GROUP BY flight_id";
+
+    private static final RowMapper<Booking> BOOKING_ROW = (rs, i) -> Booking.builder()
+            .id(rs.getInt("id"))
+            .flightId(rs.getInt("flight_id"))
+            .passengerName(rs.getString("passenger_name"))
+            .age((Integer) rs.getObject("age"))
+            .gender(rs.getString("gender") != null ? GENDER.valueOf(rs.getString("gender")) : null)
+            .meal(rs.getString("meal") != null ? MEAL.valueOf(rs.getString("meal")) : null)
+            .email(rs.getString("email"))
+            .numberOfTickets((Integer) rs.getObject("number_of_tickets"))
+            .seatNumber(rs.getString("seat_number"))
+            .status(rs.getString("status"))
+            .pnr(rs.getString("pnr"))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record BookedSeats(int flightId, int bookedCount, List<String> seatNumbers) {
+    }
+
+    // Sent as a single JDBC batch; with reWriteBatchedInserts the driver turns it
+    // into one multi-row INSERT. Joins the caller's transaction. Generated ids are
+    // set on the given bookings.
+    public void insertAll(List<Booking> bookings) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_BOOKING, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking b = bookings.get(i);
+                        ps.setInt(1, b.getFlightId());
+                        ps.setString(2, b.getPassengerName());
+                        ps.setInt(3, b.getAge());
+                        ps.setString(4, b.getGender() != null ? b.getGender().name() : null);
+                        ps.setString(5, b.getMeal() != null ? b.getMeal().name() : null);
+                        ps.setString(6, b.getEmail());
+                        ps.setInt(7, b.getNumberOfTickets());
+                        ps.setString(8, b.getSeatNumber());
+                        ps.setString(9, b.getStatus());
+                        ps.setString(10, b.getPnr());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < ids.size(); i++) {
+            bookings.get(i).setId(((Number) ids.get(i).get("id")).intValue());
+        }
+    }
+
+    // Throws DuplicateKeyException when the PNR was handed out before. Joins the caller's
+    // transaction, so a rolled-back booking gives its PNR back.
+    public void claimPnr(String pnr) {
+        jdbcTemplate.update(CLAIM_PNR, pnr);
+    }
+
+    // Auto-commits on its own when called outside a transaction, so every chunk is final
+    public List<Booking> cancelBookedChunk(int flightId, int afterId, int limit) {
+        return jdbcTemplate.query(CANCEL_CHUNK, BOOKING_ROW, flightId, afterId, limit);
+    }
+
+    // Every flight that has ever been booked, read from idx_bookings_flight_id_id
+    public List<Integer> findBookedFlightIds() {
+        return jdbcTemplate.queryForList(BOOKED_FLIGHT_IDS, Integer.class);
+    }
+
+    // Streams the bookings of the given flights in id order. The driver only uses a
+    // server-side cursor inside a transaction, so fetchSize rows are held in memory at a time.
+    @Transactional(readOnly = true)
+    public void forEachBookingOfFlights(List<Integer> flightIds, int fetchSize, Consumer<Booking> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_OF_FLIGHTS);
+            ps.setArray(1, con.createArrayOf("integer", flightIds.toArray()));
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(BOOKING_ROW.mapRow(rs, 0)));
+    }
+
+    // Streams the bookings inserted or changed since the given time, in id order
+    @Transactional(readOnly = true)
+    public void forEachBookingChangedSince(LocalDateTime since, int fetchSize, Consumer<Booking> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_CHANGED_SINCE);
+            ps.setTimestamp(1, Timestamp.valueOf(since));
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(BOOKING_ROW.mapRow(rs, 0)));
+    }
+
+    // Export rows in id order, handed to the callback straight from the cursor.
+    // from is inclusive and to exclusive; null filters are left out.
+    @Transactional(readOnly = true)
+    public void streamForExport(Integer flightId, LocalDateTime from, LocalDateTime to,
+                                int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT_EXPORT).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (flightId != null) {
+            sql.append(" AND flight_id = ?");
+            args.add(flightId);
+        }
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    // Flights without live bookings are left out of the result
+    public List<BookedSeats> findBookedSeats(List<Integer> flightIds) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BOOKED_SEATS_BY_FLIGHT);
+            ps.setArray(1, con.createArrayOf("integer", flightIds.toArray()));
+            return ps;
+        }, (rs, i) -> {
+            Array seats = rs.getArray("seats");
+            return new BookedSeats(rs.getInt("flight_id"), rs.getInt("booked"),
+                    seats != null ? List.of((String[]) seats.getArray()) : List.of());
+        });
+    }
+}
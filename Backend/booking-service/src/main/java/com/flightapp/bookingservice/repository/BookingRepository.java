@@ -1,7 +1,11 @@
 package com.flightapp.bookingservice.repository;
 
+import com.flightapp.bookingservice.dto.response.BookingSummary;
 import com.flightapp.bookingservice.entity.Booking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,9 +13,26 @@ import java.util.Optional;
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
     Optional<Booking> findById(Integer id);
 
-    List<Booking> findByEmail(String email);
+    // One page of booking history, newest first, using keyset pagination on id
+    @Query("SELECT new com.flightapp.bookingservice.dto.response.BookingSummary(" +
+            "b.id, b.flightId, b.passengerName, b.meal, b.numberOfTickets, b.seatNumber, b.status, b.pnr) " +
+            "FROM Booking b WHERE b.email = :email AND b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingSummary> findHistoryPage(@Param("email") String email,
+                                         @Param("beforeId") Integer beforeId,
+                                         Pageable page);
 
-    Optional<Booking> findByPnr(String pnr);
+    // Group bookings share a PNR; the lead passenger is the first row
+    Optional<Booking> findFirstByPnrOrderByIdAsc(String pnr);
+
+    // Which of the given seats are already taken on a flight
+    @Query("SELECT b.seatNumber FROM Booking b " +
+            "WHERE b.flightId = :flightId AND b.status = 'BOOKED' AND b.seatNumber IN :seats")
+    List<String> findTakenSeats(@Param("flightId") Integer flightId, @Param("seats") List<String> seats);
+
+    // Seat numbers currently taken on a flight, for seat allocation
+    @Query("SELECT b.seatNumber FROM Booking b " +
+            "WHERE b.flightId = :flightId AND b.status = 'BOOKED' AND b.seatNumber IS NOT NULL")
+    List<String> findBookedSeatNumbers(@Param("flightId") Integer flightId);
 
     // Get all bookings for a flight to find booked seats
     List<Booking> findByFlightIdAndStatus(Integer flightId, String status);
@@ -0,0 +1,57 @@
+package com.flightapp.bookingservice.repository;
+
+import com.flightapp.bookingservice.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims a key for the calling request. Returns 1 when the key was free or its
+    // previous claim had expired, 0 when another request already holds it.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) " +
+            "VALUES (:key, :requestHash, :now, :expiresAt) " +
+            "ON CONFLICT (idempotency_key) DO UPDATE " +
+            "SET booking_id = NULL, pnr = NULL, request_hash = :requestHash, created_at = :now, expires_at = :expiresAt " +
+            "WHERE idempotency_keys.expires_at < :now",
+            nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Keeps a running claim alive. claimedAt identifies the claim, so a claim that lapsed
+    // and was taken by another request is left alone (returns 0).
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.expiresAt = :expiresAt " +
+            "WHERE r.idempotencyKey = :key AND r.createdAt = :claimedAt AND r.pnr IS NULL")
+    int extendClaim(@Param("key") String key,
+                    @Param("claimedAt") LocalDateTime claimedAt,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.bookingId = :bookingId, r.pnr = :pnr, r.expiresAt = :expiresAt " +
+            "WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key,
+                 @Param("bookingId") Integer bookingId,
+                 @Param("pnr") String pnr,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.pnr IS NULL")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,252 @@
+package com.flightapp.bookingservice.seating;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Picks seats for a group so that it sits as close together as the flight allows.
+ *
+ * Works on one free-seat bitmask per row taken from the occupancy bitset. In order of
+ * preference the group gets:
+ * 1. one contiguous block in a single row, not split by the aisle;
+ * 2. one contiguous block in a single row across the aisle;
+ * 3. seats in the fewest neighbouring rows, in as few contiguous pieces as possible.
+ * Ties go to the tightest free run (keeping larger runs for larger groups), then to the
+ * front of the cabin. A full search of a 72-seat cabin takes a few microseconds.
+ */
+@Component
+public class SeatAllocator {
+
+    private final SeatLayout layout;
+    private final int width;
+    private final int rowMask;
+    // Bits on both sides of the aisle; a block holding both crosses it
+    private final int aisleBits;
+
+    public SeatAllocator(SeatLayout layout) {
+        this.layout = layout;
+        this.width = layout.seatsPerRow();
+        this.rowMask = (1 << width) - 1;
+        this.aisleBits = layout.aisleAfter() == 0 ? 0 : 0b11 << (layout.aisleAfter() - 1);
+    }
+
+    public SeatLayout layout() {
+        return layout;
+    }
+
+    // Seat numbers for the group, or an empty list when fewer than count seats are free
+    public List<String> allocate(Collection<String> bookedSeats, int count) {
+        int[] seats = allocate(layout.occupancy(bookedSeats), count);
+        return seats == null ? List.of() : Arrays.stream(seats).mapToObj(layout::seatNumber).toList();
+    }
+
+    // Zero-based seat indexes in ascending order, or null when fewer than count seats are free
+    public int[] allocate(long[] occupied, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1");
+        }
+        int rows = layout.rows();
+        int[] free = new int[rows];
+        int totalFree = 0;
+        for (int r = 0; r < rows; r++) {
+            free[r] = ~rowBits(occupied, r) & rowMask;
+            totalFree += Integer.bitCount(free[r]);
+        }
+        if (totalFree < count) {
+            return null;
+        }
+
+        int[] chosen = new int[rows];
+        if (count <= width && bestBlockInOneRow(free, count, chosen)) {
+            return toIndexes(chosen);
+        }
+        for (int span = Math.max(2, (count + width - 1) / width); span <= rows; span++) {
+            if (bestWindow(free, span, count, chosen)) {
+                return toIndexes(chosen);
+            }
+        }
+        // Unreachable: the window over all rows holds every free seat
+        return null;
+    }
+
+    // ---------- SINGLE ROW ----------
+    private boolean bestBlockInOneRow(int[] free, int count, int[] chosen) {
+        long bestCost = Long.MAX_VALUE;
+        int bestRow = -1;
+        int bestBlock = 0;
+        int block = (1 << count) - 1;
+
+        for (int r = 0; r < free.length; r++) {
+            int row = free[r];
+            if (Integer.bitCount(row) < count) {
+                continue;
+            }
+            // Bit s is set when seats s .. s+count-1 are all free
+            int starts = row;
+            for (int i = 1; i < count; i++) {
+                starts &= row >>> i;
+            }
+            while (starts != 0) {
+                int s = Integer.numberOfTrailingZeros(starts);
+                starts &= starts - 1;
+                int mask = block << s;
+                long cost = ((long) (crossesAisle(mask) ? 1 : 0) << 40)
+                        | ((long) (runLength(row, s) - count) << 20)
+                        | ((long) r << 5)
+                        | s;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestRow = r;
+                    bestBlock = mask;
+                }
+            }
+        }
+        if (bestRow < 0) {
+            return false;
+        }
+        chosen[bestRow] = bestBlock;
+        return true;
+    }
+
+    // ---------- NEIGHBOURING ROWS ----------
+    private boolean bestWindow(int[] free, int span, int count, int[] chosen) {
+        int bestStart = -1;
+        int bestPieces = Integer.MAX_VALUE;
+        int[] scratch = new int[span];
+
+        for (int start = 0; start + span <= free.length; start++) {
+            int available = 0;
+            for (int r = start; r < start + span; r++) {
+                available += Integer.bitCount(free[r]);
+            }
+            if (available < count) {
+                continue;
+            }
+            int pieces = fillWindow(free, start, span, count, scratch);
+            if (pieces < bestPieces) {
+                bestPieces = pieces;
+                bestStart = start;
+            }
+        }
+        if (bestStart < 0) {
+            return false;
+        }
+        fillWindow(free, bestStart, span, count, scratch);
+        System.arraycopy(scratch, 0, chosen, bestStart, span);
+        return true;
+    }
+
+    // Takes seats row by row through the window; returns the number of contiguous pieces
+    private int fillWindow(int[] free, int start, int span, int count, int[] out) {
+        int remaining = count;
+        int pieces = 0;
+        for (int i = 0; i < span; i++) {
+            int take = Math.min(remaining, Integer.bitCount(free[start + i]));
+            out[i] = take == 0 ? 0 : chooseInRow(free[start + i], take);
+            pieces += pieces(out[i]);
+            remaining -= take;
+        }
+        return pieces;
+    }
+
+    // take seats out of one row's free mask in as few pieces as possible
+    private int chooseInRow(int row, int take) {
+        if (take == Integer.bitCount(row)) {
+            return row;
+        }
+        int fit = bestFittingRun(row, take);
+        if (fit >= 0) {
+            return ((1 << take) - 1) << fit;
+        }
+        // No run is long enough: take the longest runs first
+        int mask = 0;
+        int remaining = take;
+        while (remaining > 0) {
+            int left = row & ~mask;
+            int bestStart = 0;
+            int bestLength = 0;
+            for (int s = 0; s < width; s++) {
+                if ((left & (1 << s)) != 0 && (s == 0 || (left & (1 << (s - 1))) == 0)) {
+                    int length = runLength(left, s);
+                    if (length > bestLength) {
+                        bestLength = length;
+                        bestStart = s;
+                    }
+                }
+            }
+            int t = Math.min(bestLength, remaining);
+            mask |= ((1 << t) - 1) << bestStart;
+            remaining -= t;
+        }
+        return mask;
+    }
+
+    // Start of the shortest free run holding at least take seats, or -1
+    private int bestFittingRun(int row, int take) {
+        int best = -1;
+        int bestLength = Integer.MAX_VALUE;
+        for (int s = 0; s < width; s++) {
+            if ((row & (1 << s)) != 0 && (s == 0 || (row & (1 << (s - 1))) == 0)) {
+                int length = runLength(row, s);
+                if (length >= take && length < bestLength) {
+                    best = s;
+                    bestLength = length;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Length of the run of set bits in row that contains bit s
+    private int runLength(int row, int s) {
+        int from = s;
+        while (from > 0 && (row & (1 << (from - 1))) != 0) {
+            from--;
+        }
+        int to = s;
+        while (to < width && (row & (1 << to)) != 0) {
+            to++;
+        }
+        return to - from;
+    }
+
+    // Contiguous pieces in a row mask, counting the aisle as a break
+    private int pieces(int mask) {
+        return Integer.bitCount(mask & ~(mask << 1)) + (crossesAisle(mask) ? 1 : 0);
+    }
+
+    private boolean crossesAisle(int mask) {
+        return aisleBits != 0 && (mask & aisleBits) == aisleBits;
+    }
+
+    private int rowBits(long[] occupied, int row) {
+        int from = row * width;
+        int word = from >>> 6;
+        int shift = from & 63;
+        long bits = word < occupied.length ? occupied[word] >>> shift : 0;
+        if (shift + width > 64 && word + 1 < occupied.length) {
+            bits |= occupied[word + 1] << (64 - shift);
+        }
+        return (int) bits & rowMask;
+    }
+
+    private int[] toIndexes(int[] chosen) {
+        int total = 0;
+        for (int mask : chosen) {
+            total += Integer.bitCount(mask);
+        }
+        int[] seats = new int[total];
+        int n = 0;
+        for (int r = 0; r < chosen.length; r++) {
+            int mask = chosen[r];
+            while (mask != 0) {
+                seats[n++] = r * width + Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+            }
+        }
+        return seats;
+    }
+}
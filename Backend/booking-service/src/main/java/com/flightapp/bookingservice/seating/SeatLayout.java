@@ -0,0 +1,64 @@
+package com.flightapp.bookingservice.seating;
+
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Cabin grid: rows of seatsPerRow seats with an aisle after column aisleAfter.
+ * Seat numbers are 1-based and run row by row, as on the booking page
+ * ("1".."6" is the first row of the default 12 x 6 layout).
+ */
+public record SeatLayout(int rows, int seatsPerRow, int aisleAfter) {
+
+    public SeatLayout {
+        if (rows < 1 || seatsPerRow < 1 || seatsPerRow > 16 || aisleAfter < 0 || aisleAfter >= seatsPerRow) {
+            throw new IllegalArgumentException("Invalid seat layout " + rows + "x" + seatsPerRow + ", aisle after " + aisleAfter);
+        }
+    }
+
+    public int totalSeats() {
+        return rows * seatsPerRow;
+    }
+
+    // Zero-based seat index, or -1 for anything that is not a seat of this layout
+    public int indexOf(String seatNumber) {
+        if (seatNumber == null || seatNumber.isEmpty() || seatNumber.length() > 6) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = 0; i < seatNumber.length(); i++) {
+            char c = seatNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number >= 1 && number <= totalSeats() ? number - 1 : -1;
+    }
+
+    public String seatNumber(int index) {
+        return String.valueOf(index + 1);
+    }
+
+    // One bit per seat, set when the seat is taken
+    public long[] occupancy(Collection<String> bookedSeats) {
+        long[] words = new long[(totalSeats() + 63) >>> 6];
+        for (String seat : bookedSeats) {
+            int index = indexOf(seat);
+            if (index >= 0) {
+                words[index >>> 6] |= 1L << index;
+            }
+        }
+        return words;
+    }
+
+    // Occupancy as base64, seat n in bit (n-1) % 8 of byte (n-1) / 8
+    public String bitmap(Collection<String> bookedSeats) {
+        long[] words = occupancy(bookedSeats);
+        byte[] bytes = new byte[(totalSeats() + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
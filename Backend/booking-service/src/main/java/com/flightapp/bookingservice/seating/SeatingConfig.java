@@ -0,0 +1,18 @@
+package com.flightapp.bookingservice.seating;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SeatingConfig {
+
+    // Same grid as the booking page
+    @Bean
+    public SeatLayout seatLayout(
+            @Value("${booking.seating.rows:12}") int rows,
+            @Value("${booking.seating.seats-per-row:6}") int seatsPerRow,
+            @Value("${booking.seating.aisle-after:3}") int aisleAfter) {
+        return new SeatLayout(rows, seatsPerRow, aisleAfter);
+    }
+}
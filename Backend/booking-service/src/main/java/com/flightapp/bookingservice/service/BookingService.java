@@ -1,16 +1,27 @@
 package com.flightapp.bookingservice.service;
 
 import com.flightapp.bookingservice.dto.request.BookingRequest;
+import com.flightapp.bookingservice.dto.request.GroupBookingRequest;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
+import com.flightapp.bookingservice.dto.response.BookingSummary;
 import com.flightapp.bookingservice.entity.Booking;
 
 import java.util.List;
 
 public interface BookingService {
+
+    // Upper bound for one page of booking history
+    int MAX_HISTORY_PAGE_SIZE = 200;
+
     Booking bookTicket(BookingRequest request);
 
+    // Books every passenger under one PNR, or none of them
+    GroupBookingResponse bookGroup(GroupBookingRequest request);
+
     Booking getBookingById(Integer id);
 
-    List<Booking> getBookingsByEmail(String email);
+    // One page of booking history; pass the last id of the previous page as beforeId
+    List<BookingSummary> getBookingsByEmail(String email, Integer beforeId, int size, boolean includeFlights);
 
     Booking cancelBooking(Integer id);
 
@@ -18,4 +29,7 @@ public interface BookingService {
 
     // Get list of booked seat numbers for a flight
     List<String> getBookedSeats(Integer flightId);
+
+    // Tickets currently booked on a flight
+    int getBookedCount(Integer flightId);
 }
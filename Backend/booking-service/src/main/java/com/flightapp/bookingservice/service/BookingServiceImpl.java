@@ -1,35 +1,75 @@
 package com.flightapp.bookingservice.service;
 
+import com.flightapp.bookingservice.cache.FlightSnapshotCache;
+import com.flightapp.bookingservice.config.BookingSchemaMigration;
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.event.SeatReleaseEvent;
 import com.flightapp.bookingservice.dto.request.BookingRequest;
+import com.flightapp.bookingservice.dto.request.GroupBookingRequest;
+import com.flightapp.bookingservice.dto.request.PassengerRequest;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
+import com.flightapp.bookingservice.dto.response.BookingSummary;
 import com.flightapp.bookingservice.dto.response.FlightResponse;
 import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
 import com.flightapp.bookingservice.exception.BookingInvalidException;
 import com.flightapp.bookingservice.exception.BookingNotFoundException;
+import com.flightapp.bookingservice.exception.SeatConflictException;
+import com.flightapp.bookingservice.exception.ServiceOverloadedException;
 import com.flightapp.bookingservice.feign.FlightServiceClient;
 import com.flightapp.bookingservice.producer.RabbitMQProducer;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
 import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.util.PnrGenerator;
+import feign.FeignException;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository repo;
+    private final BookingJdbcRepository jdbcRepo;
     private final FlightServiceClient flightClient;
     private final RabbitMQProducer producer;
+    private final PnrGenerator pnrGenerator;
+    private final FlightSnapshotCache flightSnapshots;
+    private final ApplicationEventPublisher events;
+    private final BookingReadModel readModel;
 
     private static final String FLIGHT_CB = "flightServiceCB";
 
+    // Separate bulkheads, so a flood of bookings cannot starve cancellations (and vice versa)
+    private static final String BOOKING_BULKHEAD = "bookingBulkhead";
+    private static final String CANCEL_BULKHEAD = "cancelBulkhead";
+    private static final long BULKHEAD_RETRY_AFTER_SECONDS = 1;
+
     @Override
+    @Bulkhead(name = BOOKING_BULKHEAD)
     @CircuitBreaker(name = FLIGHT_CB, fallbackMethod = "flightServiceFallback")
     public Booking bookTicket(BookingRequest request) {
 
@@ -39,8 +79,9 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingInvalidException("Not enough seats available");
         }
 
-        // generate PNR
-        String pnr = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        // generate PNR (unique across instances); booking_pnrs refuses it if two
+        // misconfigured instances ever hand out the same one
+        String pnr = claimPnr();
 
         Booking booking = Booking.builder()
                 .flightId(request.getFlightId())
@@ -55,47 +96,216 @@ public class BookingServiceImpl implements BookingService {
                 .pnr(pnr)
                 .build();
 
-        Booking saved = repo.save(booking);
+        Booking saved;
+        try {
+            saved = repo.save(booking);
+        } catch (DataIntegrityViolationException ex) {
+            if (!(ex.getCause() instanceof ConstraintViolationException violation)
+                    || !BookingSchemaMigration.BOOKED_SEAT_INDEX.equals(violation.getConstraintName())) {
+                throw ex;
+            }
+            throw new SeatConflictException("Seat " + request.getSeatNumber() + " was just booked, please choose another");
+        }
+        events.publishEvent(BookingLifecycleEvent.booked(booking));
 
         // -------------- REDUCE SEATS IN FLIGHT SERVICE ----------------
         flightClient.reduceSeats(request.getFlightId(), request.getNumberOfTickets());
 
-        // -------------- SEND EMAIL MESSAGE TO RABBITMQ ----------------
-        String emailMessage = " Booking Confirmed!\n" +
-                "PNR: " + pnr + "\n" +
-                "Passenger: " + request.getPassengerName() + "\n" +
-                "Seat: " + request.getSeatNumber() + "\n" +
-                "Email: " + request.getEmail();
-
-        producer.sendBookingEmail(emailMessage);
+        // -------------- SEND EMAIL NOTIFICATION TO RABBITMQ ----------------
+        producer.sendBookingNotification(BookingNotification.confirmed(List.of(booking), flight));
 
         return saved;
     }
 
     // ---------- FALLBACK METHOD ----------
     public Booking flightServiceFallback(BookingRequest request, Throwable ex) {
+        rethrowIfOverloaded(ex);
+        if (ex instanceof SeatConflictException conflict) {
+            throw conflict;
+        }
+        throw new BookingInvalidException("Flight service unavailable, booking cannot be processed right now.");
+    }
+
+    @Override
+    @Transactional
+    @Bulkhead(name = BOOKING_BULKHEAD)
+    @CircuitBreaker(name = FLIGHT_CB, fallbackMethod = "groupBookingFallback")
+    public GroupBookingResponse bookGroup(GroupBookingRequest request) {
+
+        List<PassengerRequest> passengers = request.getPassengers();
+        List<String> seats = passengers.stream().map(PassengerRequest::getSeatNumber).toList();
+
+        Set<String> distinctSeats = new HashSet<>(seats);
+        if (distinctSeats.size() != seats.size()) {
+            throw new BookingInvalidException("Each passenger needs a different seat");
+        }
+
+        // One flight lookup and one seat check for the whole group
+        FlightResponse flight = flightClient.getFlightById(request.getFlightId());
+        if (passengers.size() > flight.getSeatsAvailable()) {
+            throw new BookingInvalidException("Not enough seats available");
+        }
+
+        List<String> taken = repo.findTakenSeats(request.getFlightId(), seats);
+        if (!taken.isEmpty()) {
+            throw new SeatConflictException("Seats already booked: " + String.join(", ", taken));
+        }
+
+        String pnr = claimPnr();
+
+        List<Booking> bookings = passengers.stream()
+                .map(p -> Booking.builder()
+                        .flightId(request.getFlightId())
+                        .passengerName(p.getPassengerName())
+                        .age(p.getAge())
+                        .gender(p.getGender())
+                        .meal(p.getMeal())
+                        .email(request.getEmail())
+                        .numberOfTickets(1)
+                        .seatNumber(p.getSeatNumber())
+                        .status("BOOKED")
+                        .pnr(pnr)
+                        .build())
+                .toList();
+
+        try {
+            jdbcRepo.insertAll(bookings);
+        } catch (DuplicateKeyException ex) {
+            // Lost the race for a seat to a booking committed after the check above
+            throw new SeatConflictException("Some of the seats were just booked, please choose again");
+        }
+
+        // -------------- ONE SEAT DECREMENT FOR THE GROUP ----------------
+        // If this fails the transaction rolls back, so no passenger stays booked.
+        // If it succeeds but the commit does not, the seats are handed back on rollback
+        // (keyed by the first booking id, which the rolled-back insert used up for good)
+        flightClient.reduceSeats(request.getFlightId(), passengers.size());
+        events.publishEvent(new SeatReleaseEvent(bookings.get(0).getId(), request.getFlightId(), passengers.size()));
+
+        // Delivered to listeners only once the group is committed
+        bookings.forEach(b -> events.publishEvent(BookingLifecycleEvent.booked(b)));
+
+        // -------------- SEND EMAIL NOTIFICATION TO RABBITMQ (AFTER COMMIT) ----------------
+        events.publishEvent(BookingNotification.confirmed(bookings, flight));
+
+        return new GroupBookingResponse(pnr, seats);
+    }
+
+    private String claimPnr() {
+        String pnr = pnrGenerator.next();
+        try {
+            jdbcRepo.claimPnr(pnr);
+        } catch (DuplicateKeyException ex) {
+            // Only possible when two instances share a node id
+            throw new IllegalStateException("PNR " + pnr + " was already issued; check that every " +
+                    "booking-service instance has its own booking.pnr.node-id", ex);
+        }
+        return pnr;
+    }
+
+    public GroupBookingResponse groupBookingFallback(GroupBookingRequest request, Throwable ex) {
+        rethrowIfOverloaded(ex);
+        // Validation failures are not flight-service outages, report them as they are
+        if (ex instanceof BookingInvalidException invalid) {
+            throw invalid;
+        }
         throw new BookingInvalidException("Flight service unavailable, booking cannot be processed right now.");
     }
 
     @Override
+    @Bulkhead(name = CANCEL_BULKHEAD)
     @CircuitBreaker(name = FLIGHT_CB, fallbackMethod = "getBookingFallback")
     public Booking cancelBooking(Integer id) {
 
         Booking booking = repo.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
+        if (isCancelled(booking)) {
+            return booking;
+        }
+
+        // Departure times rarely change, so a recent snapshot saves the remote call
+        FlightResponse flight = flightSnapshots.getFresh(booking.getFlightId())
+                .orElseGet(() -> flightClient.getFlightById(booking.getFlightId()));
 
-        FlightResponse flight = flightClient.getFlightById(booking.getFlightId());
+        return cancel(booking, flight);
+    }
 
+    private Booking cancel(Booking booking, FlightResponse flight) {
+        // Cancelling twice is a no-op: no new version, seat release or email
+        if (isCancelled(booking)) {
+            return booking;
+        }
         if (Duration.between(LocalDateTime.now(), flight.getDepartureTime()).toHours() < 24) {
             throw new BookingInvalidException("Cannot cancel less than 24 hours before departure");
         }
 
         booking.setStatus("CANCELLED");
-        return repo.save(booking);
+        booking.setVersion(booking.getVersion() != null ? booking.getVersion() + 1 : 1);
+        Booking saved = repo.save(booking);
+        events.publishEvent(BookingLifecycleEvent.cancelled(booking));
+
+        // -------------- GIVE THE SEATS BACK (APPLIED ASYNCHRONOUSLY BY FLIGHT SERVICE) ----------------
+        // Keyed by booking id, so a retried cancel can safely publish it again
+        producer.sendSeatRelease(new SeatReleaseEvent(
+                booking.getId(), booking.getFlightId(), booking.getNumberOfTickets()));
+
+        producer.sendBookingNotification(BookingNotification.cancelled(List.of(booking), flight, null));
+
+        return saved;
+    }
+
+    private static boolean isCancelled(Booking booking) {
+        return "CANCELLED".equals(booking.getStatus());
     }
 
     public Booking getBookingFallback(Integer id, Throwable ex) {
-        throw new BookingInvalidException("Flight service unavailable, cancellation cannot be processed now.");
+        // Rejected by the bulkhead: the cancellation never started
+        if (ex instanceof BulkheadFullException) {
+            rethrowIfOverloaded(ex);
+        }
+        // Only a failed flight lookup is answered from the snapshot; business rule failures,
+        // database errors and anything else are reported as they are
+        if (!isFlightServiceFailure(ex)) {
+            if (ex instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex);
+        }
+
+        // flight-service unreachable or circuit open: use the last known departure time
+        Booking booking = repo.findById(id).orElse(null);
+        FlightResponse stale = booking == null ? null
+                : flightSnapshots.getStale(booking.getFlightId()).orElse(null);
+        if (stale == null) {
+            // Shed by the flight-service limiter and nothing cached: still a 503
+            rethrowIfOverloaded(ex);
+            throw new BookingInvalidException("Flight service unavailable, cancellation cannot be processed now.");
+        }
+
+        log.warn("Cancelling booking {} against cached details of flight {}: {}", id, stale.getId(), ex.getMessage());
+        return cancel(booking, stale);
+    }
+
+    // Circuit open, flight-service error or timeout (RetryableException is a FeignException),
+    // or the lookup shed by the flight-service limiter
+    private static boolean isFlightServiceFailure(Throwable ex) {
+        return ex instanceof CallNotPermittedException
+                || ex instanceof FeignException
+                || ex instanceof ServiceOverloadedException;
+    }
+
+    // Shed load is not an outage: answer 503 + Retry-After instead of a 400
+    private static void rethrowIfOverloaded(Throwable ex) {
+        if (ex instanceof ServiceOverloadedException overloaded) {
+            throw overloaded;
+        }
+        if (ex instanceof BulkheadFullException) {
+            throw new ServiceOverloadedException("Too many requests in progress, please retry shortly",
+                    BULKHEAD_RETRY_AFTER_SECONDS);
+        }
     }
 
     @Override
@@ -106,22 +316,62 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Booking getBookingByPnr(String pnr) {
-        return repo.findByPnr(pnr)
+        // A PNR booked a moment ago may not have reached the read model yet
+        return readModel.findByPnr(pnr)
+                .or(() -> repo.findFirstByPnrOrderByIdAsc(pnr))
                 .orElseThrow(() -> new BookingNotFoundException("PNR not found"));
     }
 
     @Override
-    public List<Booking> getBookingsByEmail(String email) {
-        return repo.findByEmail(email);
+    public List<BookingSummary> getBookingsByEmail(String email, Integer beforeId, int size, boolean includeFlights) {
+        if (size < 1) {
+            throw new BookingInvalidException("Page size must be at least 1");
+        }
+
+        List<BookingSummary> page = repo.findHistoryPage(
+                email,
+                beforeId != null ? beforeId : Integer.MAX_VALUE,
+                PageRequest.ofSize(Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+
+        if (includeFlights && !page.isEmpty()) {
+            attachFlights(page);
+        }
+        return page;
+    }
+
+    // One bulk call for all flights on the page; history still loads if flight-service is down
+    private void attachFlights(List<BookingSummary> page) {
+        List<Integer> flightIds = page.stream()
+                .map(BookingSummary::getFlightId)
+                .distinct()
+                .toList();
+        try {
+            Map<Integer, FlightResponse> flights = flightClient.getFlightsByIds(flightIds)
+                    .stream()
+                    .collect(Collectors.toMap(FlightResponse::getId, Function.identity()));
+            page.forEach(b -> b.setFlight(flights.get(b.getFlightId())));
+        } catch (RuntimeException ex) {
+            log.warn("Could not load flight details for booking history: {}", ex.getMessage());
+        }
     }
 
     @Override
     public List<String> getBookedSeats(Integer flightId) {
-        // Get all BOOKED bookings for this flight and extract seat numbers
-        return repo.findByFlightIdAndStatus(flightId, "BOOKED")
-                .stream()
-                .map(Booking::getSeatNumber)
-                .filter(seat -> seat != null && !seat.isEmpty())
-                .collect(Collectors.toList());
+        return readModel.bookedSeats(flightId).orElseGet(() ->
+                // Get all BOOKED bookings for this flight and extract seat numbers
+                repo.findByFlightIdAndStatus(flightId, "BOOKED")
+                        .stream()
+                        .map(Booking::getSeatNumber)
+                        .filter(seat -> seat != null && !seat.isEmpty())
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public int getBookedCount(Integer flightId) {
+        return readModel.bookedCount(flightId).orElseGet(() ->
+                repo.findByFlightIdAndStatus(flightId, "BOOKED")
+                        .stream()
+                        .mapToInt(b -> b.getNumberOfTickets() != null ? b.getNumberOfTickets() : 1)
+                        .sum());
     }
 }
@@ -0,0 +1,195 @@
+package com.flightapp.bookingservice.service;
+
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.response.BulkCancellationStatus;
+import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.exception.BookingNotFoundException;
+import com.flightapp.bookingservice.producer.RabbitMQProducer;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels every live booking on a flight the airline has cancelled, in the background.
+ *
+ * Bookings are cancelled in chunks of booking.bulk-cancel.chunk-size with one set-based
+ * UPDATE ... RETURNING per chunk, walking the flight's bookings by id, so memory use does
+ * not depend on the size of the flight. Each chunk's passengers are notified with one
+ * batch of messages on the email queue. No flight-service calls are made: the flight is
+ * gone, so neither the departure check nor seat releases apply.
+ *
+ * A chunk is committed before its notifications are sent; if the service stops in
+ * between, those passengers are cancelled but not emailed.
+ */
+@Slf4j
+@Service
+public class BulkCancellationService {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private static final String CANCELLATION_REASON = "Flight cancelled by the airline";
+
+    private final BookingJdbcRepository jdbcRepo;
+    private final RabbitMQProducer producer;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+    private final Executor executor;
+
+    private final Cache<String, Job> jobs = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+    private final ConcurrentMap<Integer, Job> runningByFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BulkCancellationService(
+            BookingJdbcRepository jdbcRepo,
+            RabbitMQProducer producer,
+            ApplicationEventPublisher events,
+            @Value("${booking.bulk-cancel.chunk-size:500}") int chunkSize,
+            @Value("${booking.bulk-cancel.max-parallel-jobs:2}") int maxParallelJobs) {
+        this(jdbcRepo, producer, events, chunkSize, Executors.newFixedThreadPool(maxParallelJobs));
+    }
+
+    BulkCancellationService(BookingJdbcRepository jdbcRepo, RabbitMQProducer producer,
+                            ApplicationEventPublisher events, int chunkSize, Executor executor) {
+        this.jdbcRepo = jdbcRepo;
+        this.producer = producer;
+        this.events = events;
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+    }
+
+    // Starts a job, or returns the one already running for this flight
+    public BulkCancellationStatus cancelAllForFlight(Integer flightId) {
+        Job job = new Job(UUID.randomUUID().toString(), flightId);
+        Job running = runningByFlight.putIfAbsent(flightId, job);
+        if (running != null) {
+            return running.toStatus();
+        }
+
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RuntimeException ex) {
+            job.fail(ex);
+            runningByFlight.remove(flightId, job);
+        }
+        return job.toStatus();
+    }
+
+    public BulkCancellationStatus getStatus(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new BookingNotFoundException("Cancellation job not found");
+        }
+        return job.toStatus();
+    }
+
+    private void run(Job job) {
+        int afterId = 0;
+        try {
+            while (true) {
+                List<Booking> chunk = jdbcRepo.cancelBookedChunk(job.flightId, afterId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                job.cancelled.addAndGet(chunk.size());
+                chunk.forEach(b -> events.publishEvent(BookingLifecycleEvent.cancelled(b)));
+
+                List<BookingNotification> messages = notifications(chunk);
+                producer.sendBookingNotifications(messages);
+                job.notified.addAndGet(messages.size());
+
+                afterId = chunk.stream().mapToInt(Booking::getId).max().getAsInt();
+            }
+            job.complete();
+            log.info("Cancelled {} bookings on flight {}", job.cancelled.get(), job.flightId);
+        } catch (RuntimeException ex) {
+            log.error("Bulk cancellation of flight {} stopped after {} bookings", job.flightId, job.cancelled.get(), ex);
+            job.fail(ex);
+        } finally {
+            runningByFlight.remove(job.flightId, job);
+        }
+    }
+
+    // One email per PNR: a group booking has a row per passenger but a single contact address
+    private static List<BookingNotification> notifications(List<Booking> chunk) {
+        Map<String, List<Booking>> byPnr = new LinkedHashMap<>();
+        chunk.forEach(b -> byPnr.computeIfAbsent(b.getPnr(), k -> new ArrayList<>()).add(b));
+
+        return byPnr.values().stream()
+                .map(bookings -> BookingNotification.cancelled(bookings, null, CANCELLATION_REASON))
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Integer flightId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong cancelled = new AtomicLong();
+        private final AtomicLong notified = new AtomicLong();
+        private volatile String state = RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, Integer flightId) {
+            this.id = id;
+            this.flightId = flightId;
+        }
+
+        private void complete() {
+            finishedAt = LocalDateTime.now();
+            state = COMPLETED;
+        }
+
+        private void fail(RuntimeException ex) {
+            error = ex.getMessage();
+            finishedAt = LocalDateTime.now();
+            state = FAILED;
+        }
+
+        private BulkCancellationStatus toStatus() {
+            return BulkCancellationStatus.builder()
+                    .jobId(id)
+                    .flightId(flightId)
+                    .state(state)
+                    .cancelled(cancelled.get())
+                    .notified(notified.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
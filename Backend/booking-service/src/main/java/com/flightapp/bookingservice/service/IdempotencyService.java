@@ -0,0 +1,250 @@
+package com.flightapp.bookingservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.dto.response.BookingResponse;
+import com.flightapp.bookingservice.entity.IdempotencyRecord;
+import com.flightapp.bookingservice.exception.DuplicateRequestException;
+import com.flightapp.bookingservice.exception.IdempotencyKeyReusedException;
+import com.flightapp.bookingservice.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST /bookings safe to retry.
+ *
+ * The first request with a given Idempotency-Key claims the key in the idempotency_keys
+ * table, runs the booking and stores its result. Replays are answered from a bounded
+ * in-memory cache (falling back to the table) without calling flight-service or writing
+ * a booking. Duplicates arriving while the first request is still running wait for its
+ * result: on the same instance through a shared future, on other instances by polling
+ * the claim row.
+ *
+ * A claim lasts in-flight-timeout-seconds and is extended by a heartbeat for as long as
+ * its booking runs, so a slow booking is never taken over and run a second time; only
+ * the claim of an instance that died lapses. The key also records a hash of the request
+ * body, and reusing it for a different request is refused (422).
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final IdempotencyRecordRepository repo;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final long heartbeatMillis;
+
+    private final Cache<String, Completed> completed;
+    private final ConcurrentMap<String, Attempt> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "idempotency-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repo,
+            ObjectMapper objectMapper,
+            @Value("${booking.idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${booking.idempotency.max-entries:10000}") long maxEntries,
+            @Value("${booking.idempotency.in-flight-timeout-seconds:30}") long inFlightTimeoutSeconds) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.inFlightTimeout = Duration.ofSeconds(inFlightTimeoutSeconds);
+        // Three chances to extend a claim before it would lapse
+        this.heartbeatMillis = Math.max(1, inFlightTimeout.toMillis() / 3);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    private record Completed(BookingResponse response, String requestHash) {
+    }
+
+    private record Attempt(String requestHash, CompletableFuture<BookingResponse> result) {
+    }
+
+    public BookingResponse execute(String key, Object request, Supplier<BookingResponse> action) {
+        String requestHash = hash(request);
+
+        BookingResponse replay = lookup(key, requestHash);
+        if (replay != null) {
+            return replay;
+        }
+
+        Attempt mine = new Attempt(requestHash, new CompletableFuture<>());
+        Attempt running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkSameRequest(running.requestHash(), requestHash);
+            return await(running.result());
+        }
+
+        try {
+            BookingResponse result = runOnce(key, requestHash, action);
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private BookingResponse runOnce(String key, String requestHash, Supplier<BookingResponse> action) {
+        // Stored to the microsecond, so the heartbeat can find this exact claim again
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        if (repo.claim(key, requestHash, claimedAt, claimedAt.plus(inFlightTimeout)) == 0) {
+            // Another instance holds the key (or finished while we were checking)
+            return awaitRemote(key, requestHash);
+        }
+
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> extendClaim(key, claimedAt), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        BookingResponse result;
+        try {
+            result = action.get();
+        } catch (RuntimeException ex) {
+            heartbeat.cancel(false);
+            // Failed attempts must not poison the key, so the client can retry
+            repo.release(key);
+            throw ex;
+        }
+        heartbeat.cancel(false);
+
+        repo.complete(key, result.getId(), result.getPnr(), LocalDateTime.now().plus(ttl));
+        completed.put(key, new Completed(result, requestHash));
+        return result;
+    }
+
+    private void extendClaim(String key, LocalDateTime claimedAt) {
+        try {
+            if (repo.extendClaim(key, claimedAt, LocalDateTime.now().plus(inFlightTimeout)) == 0) {
+                log.warn("Idempotency-Key {} is no longer claimed by this request", key);
+            }
+        } catch (RuntimeException ex) {
+            // The next beat tries again; the claim only lapses if all of them fail
+            log.warn("Could not extend claim on Idempotency-Key {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private BookingResponse lookup(String key, String requestHash) {
+        Completed cached = completed.getIfPresent(key);
+        if (cached == null) {
+            cached = findCompleted(key)
+                    .map(r -> new Completed(new BookingResponse(r.getBookingId(), r.getPnr()), r.getRequestHash()))
+                    .orElse(null);
+            if (cached == null) {
+                return null;
+            }
+            completed.put(key, cached);
+        }
+        checkSameRequest(cached.requestHash(), requestHash);
+        return cached.response();
+    }
+
+    private Optional<IdempotencyRecord> findCompleted(String key) {
+        return repo.findById(key)
+                .filter(IdempotencyRecord::isCompleted)
+                .filter(r -> r.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    // Keys stored before request hashes were recorded have none and match any request
+    private static void checkSameRequest(String original, String requestHash) {
+        if (original != null && !original.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different booking request");
+        }
+    }
+
+    // SHA-256 of the request as JSON; Jackson writes the fields in declaration order
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not hash booking request", ex);
+        }
+    }
+
+    private BookingResponse await(CompletableFuture<BookingResponse> running) {
+        try {
+            return running.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new DuplicateRequestException("A booking with this Idempotency-Key is still being processed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DuplicateRequestException("A booking with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private BookingResponse awaitRemote(String key, String requestHash) {
+        long deadline = System.nanoTime() + inFlightTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Optional<IdempotencyRecord> record = repo.findById(key);
+            if (record.isEmpty()) {
+                // The other attempt failed and released the key
+                throw new DuplicateRequestException("Previous attempt with this Idempotency-Key failed, please retry");
+            }
+            checkSameRequest(record.get().getRequestHash(), requestHash);
+            BookingResponse replay = lookup(key, requestHash);
+            if (replay != null) {
+                return replay;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new DuplicateRequestException("A booking with this Idempotency-Key is still being processed");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    // ---------- CLEANUP OF EXPIRED KEYS ----------
+    @Scheduled(fixedDelayString = "${booking.idempotency.purge-interval-millis:600000}")
+    public void purgeExpired() {
+        int removed = repo.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.flightapp.bookingservice.service;
+
+import com.flightapp.bookingservice.dto.request.AutoSeatGroupRequest;
+import com.flightapp.bookingservice.dto.request.AutoSeatPassengerRequest;
+import com.flightapp.bookingservice.dto.request.GroupBookingRequest;
+import com.flightapp.bookingservice.dto.request.PassengerRequest;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
+import com.flightapp.bookingservice.exception.BookingInvalidException;
+import com.flightapp.bookingservice.exception.SeatConflictException;
+import com.flightapp.bookingservice.exception.ServiceOverloadedException;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.seating.SeatAllocator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Books a group on adjacent seats chosen by the SeatAllocator.
+ *
+ * Choosing the seats runs under a per-flight lock (striped over LOCK_STRIPES locks) that
+ * also records them as reserved until the booking finishes, so two groups on this
+ * instance are never handed the same seats. The lock is released before bookGroup, whose
+ * flight-service calls can take seconds. The uq_bookings_booked_seat index rejects seats
+ * a booking from another instance committed first; then the seats are allocated again,
+ * up to MAX_ATTEMPTS times.
+ */
+@Slf4j
+@Service
+public class SeatAllocationService {
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long LOCK_WAIT_SECONDS = 5;
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BookingRepository repo;
+    private final BookingService bookingService;
+    private final SeatAllocator allocator;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // Seats handed to bookings still in progress, per flight; changed under the flight's lock
+    private final Map<Integer, Set<String>> reserved = new ConcurrentHashMap<>();
+
+    public SeatAllocationService(BookingRepository repo, BookingService bookingService, SeatAllocator allocator) {
+        this.repo = repo;
+        this.bookingService = bookingService;
+        this.allocator = allocator;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Seats a group of this size would get right now; nothing is reserved
+    public List<String> suggest(Integer flightId, int count) {
+        validateCount(count);
+        return allocate(bookingService.getBookedSeats(flightId), count);
+    }
+
+    public GroupBookingResponse bookWithAutoSeats(AutoSeatGroupRequest request) {
+        int count = request.getPassengers().size();
+        validateCount(count);
+
+        Integer flightId = request.getFlightId();
+        for (int attempt = 1; ; attempt++) {
+            List<String> seats = reserve(flightId, count);
+            try {
+                return bookingService.bookGroup(toGroupRequest(request, seats));
+            } catch (SeatConflictException ex) {
+                // Lost the race for the seats to another instance
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                log.info("Seats {} on flight {} were taken meanwhile, allocating again", seats, flightId);
+            } finally {
+                release(flightId, seats);
+            }
+        }
+    }
+
+    // Picks seats that are neither booked nor reserved by a booking in progress here
+    private List<String> reserve(Integer flightId, int count) {
+        ReentrantLock lock = lock(flightId);
+        try {
+            List<String> taken = new ArrayList<>(repo.findBookedSeatNumbers(flightId));
+            taken.addAll(reserved.getOrDefault(flightId, Set.of()));
+            List<String> seats = allocate(taken, count);
+            reserved.computeIfAbsent(flightId, id -> new HashSet<>()).addAll(seats);
+            return seats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Once booked the seats are in the database; otherwise they are free again
+    private void release(Integer flightId, List<String> seats) {
+        // Waits as long as it takes: giving up would leave the seats reserved for good
+        ReentrantLock lock = stripe(flightId);
+        lock.lock();
+        try {
+            Set<String> held = reserved.get(flightId);
+            if (held != null) {
+                seats.forEach(held::remove);
+                if (held.isEmpty()) {
+                    reserved.remove(flightId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripe(Integer flightId) {
+        return locks[Math.floorMod(flightId, LOCK_STRIPES)];
+    }
+
+    // Held only while seats are picked or handed back, never across a remote call
+    private ReentrantLock lock(Integer flightId) {
+        ReentrantLock lock = stripe(flightId);
+        try {
+            if (!lock.tryLock(LOCK_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new ServiceOverloadedException("Seat allocation is busy for this flight, please retry",
+                        RETRY_AFTER_SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Seat allocation was interrupted, please retry", RETRY_AFTER_SECONDS);
+        }
+        return lock;
+    }
+
+    private List<String> allocate(List<String> bookedSeats, int count) {
+        List<String> seats = allocator.allocate(bookedSeats, count);
+        if (seats.isEmpty()) {
+            throw new BookingInvalidException("Not enough seats available");
+        }
+        return seats;
+    }
+
+    private void validateCount(int count) {
+        if (count < 1 || count > allocator.layout().totalSeats()) {
+            throw new BookingInvalidException("Group size must be between 1 and " + allocator.layout().totalSeats());
+        }
+    }
+
+    private static GroupBookingRequest toGroupRequest(AutoSeatGroupRequest request, List<String> seats) {
+        List<PassengerRequest> passengers = new ArrayList<>(seats.size());
+        for (int i = 0; i < seats.size(); i++) {
+            AutoSeatPassengerRequest p = request.getPassengers().get(i);
+            passengers.add(PassengerRequest.builder()
+                    .passengerName(p.getPassengerName())
+                    .age(p.getAge())
+                    .gender(p.getGender())
+                    .meal(p.getMeal())
+                    .seatNumber(seats.get(i))
+                    .build());
+        }
+        return GroupBookingRequest.builder()
+                .flightId(request.getFlightId())
+                .email(request.getEmail())
+                .passengers(passengers)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.flightapp.bookingservice.service;
+
+import com.flightapp.bookingservice.dto.response.FlightSeatSummary;
+import com.flightapp.bookingservice.exception.BookingInvalidException;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository.BookedSeats;
+import com.flightapp.bookingservice.seating.SeatLayout;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Booked counts and seat bitmaps for a page of search results in one call.
+ *
+ * Served from the read model's per-flight counters; flights it does not hold (all of them
+ * until it is ready) are answered by a single grouped query instead of one query per flight.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatSummaryService {
+
+    public static final int MAX_FLIGHTS = 100;
+
+    private final BookingReadModel readModel;
+    private final BookingJdbcRepository jdbcRepo;
+    private final SeatLayout layout;
+
+    public List<FlightSeatSummary> getSeatSummaries(List<Integer> flightIds) {
+        if (flightIds == null || flightIds.isEmpty()) {
+            throw new BookingInvalidException("At least one flightId is required");
+        }
+        List<Integer> ids = flightIds.stream().distinct().toList();
+        if (ids.size() > MAX_FLIGHTS) {
+            throw new BookingInvalidException("At most " + MAX_FLIGHTS + " flights per request");
+        }
+
+        Map<Integer, FlightSeatSummary> summaries = new HashMap<>();
+        for (Integer id : ids) {
+            readModel.bookedCount(id).ifPresent(count ->
+                    summaries.put(id, summary(id, count, readModel.bookedSeats(id).orElse(List.of()))));
+        }
+
+        List<Integer> missing = ids.stream().filter(id -> !summaries.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<Integer, BookedSeats> booked = jdbcRepo.findBookedSeats(missing).stream()
+                    .collect(Collectors.toMap(BookedSeats::flightId, Function.identity()));
+            for (Integer id : missing) {
+                BookedSeats b = booked.get(id);
+                summaries.put(id, b == null ? summary(id, 0, List.of()) : summary(id, b.bookedCount(), b.seatNumbers()));
+            }
+        }
+        return ids.stream().map(summaries::get).toList();
+    }
+
+    private FlightSeatSummary summary(Integer flightId, int bookedCount, List<String> seats) {
+        return new FlightSeatSummary(flightId, bookedCount, layout.totalSeats(), layout.bitmap(seats));
+    }
+}
@@ -0,0 +1,203 @@
+package com.flightapp.bookingservice.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates 10-character PNRs that never collide, without locks or coordination.
+ *
+ * Each PNR encodes 50 bits: a 6-bit node id, a 30-bit second counter (from 2025-01-01)
+ * and a 14-bit sequence within that second. Every instance must run with its own
+ * booking.pnr.node-id (0-63), so two instances can never produce the same value; startup
+ * fails without one unless booking.pnr.single-instance is set (see SingleInstanceCheck),
+ * and booking_pnrs rejects a PNR issued twice. Within an instance a
+ * single AtomicLong hands out strictly increasing (second, sequence) pairs.
+ *
+ * When more than 16384 PNRs are needed in one second the sequence borrows from the next
+ * seconds, but never more than booking.pnr.max-borrow-seconds ahead of the clock; past
+ * that, callers wait for the clock to catch up. A restarted instance does not know what
+ * it borrowed before, so it starts counting just past that window, and its first PNRs
+ * wait (about a second) for the clock to reach them. This relies on the wall clock not
+ * going back across a restart.
+ *
+ * The 50-bit value is passed through an invertible mix before encoding, so consecutive
+ * bookings do not get guessable consecutive PNRs, and is written in a 32-letter alphabet
+ * without 0/O and 1/I.
+ */
+@Component
+public class PnrGenerator {
+
+    static final String ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ";
+    public static final int LENGTH = 10;
+
+    private static final int NODE_BITS = 6;
+    private static final int SECOND_BITS = 30;
+    private static final int SEQUENCE_BITS = 14;
+    private static final int TOTAL_BITS = NODE_BITS + SECOND_BITS + SEQUENCE_BITS;
+
+    private static final long MASK = (1L << TOTAL_BITS) - 1;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << (SECOND_BITS + SEQUENCE_BITS)) - 1;
+
+    // 2025-01-01T00:00:00Z
+    private static final long EPOCH_SECONDS = 1_735_689_600L;
+
+    // Odd multipliers are invertible modulo 2^50, which keeps the mix a bijection
+    private static final long MULTIPLIER_1 = 0x2545F4914F6CDD1DL & MASK;
+    private static final long MULTIPLIER_2 = 0x1CE4E5B9BF58476DL & MASK;
+    private static final long INVERSE_1 = inverse(MULTIPLIER_1);
+    private static final long INVERSE_2 = inverse(MULTIPLIER_2);
+    private static final int SHIFT = 25;
+
+    private static final int[] DECODE = new int[128];
+
+    static {
+        java.util.Arrays.fill(DECODE, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            DECODE[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    private final long nodeBits;
+    private final long maxBorrowSeconds;
+    private final LongSupplier clockMillis;
+    private final Runnable pause;
+
+    // (second << SEQUENCE_BITS) | sequence of the last PNR handed out
+    private final AtomicLong last;
+
+    @Autowired
+    public PnrGenerator(@Value("${booking.pnr.node-id:}") String nodeId,
+                        @Value("${booking.pnr.single-instance:false}") boolean singleInstance,
+                        @Value("${booking.pnr.max-borrow-seconds:2}") int maxBorrowSeconds) {
+        this(nodeId(nodeId, singleInstance), maxBorrowSeconds, System::currentTimeMillis,
+                () -> LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+
+    PnrGenerator(int nodeId, int maxBorrowSeconds, LongSupplier clockMillis, Runnable pause) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("booking.pnr.node-id must be between 0 and " + MAX_NODE);
+        }
+        if (maxBorrowSeconds < 0) {
+            throw new IllegalArgumentException("booking.pnr.max-borrow-seconds must not be negative");
+        }
+        this.nodeBits = (long) nodeId << (SECOND_BITS + SEQUENCE_BITS);
+        this.maxBorrowSeconds = maxBorrowSeconds;
+        this.clockMillis = clockMillis;
+        this.pause = pause;
+        // Past anything a previous run of this node can have handed out
+        this.last = new AtomicLong(((nowSeconds() + maxBorrowSeconds + 1) << SEQUENCE_BITS) - 1);
+    }
+
+    private static int nodeId(String configured, boolean singleInstance) {
+        if (configured != null && !configured.isBlank()) {
+            try {
+                return Integer.parseInt(configured.trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("booking.pnr.node-id must be a number, got " + configured);
+            }
+        }
+        if (!singleInstance) {
+            // Instances sharing a default node id would hand out the same PNRs
+            throw new IllegalStateException("booking.pnr.node-id (BOOKING_NODE_ID) is not set; give every " +
+                    "booking-service instance its own, or set booking.pnr.single-instance=true");
+        }
+        return 0;
+    }
+
+    public String next() {
+        return encode(mix(nextRaw()));
+    }
+
+    long nextRaw() {
+        while (true) {
+            long nowSeconds = nowSeconds();
+            long prev = last.get();
+            long candidate = Math.max(prev + 1, nowSeconds << SEQUENCE_BITS);
+            if (candidate > MAX_TIMESTAMP) {
+                throw new IllegalStateException("PNR time range exhausted");
+            }
+            if ((candidate >>> SEQUENCE_BITS) > nowSeconds + maxBorrowSeconds) {
+                // Borrowed as far ahead as allowed
+                pause.run();
+                continue;
+            }
+            if (last.compareAndSet(prev, candidate)) {
+                return nodeBits | candidate;
+            }
+        }
+    }
+
+    private long nowSeconds() {
+        return clockMillis.getAsLong() / 1000 - EPOCH_SECONDS;
+    }
+
+    // Returns the raw (node, second, sequence) value a PNR was generated from
+    public static long decode(String pnr) {
+        if (pnr == null || pnr.length() != LENGTH) {
+            throw new IllegalArgumentException("Invalid PNR: " + pnr);
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = pnr.charAt(i);
+            int digit = c < DECODE.length ? DECODE[c] : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid PNR: " + pnr);
+            }
+            value = (value << 5) | digit;
+        }
+        return unmix(value);
+    }
+
+    public static int nodeOf(String pnr) {
+        return (int) (decode(pnr) >>> (SECOND_BITS + SEQUENCE_BITS));
+    }
+
+    private static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static long mix(long x) {
+        x = (x * MULTIPLIER_1) & MASK;
+        x ^= x >>> SHIFT;
+        x = (x * MULTIPLIER_2) & MASK;
+        x ^= x >>> SHIFT;
+        return x;
+    }
+
+    private static long unmix(long x) {
+        x = unshift(x);
+        x = (x * INVERSE_2) & MASK;
+        x = unshift(x);
+        x = (x * INVERSE_1) & MASK;
+        return x;
+    }
+
+    private static long unshift(long y) {
+        long x = y;
+        for (int i = SHIFT; i < TOTAL_BITS; i += SHIFT) {
+            x = y ^ (x >>> SHIFT);
+        }
+        return x;
+    }
+
+    // Newton's iteration for the inverse of an odd number modulo 2^64
+    private static long inverse(long a) {
+        long x = a;
+        for (int i = 0; i < 5; i++) {
+            x *= 2 - a * x;
+        }
+        return x & MASK;
+    }
+}
@@ -3,7 +3,8 @@ package com.flightapp.bookingservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Single instance, so PnrGenerator starts without a node id
+@SpringBootTest(properties = "booking.pnr.single-instance=true")
 class BookingServiceApplicationTests {
 
     @Test
@@ -1,18 +1,23 @@
 package com.flightapp.bookingservice;
 
+import com.flightapp.bookingservice.cache.FlightSnapshotCache;
 import com.flightapp.bookingservice.dto.request.BookingRequest;
 import com.flightapp.bookingservice.entity.Booking;
 import com.flightapp.bookingservice.exception.BookingInvalidException;
 import com.flightapp.bookingservice.exception.BookingNotFoundException;
 import com.flightapp.bookingservice.service.BookingServiceImpl;
 import com.flightapp.bookingservice.producer.RabbitMQProducer;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
 import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.util.PnrGenerator;
 import com.flightapp.bookingservice.feign.FlightServiceClient;
 import com.flightapp.bookingservice.dto.response.FlightResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,6 +39,18 @@ public class ExtraCoverageTests {
     @Mock
     RabbitMQProducer producer;
 
+    @Mock
+    PnrGenerator pnrGenerator;
+
+    @Mock
+    FlightSnapshotCache flightSnapshots;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    @Mock
+    BookingReadModel readModel;
+
     @InjectMocks
     BookingServiceImpl service;
 
@@ -66,8 +83,8 @@ public class ExtraCoverageTests {
     // ---------------- Controller edge-like coverage for service ----------------
     @Test
     void getBookingsByEmail_emptyList() {
-        when(repo.findByEmail("noone@test.com")).thenReturn(List.of());
-        var result = service.getBookingsByEmail("noone@test.com");
+        when(repo.findHistoryPage(eq("noone@test.com"), eq(Integer.MAX_VALUE), any(Pageable.class))).thenReturn(List.of());
+        var result = service.getBookingsByEmail("noone@test.com", null, 50, true);
         assertNotNull(result);
         assertEquals(0, result.size());
     }
@@ -88,10 +105,11 @@ public class ExtraCoverageTests {
                 .email("alice@example.com")
                 .build();
         when(repo.save(any())).thenReturn(savedBooking);
+        when(pnrGenerator.next()).thenReturn("K7QW2MZP9X");
 
         Booking result = service.bookTicket(sampleRequest);
         assertNotNull(result);
-        verify(producer, times(1)).sendBookingEmail(contains(sampleRequest.getEmail()));
+        verify(producer, times(1)).sendBookingNotification(argThat(n -> sampleRequest.getEmail().equals(n.getEmail())));
     }
 
     @Test
@@ -116,7 +134,7 @@ public class ExtraCoverageTests {
 
     @Test
     void getBookingByPnr_notFoundEdge() {
-        when(repo.findByPnr("NOPNR")).thenReturn(Optional.empty());
+        when(repo.findFirstByPnrOrderByIdAsc("NOPNR")).thenReturn(Optional.empty());
         assertThrows(BookingNotFoundException.class, () -> service.getBookingByPnr("NOPNR"));
     }
 }
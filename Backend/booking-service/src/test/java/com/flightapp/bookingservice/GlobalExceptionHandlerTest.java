@@ -7,6 +7,7 @@ import com.flightapp.bookingservice.enums.GENDER;
 import com.flightapp.bookingservice.enums.MEAL;
 import com.flightapp.bookingservice.exception.*;
 import com.flightapp.bookingservice.service.BookingService;
+import com.flightapp.bookingservice.service.IdempotencyService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,9 +16,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookingController.class)
@@ -32,6 +35,9 @@ class GlobalExceptionHandlerTest {
         @MockBean
         private BookingService service;
 
+        @MockBean
+        private IdempotencyService idempotencyService;
+
         @Test
         void handleValidationException_returnsBadRequest() throws Exception {
                 // empty request triggers validation errors
@@ -77,4 +83,86 @@ class GlobalExceptionHandlerTest {
                                 .andExpect(status().isBadRequest())
                                 .andExpect(content().string("Invalid booking"));
         }
+
+        @Test
+        void handleDuplicateRequestException_returnsConflict() throws Exception {
+                BookingRequest validReq = BookingRequest.builder()
+                                .flightId(1)
+                                .passengerName("Alice")
+                                .age(25)
+                                .gender(GENDER.FEMALE)
+                                .meal(MEAL.VEG)
+                                .email("alice@test.com")
+                                .numberOfTickets(1)
+                                .seatNumber("1")
+                                .build();
+
+                when(idempotencyService.execute(eq("key-1"), any(), any()))
+                                .thenThrow(new DuplicateRequestException("Still processing"));
+
+                mockMvc.perform(post("/bookings")
+                                .header("Idempotency-Key", "key-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(validReq)))
+                                .andExpect(status().isConflict())
+                                .andExpect(content().string("Still processing"));
+        }
+
+        @Test
+        void handleIdempotencyKeyReusedException_returnsUnprocessableEntity() throws Exception {
+                BookingRequest validReq = BookingRequest.builder()
+                                .flightId(1)
+                                .passengerName("Alice")
+                                .age(25)
+                                .gender(GENDER.FEMALE)
+                                .meal(MEAL.VEG)
+                                .email("alice@test.com")
+                                .numberOfTickets(1)
+                                .seatNumber("1")
+                                .build();
+
+                when(idempotencyService.execute(eq("key-2"), any(), any()))
+                                .thenThrow(new IdempotencyKeyReusedException("Idempotency-Key was already used"));
+
+                mockMvc.perform(post("/bookings")
+                                .header("Idempotency-Key", "key-2")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(validReq)))
+                                .andExpect(status().isUnprocessableEntity())
+                                .andExpect(content().string("Idempotency-Key was already used"));
+        }
+
+        @Test
+        void handleSeatConflictException_returnsConflict() throws Exception {
+                BookingRequest validReq = BookingRequest.builder()
+                                .flightId(1)
+                                .passengerName("Alice")
+                                .age(25)
+                                .gender(GENDER.FEMALE)
+                                .meal(MEAL.VEG)
+                                .email("alice@test.com")
+                                .numberOfTickets(1)
+                                .seatNumber("1")
+                                .build();
+
+                when(service.bookTicket(any()))
+                                .thenThrow(new SeatConflictException("Seat 1 was just booked, please choose another"));
+
+                mockMvc.perform(post("/bookings")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(validReq)))
+                                .andExpect(status().isConflict())
+                                .andExpect(content().string("Seat 1 was just booked, please choose another"));
+        }
+
+        @Test
+        void handleServiceOverloadedException_returnsServiceUnavailableWithRetryAfter() throws Exception {
+                when(service.cancelBooking(7))
+                                .thenThrow(new ServiceOverloadedException("Flight service is busy, please retry shortly", 2));
+
+                mockMvc.perform(delete("/bookings/7"))
+                                .andExpect(status().isServiceUnavailable())
+                                .andExpect(header().string("Retry-After", "2"))
+                                .andExpect(content().string("Flight service is busy, please retry shortly"));
+        }
 }
@@ -2,40 +2,83 @@ package com.flightapp.bookingservice;
 
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flightapp.bookingservice.config.RabbitMQConfig;
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.event.SeatReleaseEvent;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
 import com.flightapp.bookingservice.producer.RabbitMQProducer;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-@SpringBootTest
+// Single instance, so PnrGenerator starts without a node id
+@SpringBootTest(properties = "booking.pnr.single-instance=true")
 class RabbitMQProducerTest {
 
     @Mock
     private RabbitTemplate rabbitTemplate;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private RabbitMQProducer producer;
 
     @Test
-    void sendBookingEmail_invokesRabbitTemplate() {
+    void sendBookingNotification_invokesRabbitTemplate() {
 
-        String msg = "Booking Successful";
+        BookingNotification notification = BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .pnr("K7QW2MZP9X")
+                .build();
 
-        producer.sendBookingEmail(msg);
+        producer.sendBookingNotification(notification);
 
         verify(rabbitTemplate, times(1)).convertAndSend(
                 eq(RabbitMQConfig.EXCHANGE),
                 eq(RabbitMQConfig.ROUTING_KEY),
-                eq(msg)
+                eq((Object) notification)
+        );
+    }
+
+    @Test
+    void sendSeatRelease_sendsJsonToSeatReleaseQueue() {
+
+        producer.sendSeatRelease(new SeatReleaseEvent(12, 100, 2));
+
+        verify(rabbitTemplate, times(1)).convertAndSend(
+                eq(RabbitMQConfig.EXCHANGE),
+                eq(RabbitMQConfig.SEAT_RELEASE_ROUTING_KEY),
+                eq((Object) "{\"bookingId\":12,\"flightId\":100,\"seats\":2}"),
+                any(MessagePostProcessor.class)
+        );
+    }
+
+    @Test
+    void sendBookingEvent_sendsJsonToBookingEventsExchange() {
+
+        producer.sendBookingEvent(new BookingLifecycleEvent(BookingLifecycleEvent.Type.BOOKED, 1L, 12, 100,
+                "K7QW2MZP9X", "14C", 1, "Alice", "alice@example.com", 30, null, null, 0L));
+
+        verify(rabbitTemplate, times(1)).convertAndSend(
+                eq(RabbitMQConfig.BOOKING_EVENTS_EXCHANGE),
+                eq(""),
+                argThat((Object body) -> body.toString().contains("\"type\":\"BOOKED\"")
+                        && body.toString().contains("\"pnr\":\"K7QW2MZP9X\"")),
+                any(MessagePostProcessor.class)
         );
     }
 }
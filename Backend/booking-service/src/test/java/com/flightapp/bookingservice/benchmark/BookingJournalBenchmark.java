@@ -0,0 +1,72 @@
+package com.flightapp.bookingservice.benchmark;
+
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.enums.MEAL;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.journal.BookingJournal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append throughput of BookingJournal.
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.bookingservice.benchmark.BookingJournalBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingJournalBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final BookingLifecycleEvent event = new BookingLifecycleEvent(BookingLifecycleEvent.Type.BOOKED,
+            1_767_225_600_000L, 12345, 100, "K7QW2MZP9X", "14C", 1,
+            "Alice Example", "alice@example.com", 30, GENDER.FEMALE, MEAL.VEG, 0L);
+
+    private Path appendDir;
+    private BookingJournal appendJournal;
+
+    // A fresh journal per iteration keeps the disk used by append bounded
+    @Setup(Level.Iteration)
+    public void openAppendJournal() throws IOException {
+        appendDir = Files.createTempDirectory("journal-append");
+        appendJournal = BookingJournal.open(appendDir, SEGMENT_SIZE, 256);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeAppendJournal() throws IOException {
+        appendJournal.close();
+        delete(appendDir);
+    }
+
+    @Benchmark
+    public long append() {
+        return appendJournal.append(event);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingJournalBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
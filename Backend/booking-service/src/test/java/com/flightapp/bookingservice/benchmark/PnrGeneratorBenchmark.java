@@ -0,0 +1,57 @@
+package com.flightapp.bookingservice.benchmark;
+
+import com.flightapp.bookingservice.util.PnrGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of PnrGenerator against the old UUID-based PNR.
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.bookingservice.benchmark.PnrGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PnrGeneratorBenchmark {
+
+    // Borrow window wide enough that the run measures the generator, not the wait for the clock
+    private final PnrGenerator generator = new PnrGenerator("1", false, 36_000);
+
+    @Benchmark
+    @Threads(1)
+    public String pnrGenerator_singleThread() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String pnrGenerator_allCores() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String uuid_singleThread() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String uuid_allCores() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PnrGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.flightapp.bookingservice.benchmark;
+
+import com.flightapp.bookingservice.seating.SeatAllocator;
+import com.flightapp.bookingservice.seating.SeatLayout;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to allocate a group on full-aircraft layouts: the 12 x 6 cabin used by the booking
+ * page and a 40 x 10 wide-body, at different load factors.
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.bookingservice.benchmark.SeatAllocatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatAllocatorBenchmark {
+
+    @Param({"12x6", "40x10"})
+    public String layout;
+
+    // Share of seats already taken, in percent
+    @Param({"0", "50", "90"})
+    public int load;
+
+    @Param({"2", "4", "9"})
+    public int groupSize;
+
+    private SeatAllocator allocator;
+    private long[] occupancy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] dims = layout.split("x");
+        int perRow = Integer.parseInt(dims[1]);
+        SeatLayout seats = new SeatLayout(Integer.parseInt(dims[0]), perRow, perRow / 2);
+        allocator = new SeatAllocator(seats);
+
+        Random random = new Random(42);
+        List<String> booked = new ArrayList<>();
+        for (int i = 1; i <= seats.totalSeats(); i++) {
+            if (random.nextInt(100) < load) {
+                booked.add(String.valueOf(i));
+            }
+        }
+        occupancy = seats.occupancy(booked);
+    }
+
+    @Benchmark
+    public int[] allocate() {
+        return allocator.allocate(occupancy, groupSize);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SeatAllocatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.flightapp.bookingservice.cache;
+
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightSnapshotCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry registry;
+    private FlightSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new FlightSnapshotCache(registry, 100, 60, 3600, clock);
+    }
+
+    @Test
+    void getFresh_withinFreshWindow_returnsSnapshot() {
+        cache.put(flight(1));
+
+        assertEquals(1, cache.getFresh(1).orElseThrow().getId());
+        assertEquals(1.0, reads("fresh"));
+    }
+
+    @Test
+    void getFresh_afterFreshWindow_emptyButStaleStillAvailable() {
+        cache.put(flight(1));
+        clock.advance(Duration.ofSeconds(61));
+
+        assertTrue(cache.getFresh(1).isEmpty());
+        assertEquals(1, cache.getStale(1).orElseThrow().getId());
+        assertEquals(1.0, reads("stale"));
+    }
+
+    @Test
+    void put_replacesOlderSnapshot() {
+        cache.put(flight(1));
+        FlightResponse updated = flight(1);
+        updated.setSeatsAvailable(3);
+        clock.advance(Duration.ofSeconds(61));
+        cache.put(updated);
+
+        assertEquals(3, cache.getFresh(1).orElseThrow().getSeatsAvailable());
+    }
+
+    @Test
+    void put_ignoresFlightWithoutId() {
+        cache.put(new FlightResponse());
+        cache.put(null);
+
+        assertEquals(0.0, registry.get("booking.flight.snapshots.size").gauge().value());
+    }
+
+    @Test
+    void evict_removesSnapshot() {
+        cache.put(flight(1));
+        cache.evict(1);
+
+        assertTrue(cache.getStale(1).isEmpty());
+    }
+
+    private double reads(String kind) {
+        return registry.get("booking.flight.snapshot.reads").tag("kind", kind).counter().count();
+    }
+
+    private static FlightResponse flight(int id) {
+        FlightResponse flight = new FlightResponse();
+        flight.setId(id);
+        flight.setSeatsAvailable(10);
+        return flight;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
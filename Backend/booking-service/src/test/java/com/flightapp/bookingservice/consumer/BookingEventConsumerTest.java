@@ -0,0 +1,58 @@
+package com.flightapp.bookingservice.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class BookingEventConsumerTest {
+
+    @Mock
+    BookingReadModel readModel;
+
+    BookingEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new BookingEventConsumer(readModel, new ObjectMapper());
+    }
+
+    @Test
+    void onBookingEvent_appliesToReadModel() {
+        String body = "{\"type\":\"CANCELLED\",\"timestamp\":1767225600000,\"bookingId\":12,\"flightId\":100,"
+                + "\"pnr\":\"K7QW2MZP9X\",\"seatNumber\":\"14C\",\"seats\":1,\"passengerName\":\"Alice\","
+                + "\"email\":\"alice@example.com\",\"age\":30,\"gender\":\"FEMALE\",\"meal\":null}";
+
+        consumer.onBookingEvent(message(body));
+
+        ArgumentCaptor<BookingLifecycleEvent> captor = ArgumentCaptor.forClass(BookingLifecycleEvent.class);
+        verify(readModel).apply(captor.capture());
+        assertEquals(BookingLifecycleEvent.Type.CANCELLED, captor.getValue().type());
+        assertEquals(12, captor.getValue().bookingId());
+        assertEquals(GENDER.FEMALE, captor.getValue().gender());
+    }
+
+    @Test
+    void onBookingEvent_unreadableBody_isIgnored() {
+        consumer.onBookingEvent(message("not json"));
+
+        verifyNoInteractions(readModel);
+    }
+
+    private static Message message(String body) {
+        return new Message(body.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+}
@@ -0,0 +1,63 @@
+package com.flightapp.bookingservice.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flightapp.bookingservice.cache.FlightSnapshotCache;
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class FlightEventConsumerTest {
+
+    @Mock
+    FlightSnapshotCache snapshots;
+
+    @Mock
+    BookingReadModel readModel;
+
+    FlightEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new FlightEventConsumer(snapshots, readModel, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void onFlightChanged_storesSnapshot() {
+        String body = "{\"id\":7,\"flightNumber\":\"AI202\",\"departureTime\":\"2026-03-01T10:15:00\","
+                + "\"seatsAvailable\":41,\"cost\":4999.0}";
+
+        consumer.onFlightChanged(message(body));
+
+        ArgumentCaptor<FlightResponse> captor = ArgumentCaptor.forClass(FlightResponse.class);
+        verify(snapshots).put(captor.capture());
+        assertEquals(7, captor.getValue().getId());
+        assertEquals(41, captor.getValue().getSeatsAvailable());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 10, 15), captor.getValue().getDepartureTime());
+        verify(readModel).flightChanged(captor.getValue());
+    }
+
+    @Test
+    void onFlightChanged_unreadableBody_isIgnored() {
+        consumer.onFlightChanged(message("not json"));
+
+        verifyNoInteractions(snapshots, readModel);
+    }
+
+    private static Message message(String body) {
+        return new Message(body.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+}
@@ -2,12 +2,27 @@ package com.flightapp.bookingservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flightapp.bookingservice.dto.request.BookingRequest;
+import com.flightapp.bookingservice.dto.request.AutoSeatGroupRequest;
+import com.flightapp.bookingservice.dto.request.AutoSeatPassengerRequest;
+import com.flightapp.bookingservice.dto.request.GroupBookingRequest;
+import com.flightapp.bookingservice.dto.request.PassengerRequest;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
 import com.flightapp.bookingservice.entity.Booking;
 import com.flightapp.bookingservice.enums.GENDER;
 import com.flightapp.bookingservice.enums.MEAL;
 import com.flightapp.bookingservice.exception.BookingInvalidException;
 import com.flightapp.bookingservice.exception.BookingNotFoundException;
+import com.flightapp.bookingservice.export.BookingExporter;
+import com.flightapp.bookingservice.export.ExportFormat;
+import com.flightapp.bookingservice.dto.response.BookingResponse;
+import com.flightapp.bookingservice.dto.response.BookingSummary;
+import com.flightapp.bookingservice.dto.response.BulkCancellationStatus;
+import com.flightapp.bookingservice.dto.response.FlightSeatSummary;
 import com.flightapp.bookingservice.service.BookingService;
+import com.flightapp.bookingservice.service.BulkCancellationService;
+import com.flightapp.bookingservice.service.IdempotencyService;
+import com.flightapp.bookingservice.service.SeatAllocationService;
+import com.flightapp.bookingservice.service.SeatSummaryService;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -18,9 +33,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +59,21 @@ class BookingControllerTest {
         @MockBean
         private BookingService service;
 
+        @MockBean
+        private IdempotencyService idempotencyService;
+
+        @MockBean
+        private BulkCancellationService bulkCancellationService;
+
+        @MockBean
+        private BookingExporter exporter;
+
+        @MockBean
+        private SeatAllocationService seatAllocationService;
+
+        @MockBean
+        private SeatSummaryService seatSummaryService;
+
         @Test
         void bookTicket_success_returnsCreated() throws Exception {
                 BookingRequest req = BookingRequest.builder()
@@ -73,13 +110,114 @@ class BookingControllerTest {
                                 .andExpect(jsonPath("$.pnr").value("PNR123"));
         }
 
+        @Test
+        void bookTicket_withIdempotencyKey_returnsStoredResult() throws Exception {
+                BookingRequest req = BookingRequest.builder()
+                                .flightId(10)
+                                .passengerName("Hari")
+                                .age(25)
+                                .gender(GENDER.MALE)
+                                .meal(MEAL.VEG)
+                                .email("hari@test.com")
+                                .numberOfTickets(1)
+                                .seatNumber("1")
+                                .build();
+
+                when(idempotencyService.execute(eq("retry-1"), any(), any()))
+                                .thenReturn(new BookingResponse(7, "PNR777"));
+
+                mockMvc.perform(post("/bookings")
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(req)))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.id").value(7))
+                                .andExpect(jsonPath("$.pnr").value("PNR777"));
+
+                verify(service, never()).bookTicket(any());
+        }
+
+        @Test
+        void bookTicket_tooLongIdempotencyKey_returns400() throws Exception {
+                BookingRequest req = BookingRequest.builder()
+                                .flightId(10)
+                                .passengerName("Hari")
+                                .age(25)
+                                .gender(GENDER.MALE)
+                                .meal(MEAL.VEG)
+                                .email("hari@test.com")
+                                .numberOfTickets(1)
+                                .seatNumber("1")
+                                .build();
+
+                mockMvc.perform(post("/bookings")
+                                .header("Idempotency-Key", "k".repeat(101))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(req)))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void bookGroup_success_returnsCreated() throws Exception {
+                GroupBookingRequest req = GroupBookingRequest.builder()
+                                .flightId(10)
+                                .email("hari@test.com")
+                                .passengers(List.of(
+                                                new PassengerRequest("Hari", 25, GENDER.MALE, MEAL.VEG, "1"),
+                                                new PassengerRequest("Sri", 24, GENDER.FEMALE, MEAL.NONE, "2")))
+                                .build();
+
+                when(service.bookGroup(any(GroupBookingRequest.class)))
+                                .thenReturn(new GroupBookingResponse("K7QW2MZP9X", List.of("1", "2")));
+
+                mockMvc.perform(post("/bookings/group")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(req)))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.pnr").value("K7QW2MZP9X"))
+                                .andExpect(jsonPath("$.seats.length()").value(2));
+        }
+
+        @Test
+        void bookGroup_missingPassengerSeat_returns400() throws Exception {
+                GroupBookingRequest req = GroupBookingRequest.builder()
+                                .flightId(10)
+                                .email("hari@test.com")
+                                .passengers(List.of(new PassengerRequest("Hari", 25, GENDER.MALE, MEAL.VEG, "")))
+                                .build();
+
+                mockMvc.perform(post("/bookings/group")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(req)))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(content().string("Seat number is required"));
+        }
+
         @Test
         void getByEmail_returnsList() throws Exception {
-                Booking b = new Booking();
-                when(service.getBookingsByEmail("hari@test.com")).thenReturn(List.of(b));
+                BookingSummary b = new BookingSummary(1, 10, "Hari", MEAL.VEG, 1, "1", "BOOKED", "PNR123");
+                when(service.getBookingsByEmail("hari@test.com", null, 50, false)).thenReturn(List.of(b));
 
                 mockMvc.perform(get("/bookings/email/hari@test.com"))
-                                .andExpect(status().isOk());
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].pnr").value("PNR123"))
+                                .andExpect(jsonPath("$[0].flight").doesNotExist())
+                                .andExpect(header().doesNotExist("X-Next-Before-Id"));
+        }
+
+        @Test
+        void getByEmail_fullPage_returnsNextCursor() throws Exception {
+                BookingSummary newer = new BookingSummary(9, 10, "Hari", MEAL.VEG, 1, "1", "BOOKED", "PNR9");
+                BookingSummary older = new BookingSummary(4, 10, "Hari", MEAL.VEG, 1, "2", "CANCELLED", "PNR4");
+                when(service.getBookingsByEmail("hari@test.com", 12, 2, true)).thenReturn(List.of(newer, older));
+
+                mockMvc.perform(get("/bookings/email/hari@test.com")
+                                .param("beforeId", "12")
+                                .param("size", "2")
+                                .param("includeFlights", "true"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(2))
+                                .andExpect(header().string("X-Next-Before-Id", "4"));
         }
 
         @Test
@@ -100,6 +238,15 @@ class BookingControllerTest {
                                 .andExpect(status().isOk());
         }
 
+        @Test
+        void getBookedCount_returnsCount() throws Exception {
+                when(service.getBookedCount(10)).thenReturn(42);
+
+                mockMvc.perform(get("/bookings/flight/10/booked-count"))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string("42"));
+        }
+
         @Test
         void cancelBooking_success() throws Exception {
                 Booking b = new Booking(); // mock returned booking
@@ -129,4 +276,134 @@ class BookingControllerTest {
                                 .andExpect(status().isBadRequest())
                                 .andExpect(content().string("Cannot cancel"));
         }
+
+        @Test
+        void cancelAllForFlight_returnsAcceptedWithJobLocation() throws Exception {
+                when(bulkCancellationService.cancelAllForFlight(100)).thenReturn(BulkCancellationStatus.builder()
+                                .jobId("job-1")
+                                .flightId(100)
+                                .state(BulkCancellationService.RUNNING)
+                                .build());
+
+                mockMvc.perform(post("/bookings/flight/100/cancel-all"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(header().string("Location", "/bookings/bulk-cancellations/job-1"))
+                                .andExpect(jsonPath("$.state").value("RUNNING"));
+        }
+
+        @Test
+        void getBulkCancellationStatus_returnsProgress() throws Exception {
+                when(bulkCancellationService.getStatus("job-1")).thenReturn(BulkCancellationStatus.builder()
+                                .jobId("job-1")
+                                .flightId(100)
+                                .state(BulkCancellationService.COMPLETED)
+                                .cancelled(1200)
+                                .notified(950)
+                                .build());
+
+                mockMvc.perform(get("/bookings/bulk-cancellations/job-1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.cancelled").value(1200))
+                                .andExpect(jsonPath("$.notified").value(950));
+        }
+
+        @Test
+        void getBulkCancellationStatus_unknownJob_returnsNotFound() throws Exception {
+                when(bulkCancellationService.getStatus("nope"))
+                                .thenThrow(new BookingNotFoundException("Cancellation job not found"));
+
+                mockMvc.perform(get("/bookings/bulk-cancellations/nope"))
+                                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void export_streamsRowsWithAttachmentHeaders() throws Exception {
+                doAnswer(inv -> {
+                        OutputStream out = inv.getArgument(5);
+                        out.write("id,pnr\r\n1,PNR1\r\n".getBytes());
+                        return 1L;
+                }).when(exporter).export(eq(10), eq(LocalDateTime.of(2026, 1, 1, 0, 0)),
+                                eq(LocalDateTime.of(2026, 2, 1, 0, 0)), eq(ExportFormat.CSV), eq(false), any());
+
+                var result = mockMvc.perform(get("/bookings/admin/export")
+                                .param("flightId", "10")
+                                .param("from", "2026-01-01")
+                                .param("to", "2026-01-31"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookings.csv\""))
+                                .andExpect(content().string("id,pnr\r\n1,PNR1\r\n"));
+        }
+
+        @Test
+        void export_gzipNdjson_returnsGzipFile() throws Exception {
+                var result = mockMvc.perform(get("/bookings/admin/export")
+                                .param("format", "ndjson")
+                                .param("gzip", "true"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType("application/gzip"))
+                                .andExpect(header().string("Content-Disposition",
+                                                "attachment; filename=\"bookings.ndjson.gz\""));
+                verify(exporter).export(isNull(), isNull(), isNull(), eq(ExportFormat.NDJSON), eq(true), any());
+        }
+
+        @Test
+        void export_invalidRequest_returns400() throws Exception {
+                mockMvc.perform(get("/bookings/admin/export").param("format", "xml"))
+                                .andExpect(status().isBadRequest());
+                mockMvc.perform(get("/bookings/admin/export")
+                                .param("from", "2026-02-01")
+                                .param("to", "2026-01-01"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void bookWithAutoSeats_returnsCreatedWithAssignedSeats() throws Exception {
+                AutoSeatGroupRequest req = AutoSeatGroupRequest.builder()
+                                .flightId(10)
+                                .email("group@test.com")
+                                .passengers(List.of(
+                                                AutoSeatPassengerRequest.builder().passengerName("A").age(30)
+                                                                .gender(GENDER.MALE).meal(MEAL.VEG).build(),
+                                                AutoSeatPassengerRequest.builder().passengerName("B").age(31)
+                                                                .gender(GENDER.FEMALE).meal(MEAL.NONE).build()))
+                                .build();
+                when(seatAllocationService.bookWithAutoSeats(any()))
+                                .thenReturn(new GroupBookingResponse("GRP1", List.of("7", "8")));
+
+                mockMvc.perform(post("/bookings/group/auto-seat")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(req)))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.seats[1]").value("8"));
+        }
+
+        @Test
+        void suggestSeats_returnsPreview() throws Exception {
+                when(seatAllocationService.suggest(10, 2)).thenReturn(List.of("1", "2"));
+
+                mockMvc.perform(get("/bookings/flight/10/seats/suggest").param("count", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0]").value("1"));
+        }
+
+        @Test
+        void getSeatSummaries_returnsOneEntryPerFlight() throws Exception {
+                when(seatSummaryService.getSeatSummaries(List.of(3, 7)))
+                                .thenReturn(List.of(new FlightSeatSummary(3, 2, 72, "AwAAAAAAAAAA"),
+                                                new FlightSeatSummary(7, 0, 72, "AAAAAAAAAAAA")));
+
+                mockMvc.perform(get("/bookings/flights/seat-summary").param("flightIds", "3,7"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].flightId").value(3))
+                                .andExpect(jsonPath("$[0].bookedCount").value(2))
+                                .andExpect(jsonPath("$[1].seatBitmap").value("AAAAAAAAAAAA"));
+        }
 }
@@ -0,0 +1,107 @@
+package com.flightapp.bookingservice.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class BookingExporterTest {
+
+    private static final Object[][] ROWS = {
+            {1, "K7QW2MZP9X", 100, "Alice", 30, "FEMALE", "VEG", "alice@example.com", 1, "1A", "BOOKED",
+                    Timestamp.valueOf(LocalDateTime.of(2026, 1, 5, 9, 30))},
+            {2, "K7QW2MZP9Y", 100, "Smith, \"Bob\"", null, null, null, "bob@example.com", 2, "1B", "CANCELLED", null},
+            {3, "K7QW2MZP9Z", 100, "=HYPERLINK(\"http://x\")", 40, null, null, "@evil.example", 1, "\t2C", "BOOKED", null}
+    };
+
+    @Mock
+    BookingJdbcRepository jdbcRepo;
+
+    @Mock
+    ResultSet rs;
+
+    BookingExporter exporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exporter = new BookingExporter(jdbcRepo, 50);
+
+        int[] current = {0};
+        lenient().when(rs.getObject(anyInt())).thenAnswer(inv -> ROWS[current[0]][inv.<Integer>getArgument(0) - 1]);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(4);
+            for (current[0] = 0; current[0] < ROWS.length; current[0]++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcRepo).streamForExport(any(), any(), any(), eq(50), any());
+    }
+
+    @Test
+    void export_csv_writesHeaderAndEscapedRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.export(100, null, null, ExportFormat.CSV, false, out);
+
+        assertEquals(3, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(String.join(",", BookingExporter.COLUMNS), lines[0]);
+        assertEquals("1,K7QW2MZP9X,100,Alice,30,FEMALE,VEG,alice@example.com,1,1A,BOOKED,2026-01-05T09:30", lines[1]);
+        assertEquals("2,K7QW2MZP9Y,100,\"Smith, \"\"Bob\"\"\",,,,bob@example.com,2,1B,CANCELLED,", lines[2]);
+        verify(jdbcRepo).streamForExport(eq(100), isNull(), isNull(), eq(50), any());
+    }
+
+    @Test
+    void export_csv_neutralisesSpreadsheetFormulas() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(100, null, null, ExportFormat.CSV, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("3,K7QW2MZP9Z,100,\"'=HYPERLINK(\"\"http://x\"\")\",40,,,\"'@evil.example\",1,\"'\t2C\",BOOKED,",
+                lines[3]);
+    }
+
+    @Test
+    void export_ndjsonGzip_writesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(null, null, null, ExportFormat.NDJSON, true, out);
+
+        String text;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = text.split("\n");
+        assertEquals(3, lines.length);
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode first = mapper.readTree(lines[0]);
+        assertEquals("K7QW2MZP9X", first.get("pnr").asText());
+        assertEquals(100, first.get("flightId").asInt());
+        assertEquals("2026-01-05T09:30", first.get("createdAt").asText());
+        JsonNode second = mapper.readTree(lines[1]);
+        assertEquals("Smith, \"Bob\"", second.get("passengerName").asText());
+        assertTrue(second.get("age").isNull());
+    }
+}
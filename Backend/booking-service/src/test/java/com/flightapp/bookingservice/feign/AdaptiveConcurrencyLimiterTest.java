@@ -0,0 +1,153 @@
+package com.flightapp.bookingservice.feign;
+
+import com.flightapp.bookingservice.exception.ServiceOverloadedException;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimiter(registry, initial, min, max, 100, 0.5, 2, clock::get);
+    }
+
+    @Test
+    void execute_overLimit_shedsWithRetryAfter() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 10);
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> limiter.execute(() -> {
+                inCall.countDown();
+                await(release);
+                return "done";
+            }));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+            ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                    () -> limiter.execute(() -> "second"));
+            assertEquals(2, ex.getRetryAfterSeconds());
+            assertEquals(1.0, registry.get("booking.flight.concurrency.rejected").counter().count());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void executeUnlimited_isNeverShed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 10);
+
+        String result = limiter.execute(() -> limiter.executeUnlimited(() -> "inner"));
+
+        assertEquals("inner", result);
+    }
+
+    @Test
+    void slowCall_decreasesLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 2, 100);
+
+        limiter.execute(() -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500)));
+
+        assertEquals(10, limiter.getLimit());
+        assertEquals(10.0, registry.get("booking.flight.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void repeatedBackoff_stopsAtMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 3, 100);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(RetryableException.class, () -> limiter.execute(() -> {
+                throw timeout();
+            }));
+        }
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void serverError_decreasesLimit_clientErrorDoesNot() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 2, 100);
+
+        assertThrows(FeignException.class, () -> limiter.execute(() -> {
+            throw status(404);
+        }));
+        assertEquals(20, limiter.getLimit());
+
+        assertThrows(FeignException.class, () -> limiter.execute(() -> {
+            throw status(503);
+        }));
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void fastCalls_growLimitOnlyWhileUsed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 4);
+
+        // One call in flight is half the limit: the limit is in use and grows
+        limiter.execute(() -> "fast");
+        assertEquals(3, limiter.getLimit());
+
+        // Now one call is less than half of 3: no growth without demand
+        limiter.execute(() -> "fast");
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void constructor_rejectsInconsistentBounds() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(1, 2, 10));
+        assertThrows(IllegalArgumentException.class, () -> limiter(20, 2, 10));
+        assertThrows(IllegalArgumentException.class, () -> limiter(5, 0, 10));
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/flights/1", new HashMap<>(), null,
+                StandardCharsets.UTF_8, null);
+    }
+
+    private static FeignException timeout() {
+        return FeignException.errorExecuting(request(), new SocketTimeoutException("Read timed out"));
+    }
+
+    private static FeignException status(int status) {
+        return FeignException.errorStatus("getFlightById", feign.Response.builder()
+                .status(status)
+                .reason("error")
+                .request(request())
+                .headers(new HashMap<>())
+                .build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
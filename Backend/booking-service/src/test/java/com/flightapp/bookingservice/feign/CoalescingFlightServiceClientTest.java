@@ -0,0 +1,180 @@
+package com.flightapp.bookingservice.feign;
+
+import com.flightapp.bookingservice.cache.FlightSnapshotCache;
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class CoalescingFlightServiceClientTest {
+
+    @Mock
+    FlightServiceClient delegate;
+
+    @Mock
+    FlightSnapshotCache snapshots;
+
+    SimpleMeterRegistry registry;
+    CoalescingFlightServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        client = new CoalescingFlightServiceClient(delegate, snapshots,
+                new AdaptiveConcurrencyLimiter(registry, 50, 1, 100, 1000, 0.9, 1), registry, 60_000, 5_000);
+    }
+
+    @Test
+    void getFlightById_concurrentCallsShareOneRemoteCall() throws Exception {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getFlightById(1)).thenAnswer(inv -> {
+            inCall.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return flight(1);
+        });
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<FlightResponse>> results = new ArrayList<>();
+            results.add(pool.submit(() -> client.getFlightById(1)));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> client.getFlightById(1)));
+            }
+            // give the followers time to join the in-flight call
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<FlightResponse> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(delegate, times(1)).getFlightById(1);
+        assertEquals(1.0, count("remote"));
+        assertEquals(callers - 1.0, count("coalesced") + count("fresh"));
+    }
+
+    @Test
+    void getFlightById_withinFreshnessWindow_servedLocally() {
+        when(delegate.getFlightById(2)).thenReturn(flight(2));
+
+        client.getFlightById(2);
+        client.getFlightById(2);
+
+        verify(delegate, times(1)).getFlightById(2);
+        verify(snapshots, times(1)).put(any(FlightResponse.class));
+        assertEquals(1.0, count("fresh"));
+    }
+
+    @Test
+    void getFlightById_callersGetTheirOwnCopy() {
+        when(delegate.getFlightById(6)).thenReturn(flight(6));
+
+        FlightResponse first = client.getFlightById(6);
+        first.setSeatsAvailable(0);
+        FlightResponse second = client.getFlightById(6);
+
+        assertNotSame(first, second);
+        assertEquals(10, second.getSeatsAvailable());
+        verify(delegate, times(1)).getFlightById(6);
+    }
+
+    @Test
+    void getFlightById_joinedCallTakingTooLong_givesUpAfterReadTimeout() throws Exception {
+        CoalescingFlightServiceClient impatient = new CoalescingFlightServiceClient(delegate, snapshots,
+                new AdaptiveConcurrencyLimiter(registry, 50, 1, 100, 1000, 0.9, 1), registry, 60_000, 50);
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getFlightById(7)).thenAnswer(inv -> {
+            inCall.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return flight(7);
+        });
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<FlightResponse> leader = pool.submit(() -> impatient.getFlightById(7));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ServiceOverloadedException.class, () -> impatient.getFlightById(7));
+
+            release.countDown();
+            assertEquals(7, leader.get(5, TimeUnit.SECONDS).getId());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void getFlightById_failureIsNotCached() {
+        when(delegate.getFlightById(3))
+                .thenThrow(new RuntimeException("flight-service down"))
+                .thenReturn(flight(3));
+
+        assertThrows(RuntimeException.class, () -> client.getFlightById(3));
+        verifyNoInteractions(snapshots);
+        assertEquals(3, client.getFlightById(3).getId());
+        verify(delegate, times(2)).getFlightById(3);
+    }
+
+    @Test
+    void reduceSeats_invalidatesFreshEntry() {
+        when(delegate.getFlightById(4)).thenReturn(flight(4));
+
+        client.getFlightById(4);
+        client.reduceSeats(4, 2);
+        client.getFlightById(4);
+
+        verify(delegate).reduceSeats(4, 2);
+        verify(delegate, times(2)).getFlightById(4);
+    }
+
+    @Test
+    void getFlightsByIds_passesThrough() {
+        when(delegate.getFlightsByIds(List.of(1, 2))).thenReturn(List.of(flight(1), flight(2)));
+
+        assertEquals(2, client.getFlightsByIds(List.of(1, 2)).size());
+    }
+
+    private double count(String source) {
+        return registry.get("booking.flight.lookups").tag("source", source).counter().count();
+    }
+
+    private static FlightResponse flight(int id) {
+        FlightResponse flight = new FlightResponse();
+        flight.setId(id);
+        flight.setSeatsAvailable(10);
+        return flight;
+    }
+
+    @Test
+    void getFlightById_shedByLimiter_throwsOverloaded() {
+        AdaptiveConcurrencyLimiter full = mock(AdaptiveConcurrencyLimiter.class);
+        when(full.execute(any())).thenThrow(new ServiceOverloadedException("busy", 1));
+        CoalescingFlightServiceClient shedding =
+                new CoalescingFlightServiceClient(delegate, snapshots, full, registry, 60_000, 5_000);
+
+        assertThrows(ServiceOverloadedException.class, () -> shedding.getFlightById(5));
+        verifyNoInteractions(delegate, snapshots);
+    }
+}
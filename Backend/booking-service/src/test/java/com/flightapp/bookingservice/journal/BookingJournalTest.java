@@ -0,0 +1,213 @@
+package com.flightapp.bookingservice.journal;
+
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.enums.MEAL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replay_returnsEventsInOrderAcrossSegments() throws IOException {
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            for (int i = 0; i < 500; i++) {
+                journal.append(event(i));
+            }
+
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            long end = journal.replay(0, replayed::add);
+
+            assertEquals(500, replayed.size());
+            assertEquals(event(0), replayed.get(0));
+            assertEquals(event(499), replayed.get(499));
+            assertEquals(journal.endOffset(), end);
+        }
+        assertTrue(segmentFiles().size() > 1);
+    }
+
+    @Test
+    void replay_fromReturnedOffset_onlySeesNewEvents() throws IOException {
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            journal.append(event(1));
+            long from = journal.replay(0, e -> { });
+
+            long offset = journal.append(event(2));
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            journal.replay(from, replayed::add);
+
+            assertEquals(from, offset);
+            assertEquals(List.of(event(2)), replayed);
+        }
+    }
+
+    @Test
+    void open_existingJournal_keepsEventsAndAppendsAfterThem() throws IOException {
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(event(i));
+            }
+        }
+
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            journal.append(event(100));
+
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+
+            assertEquals(101, replayed.size());
+            assertEquals(event(100), replayed.get(100));
+        }
+    }
+
+    @Test
+    void open_tornLastRecord_isDropped() throws IOException {
+        long last;
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            journal.append(event(1));
+            last = journal.append(event(2));
+        }
+
+        // Flip a payload byte of the last record, as a crash mid-write would leave it
+        Path segment = segmentFiles().get(segmentFiles().size() - 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = last + BookingJournal.HEADER_SIZE + 2;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) (b.get(0) ^ 0x5A)}), position);
+        }
+
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+
+            assertEquals(List.of(event(1)), replayed);
+            assertEquals(last, journal.endOffset());
+        }
+    }
+
+    @Test
+    void replay_afterCrashWithTornFinalRecord_returnsEverythingBeforeIt() throws IOException {
+        // Never flushed or closed, as if the process died while appending the third event
+        BookingJournal crashed = BookingJournal.open(dir, SEGMENT_SIZE, 1_000);
+        crashed.append(event(1));
+        crashed.append(event(2));
+        long last = crashed.append(event(3));
+
+        // Only the header of the last record reached the file, its payload did not
+        Path segment = segmentFiles().get(segmentFiles().size() - 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, last);
+            channel.write(ByteBuffer.allocate(length.getInt(0)), last + BookingJournal.HEADER_SIZE);
+        }
+
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+            assertEquals(List.of(event(1), event(2)), replayed);
+            assertEquals(last, journal.endOffset());
+
+            // Appends carry on where the torn record was
+            assertEquals(last, journal.append(event(4)));
+            replayed.clear();
+            journal.replay(0, replayed::add);
+            assertEquals(List.of(event(1), event(2), event(4)), replayed);
+        }
+    }
+
+    @Test
+    void deleteOldSegments_overSizeLimit_keepsNewestSegments() throws IOException {
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            for (int i = 0; i < 500; i++) {
+                journal.append(event(i));
+            }
+            int before = segmentFiles().size();
+
+            int deleted = journal.deleteOldSegments(2L * SEGMENT_SIZE, Duration.ofDays(1));
+
+            assertEquals(before - 2, deleted);
+            assertEquals(2, segmentFiles().size());
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+            assertTrue(replayed.size() < 500);
+            assertEquals(event(499), replayed.get(replayed.size() - 1));
+        }
+    }
+
+    @Test
+    void deleteOldSegments_pastMaxAge_deletesOnlyOldSegmentsAndNeverTheActiveOne() throws IOException {
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 16)) {
+            for (int i = 0; i < 500; i++) {
+                journal.append(event(i));
+            }
+            List<Path> files = segmentFiles();
+            Files.setLastModifiedTime(files.get(0), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+            assertEquals(1, journal.deleteOldSegments(Long.MAX_VALUE, Duration.ofDays(1)));
+            assertFalse(Files.exists(files.get(0)));
+
+            // Even with everything expired the segment being written stays
+            journal.deleteOldSegments(0, Duration.ZERO);
+            assertEquals(List.of(files.get(files.size() - 1)), segmentFiles());
+            journal.append(event(500));
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+            assertEquals(event(500), replayed.get(replayed.size() - 1));
+        }
+    }
+
+    @Test
+    void append_eventWithNullFields_roundTrips() throws IOException {
+        BookingLifecycleEvent sparse = new BookingLifecycleEvent(BookingLifecycleEvent.Type.CANCELLED, 1L,
+                7, 100, "PNR7", null, null, null, null, null, null, null, 1L);
+
+        try (BookingJournal journal = BookingJournal.open(dir, SEGMENT_SIZE, 1)) {
+            journal.append(sparse);
+
+            List<BookingLifecycleEvent> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+
+            assertEquals(List.of(sparse), replayed);
+        }
+    }
+
+    @Test
+    void open_rejectsTinySegments() {
+        assertThrows(IllegalArgumentException.class, () -> BookingJournal.open(dir, 1024, 16));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static BookingLifecycleEvent event(int i) {
+        return new BookingLifecycleEvent(
+                i % 3 == 0 ? BookingLifecycleEvent.Type.CANCELLED : BookingLifecycleEvent.Type.BOOKED,
+                1_767_225_600_000L + i, i, 100 + i % 5, "PNR" + i, String.valueOf(i % 72 + 1), 1,
+                "Passenger " + i, "p" + i + "@test.com", 30, GENDER.values()[i % GENDER.values().length],
+                MEAL.values()[i % MEAL.values().length], i % 3 == 0 ? 1L : 0L);
+    }
+}
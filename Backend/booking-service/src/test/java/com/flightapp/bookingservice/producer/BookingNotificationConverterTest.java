@@ -0,0 +1,93 @@
+package com.flightapp.bookingservice.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.entity.Booking;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingNotificationConverterTest {
+
+    private final BookingNotificationConverter converter =
+            new BookingNotificationConverter(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void toMessage_notification_roundTripsAsVersionedJson() {
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setFlightNumber("AI-202");
+        flight.setFromCity("Hyderabad");
+        flight.setToCity("Delhi");
+        flight.setDepartureTime(LocalDateTime.of(2026, 3, 1, 9, 30));
+        flight.setCost(new BigDecimal("4500"));
+        BookingNotification sent = BookingNotification.confirmed(List.of(
+                booking("Alice", "1"), booking("Bob", "2")), flight);
+
+        Message message = converter.toMessage(sent, new MessageProperties());
+
+        assertEquals(BookingNotification.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        String json = new String(message.getBody(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"version\":1"));
+        assertTrue(json.contains("\"departureTime\":\"2026-03-01T09:30:00\""));
+
+        BookingNotification received = (BookingNotification) converter.fromMessage(message);
+        assertEquals(sent, received);
+        assertEquals(0, new BigDecimal("9000").compareTo(received.getTotalAmount()));
+    }
+
+    @Test
+    void confirmed_totalIsExactFareTimesTickets() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        FlightResponse flight = mapper.readValue("{\"id\":7,\"cost\":123.45}", FlightResponse.class);
+
+        BookingNotification two = BookingNotification.confirmed(List.of(
+                booking("Alice", "1"), booking("Bob", "2")), flight);
+        flight.setCost(mapper.readValue("5999.99", BigDecimal.class));
+        BookingNotification one = BookingNotification.confirmed(List.of(booking("Alice", "1")), flight);
+
+        assertEquals("246.90", two.getTotalAmount().toPlainString());
+        assertEquals("5999.99", one.getTotalAmount().toPlainString());
+        String json = new String(converter.toMessage(two, new MessageProperties()).getBody(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"totalAmount\":246.90"));
+    }
+
+    @Test
+    void fromMessage_ignoresFieldsAddedByNewerProducers() {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(BookingNotification.CONTENT_TYPE);
+        byte[] body = "{\"version\":1,\"type\":\"CANCELLED\",\"pnr\":\"P1\",\"loyaltyTier\":\"GOLD\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        BookingNotification received = (BookingNotification) converter.fromMessage(new Message(body, props));
+
+        assertEquals(BookingNotification.Type.CANCELLED, received.getType());
+        assertEquals("P1", received.getPnr());
+    }
+
+    @Test
+    void otherPayloads_stillSentAsText() {
+        Message message = converter.toMessage("{\"bookingId\":12}", new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_TEXT_PLAIN, message.getMessageProperties().getContentType());
+        assertEquals("{\"bookingId\":12}", converter.fromMessage(message));
+    }
+
+    private static Booking booking(String name, String seat) {
+        return Booking.builder()
+                .pnr("K7QW2MZP9X")
+                .email("alice@example.com")
+                .passengerName(name)
+                .seatNumber(seat)
+                .numberOfTickets(1)
+                .build();
+    }
+}
@@ -0,0 +1,344 @@
+package com.flightapp.bookingservice.readmodel;
+
+import com.flightapp.bookingservice.dto.response.FlightResponse;
+import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.feign.FlightServiceClient;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class BookingReadModelTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final LocalDateTime TOMORROW = LocalDateTime.of(2026, 1, 2, 0, 0);
+    private static final LocalDateTime YESTERDAY = LocalDateTime.of(2025, 12, 31, 0, 0);
+
+    @Mock
+    BookingJdbcRepository jdbcRepo;
+
+    @Mock
+    FlightServiceClient flightClient;
+
+    MutableClock clock;
+    SimpleMeterRegistry registry;
+    BookingReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        registry = new SimpleMeterRegistry();
+        readModel = new BookingReadModel(jdbcRepo, flightClient, registry, 100, 300, clock);
+    }
+
+    @Test
+    void beforeFirstRebuild_everyLookupIsEmpty() {
+        readModel.apply(booked(1, "P1", 100, "1A", 1));
+
+        assertFalse(readModel.isReady());
+        assertEquals(Optional.empty(), readModel.findByPnr("P1"));
+        assertEquals(Optional.empty(), readModel.bookedSeats(100));
+        assertEquals(Optional.empty(), readModel.bookedCount(100));
+    }
+
+    @Test
+    void rebuild_loadsBookingsFromDatabase() {
+        rows(row(1, "P1", 100, "1A", 2, "BOOKED"),
+                row(2, "P2", 100, "1B", 1, "CANCELLED"),
+                row(3, "P3", 200, "4C", 1, "BOOKED"));
+
+        readModel.rebuild();
+
+        assertTrue(readModel.isReady());
+        assertEquals(1, readModel.findByPnr("P1").orElseThrow().getId());
+        assertEquals("CANCELLED", readModel.findByPnr("P2").orElseThrow().getStatus());
+        assertEquals(List.of("1A"), readModel.bookedSeats(100).orElseThrow());
+        assertEquals(2, readModel.bookedCount(100).orElseThrow());
+        // Not held, so callers go to the database
+        assertEquals(Optional.empty(), readModel.bookedSeats(999));
+        assertEquals(Optional.empty(), readModel.bookedCount(999));
+    }
+
+    @Test
+    void rebuild_leavesOutDepartedFlights() {
+        when(jdbcRepo.findBookedFlightIds()).thenReturn(List.of(100, 200, 300));
+        // 300 is no longer known to flight-service
+        when(flightClient.getFlightsByIds(List.of(100, 200, 300)))
+                .thenReturn(List.of(flight(100, TOMORROW), flight(200, YESTERDAY)));
+        doAnswer(inv -> {
+            Consumer<Booking> consumer = inv.getArgument(2);
+            consumer.accept(row(1, "P1", 100, "1A", 1, "BOOKED"));
+            return null;
+        }).when(jdbcRepo).forEachBookingOfFlights(eq(List.of(100)), anyInt(), any());
+
+        readModel.rebuild();
+        readModel.apply(booked(2, "P2", 200, "1B", 1));
+
+        assertEquals(1, readModel.bookedCount(100).orElseThrow());
+        assertEquals(Optional.empty(), readModel.bookedCount(200));
+        assertEquals(Optional.empty(), readModel.findByPnr("P2"));
+    }
+
+    @Test
+    void refresh_evictsFlightOnceDeparted() {
+        when(jdbcRepo.findBookedFlightIds()).thenReturn(List.of(100, 200));
+        when(flightClient.getFlightsByIds(List.of(100, 200)))
+                .thenReturn(List.of(flight(100, TOMORROW), flight(200, TOMORROW.plusDays(1))));
+        doAnswer(inv -> {
+            Consumer<Booking> consumer = inv.getArgument(2);
+            consumer.accept(row(1, "P1", 100, "1A", 1, "BOOKED"));
+            consumer.accept(row(2, "P2", 200, "4C", 1, "BOOKED"));
+            return null;
+        }).when(jdbcRepo).forEachBookingOfFlights(anyList(), anyInt(), any());
+        readModel.rebuild();
+
+        clock.advance(Duration.ofDays(1).plusMinutes(1));
+        readModel.refresh();
+
+        assertEquals(Optional.empty(), readModel.bookedCount(100));
+        assertEquals(Optional.empty(), readModel.findByPnr("P1"));
+        assertEquals(1, readModel.bookedCount(200).orElseThrow());
+        assertEquals(1.0, registry.get("booking.read-model.pnrs").gauge().value());
+    }
+
+    @Test
+    void refresh_readsOnlyRowsChangedSinceLastRefresh() {
+        rows(row(1, "P1", 100, "1A", 1, "BOOKED"));
+        readModel.rebuild();
+
+        Booking cancelled = row(1, "P1", 100, "1A", 1, "CANCELLED");
+        cancelled.setVersion(1L);
+        doAnswer(inv -> {
+            Consumer<Booking> consumer = inv.getArgument(2);
+            consumer.accept(cancelled);
+            return null;
+        }).when(jdbcRepo).forEachBookingChangedSince(any(), anyInt(), any());
+
+        clock.advance(Duration.ofMinutes(1));
+        readModel.refresh();
+        clock.advance(Duration.ofMinutes(1));
+        readModel.refresh();
+
+        assertEquals(0, readModel.bookedCount(100).orElseThrow());
+        // Each refresh starts where the previous one did, less the overlap
+        LocalDateTime loaded = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+        verify(jdbcRepo).forEachBookingChangedSince(eq(loaded.minusMinutes(5)), anyInt(), any());
+        verify(jdbcRepo).forEachBookingChangedSince(eq(loaded.minusMinutes(4)), anyInt(), any());
+        verify(jdbcRepo, times(1)).findBookedFlightIds();
+    }
+
+    @Test
+    void refresh_flightFirstSeenThroughEvent_getsDepartureLookedUp() {
+        rows();
+        readModel.rebuild();
+        readModel.apply(booked(1, "P1", 500, "1A", 1));
+        when(flightClient.getFlightsByIds(List.of(500))).thenReturn(List.of(flight(500, YESTERDAY)));
+
+        readModel.refresh();
+
+        assertEquals(Optional.empty(), readModel.bookedCount(500));
+    }
+
+    @Test
+    void apply_bookedThenCancelled_updatesSeatsCountAndPnr() {
+        rows();
+        readModel.rebuild();
+
+        readModel.apply(booked(1, "P1", 100, "1A", 1));
+        readModel.apply(booked(2, "P2", 100, "1B", 1));
+        assertEquals(2, readModel.bookedCount(100).orElseThrow());
+
+        readModel.apply(cancelled(1, "P1", 100, "1A", 1));
+
+        assertEquals(List.of("1B"), readModel.bookedSeats(100).orElseThrow());
+        assertEquals(1, readModel.bookedCount(100).orElseThrow());
+        assertEquals("CANCELLED", readModel.findByPnr("P1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void apply_sameEventTwice_isCountedOnce() {
+        rows();
+        readModel.rebuild();
+
+        readModel.apply(booked(1, "P1", 100, "1A", 3));
+        readModel.apply(booked(1, "P1", 100, "1A", 3));
+        readModel.apply(cancelled(1, "P1", 100, "1A", 3));
+        readModel.apply(cancelled(1, "P1", 100, "1A", 3));
+
+        assertEquals(0, readModel.bookedCount(100).orElseThrow());
+    }
+
+    @Test
+    void apply_bookedArrivingAfterCancelled_isIgnored() {
+        rows();
+        readModel.rebuild();
+
+        readModel.apply(cancelled(1, "P1", 100, "1A", 2));
+        readModel.apply(booked(1, "P1", 100, "1A", 2));
+
+        assertEquals(0, readModel.bookedCount(100).orElseThrow());
+        assertEquals(List.of(), readModel.bookedSeats(100).orElseThrow());
+        assertEquals("CANCELLED", readModel.findByPnr("P1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void rebuild_eventOlderThanLoadedRow_isIgnored() {
+        flightsDepartTomorrow(100);
+        doAnswer(inv -> {
+            Consumer<Booking> consumer = inv.getArgument(2);
+            // Cancelled by the time the table is read; the BOOKED event was still in flight
+            readModel.apply(booked(1, "P1", 100, "1A", 1));
+            Booking row = row(1, "P1", 100, "1A", 1, "CANCELLED");
+            row.setVersion(1L);
+            consumer.accept(row);
+            return null;
+        }).when(jdbcRepo).forEachBookingOfFlights(anyList(), anyInt(), any());
+
+        readModel.rebuild();
+
+        assertEquals(0, readModel.bookedCount(100).orElseThrow());
+        assertEquals("CANCELLED", readModel.findByPnr("P1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void apply_groupBooking_pnrResolvesToLeadPassenger() {
+        rows();
+        readModel.rebuild();
+
+        readModel.apply(booked(8, "GRP", 100, "2B", 1));
+        readModel.apply(booked(7, "GRP", 100, "2A", 1));
+        readModel.apply(cancelled(8, "GRP", 100, "2B", 1));
+
+        Booking lead = readModel.findByPnr("GRP").orElseThrow();
+        assertEquals(7, lead.getId());
+        assertEquals("BOOKED", lead.getStatus());
+        assertEquals(List.of("2A"), readModel.bookedSeats(100).orElseThrow());
+    }
+
+    @Test
+    void rebuild_keepsEventsReceivedWhileLoading() {
+        flightsDepartTomorrow(100);
+        doAnswer(inv -> {
+            Consumer<Booking> consumer = inv.getArgument(2);
+            consumer.accept(row(1, "P1", 100, "1A", 1, "BOOKED"));
+            // Arrives from the exchange while the table is being read
+            readModel.apply(booked(2, "P2", 100, "1B", 1));
+            return null;
+        }).when(jdbcRepo).forEachBookingOfFlights(anyList(), anyInt(), any());
+
+        readModel.rebuild();
+
+        assertEquals(2, readModel.bookedCount(100).orElseThrow());
+        assertTrue(readModel.findByPnr("P2").isPresent());
+    }
+
+    @Test
+    void rebuild_failure_keepsServingPreviousStore() {
+        rows(row(1, "P1", 100, "1A", 1, "BOOKED"));
+        readModel.rebuild();
+
+        doThrow(new RuntimeException("db down")).when(jdbcRepo).forEachBookingOfFlights(anyList(), anyInt(), any());
+        readModel.rebuild();
+
+        assertTrue(readModel.isReady());
+        assertEquals(1, readModel.bookedCount(100).orElseThrow());
+    }
+
+    @Test
+    void apply_recordsLagFromEventTime() {
+        rows();
+        readModel.rebuild();
+
+        readModel.apply(new BookingLifecycleEvent(BookingLifecycleEvent.Type.BOOKED, NOW.toEpochMilli() - 250,
+                1, 100, "P1", "1A", 1, "Alice", "a@test.com", 30, null, null, 0L));
+
+        assertEquals(250, registry.get("booking.read-model.lag").timer().max(java.util.concurrent.TimeUnit.MILLISECONDS));
+    }
+
+    // The given rows, on flights that all depart tomorrow
+    private void rows(Booking... bookings) {
+        Integer[] flightIds = Arrays.stream(bookings).map(Booking::getFlightId).distinct().toArray(Integer[]::new);
+        flightsDepartTomorrow(flightIds);
+        lenient().doAnswer(inv -> {
+            Consumer<Booking> consumer = inv.getArgument(2);
+            for (Booking b : bookings) {
+                consumer.accept(b);
+            }
+            return null;
+        }).when(jdbcRepo).forEachBookingOfFlights(anyList(), anyInt(), any());
+    }
+
+    private void flightsDepartTomorrow(Integer... flightIds) {
+        when(jdbcRepo.findBookedFlightIds()).thenReturn(List.of(flightIds));
+        lenient().when(flightClient.getFlightsByIds(List.of(flightIds)))
+                .thenReturn(Arrays.stream(flightIds).map(id -> flight(id, TOMORROW)).toList());
+    }
+
+    private static FlightResponse flight(int id, LocalDateTime departure) {
+        FlightResponse flight = new FlightResponse();
+        flight.setId(id);
+        flight.setDepartureTime(departure);
+        return flight;
+    }
+
+    private static Booking row(int id, String pnr, int flightId, String seat, int tickets, String status) {
+        return Booking.builder().id(id).pnr(pnr).flightId(flightId).seatNumber(seat)
+                .numberOfTickets(tickets).status(status).build();
+    }
+
+    private static BookingLifecycleEvent booked(int id, String pnr, int flightId, String seat, int tickets) {
+        return new BookingLifecycleEvent(BookingLifecycleEvent.Type.BOOKED, NOW.toEpochMilli(),
+                id, flightId, pnr, seat, tickets, "Passenger " + id, "p" + id + "@test.com", 30, null, null, 0L);
+    }
+
+    private static BookingLifecycleEvent cancelled(int id, String pnr, int flightId, String seat, int tickets) {
+        return new BookingLifecycleEvent(BookingLifecycleEvent.Type.CANCELLED, NOW.toEpochMilli(),
+                id, flightId, pnr, seat, tickets, "Passenger " + id, "p" + id + "@test.com", 30, null, null, 1L);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = NOW;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.flightapp.bookingservice.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatAllocatorTest {
+
+    private final SeatAllocator allocator = new SeatAllocator(new SeatLayout(12, 6, 3));
+
+    @Test
+    void allocate_emptyCabin_seatsSmallGroupTogetherAtTheFront() {
+        assertEquals(List.of("1", "2", "3"), allocator.allocate(List.of(), 3));
+    }
+
+    @Test
+    void allocate_prefersTightestRunSoLargerRunsStayFree() {
+        // Row 1 has a free pair (2,3) and a lone seat (6); row 2 is empty
+        assertEquals(List.of("2", "3"), allocator.allocate(List.of("1", "4", "5"), 2));
+    }
+
+    @Test
+    void allocate_prefersBlockOnOneSideOfTheAisle() {
+        // Row 1 only has 3,4 free together, which straddles the aisle; row 2 has 7,8
+        List<String> booked = List.of("1", "2", "5", "6", "9", "10", "11", "12");
+
+        assertEquals(List.of("7", "8"), allocator.allocate(booked, 2));
+    }
+
+    @Test
+    void allocate_sameRowAcrossAisleBeatsSplittingRows() {
+        assertEquals(List.of("1", "2", "3", "4"), allocator.allocate(List.of(), 4));
+    }
+
+    @Test
+    void allocate_largeGroup_usesNeighbouringRows() {
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9"), allocator.allocate(List.of(), 9));
+    }
+
+    @Test
+    void allocate_noRowHasRoom_splitsAcrossAdjacentRowsNotFarApart() {
+        // Every third seat taken: rows only have runs of two
+        List<String> booked = new ArrayList<>();
+        for (int i = 3; i <= 72; i += 3) {
+            booked.add(String.valueOf(i));
+        }
+
+        List<String> seats = allocator.allocate(booked, 5);
+
+        assertEquals(5, seats.size());
+        int firstRow = (Integer.parseInt(seats.get(0)) - 1) / 6;
+        int lastRow = (Integer.parseInt(seats.get(4)) - 1) / 6;
+        assertEquals(1, lastRow - firstRow);
+        assertTrue(seats.stream().noneMatch(booked::contains));
+    }
+
+    @Test
+    void allocate_notEnoughFreeSeats_returnsEmpty() {
+        List<String> booked = new ArrayList<>();
+        for (int i = 1; i <= 70; i++) {
+            booked.add(String.valueOf(i));
+        }
+
+        assertEquals(List.of("71", "72"), allocator.allocate(booked, 2));
+        assertEquals(List.of(), allocator.allocate(booked, 3));
+    }
+
+    @Test
+    void allocate_ignoresSeatsOutsideTheLayout() {
+        assertEquals(List.of("1", "2"), allocator.allocate(List.of("0", "73", "A1", ""), 2));
+    }
+
+    @Test
+    void allocate_randomCabins_neverPicksTakenOrDuplicateSeats() {
+        SeatAllocator wide = new SeatAllocator(new SeatLayout(40, 10, 5));
+        Random random = new Random(7);
+
+        for (int run = 0; run < 500; run++) {
+            Set<String> booked = new HashSet<>();
+            for (int seat = 1; seat <= 400; seat++) {
+                if (random.nextInt(100) < 60) {
+                    booked.add(String.valueOf(seat));
+                }
+            }
+            int count = 1 + random.nextInt(12);
+
+            List<String> seats = wide.allocate(booked, count);
+
+            assertEquals(count, seats.size());
+            assertEquals(count, new HashSet<>(seats).size());
+            assertTrue(seats.stream().noneMatch(booked::contains));
+        }
+    }
+
+    @Test
+    void layout_rejectsInvalidGrids() {
+        assertThrows(IllegalArgumentException.class, () -> new SeatLayout(0, 6, 3));
+        assertThrows(IllegalArgumentException.class, () -> new SeatLayout(12, 17, 3));
+        assertThrows(IllegalArgumentException.class, () -> new SeatLayout(12, 6, 6));
+    }
+}
@@ -0,0 +1,40 @@
+package com.flightapp.bookingservice.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatLayoutTest {
+
+    private final SeatLayout layout = new SeatLayout(12, 6, 3);
+
+    @Test
+    void indexOf_rejectsAnythingOutsideTheLayout() {
+        assertEquals(0, layout.indexOf("1"));
+        assertEquals(71, layout.indexOf("72"));
+        assertEquals(-1, layout.indexOf("73"));
+        assertEquals(-1, layout.indexOf("0"));
+        assertEquals(-1, layout.indexOf("1A"));
+        assertEquals(-1, layout.indexOf(null));
+    }
+
+    @Test
+    void bitmap_setsOneBitPerBookedSeat() {
+        byte[] bytes = Base64.getDecoder().decode(layout.bitmap(List.of("1", "3", "9", "72", "1A")));
+
+        assertEquals(9, bytes.length);
+        assertEquals(0b101, bytes[0]);
+        assertEquals(0b1, bytes[1]);
+        assertEquals((byte) 0x80, bytes[8]);
+    }
+
+    @Test
+    void bitmap_emptyCabinIsAllZero() {
+        byte[] bytes = Base64.getDecoder().decode(layout.bitmap(List.of()));
+
+        assertArrayEquals(new byte[9], bytes);
+    }
+}
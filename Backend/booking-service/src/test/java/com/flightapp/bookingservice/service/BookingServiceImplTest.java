@@ -1,17 +1,39 @@
 package com.flightapp.bookingservice.service;
 
+import com.flightapp.bookingservice.cache.FlightSnapshotCache;
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.event.SeatReleaseEvent;
 import com.flightapp.bookingservice.dto.request.BookingRequest;
+import com.flightapp.bookingservice.dto.request.GroupBookingRequest;
+import com.flightapp.bookingservice.dto.request.PassengerRequest;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
+import com.flightapp.bookingservice.dto.response.BookingSummary;
 import com.flightapp.bookingservice.dto.response.FlightResponse;
 import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
 import com.flightapp.bookingservice.exception.BookingInvalidException;
 import com.flightapp.bookingservice.exception.BookingNotFoundException;
+import com.flightapp.bookingservice.exception.SeatConflictException;
+import com.flightapp.bookingservice.exception.ServiceOverloadedException;
 import com.flightapp.bookingservice.feign.FlightServiceClient;
 import com.flightapp.bookingservice.producer.RabbitMQProducer;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
 import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.util.PnrGenerator;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -26,12 +48,27 @@ class BookingServiceImplTest {
     @Mock
     BookingRepository repo;
 
+    @Mock
+    BookingJdbcRepository jdbcRepo;
+
     @Mock
     FlightServiceClient flightClient;
 
     @Mock
     RabbitMQProducer producer;
 
+    @Mock
+    PnrGenerator pnrGenerator;
+
+    @Mock
+    FlightSnapshotCache flightSnapshots;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    @Mock
+    BookingReadModel readModel;
+
     @InjectMocks
     BookingServiceImpl service;
 
@@ -66,6 +103,7 @@ class BookingServiceImplTest {
                 .email("alice@example.com")
                 .build();
         when(repo.save(any())).thenReturn(savedBooking);
+        when(pnrGenerator.next()).thenReturn("K7QW2MZP9X");
 
         Booking result = service.bookTicket(sampleRequest);
 
@@ -73,7 +111,12 @@ class BookingServiceImplTest {
         assertEquals(55, result.getId());
 
         // ✅ Verify producer call using predictable part of message
-        verify(producer, times(1)).sendBookingEmail(contains(sampleRequest.getEmail()));
+        verify(producer, times(1)).sendBookingNotification(argThat(n ->
+                n.getType() == BookingNotification.Type.CONFIRMED
+                        && sampleRequest.getEmail().equals(n.getEmail())
+                        && n.getTickets() == 2));
+        verify(events).publishEvent(argThat((BookingLifecycleEvent e) ->
+                e.type() == BookingLifecycleEvent.Type.BOOKED && "K7QW2MZP9X".equals(e.pnr())));
     }
 
     @Test
@@ -85,7 +128,7 @@ class BookingServiceImplTest {
 
         assertThrows(BookingInvalidException.class, () -> service.bookTicket(sampleRequest));
         verify(repo, never()).save(any());
-        verify(producer, never()).sendBookingEmail(any());
+        verify(producer, never()).sendBookingNotification(any());
     }
 
     @Test
@@ -95,6 +138,162 @@ class BookingServiceImplTest {
         assertTrue(ex.getMessage().contains("Flight service unavailable"));
     }
 
+    @Test
+    void bookGroup_success_insertsAllRowsUnderOnePnrAndReducesSeatsOnce() {
+        GroupBookingRequest request = groupRequest("1", "2", "3");
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setSeatsAvailable(10);
+        when(flightClient.getFlightById(100)).thenReturn(flight);
+        when(repo.findTakenSeats(100, List.of("1", "2", "3"))).thenReturn(List.of());
+        when(pnrGenerator.next()).thenReturn("K7QW2MZP9X");
+        doAnswer(inv -> {
+            List<Booking> inserted = inv.getArgument(0);
+            for (int i = 0; i < inserted.size(); i++) {
+                inserted.get(i).setId(700 + i);
+            }
+            return null;
+        }).when(jdbcRepo).insertAll(anyList());
+
+        GroupBookingResponse response = service.bookGroup(request);
+
+        assertEquals("K7QW2MZP9X", response.getPnr());
+        assertEquals(List.of("1", "2", "3"), response.getSeats());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Booking>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcRepo, times(1)).insertAll(rows.capture());
+        assertEquals(3, rows.getValue().size());
+        assertTrue(rows.getValue().stream().allMatch(b -> "K7QW2MZP9X".equals(b.getPnr())));
+        assertTrue(rows.getValue().stream().allMatch(b -> b.getNumberOfTickets() == 1));
+        verify(jdbcRepo, times(1)).claimPnr("K7QW2MZP9X");
+
+        verify(flightClient, times(1)).getFlightById(100);
+        verify(flightClient, times(1)).reduceSeats(100, 3);
+        // Email and rollback compensation are handed to transactional listeners
+        verify(events).publishEvent(argThat((Object e) -> e instanceof BookingNotification n
+                && "K7QW2MZP9X".equals(n.getPnr()) && n.getPassengers().size() == 3));
+        verify(events).publishEvent(argThat((Object e) -> e instanceof SeatReleaseEvent r
+                && r.getBookingId() == 700 && r.getFlightId() == 100 && r.getSeats() == 3));
+        verify(events, times(3)).publishEvent(any(BookingLifecycleEvent.class));
+        verifyNoInteractions(producer);
+    }
+
+    @Test
+    void bookGroup_seatTakenByConcurrentBooking_throwsConflictBeforeReducingSeats() {
+        GroupBookingRequest request = groupRequest("1", "2");
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setSeatsAvailable(10);
+        when(flightClient.getFlightById(100)).thenReturn(flight);
+        when(repo.findTakenSeats(100, List.of("1", "2"))).thenReturn(List.of());
+        when(pnrGenerator.next()).thenReturn("K7QW2MZP9X");
+        doThrow(new DuplicateKeyException("uq_bookings_booked_seat")).when(jdbcRepo).insertAll(anyList());
+
+        assertThrows(SeatConflictException.class, () -> service.bookGroup(request));
+        verify(flightClient, never()).reduceSeats(any(), any());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void bookTicket_pnrAlreadyIssued_savesNothing() {
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setSeatsAvailable(5);
+        when(flightClient.getFlightById(100)).thenReturn(flight);
+        when(pnrGenerator.next()).thenReturn("K7QW2MZP9X");
+        doThrow(new DuplicateKeyException("booking_pnrs_pkey")).when(jdbcRepo).claimPnr("K7QW2MZP9X");
+
+        assertThrows(IllegalStateException.class, () -> service.bookTicket(sampleRequest));
+        verify(repo, never()).save(any());
+        verify(flightClient, never()).reduceSeats(any(), any());
+    }
+
+    @Test
+    void bookTicket_seatTakenByConcurrentBooking_throwsConflictThroughFallback() {
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setSeatsAvailable(5);
+        when(flightClient.getFlightById(100)).thenReturn(flight);
+        when(pnrGenerator.next()).thenReturn("K7QW2MZP9X");
+        when(repo.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", null, "uq_bookings_booked_seat")));
+
+        SeatConflictException ex = assertThrows(SeatConflictException.class, () -> service.bookTicket(sampleRequest));
+        assertSame(ex, assertThrows(SeatConflictException.class,
+                () -> service.flightServiceFallback(sampleRequest, ex)));
+        verify(flightClient, never()).reduceSeats(any(), any());
+    }
+
+    @Test
+    void bookGroup_seatTaken_throwsWithoutInserting() {
+        GroupBookingRequest request = groupRequest("1", "2");
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setSeatsAvailable(10);
+        when(flightClient.getFlightById(100)).thenReturn(flight);
+        when(repo.findTakenSeats(100, List.of("1", "2"))).thenReturn(List.of("2"));
+
+        BookingInvalidException ex = assertThrows(BookingInvalidException.class, () -> service.bookGroup(request));
+        assertTrue(ex.getMessage().contains("2"));
+        verify(jdbcRepo, never()).insertAll(any());
+        verify(flightClient, never()).reduceSeats(any(), any());
+    }
+
+    @Test
+    void bookGroup_notEnoughSeats_throws() {
+        GroupBookingRequest request = groupRequest("1", "2", "3");
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setSeatsAvailable(2);
+        when(flightClient.getFlightById(100)).thenReturn(flight);
+
+        assertThrows(BookingInvalidException.class, () -> service.bookGroup(request));
+        verify(jdbcRepo, never()).insertAll(any());
+    }
+
+    @Test
+    void bookGroup_duplicateSeatInRequest_throwsBeforeCallingFlightService() {
+        GroupBookingRequest request = groupRequest("4", "4");
+
+        assertThrows(BookingInvalidException.class, () -> service.bookGroup(request));
+        verifyNoInteractions(flightClient);
+    }
+
+    @Test
+    void bookGroup_seatDecrementFails_propagatesSoTransactionRollsBack() {
+        GroupBookingRequest request = groupRequest("1", "2");
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setSeatsAvailable(10);
+        when(flightClient.getFlightById(100)).thenReturn(flight);
+        when(repo.findTakenSeats(100, List.of("1", "2"))).thenReturn(List.of());
+        doThrow(new RuntimeException("flight-service down")).when(flightClient).reduceSeats(100, 2);
+
+        assertThrows(RuntimeException.class, () -> service.bookGroup(request));
+        verify(events, never()).publishEvent(any(BookingNotification.class));
+        // flight-service did not take the seats, so there is nothing to release on rollback
+        verify(events, never()).publishEvent(any(SeatReleaseEvent.class));
+    }
+
+    @Test
+    void bookGroup_fallback_keepsValidationErrorsAndMapsOutages() {
+        GroupBookingRequest request = groupRequest("1");
+
+        BookingInvalidException invalid = new BookingInvalidException("Seats already booked: 1");
+        assertSame(invalid, assertThrows(BookingInvalidException.class,
+                () -> service.groupBookingFallback(request, invalid)));
+
+        BookingInvalidException outage = assertThrows(BookingInvalidException.class,
+                () -> service.groupBookingFallback(request, new RuntimeException()));
+        assertTrue(outage.getMessage().contains("Flight service unavailable"));
+    }
+
     @Test
     void cancelBooking_success_changesStatusToCancelled() {
         Booking existing = Booking.builder()
@@ -102,6 +301,7 @@ class BookingServiceImplTest {
                 .flightId(100)
                 .pnr("PNR_CANCEL")
                 .status("BOOKED")
+                .numberOfTickets(3)
                 .build();
         when(repo.findById(200)).thenReturn(Optional.of(existing));
 
@@ -120,6 +320,33 @@ class BookingServiceImplTest {
         Booking res = service.cancelBooking(200);
         assertEquals("CANCELLED", res.getStatus());
         verify(repo, times(1)).save(any());
+        verify(producer).sendSeatRelease(argThat(e ->
+                e.getBookingId() == 200 && e.getFlightId() == 100 && e.getSeats() == 3));
+        verify(events).publishEvent(argThat((BookingLifecycleEvent e) ->
+                e.type() == BookingLifecycleEvent.Type.CANCELLED && e.bookingId() == 200 && e.seats() == 3
+                        && e.version() == 1));
+        verify(producer).sendBookingNotification(argThat(n ->
+                n.getType() == BookingNotification.Type.CANCELLED && "PNR_CANCEL".equals(n.getPnr())));
+    }
+
+    @Test
+    void cancelBooking_alreadyCancelled_hasNoSideEffects() {
+        Booking existing = Booking.builder()
+                .id(202)
+                .flightId(100)
+                .pnr("PNR_TWICE")
+                .status("CANCELLED")
+                .version(1L)
+                .numberOfTickets(1)
+                .build();
+        when(repo.findById(202)).thenReturn(Optional.of(existing));
+
+        Booking res = service.cancelBooking(202);
+
+        assertSame(existing, res);
+        assertEquals(1L, res.getVersion());
+        verify(repo, never()).save(any());
+        verifyNoInteractions(flightClient, producer, events);
     }
 
     @Test
@@ -139,15 +366,132 @@ class BookingServiceImplTest {
 
         assertThrows(BookingInvalidException.class, () -> service.cancelBooking(201));
         verify(repo, never()).save(any());
+        verify(producer, never()).sendSeatRelease(any());
     }
 
     @Test
     void cancelBooking_fallback_throwsBookingInvalidException() {
         BookingInvalidException ex = assertThrows(BookingInvalidException.class,
-                () -> service.getBookingFallback(1, new RuntimeException()));
+                () -> service.getBookingFallback(1, circuitOpen()));
         assertTrue(ex.getMessage().contains("Flight service unavailable"));
     }
 
+    @Test
+    void cancelBooking_freshSnapshot_skipsFlightService() {
+        Booking existing = Booking.builder().id(202).flightId(102).status("BOOKED").build();
+        when(repo.findById(202)).thenReturn(Optional.of(existing));
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(102);
+        flight.setDepartureTime(LocalDateTime.now().plusDays(3));
+        when(flightSnapshots.getFresh(102)).thenReturn(Optional.of(flight));
+        when(repo.save(existing)).thenReturn(existing);
+
+        assertEquals("CANCELLED", service.cancelBooking(202).getStatus());
+        verifyNoInteractions(flightClient);
+    }
+
+    @Test
+    void cancelBooking_fallback_usesStaleSnapshot() {
+        Booking existing = Booking.builder().id(203).flightId(103).status("BOOKED").build();
+        when(repo.findById(203)).thenReturn(Optional.of(existing));
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(103);
+        flight.setDepartureTime(LocalDateTime.now().plusDays(3));
+        when(flightSnapshots.getStale(103)).thenReturn(Optional.of(flight));
+        when(repo.save(existing)).thenReturn(existing);
+
+        Booking res = service.getBookingFallback(203, circuitOpen());
+
+        assertEquals("CANCELLED", res.getStatus());
+    }
+
+    @Test
+    void cancelBooking_fallback_staleSnapshotStillEnforces24Hours() {
+        Booking existing = Booking.builder().id(204).flightId(104).status("BOOKED").build();
+        when(repo.findById(204)).thenReturn(Optional.of(existing));
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(104);
+        flight.setDepartureTime(LocalDateTime.now().plusHours(2));
+        when(flightSnapshots.getStale(104)).thenReturn(Optional.of(flight));
+
+        BookingInvalidException ex = assertThrows(BookingInvalidException.class,
+                () -> service.getBookingFallback(204, circuitOpen()));
+        assertTrue(ex.getMessage().contains("24 hours"));
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void cancelBooking_fallback_rethrowsBusinessErrors() {
+        BookingInvalidException invalid = new BookingInvalidException("Cannot cancel less than 24 hours before departure");
+        assertSame(invalid, assertThrows(BookingInvalidException.class,
+                () -> service.getBookingFallback(1, invalid)));
+
+        BookingNotFoundException notFound = new BookingNotFoundException("Booking not found");
+        assertSame(notFound, assertThrows(BookingNotFoundException.class,
+                () -> service.getBookingFallback(1, notFound)));
+        verifyNoInteractions(flightSnapshots);
+    }
+
+    @Test
+    void cancelBooking_fallback_rethrowsFailuresOutsideFlightService() {
+        DataAccessResourceFailureException dbDown = new DataAccessResourceFailureException("db down");
+
+        assertSame(dbDown, assertThrows(DataAccessResourceFailureException.class,
+                () -> service.getBookingFallback(1, dbDown)));
+        verifyNoInteractions(repo, flightSnapshots);
+    }
+
+    @Test
+    void fallbacks_bulkheadFull_throwServiceOverloaded() {
+        BulkheadFullException full = BulkheadFullException.createBulkheadFullException(
+                io.github.resilience4j.bulkhead.Bulkhead.ofDefaults("bookingBulkhead"));
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> service.flightServiceFallback(sampleRequest, full));
+        assertThrows(ServiceOverloadedException.class,
+                () -> service.groupBookingFallback(groupRequest("1A"), full));
+        assertThrows(ServiceOverloadedException.class,
+                () -> service.getBookingFallback(1, full));
+        verifyNoInteractions(repo, flightSnapshots);
+    }
+
+    @Test
+    void fallbacks_limiterShed_keepRetryAfter() {
+        ServiceOverloadedException shed = new ServiceOverloadedException("Flight service is busy", 3);
+
+        assertSame(shed, assertThrows(ServiceOverloadedException.class,
+                () -> service.flightServiceFallback(sampleRequest, shed)));
+        assertSame(shed, assertThrows(ServiceOverloadedException.class,
+                () -> service.groupBookingFallback(groupRequest("1A"), shed)));
+    }
+
+    @Test
+    void cancelBooking_fallback_limiterShed_usesStaleSnapshotWhenAvailable() {
+        Booking existing = Booking.builder().id(205).flightId(105).status("BOOKED").build();
+        when(repo.findById(205)).thenReturn(Optional.of(existing));
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(105);
+        flight.setDepartureTime(LocalDateTime.now().plusDays(3));
+        when(flightSnapshots.getStale(105)).thenReturn(Optional.of(flight));
+        when(repo.save(existing)).thenReturn(existing);
+
+        Booking res = service.getBookingFallback(205, new ServiceOverloadedException("busy", 1));
+
+        assertEquals("CANCELLED", res.getStatus());
+    }
+
+    @Test
+    void cancelBooking_fallback_limiterShed_noSnapshot_throwsServiceOverloaded() {
+        when(repo.findById(206)).thenReturn(Optional.empty());
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> service.getBookingFallback(206, new ServiceOverloadedException("busy", 1)));
+    }
+
     @Test
     void getBookingById_notFound_throwsBookingNotFoundException() {
         when(repo.findById(999)).thenReturn(Optional.empty());
@@ -156,15 +500,117 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingByPnr_notFound_throwsBookingNotFoundException() {
-        when(repo.findByPnr("NOPE")).thenReturn(Optional.empty());
+        when(repo.findFirstByPnrOrderByIdAsc("NOPE")).thenReturn(Optional.empty());
         assertThrows(BookingNotFoundException.class, () -> service.getBookingByPnr("NOPE"));
     }
 
+    @Test
+    void getBookingByPnr_servedFromReadModel() {
+        Booking lead = Booking.builder().id(1).pnr("K7QW2MZP9X").status("BOOKED").build();
+        when(readModel.findByPnr("K7QW2MZP9X")).thenReturn(Optional.of(lead));
+
+        assertSame(lead, service.getBookingByPnr("K7QW2MZP9X"));
+        verify(repo, never()).findFirstByPnrOrderByIdAsc(any());
+    }
+
+    @Test
+    void getBookingByPnr_notYetInReadModel_readsDatabase() {
+        Booking lead = Booking.builder().id(1).pnr("K7QW2MZP9X").status("BOOKED").build();
+        when(readModel.findByPnr("K7QW2MZP9X")).thenReturn(Optional.empty());
+        when(repo.findFirstByPnrOrderByIdAsc("K7QW2MZP9X")).thenReturn(Optional.of(lead));
+
+        assertSame(lead, service.getBookingByPnr("K7QW2MZP9X"));
+    }
+
+    @Test
+    void getBookedSeats_servedFromReadModel() {
+        when(readModel.bookedSeats(100)).thenReturn(Optional.of(List.of("1A", "1B")));
+
+        assertEquals(List.of("1A", "1B"), service.getBookedSeats(100));
+        verify(repo, never()).findByFlightIdAndStatus(any(), any());
+    }
+
+    @Test
+    void getBookedCount_readModelNotReady_sumsTicketsFromDatabase() {
+        when(readModel.bookedCount(100)).thenReturn(Optional.empty());
+        when(repo.findByFlightIdAndStatus(100, "BOOKED")).thenReturn(List.of(
+                Booking.builder().id(1).numberOfTickets(3).build(),
+                Booking.builder().id(2).numberOfTickets(1).build()));
+
+        assertEquals(4, service.getBookedCount(100));
+    }
+
     @Test
     void getBookingsByEmail_returnsList() {
-        Booking b = Booking.builder().id(1).email("x@y.com").pnr("P1").build();
-        when(repo.findByEmail("x@y.com")).thenReturn(List.of(b));
-        var res = service.getBookingsByEmail("x@y.com");
+        BookingSummary b = new BookingSummary(1, 100, "Alice", null, 1, "1", "BOOKED", "P1");
+        when(repo.findHistoryPage(eq("x@y.com"), eq(Integer.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(b));
+        var res = service.getBookingsByEmail("x@y.com", null, 20, false);
         assertEquals(1, res.size());
+        verify(flightClient, never()).getFlightsByIds(any());
+    }
+
+    @Test
+    void getBookingsByEmail_beforeIdAndSizeClamped() {
+        when(repo.findHistoryPage(eq("x@y.com"), eq(40), any(Pageable.class))).thenReturn(List.of());
+
+        service.getBookingsByEmail("x@y.com", 40, 10_000, false);
+
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        verify(repo).findHistoryPage(eq("x@y.com"), eq(40), page.capture());
+        assertEquals(BookingService.MAX_HISTORY_PAGE_SIZE, page.getValue().getPageSize());
+    }
+
+    @Test
+    void getBookingsByEmail_invalidSize_throwsBookingInvalidException() {
+        assertThrows(BookingInvalidException.class, () -> service.getBookingsByEmail("x@y.com", null, 0, false));
+    }
+
+    @Test
+    void getBookingsByEmail_includeFlights_fetchesFlightsInOneCall() {
+        BookingSummary b1 = new BookingSummary(2, 100, "Alice", null, 1, "1", "BOOKED", "P2");
+        BookingSummary b2 = new BookingSummary(1, 100, "Alice", null, 1, "2", "BOOKED", "P1");
+        when(repo.findHistoryPage(eq("x@y.com"), eq(Integer.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(b1, b2));
+
+        FlightResponse flight = new FlightResponse();
+        flight.setId(100);
+        flight.setFlightNumber("F100");
+        when(flightClient.getFlightsByIds(List.of(100))).thenReturn(List.of(flight));
+
+        var res = service.getBookingsByEmail("x@y.com", null, 20, true);
+
+        assertEquals("F100", res.get(0).getFlight().getFlightNumber());
+        assertEquals("F100", res.get(1).getFlight().getFlightNumber());
+        verify(flightClient, times(1)).getFlightsByIds(any());
+    }
+
+    @Test
+    void getBookingsByEmail_flightServiceDown_returnsHistoryWithoutFlights() {
+        BookingSummary b = new BookingSummary(1, 100, "Alice", null, 1, "1", "BOOKED", "P1");
+        when(repo.findHistoryPage(eq("x@y.com"), eq(Integer.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(b));
+        when(flightClient.getFlightsByIds(List.of(100))).thenThrow(new RuntimeException("down"));
+
+        var res = service.getBookingsByEmail("x@y.com", null, 20, true);
+
+        assertEquals(1, res.size());
+        assertNull(res.get(0).getFlight());
+    }
+
+    private GroupBookingRequest groupRequest(String... seats) {
+        List<PassengerRequest> passengers = java.util.Arrays.stream(seats)
+                .map(seat -> PassengerRequest.builder()
+                        .passengerName("Passenger " + seat)
+                        .age(30)
+                        .seatNumber(seat)
+                        .build())
+                .toList();
+        return GroupBookingRequest.builder()
+                .flightId(100)
+                .email("group@example.com")
+                .passengers(passengers)
+                .build();
+    }
+
+    private static CallNotPermittedException circuitOpen() {
+        return CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("flightServiceCB"));
     }
 }
@@ -0,0 +1,147 @@
+package com.flightapp.bookingservice.service;
+
+import com.flightapp.bookingservice.dto.event.BookingNotification;
+import com.flightapp.bookingservice.dto.response.BulkCancellationStatus;
+import com.flightapp.bookingservice.entity.Booking;
+import com.flightapp.bookingservice.event.BookingLifecycleEvent;
+import com.flightapp.bookingservice.exception.BookingNotFoundException;
+import com.flightapp.bookingservice.producer.RabbitMQProducer;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class BulkCancellationServiceTest {
+
+    @Mock
+    BookingJdbcRepository jdbcRepo;
+
+    @Mock
+    RabbitMQProducer producer;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    private BulkCancellationService service(Executor executor) {
+        return new BulkCancellationService(jdbcRepo, producer, events, 2, executor);
+    }
+
+    @Test
+    void cancelAllForFlight_walksChunksAndNotifiesEachOne() {
+        when(jdbcRepo.cancelBookedChunk(100, 0, 2)).thenReturn(List.of(
+                booking(3, "P1"), booking(5, "P2")));
+        when(jdbcRepo.cancelBookedChunk(100, 5, 2)).thenReturn(List.of(booking(9, "P3")));
+        when(jdbcRepo.cancelBookedChunk(100, 9, 2)).thenReturn(List.of());
+
+        BulkCancellationService service = service(Runnable::run);
+        String jobId = service.cancelAllForFlight(100).getJobId();
+
+        BulkCancellationStatus status = service.getStatus(jobId);
+        assertEquals(BulkCancellationService.COMPLETED, status.getState());
+        assertEquals(3, status.getCancelled());
+        assertEquals(3, status.getNotified());
+        assertNotNull(status.getFinishedAt());
+        verify(producer, times(2)).sendBookingNotifications(anyList());
+    }
+
+    @Test
+    void cancelAllForFlight_publishesCancelledEventPerBooking() {
+        when(jdbcRepo.cancelBookedChunk(100, 0, 2)).thenReturn(List.of(
+                booking(3, "P1"), booking(5, "P2")));
+        when(jdbcRepo.cancelBookedChunk(100, 5, 2)).thenReturn(List.of());
+
+        service(Runnable::run).cancelAllForFlight(100);
+
+        ArgumentCaptor<BookingLifecycleEvent> captor = ArgumentCaptor.forClass(BookingLifecycleEvent.class);
+        verify(events, times(2)).publishEvent(captor.capture());
+        assertEquals(BookingLifecycleEvent.Type.CANCELLED, captor.getAllValues().get(0).type());
+        assertEquals(3, captor.getAllValues().get(0).bookingId());
+        assertEquals("5A", captor.getAllValues().get(1).seatNumber());
+    }
+
+    @Test
+    void cancelAllForFlight_groupBookingGetsOneEmail() {
+        when(jdbcRepo.cancelBookedChunk(100, 0, 2)).thenReturn(List.of(
+                booking(3, "GRP"), booking(4, "GRP")));
+        when(jdbcRepo.cancelBookedChunk(100, 4, 2)).thenReturn(List.of());
+
+        service(Runnable::run).cancelAllForFlight(100);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookingNotification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(producer).sendBookingNotifications(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        BookingNotification notification = captor.getValue().get(0);
+        assertEquals(BookingNotification.Type.CANCELLED, notification.getType());
+        assertEquals("GRP", notification.getPnr());
+        assertEquals(List.of("3A", "4A"), notification.getPassengers().stream()
+                .map(BookingNotification.Passenger::getSeatNumber).toList());
+        assertEquals("Flight cancelled by the airline", notification.getReason());
+    }
+
+    @Test
+    void cancelAllForFlight_failureIsReported() {
+        when(jdbcRepo.cancelBookedChunk(100, 0, 2)).thenThrow(new RuntimeException("db down"));
+
+        BulkCancellationService service = service(Runnable::run);
+        String jobId = service.cancelAllForFlight(100).getJobId();
+
+        BulkCancellationStatus status = service.getStatus(jobId);
+        assertEquals(BulkCancellationService.FAILED, status.getState());
+        assertEquals("db down", status.getError());
+        verifyNoInteractions(producer);
+    }
+
+    @Test
+    void cancelAllForFlight_whileRunning_returnsSameJob() {
+        List<Runnable> queued = new ArrayList<>();
+        BulkCancellationService service = service(queued::add);
+
+        String first = service.cancelAllForFlight(100).getJobId();
+        String second = service.cancelAllForFlight(100).getJobId();
+
+        assertEquals(first, second);
+        assertEquals(1, queued.size());
+        assertEquals(BulkCancellationService.RUNNING, service.getStatus(first).getState());
+    }
+
+    @Test
+    void cancelAllForFlight_afterCompletion_startsNewJob() {
+        when(jdbcRepo.cancelBookedChunk(eq(100), anyInt(), eq(2))).thenReturn(List.of());
+        BulkCancellationService service = service(Runnable::run);
+
+        String first = service.cancelAllForFlight(100).getJobId();
+        String second = service.cancelAllForFlight(100).getJobId();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void getStatus_unknownJob_throwsNotFound() {
+        assertThrows(BookingNotFoundException.class, () -> service(Runnable::run).getStatus("missing"));
+    }
+
+    private static Booking booking(int id, String pnr) {
+        return Booking.builder()
+                .id(id)
+                .flightId(100)
+                .email("p" + id + "@test.com")
+                .passengerName("Passenger " + id)
+                .pnr(pnr)
+                .seatNumber(id + "A")
+                .numberOfTickets(1)
+                .status("CANCELLED")
+                .build();
+    }
+}
@@ -0,0 +1,254 @@
+package com.flightapp.bookingservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.dto.response.BookingResponse;
+import com.flightapp.bookingservice.entity.IdempotencyRecord;
+import com.flightapp.bookingservice.exception.BookingInvalidException;
+import com.flightapp.bookingservice.exception.DuplicateRequestException;
+import com.flightapp.bookingservice.exception.IdempotencyKeyReusedException;
+import com.flightapp.bookingservice.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    IdempotencyRecordRepository repo;
+
+    IdempotencyService service;
+
+    private static final Map<String, Object> REQUEST = Map.of("flightId", 100, "seatNumber", "1");
+    private static final Map<String, Object> OTHER_REQUEST = Map.of("flightId", 100, "seatNumber", "2");
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(repo, new ObjectMapper(), 60, 100, 2);
+    }
+
+    @Test
+    void execute_firstRequest_runsActionAndStoresResult() {
+        when(repo.findById("k1")).thenReturn(Optional.empty());
+        when(repo.claim(eq("k1"), any(), any(), any())).thenReturn(1);
+
+        BookingResponse result = service.execute("k1", REQUEST, () -> new BookingResponse(1, "PNR1"));
+
+        assertEquals("PNR1", result.getPnr());
+        verify(repo).complete(eq("k1"), eq(1), eq("PNR1"), any());
+    }
+
+    @Test
+    void execute_replay_servedFromCacheWithoutRunningAction() {
+        when(repo.findById("k1")).thenReturn(Optional.empty());
+        when(repo.claim(eq("k1"), any(), any(), any())).thenReturn(1);
+        service.execute("k1", REQUEST, () -> new BookingResponse(1, "PNR1"));
+
+        AtomicInteger calls = new AtomicInteger();
+        BookingResponse replay = service.execute("k1", REQUEST, () -> {
+            calls.incrementAndGet();
+            return new BookingResponse(2, "PNR2");
+        });
+
+        assertEquals("PNR1", replay.getPnr());
+        assertEquals(0, calls.get());
+        verify(repo, times(1)).claim(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void execute_replay_servedFromTableAfterRestart() {
+        IdempotencyRecord stored = IdempotencyRecord.builder()
+                .idempotencyKey("k2")
+                .bookingId(9)
+                .pnr("PNR9")
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .build();
+        when(repo.findById("k2")).thenReturn(Optional.of(stored));
+
+        BookingResponse replay = service.execute("k2", REQUEST, () -> fail("action must not run"));
+
+        assertEquals(9, replay.getId());
+        assertEquals("PNR9", replay.getPnr());
+        verify(repo, never()).claim(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void execute_failedAction_releasesKey() {
+        when(repo.findById("k3")).thenReturn(Optional.empty());
+        when(repo.claim(eq("k3"), any(), any(), any())).thenReturn(1);
+
+        assertThrows(BookingInvalidException.class, () -> service.execute("k3", REQUEST, () -> {
+            throw new BookingInvalidException("Not enough seats available");
+        }));
+
+        verify(repo).release("k3");
+        verify(repo, never()).complete(anyString(), any(), anyString(), any());
+    }
+
+    @Test
+    void execute_concurrentDuplicates_runActionOnce() throws Exception {
+        when(repo.findById("k4")).thenReturn(Optional.empty());
+        when(repo.claim(eq("k4"), any(), any(), any())).thenReturn(1);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<BookingResponse> first = pool.submit(() -> service.execute("k4", REQUEST, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return new BookingResponse(4, "PNR4");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<BookingResponse> second = pool.submit(() -> service.execute("k4", REQUEST, () -> {
+                calls.incrementAndGet();
+                return new BookingResponse(5, "PNR5");
+            }));
+
+            release.countDown();
+            assertEquals("PNR4", first.get(5, TimeUnit.SECONDS).getPnr());
+            assertEquals("PNR4", second.get(5, TimeUnit.SECONDS).getPnr());
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_keyHeldByAnotherInstance_waitsForItsResult() {
+        IdempotencyRecord pending = IdempotencyRecord.builder()
+                .idempotencyKey("k5")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusSeconds(30))
+                .build();
+        IdempotencyRecord done = IdempotencyRecord.builder()
+                .idempotencyKey("k5")
+                .bookingId(5)
+                .pnr("PNR5")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .build();
+        when(repo.findById("k5"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(pending))
+                .thenReturn(Optional.of(pending))
+                .thenReturn(Optional.of(done));
+        when(repo.claim(eq("k5"), any(), any(), any())).thenReturn(0);
+
+        BookingResponse result = service.execute("k5", REQUEST, () -> fail("action must not run"));
+
+        assertEquals("PNR5", result.getPnr());
+    }
+
+    @Test
+    void execute_otherInstanceReleasedKey_throwsDuplicateRequest() {
+        when(repo.findById("k6")).thenReturn(Optional.empty());
+        when(repo.claim(eq("k6"), any(), any(), any())).thenReturn(0);
+
+        assertThrows(DuplicateRequestException.class,
+                () -> service.execute("k6", REQUEST, () -> fail("action must not run")));
+    }
+
+    @Test
+    void execute_sameKeyDifferentRequest_isRejected() {
+        when(repo.findById("k7")).thenReturn(Optional.empty());
+        when(repo.claim(eq("k7"), any(), any(), any())).thenReturn(1);
+        service.execute("k7", REQUEST, () -> new BookingResponse(7, "PNR7"));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> service.execute("k7", OTHER_REQUEST, () -> fail("action must not run")));
+    }
+
+    @Test
+    void execute_storedKeyWithDifferentRequestHash_isRejected() {
+        IdempotencyRecord stored = IdempotencyRecord.builder()
+                .idempotencyKey("k8")
+                .bookingId(8)
+                .pnr("PNR8")
+                .requestHash("0".repeat(64))
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .build();
+        when(repo.findById("k8")).thenReturn(Optional.of(stored));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> service.execute("k8", REQUEST, () -> fail("action must not run")));
+    }
+
+    @Test
+    void execute_keyHeldByAnotherInstanceForDifferentRequest_isRejected() {
+        IdempotencyRecord pending = IdempotencyRecord.builder()
+                .idempotencyKey("k9")
+                .requestHash("0".repeat(64))
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusSeconds(30))
+                .build();
+        when(repo.findById("k9")).thenReturn(Optional.empty()).thenReturn(Optional.of(pending));
+        when(repo.claim(eq("k9"), any(), any(), any())).thenReturn(0);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> service.execute("k9", REQUEST, () -> fail("action must not run")));
+    }
+
+    @Test
+    void execute_bookingOutlivingClaimTimeout_keepsClaimAlive() {
+        when(repo.findById("k10")).thenReturn(Optional.empty());
+        when(repo.claim(eq("k10"), any(), any(), any())).thenReturn(1);
+        CountDownLatch extended = new CountDownLatch(2);
+        when(repo.extendClaim(eq("k10"), any(), any())).thenAnswer(inv -> {
+            extended.countDown();
+            return 1;
+        });
+
+        // Runs until the claim has been extended twice, well past one in-flight timeout
+        BookingResponse result = service.execute("k10", REQUEST, () -> {
+            await(extended);
+            return new BookingResponse(10, "PNR10");
+        });
+
+        assertEquals("PNR10", result.getPnr());
+        assertEquals(0, extended.getCount());
+
+        ArgumentCaptor<LocalDateTime> claimedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repo).claim(eq("k10"), anyString(), claimedAt.capture(), any());
+        verify(repo, atLeast(2)).extendClaim(eq("k10"), eq(claimedAt.getValue()), any());
+    }
+
+    @Test
+    void purgeExpired_deletesOldKeys() {
+        when(repo.deleteExpired(any())).thenReturn(3);
+        service.purgeExpired();
+        verify(repo).deleteExpired(any());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
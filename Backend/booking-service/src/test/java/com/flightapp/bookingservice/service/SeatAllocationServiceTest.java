@@ -0,0 +1,168 @@
+package com.flightapp.bookingservice.service;
+
+import com.flightapp.bookingservice.dto.request.AutoSeatGroupRequest;
+import com.flightapp.bookingservice.dto.request.AutoSeatPassengerRequest;
+import com.flightapp.bookingservice.dto.request.GroupBookingRequest;
+import com.flightapp.bookingservice.dto.request.PassengerRequest;
+import com.flightapp.bookingservice.dto.response.GroupBookingResponse;
+import com.flightapp.bookingservice.enums.GENDER;
+import com.flightapp.bookingservice.enums.MEAL;
+import com.flightapp.bookingservice.exception.BookingInvalidException;
+import com.flightapp.bookingservice.exception.SeatConflictException;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.seating.SeatAllocator;
+import com.flightapp.bookingservice.seating.SeatLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class SeatAllocationServiceTest {
+
+    @Mock
+    BookingRepository repo;
+
+    @Mock
+    BookingService bookingService;
+
+    SeatAllocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SeatAllocationService(repo, bookingService, new SeatAllocator(new SeatLayout(12, 6, 3)));
+    }
+
+    @Test
+    void bookWithAutoSeats_booksGroupOnAdjacentSeats() {
+        when(repo.findBookedSeatNumbers(100)).thenReturn(List.of("1", "2"));
+        when(bookingService.bookGroup(any())).thenAnswer(inv -> {
+            GroupBookingRequest req = inv.getArgument(0);
+            return new GroupBookingResponse("K7QW2MZP9X",
+                    req.getPassengers().stream().map(PassengerRequest::getSeatNumber).toList());
+        });
+
+        GroupBookingResponse response = service.bookWithAutoSeats(request(3));
+
+        assertEquals(List.of("4", "5", "6"), response.getSeats());
+        ArgumentCaptor<GroupBookingRequest> captor = ArgumentCaptor.forClass(GroupBookingRequest.class);
+        verify(bookingService).bookGroup(captor.capture());
+        assertEquals("Passenger 0", captor.getValue().getPassengers().get(0).getPassengerName());
+        assertEquals("group@test.com", captor.getValue().getEmail());
+    }
+
+    @Test
+    void bookWithAutoSeats_seatsTakenMeanwhile_allocatesAgain() {
+        when(repo.findBookedSeatNumbers(100))
+                .thenReturn(List.of())
+                .thenReturn(List.of("1", "2"));
+        when(bookingService.bookGroup(any()))
+                .thenThrow(new SeatConflictException("Seats already booked: 1, 2"))
+                .thenReturn(new GroupBookingResponse("K7QW2MZP9X", List.of("3", "4")));
+
+        GroupBookingResponse response = service.bookWithAutoSeats(request(2));
+
+        assertEquals("K7QW2MZP9X", response.getPnr());
+        verify(bookingService, times(2)).bookGroup(any());
+    }
+
+    @Test
+    void bookWithAutoSeats_otherValidationError_isNotRetried() {
+        when(repo.findBookedSeatNumbers(100)).thenReturn(List.of());
+        when(bookingService.bookGroup(any())).thenThrow(new BookingInvalidException("Not enough seats available"));
+
+        assertThrows(BookingInvalidException.class, () -> service.bookWithAutoSeats(request(2)));
+        verify(bookingService, times(1)).bookGroup(any());
+    }
+
+    @Test
+    void bookWithAutoSeats_lockNotHeldWhileBooking_concurrentGroupGetsOtherSeats() {
+        when(repo.findBookedSeatNumbers(100)).thenReturn(List.of());
+        List<List<String>> booked = new CopyOnWriteArrayList<>();
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(bookingService.bookGroup(any())).thenAnswer(inv -> {
+            GroupBookingRequest req = inv.getArgument(0);
+            List<String> seats = req.getPassengers().stream().map(PassengerRequest::getSeatNumber).toList();
+            booked.add(seats);
+            if (first.getAndSet(false)) {
+                // A second group on the same flight, from another thread, while this one is in bookGroup
+                CompletableFuture.supplyAsync(() -> service.bookWithAutoSeats(request(2)))
+                        .get(2, TimeUnit.SECONDS);
+            }
+            return new GroupBookingResponse("K7QW2MZP9X", seats);
+        });
+
+        service.bookWithAutoSeats(request(2));
+
+        assertEquals(2, booked.size());
+        assertTrue(booked.get(0).stream().noneMatch(booked.get(1)::contains));
+    }
+
+    @Test
+    void bookWithAutoSeats_failedBooking_handsSeatsBack() {
+        when(repo.findBookedSeatNumbers(100)).thenReturn(List.of());
+        when(bookingService.bookGroup(any()))
+                .thenThrow(new BookingInvalidException("Flight service unavailable"))
+                .thenAnswer(inv -> {
+                    GroupBookingRequest req = inv.getArgument(0);
+                    return new GroupBookingResponse("K7QW2MZP9X",
+                            req.getPassengers().stream().map(PassengerRequest::getSeatNumber).toList());
+                });
+
+        assertThrows(BookingInvalidException.class, () -> service.bookWithAutoSeats(request(2)));
+
+        assertEquals(List.of("1", "2"), service.bookWithAutoSeats(request(2)).getSeats());
+    }
+
+    @Test
+    void bookWithAutoSeats_cabinFull_throwsWithoutBooking() {
+        List<String> booked = new ArrayList<>();
+        IntStream.rangeClosed(1, 71).forEach(i -> booked.add(String.valueOf(i)));
+        when(repo.findBookedSeatNumbers(100)).thenReturn(booked);
+
+        assertThrows(BookingInvalidException.class, () -> service.bookWithAutoSeats(request(2)));
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void suggest_usesBookedSeatsAndHoldsNothing() {
+        when(bookingService.getBookedSeats(100)).thenReturn(List.of("1"));
+
+        assertEquals(List.of("2", "3"), service.suggest(100, 2));
+        verify(bookingService, never()).bookGroup(any());
+    }
+
+    @Test
+    void suggest_invalidCount_throws() {
+        assertThrows(BookingInvalidException.class, () -> service.suggest(100, 0));
+        assertThrows(BookingInvalidException.class, () -> service.suggest(100, 73));
+    }
+
+    private static AutoSeatGroupRequest request(int passengers) {
+        return AutoSeatGroupRequest.builder()
+                .flightId(100)
+                .email("group@test.com")
+                .passengers(IntStream.range(0, passengers)
+                        .mapToObj(i -> AutoSeatPassengerRequest.builder()
+                                .passengerName("Passenger " + i)
+                                .age(30)
+                                .gender(GENDER.FEMALE)
+                                .meal(MEAL.VEG)
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.flightapp.bookingservice.service;
+
+import com.flightapp.bookingservice.dto.response.FlightSeatSummary;
+import com.flightapp.bookingservice.exception.BookingInvalidException;
+import com.flightapp.bookingservice.readmodel.BookingReadModel;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository;
+import com.flightapp.bookingservice.repository.BookingJdbcRepository.BookedSeats;
+import com.flightapp.bookingservice.seating.SeatLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class SeatSummaryServiceTest {
+
+    @Mock
+    BookingReadModel readModel;
+
+    @Mock
+    BookingJdbcRepository jdbcRepo;
+
+    private final SeatLayout layout = new SeatLayout(12, 6, 3);
+
+    SeatSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SeatSummaryService(readModel, jdbcRepo, layout);
+    }
+
+    @Test
+    void getSeatSummaries_heldByReadModel_answersWithoutDatabase() {
+        when(readModel.bookedCount(1)).thenReturn(Optional.of(2));
+        when(readModel.bookedSeats(1)).thenReturn(Optional.of(List.of("1", "2")));
+        when(readModel.bookedCount(2)).thenReturn(Optional.of(0));
+        when(readModel.bookedSeats(2)).thenReturn(Optional.of(List.of()));
+
+        List<FlightSeatSummary> result = service.getSeatSummaries(List.of(1, 2));
+
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(0).getBookedCount());
+        assertEquals(layout.bitmap(List.of("1", "2")), result.get(0).getSeatBitmap());
+        assertEquals(0, result.get(1).getBookedCount());
+        assertEquals(72, result.get(1).getTotalSeats());
+        verifyNoInteractions(jdbcRepo);
+    }
+
+    @Test
+    void getSeatSummaries_flightsNotHeld_readFromDatabaseTogether() {
+        when(readModel.bookedCount(1)).thenReturn(Optional.of(2));
+        when(readModel.bookedSeats(1)).thenReturn(Optional.of(List.of("1", "2")));
+        when(jdbcRepo.findBookedSeats(List.of(2, 3)))
+                .thenReturn(List.of(new BookedSeats(3, 1, List.of("9"))));
+
+        List<FlightSeatSummary> result = service.getSeatSummaries(List.of(2, 1, 3));
+
+        assertEquals(List.of(2, 1, 3), result.stream().map(FlightSeatSummary::getFlightId).toList());
+        assertEquals(0, result.get(0).getBookedCount());
+        assertEquals(2, result.get(1).getBookedCount());
+        assertEquals(1, result.get(2).getBookedCount());
+        verify(jdbcRepo, times(1)).findBookedSeats(any());
+    }
+
+    @Test
+    void getSeatSummaries_readModelNotReady_usesOneGroupedQuery() {
+        when(jdbcRepo.findBookedSeats(List.of(3, 1)))
+                .thenReturn(List.of(new BookedSeats(1, 3, List.of("5", "6"))));
+
+        List<FlightSeatSummary> result = service.getSeatSummaries(List.of(3, 1, 3));
+
+        assertEquals(List.of(3, 1), result.stream().map(FlightSeatSummary::getFlightId).toList());
+        assertEquals(0, result.get(0).getBookedCount());
+        assertEquals(3, result.get(1).getBookedCount());
+        assertEquals(layout.bitmap(List.of("5", "6")), result.get(1).getSeatBitmap());
+        verify(jdbcRepo, times(1)).findBookedSeats(any());
+    }
+
+    @Test
+    void getSeatSummaries_rejectsEmptyAndOversizedLists() {
+        List<Integer> tooMany = IntStream.rangeClosed(1, SeatSummaryService.MAX_FLIGHTS + 1).boxed().toList();
+
+        assertThrows(BookingInvalidException.class, () -> service.getSeatSummaries(List.of()));
+        assertThrows(BookingInvalidException.class, () -> service.getSeatSummaries(tooMany));
+        verifyNoInteractions(jdbcRepo);
+    }
+}
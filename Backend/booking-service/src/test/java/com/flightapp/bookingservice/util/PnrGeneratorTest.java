@@ -0,0 +1,191 @@
+package com.flightapp.bookingservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PnrGeneratorTest {
+
+    // Raise with -Dpnr.collision.ids=300000000 for the full collision run
+    private static final long COLLISION_IDS = Long.getLong("pnr.collision.ids", 2_000_000L);
+
+    private static final long NOW = 1_767_225_600_000L; // 2026-01-01T00:00:00Z
+
+    // Wide enough that the volume tests never wait for the clock
+    private static final int WIDE_BORROW = 3_600;
+
+    // Waiting moves this clock forward a second
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void next_producesTenUnambiguousCharacters() {
+        PnrGenerator generator = generator(3, WIDE_BORROW);
+
+        for (int i = 0; i < 10_000; i++) {
+            String pnr = generator.next();
+            assertEquals(PnrGenerator.LENGTH, pnr.length());
+            for (char c : pnr.toCharArray()) {
+                assertTrue(PnrGenerator.ALPHABET.indexOf(c) >= 0, "unexpected character " + c);
+            }
+            assertFalse(pnr.matches(".*[01IO].*"));
+        }
+    }
+
+    @Test
+    void decode_roundTripsAndRecoversNode() {
+        PnrGenerator generator = generator(42, WIDE_BORROW);
+
+        String pnr = generator.next();
+
+        assertEquals(42, PnrGenerator.nodeOf(pnr));
+        assertEquals(PnrGenerator.decode(pnr) + 1, PnrGenerator.decode(generator.next()));
+    }
+
+    @Test
+    void decode_rejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> PnrGenerator.decode("ABC"));
+        assertThrows(IllegalArgumentException.class, () -> PnrGenerator.decode("ABCDEFGH10"));
+        assertThrows(IllegalArgumentException.class, () -> PnrGenerator.decode(null));
+    }
+
+    @Test
+    void constructor_rejectsOutOfRangeNode() {
+        assertThrows(IllegalArgumentException.class, () -> generator(-1, WIDE_BORROW));
+        assertThrows(IllegalArgumentException.class, () -> generator(64, WIDE_BORROW));
+    }
+
+    @Test
+    void constructor_noNodeId_failsUnlessSingleInstance() {
+        assertThrows(IllegalStateException.class, () -> new PnrGenerator("", false, 2));
+        assertThrows(IllegalStateException.class, () -> new PnrGenerator(null, false, 2));
+        assertDoesNotThrow(() -> new PnrGenerator("", true, 2));
+        assertThrows(IllegalArgumentException.class, () -> new PnrGenerator("two", false, 2));
+    }
+
+    @Test
+    void next_consecutivePnrsDoNotLookSequential() {
+        PnrGenerator generator = generator(0, WIDE_BORROW);
+
+        String a = generator.next();
+        String b = generator.next();
+
+        assertNotEquals(a.substring(0, 8), b.substring(0, 8));
+    }
+
+    @Test
+    void next_differentNodesNeverCollide() {
+        PnrGenerator node1 = generator(1, WIDE_BORROW);
+        PnrGenerator node2 = generator(2, WIDE_BORROW);
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(seen.add(node1.next()));
+            assertTrue(seen.add(node2.next()));
+        }
+    }
+
+    @Test
+    void next_sequenceOverflowBorrowsFromNextSecond() {
+        PnrGenerator generator = generator(0, WIDE_BORROW);
+
+        long first = PnrGenerator.decode(generator.next());
+        for (int i = 0; i < 20_000; i++) {
+            generator.next();
+        }
+        long last = PnrGenerator.decode(generator.next());
+
+        assertEquals(first + 20_001, last);
+    }
+
+    @Test
+    void next_borrowsAtMostMaxBorrowSecondsAhead() {
+        PnrGenerator generator = generator(0, 2);
+        generator.next();
+        long start = clock.get();
+
+        // Three seconds' worth of sequence numbers, but only two may be borrowed
+        for (int i = 0; i < 3 * 16_384; i++) {
+            long second = PnrGenerator.decode(generator.next()) >>> 14;
+            assertTrue(second <= (clock.get() / 1000 - 1_735_689_600L) + 2);
+        }
+
+        assertTrue(clock.get() > start, "expected to wait for the clock");
+    }
+
+    @Test
+    void next_afterRestart_neverRepeatsBorrowedPnrs() {
+        PnrGenerator before = generator(0, 2);
+        Set<Long> issued = new HashSet<>();
+        issued.add(PnrGenerator.decode(before.next()));
+        long startedAt = clock.get();
+        // Borrow as far ahead as allowed without the clock moving
+        while (clock.get() == startedAt) {
+            issued.add(PnrGenerator.decode(before.next()));
+        }
+
+        PnrGenerator restarted = generator(0, 2);
+        for (int i = 0; i < 50_000; i++) {
+            assertFalse(issued.contains(PnrGenerator.decode(restarted.next())));
+        }
+    }
+
+    @Test
+    void next_clockGoingBackwardsStillIncreases() {
+        PnrGenerator generator = generator(0, WIDE_BORROW);
+
+        long before = PnrGenerator.decode(generator.next());
+        clock.addAndGet(-60_000);
+        long after = PnrGenerator.decode(generator.next());
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void next_concurrentCallersNeverCollide() throws Exception {
+        PnrGenerator generator = generator(7, WIDE_BORROW);
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        long perThread = COLLISION_IDS / threads;
+
+        long base = PnrGenerator.decode(generator.next()) + 1;
+        // Without clock movement every raw value lands in [base, base + total)
+        AtomicLongArray seen = new AtomicLongArray((int) ((perThread * threads + 63) / 64));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    long duplicates = 0;
+                    for (long i = 0; i < perThread; i++) {
+                        long offset = PnrGenerator.decode(generator.next()) - base;
+                        int word = (int) (offset >>> 6);
+                        long bit = 1L << offset;
+                        if ((seen.getAndAccumulate(word, bit, (prev, b) -> prev | b) & bit) != 0) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                }));
+            }
+            for (Future<Long> result : results) {
+                assertEquals(0L, result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private PnrGenerator generator(int nodeId, int maxBorrowSeconds) {
+        return new PnrGenerator(nodeId, maxBorrowSeconds, clock::get, () -> clock.addAndGet(1_000));
+    }
+}
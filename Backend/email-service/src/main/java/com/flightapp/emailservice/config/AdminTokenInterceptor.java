@@ -0,0 +1,54 @@
+package com.flightapp.emailservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards /email/admin/**: email-service is not behind the gateway and its port is
+ * published, so every admin request must carry email.admin.token in the X-Admin-Token
+ * header. Without a configured token the admin endpoints are refused altogether.
+ */
+@Slf4j
+@Component
+public class AdminTokenInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    public static final String HEADER = "X-Admin-Token";
+
+    private final byte[] token;
+
+    public AdminTokenInterceptor(@Value("${email.admin.token:}") String token) {
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+        if (this.token == null) {
+            log.warn("email.admin.token is not set, /email/admin endpoints are disabled");
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/email/admin/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String presented = request.getHeader(HEADER);
+        // Constant-time, so the token cannot be guessed byte by byte
+        if (token != null && presented != null
+                && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            return true;
+        }
+        log.warn("Refused {} {} from {}: missing or wrong {}", request.getMethod(), request.getRequestURI(),
+                request.getRemoteAddr(), HEADER);
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        return false;
+    }
+}
@@ -2,17 +2,100 @@ package com.flightapp.emailservice.config;
 
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.emailservice.event.BookingNotificationConverter;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
     public static final String EMAIL_QUEUE = "booking_email_queue";
 
+    // Failed emails wait out their backoff in booking_email_queue.retry.<attempt>, whose
+    // TTL dead-letters them back onto booking_email_queue; after the last attempt they
+    // are parked in booking_email_queue.dlq
+    public static final String RETRY_EXCHANGE = "booking_email_retry";
+    public static final String DEAD_LETTER_QUEUE = EMAIL_QUEUE + ".dlq";
+    public static final String DEAD_LETTER_ROUTING_KEY = "dead";
+
+    public static String retryQueue(int attempt) {
+        return EMAIL_QUEUE + ".retry." + attempt;
+    }
+
     @Bean
     public Queue emailQueue() {
         return new Queue(EMAIL_QUEUE, true); // durable queue
     }
+
+    // One delay queue per retry so messages in a queue expire in roughly the order
+    // they arrived (RabbitMQ only expires messages at the head of a queue)
+    @Bean
+    public Declarables emailRetryTopology(@Value("${email.retry.max-attempts:5}") int maxAttempts) {
+        DirectExchange exchange = new DirectExchange(RETRY_EXCHANGE, true, false);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            Queue delay = QueueBuilder.durable(retryQueue(attempt))
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(EMAIL_QUEUE)
+                    .build();
+            declarables.add(delay);
+            declarables.add(BindingBuilder.bind(delay).to(exchange).with(delay.getName()));
+        }
+        Queue dlq = QueueBuilder.durable(DEAD_LETTER_QUEUE).build();
+        declarables.add(dlq);
+        declarables.add(BindingBuilder.bind(dlq).to(exchange).with(DEAD_LETTER_ROUTING_KEY));
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public BookingNotificationConverter bookingNotificationConverter(ObjectMapper objectMapper) {
+        return new BookingNotificationConverter(objectMapper);
+    }
+
+    // Hands the listener up to batch-size messages at once (fewer if the queue runs dry
+    // for receive-timeout), acked one by one by the listener
+    @Bean
+    public SimpleRabbitListenerContainerFactory emailBatchListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${email.consumer.batch-size:50}") int batchSize,
+            @Value("${email.consumer.batch-receive-timeout-millis:200}") long receiveTimeoutMillis,
+            @Value("${email.consumer.concurrency:4}") int concurrency,
+            @Value("${email.consumer.max-concurrency:16}") int maxConcurrency,
+            @Value("${email.consumer.shutdown-timeout-millis:30000}") long shutdownTimeoutMillis) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        // Enough in flight to fill the next batch while this one is being sent;
+        // PrefetchTuner adjusts it to the relay's speed from there
+        factory.setPrefetchCount(batchSize * 2);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        // Extra consumers are started while batches keep arriving full and stopped once idle;
+        // with spring.threads.virtual.enabled each one runs on a virtual thread
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        // Lets a stopping consumer (shutdown, or a PrefetchTuner restart) finish and ack
+        // the batch it is sending instead of leaving it to be redelivered
+        factory.setContainerCustomizer(container -> container.setShutdownTimeout(shutdownTimeoutMillis));
+        return factory;
+    }
 }
@@ -1,51 +1,270 @@
 package com.flightapp.emailservice.consumer;
 
 import com.flightapp.emailservice.config.RabbitMQConfig;
+import com.flightapp.emailservice.dedup.EmailDeduplicator;
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.event.BookingNotificationConverter;
+import com.flightapp.emailservice.retry.EmailRetryScheduler;
 import com.flightapp.emailservice.service.EmailSenderService;
+import com.flightapp.emailservice.service.OutgoingEmail;
+import com.flightapp.emailservice.template.EmailTemplateEngine;
+import com.flightapp.emailservice.ticket.ETicketRenderer;
+import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailConsumer {
 
+    private static final String TICKET_CONTENT_TYPE = "application/pdf";
+    private static final long TICKET_TIMEOUT_SECONDS = 30;
+
     private final EmailSenderService emailSenderService;
+    private final BookingNotificationConverter notificationConverter;
+    private final EmailTemplateEngine templates;
+    private final EmailRetryScheduler retryScheduler;
+    private final EmailDeduplicator deduplicator;
+    private final ETicketRenderer ticketRenderer;
+
+    // Every message is settled on its own: sent and skipped ones are acked, ones that could
+    // not be sent are parked on a delay queue and unreadable ones in the DLQ, so a failing
+    // email never comes straight back to this consumer or holds up the rest of the batch
+    @RabbitListener(id = PrefetchTuner.LISTENER_ID, queues = RabbitMQConfig.EMAIL_QUEUE, containerFactory = "emailBatchListenerFactory")
+    public void consumeEmailBatch(List<Message> messages, Channel channel) throws IOException {
+        log.debug("Received batch of {} email messages", messages.size());
+
+        List<Pending> batch = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            BookingNotification notification;
+            OutgoingEmail email;
+            try {
+                notification = readNotification(message);
+                email = notification == null ? null : toEmail(notification);
+            } catch (RuntimeException e) {
+                // Unreadable or unrenderable: retrying will not help
+                deadLetter(message, channel, e);
+                continue;
+            }
+            if (email == null) {
+                channel.basicAck(tag(message), false);
+            } else {
+                batch.add(new Pending(message, notification, email, EmailDeduplicator.key(notification)));
+            }
+        }
+        batch = dropDuplicates(batch, channel);
 
-    @RabbitListener(queues = RabbitMQConfig.EMAIL_QUEUE)
-    public void consumeEmailMessage(String messageJson) {
-        System.out.println(" Received email payload: " + messageJson);
-
-        // Default values
-        String email = "";
-        String pnr = "";
-        String status = "Confirmed"; // fallback if not found
-
-        // Try to extract email and PNR from the message using simple lines
-        String[] lines = messageJson.split("\\r?\\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.startsWith("Email:")) {
-                email = line.substring(6).trim();
-            } else if (line.startsWith("PNR:")) {
-                pnr = line.substring(4).trim();
-            } else if (line.startsWith("Booking")) { // optional: extract status from first line
-                if (line.toLowerCase().contains("confirmed")) {
-                    status = "Confirmed";
-                } else if (line.toLowerCase().contains("cancelled")) {
-                    status = "Cancelled";
+        List<Message> noTicket = new ArrayList<>();
+        batch = attachTickets(batch, noTicket);
+        retry(noTicket, channel, "E-ticket could not be rendered");
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        boolean[] sent;
+        String error = "Not sent: relay error or recipient domain throttled";
+        try {
+            sent = emailSenderService.sendBatch(batch.stream().map(Pending::email).toList());
+        } catch (RuntimeException e) {
+            log.error("Email batch failed, scheduling {} messages for retry", batch.size(), e);
+            sent = new boolean[batch.size()];
+            error = e.toString();
+        }
+        List<Message> failed = new ArrayList<>();
+        List<String> sentKeys = new ArrayList<>(sent.length);
+        for (int i = 0; i < sent.length; i++) {
+            if (sent[i]) {
+                if (batch.get(i).key() != null) {
+                    sentKeys.add(batch.get(i).key());
                 }
+            } else {
+                failed.add(batch.get(i).message());
+            }
+        }
+        // Recorded before the acks, so a crash in between cannot lead to a second email
+        deduplicator.markSent(sentKeys);
+        for (int i = 0; i < sent.length; i++) {
+            if (sent[i]) {
+                channel.basicAck(tag(batch.get(i).message()), false);
+            }
+        }
+        retry(failed, channel, error);
+    }
+
+    private record Pending(Message message, BookingNotification notification, OutgoingEmail email, String key) {
+
+        Pending withEmail(OutgoingEmail email) {
+            return new Pending(message, notification, email, key);
+        }
+    }
+
+    // Acks and leaves out emails that already went out: redeliveries of sent messages, or
+    // the same event twice in one batch
+    private List<Pending> dropDuplicates(List<Pending> batch, Channel channel) throws IOException {
+        List<String> keys = batch.stream().map(Pending::key).filter(Objects::nonNull).toList();
+        if (keys.isEmpty()) {
+            return batch;
+        }
+        Set<String> alreadySent = deduplicator.alreadySent(keys);
+        Set<String> inBatch = new HashSet<>();
+        List<Pending> unique = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            if (p.key() != null && (alreadySent.contains(p.key()) || !inBatch.add(p.key()))) {
+                log.info("Skipping duplicate email {}", p.key());
+                channel.basicAck(tag(p.message()), false);
+            } else {
+                unique.add(p);
             }
         }
+        return unique;
+    }
 
-        if (!email.isEmpty() && !pnr.isEmpty()) {
-            String subject = "Your Booking Status - " + status;
-            String body = "Your booking is " + status + ".\nPNR: " + pnr;
+    // Confirmations get their e-ticket attached. Renders run on the ticket pool, the whole
+    // batch at once; emails whose ticket could not be rendered go to noTicket, except on
+    // their last attempt: the confirmation then goes out without the PDF rather than not at all
+    private List<Pending> attachTickets(List<Pending> batch, List<Message> noTicket) {
+        List<CompletableFuture<byte[]>> tickets = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            CompletableFuture<byte[]> ticket = null;
+            if (p.notification().getType() == BookingNotification.Type.CONFIRMED) {
+                try {
+                    ticket = ticketRenderer.render(p.notification());
+                } catch (RejectedExecutionException e) {
+                    ticket = CompletableFuture.failedFuture(e);
+                }
+            }
+            tickets.add(ticket);
+        }
 
-            emailSenderService.sendEmail(email, subject, body);
-        } else {
-            System.out.println("⚠ Could not extract email or PNR from payload.");
+        List<Pending> ready = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Pending p = batch.get(i);
+            CompletableFuture<byte[]> ticket = tickets.get(i);
+            if (ticket == null) {
+                ready.add(p);
+                continue;
+            }
+            try {
+                byte[] pdf = ticket.get(TICKET_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                ready.add(p.withEmail(p.email().withAttachment(new OutgoingEmail.Attachment(
+                        ETicketRenderer.fileName(p.notification()), TICKET_CONTENT_TYPE, pdf))));
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("E-ticket for PNR {} not rendered: {}", p.notification().getPnr(), e.toString());
+                withoutTicket(p, ready, noTicket);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                withoutTicket(p, ready, noTicket);
+            }
         }
+        return ready;
+    }
+
+    private void withoutTicket(Pending p, List<Pending> ready, List<Message> noTicket) {
+        if (!retryScheduler.isLastAttempt(p.message())) {
+            noTicket.add(p.message());
+            return;
+        }
+        log.warn("Sending confirmation for PNR {} without its e-ticket, out of render attempts",
+                p.notification().getPnr());
+        ticketRenderer.recordOmitted();
+        ready.add(p);
+    }
+
+    private void retry(List<Message> failed, Channel channel, String error) throws IOException {
+        if (failed.isEmpty()) {
+            return;
+        }
+        try {
+            retryScheduler.retry(failed, error);
+        } catch (AmqpException e) {
+            // Could not park them anywhere; requeueing beats losing them
+            log.error("Could not schedule retries, requeueing {} messages", failed.size(), e);
+            for (Message message : failed) {
+                channel.basicNack(tag(message), false, true);
+            }
+            return;
+        }
+        for (Message message : failed) {
+            channel.basicAck(tag(message), false);
+        }
+    }
+
+    private void deadLetter(Message message, Channel channel, RuntimeException cause) throws IOException {
+        try {
+            retryScheduler.deadLetter(message, cause.toString());
+        } catch (AmqpException e) {
+            // Requeueing a message that can never be read would only loop
+            log.error("Could not dead-letter unreadable message, dropping it: {}", cause.getMessage(), e);
+        }
+        channel.basicAck(tag(message), false);
+    }
+
+    private static long tag(Message message) {
+        return message.getMessageProperties().getDeliveryTag();
+    }
+
+    // Null when there is nothing to send; throws if the message cannot be read
+    private BookingNotification readNotification(Message message) {
+        BookingNotification notification = notificationConverter.fromMessage(message);
+        if (notification.getType() == BookingNotification.Type.UNKNOWN
+                || notification.getEmail() == null || notification.getEmail().isEmpty()) {
+            log.warn("Skipping {} notification for PNR {}", notification.getType(), notification.getPnr());
+            return null;
+        }
+        return notification;
+    }
+
+    // Plain-text part for mail clients that do not show HTML
+    OutgoingEmail toEmail(BookingNotification n) {
+        String status = n.getType() == BookingNotification.Type.CANCELLED ? "Cancelled" : "Confirmed";
+
+        StringBuilder body = new StringBuilder(256)
+                .append("Your booking is ").append(status).append(".\n")
+                .append("PNR: ").append(n.getPnr());
+        BookingNotification.FlightInfo flight = n.getFlight();
+        if (flight != null) {
+            body.append("\nFlight: ").append(flight.getFlightNumber())
+                    .append(' ').append(flight.getFromCity()).append(" -> ").append(flight.getToCity());
+            if (flight.getDepartureTime() != null) {
+                body.append(", departs ").append(flight.getDepartureTime());
+            }
+        }
+        if (n.getPassengers() != null && !n.getPassengers().isEmpty()) {
+            body.append("\nPassengers: ");
+            for (int i = 0; i < n.getPassengers().size(); i++) {
+                BookingNotification.Passenger p = n.getPassengers().get(i);
+                body.append(i == 0 ? "" : ", ").append(p.getName());
+                if (p.getSeatNumber() != null && !p.getSeatNumber().isEmpty()) {
+                    body.append(" (seat ").append(p.getSeatNumber()).append(')');
+                }
+            }
+        }
+        if (n.getTotalAmount() != null) {
+            body.append("\nTotal: ").append(n.formattedTotal());
+        }
+        if (n.getReason() != null) {
+            body.append("\nReason: ").append(n.getReason());
+        }
+
+        return new OutgoingEmail(n.getEmail(), "Your Booking Status - " + status, body.toString(),
+                templates.render(n));
     }
 
 }
@@ -0,0 +1,160 @@
+package com.flightapp.emailservice.consumer;
+
+import com.flightapp.emailservice.config.RabbitMQConfig;
+import com.flightapp.emailservice.service.EmailSenderService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples the email queue and sizes each consumer's prefetch to the relay's current speed.
+ *
+ * A consumer should hold about target-buffer-millis worth of work: enough that the next
+ * batch is already local when the current one is sent, but not so much that a slow relay
+ * leaves hundreds of messages parked on one consumer while others sit idle. Prefetch is
+ * therefore target-buffer / average send time, clamped to [min, max]; min is raised to
+ * the batch size if set lower, or a consumer could never fill a batch. It is only changed
+ * when it moves by more than a quarter and at most once per min-change-interval, because
+ * applying a new prefetch restarts the consumers.
+ *
+ * A restart waits for each consumer to finish the batch in hand (up to
+ * email.consumer.shutdown-timeout-millis) before closing its channel. Messages prefetched
+ * but not yet handed to the listener go back to the queue unprocessed; a batch still
+ * being sent when the timeout runs out is redelivered, and EmailDeduplicator keeps its
+ * sent emails from going out twice.
+ *
+ * Exposed as email.queue.depth, email.queue.consumers and email.consumer.prefetch.
+ */
+@Slf4j
+@Component
+public class PrefetchTuner {
+
+    static final String LISTENER_ID = "emailConsumer";
+
+    private final RabbitListenerEndpointRegistry listeners;
+    private final AmqpAdmin admin;
+    private final EmailSenderService sender;
+    private final int minPrefetch;
+    private final int maxPrefetch;
+    private final long targetBufferNanos;
+    private final long minChangeIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicInteger consumers = new AtomicInteger();
+    private final AtomicInteger prefetch;
+    private long lastChange;
+
+    @Autowired
+    public PrefetchTuner(
+            RabbitListenerEndpointRegistry listeners,
+            AmqpAdmin admin,
+            EmailSenderService sender,
+            MeterRegistry registry,
+            @Value("${email.consumer.batch-size:50}") int batchSize,
+            @Value("${email.consumer.prefetch.min:50}") int minPrefetch,
+            @Value("${email.consumer.prefetch.max:500}") int maxPrefetch,
+            @Value("${email.consumer.prefetch.target-buffer-millis:2000}") long targetBufferMillis,
+            @Value("${email.consumer.prefetch.min-change-interval-seconds:60}") long minChangeIntervalSeconds) {
+        this(listeners, admin, sender, registry, batchSize, minPrefetch, maxPrefetch,
+                targetBufferMillis, minChangeIntervalSeconds, System::nanoTime);
+    }
+
+    PrefetchTuner(RabbitListenerEndpointRegistry listeners, AmqpAdmin admin, EmailSenderService sender,
+                  MeterRegistry registry, int batchSize, int minPrefetch, int maxPrefetch,
+                  long targetBufferMillis, long minChangeIntervalSeconds, LongSupplier nanoClock) {
+        int effectiveMin = Math.max(minPrefetch, batchSize);
+        if (effectiveMin < 1 || maxPrefetch < effectiveMin) {
+            throw new IllegalArgumentException(
+                    "email.consumer.prefetch.min/max must satisfy 1 <= max(min, batch-size) <= max");
+        }
+        if (minPrefetch < batchSize) {
+            log.warn("email.consumer.prefetch.min {} is below the batch size, using {}", minPrefetch, batchSize);
+        }
+        this.listeners = listeners;
+        this.admin = admin;
+        this.sender = sender;
+        this.minPrefetch = effectiveMin;
+        this.maxPrefetch = maxPrefetch;
+        this.targetBufferNanos = TimeUnit.MILLISECONDS.toNanos(targetBufferMillis);
+        this.minChangeIntervalNanos = TimeUnit.SECONDS.toNanos(minChangeIntervalSeconds);
+        this.nanoClock = nanoClock;
+        this.prefetch = new AtomicInteger(Math.min(maxPrefetch, batchSize * 2));
+        this.lastChange = nanoClock.getAsLong();
+
+        Gauge.builder("email.queue.depth", queueDepth, AtomicLong::get)
+                .description("Messages waiting in " + RabbitMQConfig.EMAIL_QUEUE)
+                .register(registry);
+        Gauge.builder("email.queue.consumers", consumers, AtomicInteger::get)
+                .description("Consumers attached to " + RabbitMQConfig.EMAIL_QUEUE)
+                .register(registry);
+        Gauge.builder("email.consumer.prefetch", prefetch, AtomicInteger::get)
+                .description("Current prefetch of each email consumer")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${email.consumer.prefetch.sample-interval-millis:5000}")
+    public void tune() {
+        sampleQueue();
+
+        int desired = desiredPrefetch(sender.averageSendNanos());
+        if (desired == prefetch.get() || !shouldChange(desired)) {
+            return;
+        }
+        MessageListenerContainer container = listeners.getListenerContainer(LISTENER_ID);
+        if (!(container instanceof SimpleMessageListenerContainer simple) || !simple.isRunning()) {
+            return;
+        }
+        log.info("Email consumer prefetch {} -> {} (avg send {} ms, queue depth {})", prefetch.get(), desired,
+                TimeUnit.NANOSECONDS.toMillis(sender.averageSendNanos()), queueDepth.get());
+        simple.setPrefetchCount(desired);
+        // Prefetch is a channel setting, so it only applies once the consumers reconnect;
+        // stop() returns once the batches in hand are done or the shutdown timeout ran out
+        simple.stop();
+        simple.start();
+        prefetch.set(desired);
+        lastChange = nanoClock.getAsLong();
+    }
+
+    // Messages one consumer should hold to cover targetBuffer at the current send rate
+    int desiredPrefetch(long averageSendNanos) {
+        if (averageSendNanos <= 0) {
+            return prefetch.get();
+        }
+        long wanted = targetBufferNanos / averageSendNanos;
+        return (int) Math.max(minPrefetch, Math.min(maxPrefetch, wanted));
+    }
+
+    boolean shouldChange(int desired) {
+        int current = prefetch.get();
+        return Math.abs(desired - current) * 4 > current
+                && nanoClock.getAsLong() - lastChange >= minChangeIntervalNanos;
+    }
+
+    private void sampleQueue() {
+        try {
+            QueueInformation info = admin.getQueueInfo(RabbitMQConfig.EMAIL_QUEUE);
+            if (info != null) {
+                queueDepth.set(info.getMessageCount());
+                consumers.set(info.getConsumerCount());
+            }
+        } catch (AmqpException e) {
+            log.debug("Could not sample {}: {}", RabbitMQConfig.EMAIL_QUEUE, e.getMessage());
+        }
+    }
+}
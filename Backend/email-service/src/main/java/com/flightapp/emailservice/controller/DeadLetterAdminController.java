@@ -0,0 +1,32 @@
+package com.flightapp.emailservice.controller;
+
+import com.flightapp.emailservice.retry.DeadLetterEntry;
+import com.flightapp.emailservice.retry.DeadLetterService;
+import com.flightapp.emailservice.retry.ReplayResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Operator view of emails that ran out of retries. email-service is not routed through
+// the gateway and its port is published, so AdminTokenInterceptor requires X-Admin-Token
+@RestController
+@RequestMapping("/email/admin/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterAdminController {
+
+    private final DeadLetterService service;
+
+    // Oldest first; the messages stay on the queue
+    @GetMapping
+    public ResponseEntity<List<DeadLetterEntry>> inspect(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(service.inspect(limit));
+    }
+
+    // Puts up to limit messages back on booking_email_queue with a fresh set of attempts
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayResult> replay(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(service.replay(limit));
+    }
+}
@@ -0,0 +1,252 @@
+package com.flightapp.emailservice.dedup;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which (PNR, event type) emails went out, so a message RabbitMQ redelivers
+ * after a consumer restart does not email the customer twice.
+ *
+ * The email_dedup table is the record. In front of it sit two in-memory structures:
+ * - a pair of Bloom filters, each covering one window, rotated so keys are forgotten
+ *   after one to two windows. A filter miss means "never sent", which is the answer for
+ *   almost every message, without touching the database.
+ * - a bounded LRU of keys confirmed as sent, so repeated redeliveries of the same
+ *   message are answered from memory too.
+ * Only filter hits that the LRU cannot confirm are looked up in the table.
+ *
+ * The filters are filled from the table on startup and then every sync-interval, which
+ * also picks up emails sent by other instances. Until the first load has finished every
+ * key is checked against the table. If the table cannot be reached the email is sent:
+ * a rare duplicate is better than a lost confirmation.
+ */
+@Slf4j
+@Component
+public class EmailDeduplicator {
+
+    private static final int SYNC_PAGE_SIZE = 10_000;
+    // email_dedup.dedup_key is VARCHAR(64)
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private record Filters(BloomFilter current, BloomFilter previous, long startedAtMillis) {
+    }
+
+    private final SentEmailRepository repo;
+    private final Duration window;
+    private final long expectedKeysPerWindow;
+    private final double falsePositiveRate;
+    private final LongSupplier clockMillis;
+
+    private final Cache<String, Boolean> confirmed;
+    private volatile Filters filters;
+    private volatile boolean loaded;
+    private long lastSyncedId;
+
+    private final Counter filterMisses;
+    private final Counter cacheHits;
+    private final Counter databaseChecks;
+    private final Counter duplicates;
+
+    @Autowired
+    public EmailDeduplicator(
+            SentEmailRepository repo,
+            MeterRegistry registry,
+            @Value("${email.dedup.window-hours:48}") long windowHours,
+            @Value("${email.dedup.expected-keys-per-window:1000000}") long expectedKeysPerWindow,
+            @Value("${email.dedup.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${email.dedup.confirmed-cache-size:100000}") long confirmedCacheSize) {
+        this(repo, registry, Duration.ofHours(windowHours), expectedKeysPerWindow, falsePositiveRate,
+                confirmedCacheSize, System::currentTimeMillis);
+    }
+
+    EmailDeduplicator(SentEmailRepository repo, MeterRegistry registry, Duration window, long expectedKeysPerWindow,
+                      double falsePositiveRate, long confirmedCacheSize, LongSupplier clockMillis) {
+        this.repo = repo;
+        this.window = window;
+        this.expectedKeysPerWindow = expectedKeysPerWindow;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clockMillis = clockMillis;
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(confirmedCacheSize)
+                .expireAfterWrite(window)
+                .build();
+        this.filters = new Filters(newFilter(), newFilter(), clockMillis.getAsLong());
+
+        this.filterMisses = check(registry, "filter");
+        this.cacheHits = check(registry, "cache");
+        this.databaseChecks = check(registry, "database");
+        this.duplicates = Counter.builder("email.dedup.duplicates")
+                .description("Emails skipped because they were already sent")
+                .register(registry);
+    }
+
+    /**
+     * PNR, event type and the booking ids the event covers, e.g. "K7QW2MZP9X:CANCELLED:41,42".
+     * Passengers of a group share a PNR and each cancellation is its own event, so the ids
+     * keep a second passenger's cancellation from looking like a repeat of the first.
+     * Long id lists are replaced by a hash to fit the table's key column. Notifications
+     * from producers that do not send booking ids fall back to PNR and type.
+     *
+     * Null when the notification cannot be deduplicated (e.g. legacy text without a PNR).
+     */
+    public static String key(BookingNotification notification) {
+        if (notification.getPnr() == null || notification.getPnr().isEmpty() || notification.getType() == null) {
+            return null;
+        }
+        String key = notification.getPnr() + ':' + notification.getType().name();
+        List<Integer> ids = notification.getBookingIds();
+        if (ids == null || ids.isEmpty()) {
+            return key;
+        }
+        StringBuilder joined = new StringBuilder();
+        for (Integer id : ids.stream().sorted().toList()) {
+            joined.append(joined.isEmpty() ? "" : ",").append(id);
+        }
+        return key.length() + 1 + joined.length() <= MAX_KEY_LENGTH
+                ? key + ':' + joined
+                : key + ":#" + hash(joined.toString());
+    }
+
+    // 64 bits of SHA-256 in hex; collisions within one PNR are not a concern
+    private static String hash(String ids) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(ids.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // The keys from this batch that were already sent
+    public Set<String> alreadySent(Collection<String> keys) {
+        Filters f = rotateIfDue();
+        boolean trustFilters = loaded;
+
+        Set<String> sent = new HashSet<>();
+        List<String> lookup = new ArrayList<>();
+        for (String key : keys) {
+            if (confirmed.getIfPresent(key) != null) {
+                cacheHits.increment();
+                sent.add(key);
+            } else if (trustFilters && !f.current().mightContain(key) && !f.previous().mightContain(key)) {
+                filterMisses.increment();
+            } else {
+                lookup.add(key);
+            }
+        }
+        if (!lookup.isEmpty()) {
+            databaseChecks.increment(lookup.size());
+            try {
+                for (String key : repo.findExisting(lookup)) {
+                    confirmed.put(key, Boolean.TRUE);
+                    sent.add(key);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not check {} emails for duplicates, sending them: {}", lookup.size(), e.getMessage());
+            }
+        }
+        duplicates.increment(sent.size());
+        return sent;
+    }
+
+    public void markSent(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        BloomFilter current = rotateIfDue().current();
+        for (String key : keys) {
+            current.add(key);
+            confirmed.put(key, Boolean.TRUE);
+        }
+        try {
+            repo.insert(keys, Instant.ofEpochMilli(clockMillis.getAsLong()));
+        } catch (DataAccessException e) {
+            // Still deduplicated on this instance through the filters and cache
+            log.warn("Could not record {} sent emails: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    // Pulls keys recorded since the last sync (by any instance) into the filters
+    @Scheduled(fixedDelayString = "${email.dedup.sync-interval-millis:1000}")
+    public synchronized void sync() {
+        Instant notBefore = Instant.ofEpochMilli(clockMillis.getAsLong()).minus(window);
+        try {
+            List<SentEmailRepository.Row> rows;
+            do {
+                rows = repo.findSince(lastSyncedId, notBefore, SYNC_PAGE_SIZE);
+                BloomFilter current = rotateIfDue().current();
+                for (SentEmailRepository.Row row : rows) {
+                    current.add(row.dedupKey());
+                    lastSyncedId = row.id();
+                }
+            } while (rows.size() == SYNC_PAGE_SIZE);
+            if (!loaded) {
+                loaded = true;
+                log.info("Email dedup filters loaded up to id {}", lastSyncedId);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not sync email dedup filters: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.dedup.purge-interval-millis:3600000}")
+    public void purgeExpired() {
+        try {
+            int removed = repo.deleteOlderThan(Instant.ofEpochMilli(clockMillis.getAsLong()).minus(window));
+            if (removed > 0) {
+                log.info("Purged {} email dedup records", removed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not purge email dedup records: {}", e.getMessage());
+        }
+    }
+
+    private Filters rotateIfDue() {
+        Filters f = filters;
+        long now = clockMillis.getAsLong();
+        if (now - f.startedAtMillis() < window.toMillis()) {
+            return f;
+        }
+        synchronized (this) {
+            f = filters;
+            if (now - f.startedAtMillis() >= window.toMillis()) {
+                f = new Filters(newFilter(), f.current(), now);
+                filters = f;
+            }
+            return f;
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedKeysPerWindow, falsePositiveRate);
+    }
+
+    private static Counter check(MeterRegistry registry, String answeredBy) {
+        return Counter.builder("email.dedup.checks")
+                .tag("answered_by", answeredBy)
+                .description("Duplicate checks by where they were answered")
+                .register(registry);
+    }
+}
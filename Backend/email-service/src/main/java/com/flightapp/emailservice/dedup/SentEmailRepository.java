@@ -0,0 +1,67 @@
+package com.flightapp.emailservice.dedup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// email_dedup: one row per (PNR, event type) already emailed; see schema.sql
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class SentEmailRepository {
+
+    public record Row(long id, String dedupKey) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public List<String> findExisting(Collection<String> keys) {
+        return jdbc.queryForList("SELECT dedup_key FROM email_dedup WHERE dedup_key IN (:keys)",
+                Map.of("keys", keys), String.class);
+    }
+
+    // Keys another instance recorded first are skipped
+    public void insert(Collection<String> keys, Instant sentAt) {
+        String sql = "INSERT INTO email_dedup (dedup_key, sent_at) VALUES (:key, :sentAt)";
+        Timestamp at = Timestamp.from(sentAt);
+        @SuppressWarnings("unchecked")
+        Map<String, Object>[] batch = keys.stream()
+                .map(key -> Map.<String, Object>of("key", key, "sentAt", at))
+                .toArray(Map[]::new);
+        try {
+            jdbc.batchUpdate(sql, batch);
+        } catch (DataIntegrityViolationException e) {
+            for (Map<String, Object> row : batch) {
+                try {
+                    jdbc.update(sql, row);
+                } catch (DataIntegrityViolationException duplicate) {
+                    log.debug("Email {} already recorded", row.get("key"));
+                }
+            }
+        }
+    }
+
+    // Oldest first, so callers can page with the last id they saw
+    public List<Row> findSince(long afterId, Instant notBefore, int limit) {
+        return jdbc.query("""
+                        SELECT id, dedup_key FROM email_dedup
+                        WHERE id > :afterId AND sent_at >= :notBefore
+                        ORDER BY id
+                        LIMIT :limit
+                        """,
+                Map.of("afterId", afterId, "notBefore", Timestamp.from(notBefore), "limit", limit),
+                (rs, i) -> new Row(rs.getLong("id"), rs.getString("dedup_key")));
+    }
+
+    public int deleteOlderThan(Instant cutoff) {
+        return jdbc.update("DELETE FROM email_dedup WHERE sent_at < :cutoff", Map.of("cutoff", Timestamp.from(cutoff)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.flightapp.emailservice.event;
+
+import com.fasterxml.jackson.annotation.JsonEnumDefaultValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * email-service's copy of booking-service's BookingNotification (same JSON contract).
+ *
+ * Schema rules, so either side can be deployed first:
+ * - fields are only added, never renamed, retyped or given a new meaning;
+ * - readers ignore fields they do not know and treat missing fields as null;
+ * - a change that breaks these rules bumps {@link #CURRENT_VERSION}; this service is
+ *   deployed with support for the new version before booking-service starts sending it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingNotification {
+
+    public static final String CONTENT_TYPE = "application/vnd.flightapp.booking-notification+json";
+    public static final int CURRENT_VERSION = 1;
+
+    public enum Type {
+        CONFIRMED,
+        CANCELLED,
+        // Added by a newer producer; acknowledged and skipped
+        @JsonEnumDefaultValue
+        UNKNOWN
+    }
+
+    @Builder.Default
+    private int version = CURRENT_VERSION;
+    private Type type;
+    private Instant occurredAt;
+    private String pnr;
+    // The bookings this event is about; several cancellations can share one PNR
+    private List<Integer> bookingIds;
+    private String email;
+    private List<Passenger> passengers;
+    private int tickets;
+    private FlightInfo flight;
+    private BigDecimal totalAmount;
+    private String reason;
+
+    // Total as shown to customers, always with two decimals. Also cleans up totals from
+    // older producers that multiplied a float fare (e.g. 246.89999389648438)
+    public String formattedTotal() {
+        return totalAmount == null ? null : totalAmount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Passenger {
+        private String name;
+        private String seatNumber;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FlightInfo {
+        private Integer id;
+        private String flightNumber;
+        private String fromCity;
+        private String toCity;
+        private LocalDateTime departureTime;
+        private LocalDateTime arrivalTime;
+    }
+}
@@ -0,0 +1,116 @@
+package com.flightapp.emailservice.event;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads booking_email_queue messages into {@link BookingNotification}s.
+ *
+ * Versioned JSON is the normal case. Plain-text messages from booking-service builds
+ * that predate the JSON contract are still understood, so messages already queued
+ * during a rollout are not lost; that path can go once no old producer is left.
+ */
+public class BookingNotificationConverter implements MessageConverter {
+
+    private final ObjectReader reader;
+    private final ObjectMapper writer;
+
+    public BookingNotificationConverter(ObjectMapper objectMapper) {
+        ObjectMapper mapper = objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
+        this.reader = mapper.readerFor(BookingNotification.class);
+        this.writer = mapper;
+    }
+
+    // Used when a notification is put back on a queue, e.g. by a replay
+    @Override
+    public Message toMessage(Object object, MessageProperties properties) {
+        if (!(object instanceof BookingNotification)) {
+            throw new MessageConversionException("Only BookingNotification can be converted, got " + object.getClass());
+        }
+        try {
+            byte[] body = writer.writeValueAsBytes(object);
+            properties.setContentType(BookingNotification.CONTENT_TYPE);
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+            properties.setContentLength(body.length);
+            return new Message(body, properties);
+        } catch (IOException ex) {
+            throw new MessageConversionException("Could not serialize booking notification", ex);
+        }
+    }
+
+    @Override
+    public BookingNotification fromMessage(Message message) {
+        String contentType = message.getMessageProperties().getContentType();
+        if (!BookingNotification.CONTENT_TYPE.equals(contentType)) {
+            return fromLegacyText(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+
+        BookingNotification notification;
+        try {
+            notification = reader.readValue(message.getBody());
+        } catch (IOException ex) {
+            throw new MessageConversionException("Could not read booking notification", ex);
+        }
+        if (notification.getVersion() > BookingNotification.CURRENT_VERSION) {
+            throw new MessageConversionException("Unsupported booking notification version " + notification.getVersion());
+        }
+        return notification;
+    }
+
+    // " Booking Confirmed!\nPNR: ...\nPassenger: a, b\nSeat: 1, 2\nEmail: ..."
+    static BookingNotification fromLegacyText(String text) {
+        BookingNotification.Type type = BookingNotification.Type.CONFIRMED;
+        String email = null;
+        String pnr = null;
+        String reason = null;
+        String[] names = new String[0];
+        String[] seats = new String[0];
+
+        for (String line : text.split("\\r?\\n")) {
+            line = line.trim();
+            if (line.startsWith("Email:")) {
+                email = line.substring(6).trim();
+            } else if (line.startsWith("PNR:")) {
+                pnr = line.substring(4).trim();
+            } else if (line.startsWith("Passenger:")) {
+                names = line.substring(10).trim().split(",\\s*");
+            } else if (line.startsWith("Seat:")) {
+                seats = line.substring(5).trim().split(",\\s*");
+            } else if (line.startsWith("Reason:")) {
+                reason = line.substring(7).trim();
+            } else if (line.startsWith("Booking") && line.toLowerCase().contains("cancelled")) {
+                type = BookingNotification.Type.CANCELLED;
+            }
+        }
+        if (email == null || email.isEmpty() || pnr == null || pnr.isEmpty()) {
+            throw new MessageConversionException("Could not extract email or PNR from payload");
+        }
+
+        List<BookingNotification.Passenger> passengers = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            passengers.add(new BookingNotification.Passenger(names[i], i < seats.length ? seats[i] : null));
+        }
+        return BookingNotification.builder()
+                .type(type)
+                .pnr(pnr)
+                .email(email)
+                .passengers(passengers)
+                .tickets(passengers.size())
+                .reason(reason)
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.flightapp.emailservice.retry;
+
+// One parked message as shown by the admin endpoint; the notification fields are
+// null when the body could not be read
+public record DeadLetterEntry(
+        int attempts,
+        String error,
+        String deadLetteredAt,
+        String contentType,
+        String type,
+        String pnr,
+        String email) {
+}
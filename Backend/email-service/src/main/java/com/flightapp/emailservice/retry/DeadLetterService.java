@@ -0,0 +1,143 @@
+package com.flightapp.emailservice.retry;
+
+import com.flightapp.emailservice.config.RabbitMQConfig;
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.event.BookingNotificationConverter;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and replays booking_email_queue.dlq.
+ *
+ * Both work on one channel with basicGet: inspect puts everything it read back (in
+ * order) with a single nack, replay republishes to booking_email_queue with the attempt
+ * count reset and only acks the DLQ copies once the broker has confirmed the republish.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeadLetterService {
+
+    public static final int MAX_INSPECT = 100;
+    public static final int MAX_REPLAY = 1_000;
+
+    private static final long CONFIRM_TIMEOUT_MILLIS = 10_000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final BookingNotificationConverter notificationConverter;
+    private final DefaultMessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    public List<DeadLetterEntry> inspect(int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_INSPECT));
+        return rabbitTemplate.execute(channel -> {
+            List<DeadLetterEntry> entries = new ArrayList<>(max);
+            long lastTag = -1;
+            try {
+                for (int i = 0; i < max; i++) {
+                    GetResponse response = channel.basicGet(RabbitMQConfig.DEAD_LETTER_QUEUE, false);
+                    if (response == null) {
+                        break;
+                    }
+                    lastTag = response.getEnvelope().getDeliveryTag();
+                    entries.add(toEntry(response));
+                }
+            } finally {
+                if (lastTag >= 0) {
+                    channel.basicNack(lastTag, true, true);
+                }
+            }
+            return entries;
+        });
+    }
+
+    public ReplayResult replay(int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_REPLAY));
+        ReplayResult result = rabbitTemplate.invoke(ops -> ops.execute(channel -> {
+            int replayed = 0;
+            long lastTag = -1;
+            boolean confirmed = false;
+            try {
+                for (; replayed < max; replayed++) {
+                    GetResponse response = channel.basicGet(RabbitMQConfig.DEAD_LETTER_QUEUE, false);
+                    if (response == null) {
+                        break;
+                    }
+                    lastTag = response.getEnvelope().getDeliveryTag();
+                    channel.basicPublish("", RabbitMQConfig.EMAIL_QUEUE, fresh(response.getProps()), response.getBody());
+                }
+                if (lastTag >= 0) {
+                    channel.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MILLIS);
+                    confirmed = true;
+                    channel.basicAck(lastTag, true);
+                }
+            } finally {
+                if (lastTag >= 0 && !confirmed) {
+                    channel.basicNack(lastTag, true, true);
+                }
+            }
+            return new ReplayResult(replayed, channel.messageCount(RabbitMQConfig.DEAD_LETTER_QUEUE));
+        }));
+        log.info("Replayed {} emails from {}, {} left", result.replayed(), RabbitMQConfig.DEAD_LETTER_QUEUE, result.remaining());
+        return result;
+    }
+
+    // Same message, but with no attempts or errors counted against it
+    private static AMQP.BasicProperties fresh(AMQP.BasicProperties props) {
+        Map<String, Object> headers = props.getHeaders() == null ? new HashMap<>() : new HashMap<>(props.getHeaders());
+        headers.remove(EmailRetryScheduler.ATTEMPTS_HEADER);
+        headers.remove(EmailRetryScheduler.ERROR_HEADER);
+        headers.remove(EmailRetryScheduler.DEAD_LETTERED_AT_HEADER);
+        headers.remove("x-death");
+        return props.builder()
+                .headers(headers)
+                .expiration(null)
+                .deliveryMode(MessageDeliveryMode.toInt(MessageDeliveryMode.PERSISTENT))
+                .build();
+    }
+
+    private DeadLetterEntry toEntry(GetResponse response) {
+        MessageProperties properties = propertiesConverter.toMessageProperties(
+                response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+        Message message = new Message(response.getBody(), properties);
+        Map<String, Object> headers = properties.getHeaders();
+
+        String type = null;
+        String pnr = null;
+        String email = null;
+        try {
+            BookingNotification notification = notificationConverter.fromMessage(message);
+            type = notification.getType() == null ? null : notification.getType().name();
+            pnr = notification.getPnr();
+            email = notification.getEmail();
+        } catch (RuntimeException e) {
+            // Unreadable bodies are a common reason to be here; show the headers anyway
+        }
+        return new DeadLetterEntry(
+                EmailRetryScheduler.attemptsOf(message),
+                headerString(headers, EmailRetryScheduler.ERROR_HEADER),
+                headerString(headers, EmailRetryScheduler.DEAD_LETTERED_AT_HEADER),
+                properties.getContentType(),
+                type,
+                pnr,
+                email);
+    }
+
+    private static String headerString(Map<String, Object> headers, String name) {
+        Object value = headers.get(name);
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.flightapp.emailservice.retry;
+
+import com.flightapp.emailservice.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Moves emails that could not be sent off the main queue instead of requeueing them
+ * on the spot, which retried a failing email in a tight loop.
+ *
+ * A failed message is republished to the delay queue for its attempt with a per-message
+ * TTL of initial-delay * multiplier^(attempt-1), capped at max-delay, of which the second
+ * half is random jitter so a relay outage does not come back as one burst. When the TTL
+ * runs out RabbitMQ dead-letters it back onto booking_email_queue; nothing waits on a
+ * consumer thread. After max-attempts deliveries it goes to booking_email_queue.dlq
+ * instead, where DeadLetterService can inspect and replay it.
+ *
+ * Publishes are confirmed before the caller acks the original, so a message is never
+ * lost between the two queues; if the broker does not confirm, the AmqpException is
+ * left to the caller.
+ */
+@Slf4j
+@Component
+public class EmailRetryScheduler {
+
+    public static final String ATTEMPTS_HEADER = "x-email-attempts";
+    public static final String ERROR_HEADER = "x-email-error";
+    public static final String DEAD_LETTERED_AT_HEADER = "x-email-dead-lettered-at";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final long CONFIRM_TIMEOUT_MILLIS = 5_000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final double multiplier;
+    private final long maxDelayMillis;
+    private final DoubleSupplier random;
+
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    @Autowired
+    public EmailRetryScheduler(
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry registry,
+            @Value("${email.retry.max-attempts:5}") int maxAttempts,
+            @Value("${email.retry.initial-delay-millis:5000}") long initialDelayMillis,
+            @Value("${email.retry.multiplier:4}") double multiplier,
+            @Value("${email.retry.max-delay-millis:1800000}") long maxDelayMillis) {
+        this(rabbitTemplate, registry, maxAttempts, initialDelayMillis, multiplier, maxDelayMillis,
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    EmailRetryScheduler(RabbitTemplate rabbitTemplate, MeterRegistry registry, int maxAttempts,
+                        long initialDelayMillis, double multiplier, long maxDelayMillis, DoubleSupplier random) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("email.retry.max-attempts must be at least 1");
+        }
+        this.rabbitTemplate = rabbitTemplate;
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelayMillis;
+        this.multiplier = multiplier;
+        this.maxDelayMillis = maxDelayMillis;
+        this.random = random;
+
+        this.retried = Counter.builder("email.retry.scheduled")
+                .description("Failed emails put on a delay queue for another attempt")
+                .register(registry);
+        this.deadLettered = Counter.builder("email.dead.lettered")
+                .description("Emails moved to the dead-letter queue")
+                .register(registry);
+    }
+
+    // Schedules the next attempt for each message, or dead-letters the ones that are out of attempts
+    public void retry(List<Message> failed, String error) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        int scheduled = rabbitTemplate.invoke(ops -> {
+            int count = 0;
+            for (Message message : failed) {
+                int attempt = attemptsOf(message) + 1;
+                if (attempt >= maxAttempts) {
+                    ops.send(RabbitMQConfig.RETRY_EXCHANGE, RabbitMQConfig.DEAD_LETTER_ROUTING_KEY,
+                            deadLetter(message, attempt, error));
+                } else {
+                    ops.send(RabbitMQConfig.RETRY_EXCHANGE, RabbitMQConfig.retryQueue(attempt),
+                            MessageBuilder.fromClonedMessage(message)
+                                    .setHeader(ATTEMPTS_HEADER, attempt)
+                                    .setHeader(ERROR_HEADER, truncate(error))
+                                    .setExpiration(Long.toString(delayMillis(attempt)))
+                                    .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                                    .build());
+                    count++;
+                }
+            }
+            ops.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MILLIS);
+            return count;
+        });
+        retried.increment(scheduled);
+        deadLettered.increment(failed.size() - scheduled);
+        if (scheduled < failed.size()) {
+            log.warn("{} emails out of attempts moved to {}: {}", failed.size() - scheduled,
+                    RabbitMQConfig.DEAD_LETTER_QUEUE, error);
+        }
+    }
+
+    // True when a failure now would send the message to the DLQ instead of another attempt
+    public boolean isLastAttempt(Message message) {
+        return attemptsOf(message) + 1 >= maxAttempts;
+    }
+
+    // Straight to the DLQ, for messages no retry can fix
+    public void deadLetter(Message message, String error) {
+        rabbitTemplate.invoke(ops -> {
+            ops.send(RabbitMQConfig.RETRY_EXCHANGE, RabbitMQConfig.DEAD_LETTER_ROUTING_KEY,
+                    deadLetter(message, attemptsOf(message) + 1, error));
+            ops.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MILLIS);
+            return null;
+        });
+        deadLettered.increment();
+        log.warn("Email message moved to {}: {}", RabbitMQConfig.DEAD_LETTER_QUEUE, error);
+    }
+
+    // Base delay for this attempt, the upper half of it randomised
+    long delayMillis(int attempt) {
+        double base = Math.min(maxDelayMillis, initialDelayMillis * Math.pow(multiplier, attempt - 1));
+        return (long) (base / 2 + random.getAsDouble() * base / 2);
+    }
+
+    public static int attemptsOf(Message message) {
+        Object attempts = message.getMessageProperties().getHeaders().get(ATTEMPTS_HEADER);
+        return attempts instanceof Number n ? n.intValue() : 0;
+    }
+
+    private static Message deadLetter(Message message, int attempts, String error) {
+        return MessageBuilder.fromClonedMessage(message)
+                .setHeader(ATTEMPTS_HEADER, attempts)
+                .setHeader(ERROR_HEADER, truncate(error))
+                .setHeader(DEAD_LETTERED_AT_HEADER, Instant.now().toString())
+                .setExpiration(null)
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "unknown";
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
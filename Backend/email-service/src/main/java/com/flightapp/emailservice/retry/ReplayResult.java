@@ -0,0 +1,4 @@
+package com.flightapp.emailservice.retry;
+
+public record ReplayResult(int replayed, long remaining) {
+}
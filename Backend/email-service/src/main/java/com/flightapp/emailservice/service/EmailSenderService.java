@@ -1,15 +1,60 @@
 package com.flightapp.emailservice.service;
 
-import lombok.RequiredArgsConstructor;
+import com.flightapp.emailservice.service.SmtpTransportPool.PooledTransport;
+import com.flightapp.emailservice.throttle.DomainThrottle;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class EmailSenderService {
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final DomainThrottle throttle;
+
+    private final Timer sentLatency;
+    private final Timer failedLatency;
+    // Moving average of one send, read by PrefetchTuner
+    private final AtomicLong averageSendNanos = new AtomicLong();
+
+    public EmailSenderService(JavaMailSender mailSender, SmtpTransportPool transportPool,
+                              DomainThrottle throttle, MeterRegistry registry) {
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.throttle = throttle;
+        this.sentLatency = Timer.builder("email.send.latency")
+                .tag("outcome", "sent")
+                .description("Time to hand one email to the SMTP relay")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.failedLatency = Timer.builder("email.send.latency")
+                .tag("outcome", "failed")
+                .description("Time to hand one email to the SMTP relay")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
 
     public void sendEmail(String to, String subject, String body) {
 
@@ -19,6 +64,165 @@ public class EmailSenderService {
         msg.setText(body);
 
         mailSender.send(msg);
-        System.out.println("Email sent to: " + to);
+        log.info("Email sent to: {}", to);
+    }
+
+    /**
+     * Sends every email over pooled SMTP connections and reports which ones went out.
+     *
+     * Emails are split by recipient domain and each domain is sent on its own virtual
+     * thread, within that domain's rate and connection limits, so a slow or throttling
+     * provider does not hold up the rest of the batch. Emails that would have to wait
+     * too long for their domain are reported as not sent and go back to the queue.
+     *
+     * A rejected recipient only fails its own email. If the connection itself breaks, the
+     * email is retried once on a fresh connection before it is reported as failed.
+     */
+    public boolean[] sendBatch(List<OutgoingEmail> emails) {
+        boolean[] sent = new boolean[emails.size()];
+
+        Map<String, List<Integer>> byDomain = new LinkedHashMap<>();
+        for (int i = 0; i < emails.size(); i++) {
+            byDomain.computeIfAbsent(DomainThrottle.domainOf(emails.get(i).to()), d -> new ArrayList<>()).add(i);
+        }
+
+        if (byDomain.size() == 1) {
+            Map.Entry<String, List<Integer>> only = byDomain.entrySet().iterator().next();
+            sendDomain(only.getKey(), only.getValue(), emails, sent);
+            return sent;
+        }
+        // Each task writes only its own indices; close() waits for all of them
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            byDomain.forEach((domain, indices) -> workers.execute(() -> sendDomain(domain, indices, emails, sent)));
+        }
+        return sent;
+    }
+
+    public long averageSendNanos() {
+        return averageSendNanos.get();
+    }
+
+    private void sendDomain(String domain, List<Integer> indices, List<OutgoingEmail> emails, boolean[] sent) {
+        DomainThrottle.Lease lease = throttle.open(domain);
+        if (lease == null) {
+            log.warn("No free connection for {}, requeueing {} emails", domain, indices.size());
+            return;
+        }
+        try (lease) {
+            if (transportPool.isEnabled()) {
+                sendPooled(lease, indices, emails, sent);
+            } else {
+                sendUnpooled(lease, indices, emails, sent);
+            }
+        } catch (RuntimeException e) {
+            log.error("Sending to {} failed", domain, e);
+        }
+    }
+
+    private void sendUnpooled(DomainThrottle.Lease lease, List<Integer> indices,
+                              List<OutgoingEmail> emails, boolean[] sent) {
+        for (int i : indices) {
+            if (!lease.awaitSendSlot()) {
+                return;
+            }
+            OutgoingEmail email = emails.get(i);
+            long start = System.nanoTime();
+            try {
+                if (email.htmlBody() == null && email.attachment() == null) {
+                    sendEmail(email.to(), email.subject(), email.body());
+                } else {
+                    mailSender.send(message -> fill(message, email));
+                }
+                sent[i] = true;
+            } catch (MailException e) {
+                log.warn("Failed to send email to {}: {}", email.to(), e.getMessage());
+            }
+            record(start, sent[i]);
+        }
+    }
+
+    private void sendPooled(DomainThrottle.Lease lease, List<Integer> indices,
+                            List<OutgoingEmail> emails, boolean[] sent) {
+        int next = 0;
+        boolean retrying = false;
+        while (next < indices.size()) {
+            PooledTransport pooled;
+            try {
+                pooled = transportPool.borrow();
+            } catch (MessagingException e) {
+                log.warn("Could not open SMTP connection, {} emails not sent: {}", indices.size() - next, e.getMessage());
+                return;
+            }
+
+            boolean broken = false;
+            try {
+                for (; next < indices.size(); next++) {
+                    // A retry reuses the slot the failed attempt already took
+                    if (!retrying && !lease.awaitSendSlot()) {
+                        return;
+                    }
+                    int i = indices.get(next);
+                    OutgoingEmail email = emails.get(i);
+                    long start = System.nanoTime();
+                    try {
+                        send(pooled, email);
+                        sent[i] = true;
+                        retrying = false;
+                        record(start, true);
+                    } catch (SendFailedException e) {
+                        // Rejected by the relay; the connection is still usable
+                        log.warn("Email to {} rejected: {}", email.to(), e.getMessage());
+                        retrying = false;
+                        record(start, false);
+                    } catch (MessagingException e) {
+                        broken = true;
+                        record(start, false);
+                        if (retrying) {
+                            log.warn("Failed to send email to {}: {}", email.to(), e.getMessage());
+                            retrying = false;
+                            next++;
+                        } else {
+                            retrying = true;
+                        }
+                        break;
+                    }
+                }
+            } finally {
+                transportPool.release(pooled, broken);
+            }
+        }
+    }
+
+    private void record(long startNanos, boolean ok) {
+        long elapsed = System.nanoTime() - startNanos;
+        (ok ? sentLatency : failedLatency).record(elapsed, TimeUnit.NANOSECONDS);
+        // Exponential moving average with weight 1/8
+        averageSendNanos.getAndUpdate(avg -> avg == 0 ? elapsed : avg + (elapsed - avg) / 8);
+    }
+
+    private void send(PooledTransport pooled, OutgoingEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(transportPool.session());
+        fill(message, email);
+        message.saveChanges();
+
+        pooled.transport().sendMessage(message, message.getAllRecipients());
+        pooled.countSent();
+    }
+
+    private static void fill(MimeMessage message, OutgoingEmail email) throws MessagingException {
+        boolean html = email.htmlBody() != null;
+        OutgoingEmail.Attachment attachment = email.attachment();
+        MimeMessageHelper helper = new MimeMessageHelper(message, html || attachment != null, StandardCharsets.UTF_8.name());
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        if (html) {
+            helper.setText(email.body(), email.htmlBody());
+        } else {
+            helper.setText(email.body());
+        }
+        if (attachment != null) {
+            helper.addAttachment(attachment.fileName(), new ByteArrayResource(attachment.content()), attachment.contentType());
+        }
+        helper.setSentDate(new Date());
     }
 }
@@ -0,0 +1,21 @@
+package com.flightapp.emailservice.service;
+
+// htmlBody is optional; when set the email is sent as text + HTML alternatives.
+// attachment is optional too (e.g. the e-ticket PDF)
+public record OutgoingEmail(String to, String subject, String body, String htmlBody, Attachment attachment) {
+
+    public record Attachment(String fileName, String contentType, byte[] content) {
+    }
+
+    public OutgoingEmail(String to, String subject, String body, String htmlBody) {
+        this(to, subject, body, htmlBody, null);
+    }
+
+    public OutgoingEmail(String to, String subject, String body) {
+        this(to, subject, body, null, null);
+    }
+
+    public OutgoingEmail withAttachment(Attachment attachment) {
+        return new OutgoingEmail(to, subject, body, htmlBody, attachment);
+    }
+}
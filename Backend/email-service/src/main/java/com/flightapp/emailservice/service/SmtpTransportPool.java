@@ -0,0 +1,172 @@
+package com.flightapp.emailservice.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a few authenticated SMTP connections open so a batch of emails does not pay
+ * for connect, STARTTLS and AUTH on every message.
+ *
+ * At most max-size connections exist at any time; each is used by one thread at a
+ * time. Idle connections are handed out most-recently-used first and checked with a
+ * NOOP before reuse, and are retired after max-idle-seconds or once they have carried
+ * max-messages-per-connection emails, since most relays cap messages per session.
+ *
+ * Only a JavaMailSenderImpl exposes the session and credentials needed to open
+ * connections ourselves; with any other JavaMailSender the pool is disabled and
+ * callers fall back to JavaMailSender.send.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl sender;
+    private final Semaphore slots;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final long maxIdleNanos;
+    private final int maxMessagesPerConnection;
+    private final long borrowTimeoutMillis;
+
+    private volatile boolean closed;
+
+    public SmtpTransportPool(
+            JavaMailSender mailSender,
+            @Value("${email.smtp.pool.max-size:4}") int maxSize,
+            @Value("${email.smtp.pool.max-idle-seconds:30}") long maxIdleSeconds,
+            @Value("${email.smtp.pool.max-messages-per-connection:500}") int maxMessagesPerConnection,
+            @Value("${email.smtp.pool.borrow-timeout-millis:10000}") long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("email.smtp.pool.max-size must be at least 1");
+        }
+        this.sender = mailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.slots = new Semaphore(maxSize);
+        this.maxIdleNanos = TimeUnit.SECONDS.toNanos(maxIdleSeconds);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public static final class PooledTransport {
+        private final Transport transport;
+        private long lastUsedNanos;
+        private int sent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+            this.lastUsedNanos = System.nanoTime();
+        }
+
+        public Transport transport() {
+            return transport;
+        }
+
+        public void countSent() {
+            sent++;
+        }
+    }
+
+    public boolean isEnabled() {
+        return sender != null;
+    }
+
+    public Session session() {
+        return sender.getSession();
+    }
+
+    public PooledTransport borrow() throws MessagingException {
+        if (closed) {
+            throw new MessagingException("SMTP transport pool is closed");
+        }
+        try {
+            if (!slots.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection available within " + borrowTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isReusable(pooled)) {
+                    return pooled;
+                }
+                closeQuietly(pooled);
+            }
+            return new PooledTransport(connect());
+        } catch (MessagingException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    // broken: the connection failed mid-conversation and must not be handed out again
+    public void release(PooledTransport pooled, boolean broken) {
+        try {
+            if (broken || closed || pooled.sent >= maxMessagesPerConnection) {
+                closeQuietly(pooled);
+            } else {
+                pooled.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    private boolean isReusable(PooledTransport pooled) {
+        return System.nanoTime() - pooled.lastUsedNanos < maxIdleNanos
+                && pooled.transport.isConnected();
+    }
+
+    // Same connection setup as JavaMailSenderImpl.connectTransport
+    private Transport connect() throws MessagingException {
+        String protocol = sender.getProtocol();
+        if (protocol == null) {
+            protocol = session().getProperty("mail.transport.protocol");
+        }
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        Transport transport = session().getTransport(protocol != null ? protocol : "smtp");
+        transport.connect(sender.getHost(), sender.getPort(), username, password);
+        return transport;
+    }
+
+    private void closeQuietly(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Ignoring failure while closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.flightapp.emailservice.template;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.event.BookingNotification.Passenger;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An HTML email template compiled once into a flat list of segments.
+ *
+ * Syntax, a small subset of Mustache:
+ * - {{field}}: a notification field, HTML-escaped;
+ * - {{#passengers}}...{{/passengers}}: repeated per passenger, where {{name}} and
+ *   {{seatNumber}} refer to that passenger;
+ * - {{#field}}...{{/field}}: rendered only when the field has a value;
+ * - {{> partial}}: another template file (name starting with _), inlined at compile time.
+ *
+ * Field names are resolved while compiling, so a typo fails at startup rather than per
+ * email, and adjacent static text (including inlined partials) is merged into a single
+ * pre-built String, so rendering is a handful of appends.
+ */
+public final class EmailTemplate {
+
+    private static final DateTimeFormatter DATE_TIME =
+            DateTimeFormatter.ofPattern("EEE, d MMM yyyy HH:mm", Locale.ENGLISH);
+
+    private static final Map<String, Function<BookingNotification, Object>> FIELDS = Map.ofEntries(
+            Map.entry("status", n -> n.getType() == BookingNotification.Type.CANCELLED ? "Cancelled" : "Confirmed"),
+            Map.entry("pnr", BookingNotification::getPnr),
+            Map.entry("email", BookingNotification::getEmail),
+            Map.entry("tickets", n -> n.getTickets() > 0 ? n.getTickets() : null),
+            Map.entry("flight", BookingNotification::getFlight),
+            Map.entry("flightNumber", n -> n.getFlight() == null ? null : n.getFlight().getFlightNumber()),
+            Map.entry("fromCity", n -> n.getFlight() == null ? null : n.getFlight().getFromCity()),
+            Map.entry("toCity", n -> n.getFlight() == null ? null : n.getFlight().getToCity()),
+            Map.entry("departureTime", n -> n.getFlight() == null ? null : format(n.getFlight().getDepartureTime())),
+            Map.entry("arrivalTime", n -> n.getFlight() == null ? null : format(n.getFlight().getArrivalTime())),
+            Map.entry("totalAmount", BookingNotification::formattedTotal),
+            Map.entry("reason", BookingNotification::getReason));
+
+    private static final Map<String, Function<Passenger, Object>> PASSENGER_FIELDS = Map.of(
+            "name", Passenger::getName,
+            "seatNumber", Passenger::getSeatNumber);
+
+    private static final String PASSENGERS = "passengers";
+    private static final int MAX_PARTIAL_DEPTH = 8;
+
+    private final String name;
+    private final Segment[] segments;
+    private final int staticLength;
+
+    private EmailTemplate(String name, Segment[] segments) {
+        this.name = name;
+        this.segments = segments;
+        this.staticLength = staticLength(segments);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // Size of the static text alone, a lower bound for the rendered output
+    public int staticLength() {
+        return staticLength;
+    }
+
+    public void render(BookingNotification notification, StringBuilder out) {
+        for (Segment segment : segments) {
+            segment.render(notification, null, out);
+        }
+    }
+
+    public static EmailTemplate compile(String name, String source, Map<String, String> partials) {
+        Deque<Section> open = new ArrayDeque<>();
+        open.push(new Section(null));
+        parse(name, source, partials, open, 0);
+        if (open.size() > 1) {
+            throw new IllegalStateException("Template " + name + ": {{#" + open.peek().name + "}} is never closed");
+        }
+        return new EmailTemplate(name, open.pop().build());
+    }
+
+    private static void parse(String name, String source, Map<String, String> partials,
+                              Deque<Section> open, int depth) {
+        int pos = 0;
+        while (pos < source.length()) {
+            int start = source.indexOf("{{", pos);
+            if (start < 0) {
+                open.peek().text(source.substring(pos));
+                return;
+            }
+            int end = source.indexOf("}}", start + 2);
+            if (end < 0) {
+                throw new IllegalStateException("Template " + name + ": unterminated tag at offset " + start);
+            }
+            open.peek().text(source.substring(pos, start));
+            String tag = source.substring(start + 2, end).trim();
+            pos = end + 2;
+
+            if (tag.startsWith(">")) {
+                String partial = tag.substring(1).trim();
+                String partialSource = partials.get(partial);
+                if (partialSource == null) {
+                    throw new IllegalStateException("Template " + name + ": unknown partial " + partial);
+                }
+                if (depth >= MAX_PARTIAL_DEPTH) {
+                    throw new IllegalStateException("Template " + name + ": partials nested too deeply");
+                }
+                parse(name, partialSource, partials, open, depth + 1);
+            } else if (tag.startsWith("#")) {
+                open.push(new Section(tag.substring(1).trim()));
+            } else if (tag.startsWith("/")) {
+                String closing = tag.substring(1).trim();
+                Section section = open.pop();
+                if (!closing.equals(section.name)) {
+                    throw new IllegalStateException("Template " + name + ": {{/" + closing + "}} does not close {{#" + section.name + "}}");
+                }
+                open.peek().add(section(name, section));
+            } else {
+                open.peek().add(variable(name, tag, inPassengers(open)));
+            }
+        }
+    }
+
+    private static Segment section(String template, Section section) {
+        Segment[] body = section.build();
+        if (PASSENGERS.equals(section.name)) {
+            return (n, p, out) -> {
+                if (n.getPassengers() == null) {
+                    return;
+                }
+                for (Passenger passenger : n.getPassengers()) {
+                    for (Segment segment : body) {
+                        segment.render(n, passenger, out);
+                    }
+                }
+            };
+        }
+        Function<BookingNotification, Object> field = FIELDS.get(section.name);
+        if (field == null) {
+            throw new IllegalStateException("Template " + template + ": unknown section " + section.name);
+        }
+        return (n, p, out) -> {
+            Object value = field.apply(n);
+            if (value != null && !"".equals(value)) {
+                for (Segment segment : body) {
+                    segment.render(n, p, out);
+                }
+            }
+        };
+    }
+
+    private static Segment variable(String template, String tag, boolean inPassengers) {
+        Function<Passenger, Object> passengerField = inPassengers ? PASSENGER_FIELDS.get(tag) : null;
+        if (passengerField != null) {
+            return (n, p, out) -> escape(passengerField.apply(p), out);
+        }
+        Function<BookingNotification, Object> field = FIELDS.get(tag);
+        if (field == null) {
+            throw new IllegalStateException("Template " + template + ": unknown field {{" + tag + "}}");
+        }
+        return (n, p, out) -> escape(field.apply(n), out);
+    }
+
+    private static boolean inPassengers(Deque<Section> open) {
+        for (Section section : open) {
+            if (PASSENGERS.equals(section.name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String format(LocalDateTime time) {
+        return time == null ? null : DATE_TIME.format(time);
+    }
+
+    // Appends without building an escaped copy first
+    static void escape(Object value, StringBuilder out) {
+        if (value == null) {
+            return;
+        }
+        String s = value.toString();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static int staticLength(Segment[] segments) {
+        int length = 0;
+        for (Segment segment : segments) {
+            if (segment instanceof Text text) {
+                length += text.value.length();
+            }
+        }
+        return length;
+    }
+
+    @FunctionalInterface
+    private interface Segment {
+        // passenger is only set inside {{#passengers}}
+        void render(BookingNotification notification, Passenger passenger, StringBuilder out);
+    }
+
+    private record Text(String value) implements Segment {
+        @Override
+        public void render(BookingNotification notification, Passenger passenger, StringBuilder out) {
+            out.append(value);
+        }
+    }
+
+    // Segments of one {{#section}} while it is being parsed; merges adjacent text
+    private static final class Section {
+        private final String name;
+        private final List<Segment> segments = new ArrayList<>();
+        private final StringBuilder pendingText = new StringBuilder();
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        void text(String text) {
+            pendingText.append(text);
+        }
+
+        void add(Segment segment) {
+            flush();
+            segments.add(segment);
+        }
+
+        Segment[] build() {
+            flush();
+            return segments.toArray(new Segment[0]);
+        }
+
+        private void flush() {
+            if (!pendingText.isEmpty()) {
+                segments.add(new Text(pendingText.toString()));
+                pendingText.setLength(0);
+            }
+        }
+    }
+}
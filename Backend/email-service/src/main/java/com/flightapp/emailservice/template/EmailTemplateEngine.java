@@ -0,0 +1,101 @@
+package com.flightapp.emailservice.template;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Renders booking emails from the HTML templates in classpath:templates/email.
+ *
+ * Every template is read and compiled once, at startup; a broken template stops the
+ * service from starting instead of failing each email. Rendering reuses pooled
+ * StringBuilders (a small shared pool rather than thread-locals, so it works the same
+ * on listener threads and virtual threads), so the only per-email allocation is the
+ * resulting String.
+ */
+@Slf4j
+@Component
+public class EmailTemplateEngine {
+
+    static final String LOCATION = "classpath:templates/email/*.html";
+    static final String CONFIRMED = "booking-confirmed";
+    static final String CANCELLED = "booking-cancelled";
+
+    private static final int POOLED_BUFFERS = 64;
+    // Buffers that grew past this are dropped instead of pinning the memory
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private final Map<String, EmailTemplate> templates;
+    private final BlockingQueue<StringBuilder> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    public EmailTemplateEngine() {
+        this(load());
+    }
+
+    // name -> source; names starting with _ are partials
+    EmailTemplateEngine(Map<String, String> sources) {
+        Map<String, String> partials = new HashMap<>();
+        sources.forEach((name, source) -> {
+            if (name.startsWith("_")) {
+                partials.put(name.substring(1), source);
+            }
+        });
+
+        Map<String, EmailTemplate> compiled = new HashMap<>();
+        sources.forEach((name, source) -> {
+            if (!name.startsWith("_")) {
+                compiled.put(name, EmailTemplate.compile(name, source, partials));
+            }
+        });
+        for (String required : new String[]{CONFIRMED, CANCELLED}) {
+            if (!compiled.containsKey(required)) {
+                throw new IllegalStateException("Missing email template " + required + ".html");
+            }
+        }
+        this.templates = Map.copyOf(compiled);
+        log.info("Compiled email templates {}", templates.keySet());
+    }
+
+    public String render(BookingNotification notification) {
+        EmailTemplate template = templates.get(
+                notification.getType() == BookingNotification.Type.CANCELLED ? CANCELLED : CONFIRMED);
+
+        StringBuilder out = buffers.poll();
+        if (out == null) {
+            out = new StringBuilder(template.staticLength() + 512);
+        }
+        try {
+            template.render(notification, out);
+            return out.toString();
+        } finally {
+            if (out.capacity() <= MAX_POOLED_CAPACITY) {
+                out.setLength(0);
+                buffers.offer(out);
+            }
+        }
+    }
+
+    private static Map<String, String> load() {
+        Map<String, String> sources = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String filename = resource.getFilename();
+                String name = filename.substring(0, filename.length() - ".html".length());
+                sources.put(name, resource.getContentAsString(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load email templates from " + LOCATION, e);
+        }
+        return sources;
+    }
+}
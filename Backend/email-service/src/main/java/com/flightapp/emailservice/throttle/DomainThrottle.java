@@ -0,0 +1,192 @@
+package com.flightapp.emailservice.throttle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per recipient-domain send rate and connection cap, so one provider that throttles or
+ * answers slowly only holds up its own emails.
+ *
+ * Each domain gets a token bucket (rate-per-second with a burst, kept as a single
+ * "next free slot" timestamp) and a cap on how many workers may be sending to it at
+ * once. Every domain uses email.throttle.default.*, except those listed in
+ * email.throttle.domain-limits as domain:ratePerSecond:maxConnections pairs.
+ *
+ * Callers wait (cheaply, on virtual threads) at most max-wait-millis for either; past
+ * that the email is reported as throttled and goes back to the queue.
+ *
+ * Exposed as email.throttle.waits, email.throttle.rejected{reason} and email.throttle.domains.
+ */
+@Component
+public class DomainThrottle {
+
+    public record Limit(double ratePerSecond, int burst, int maxConnections) {
+        public Limit {
+            if (ratePerSecond <= 0 || burst < 1 || maxConnections < 1) {
+                throw new IllegalArgumentException("Throttle limits must be positive: " + ratePerSecond
+                        + "/s, burst " + burst + ", " + maxConnections + " connections");
+            }
+        }
+    }
+
+    private final Limit defaultLimit;
+    private final Map<String, Limit> overrides;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<String, Domain> domains = new ConcurrentHashMap<>();
+
+    private final Timer waits;
+    private final Counter rejectedByRate;
+    private final Counter rejectedByConnections;
+
+    @Autowired
+    public DomainThrottle(
+            MeterRegistry registry,
+            @Value("${email.throttle.default.rate-per-second:20}") double ratePerSecond,
+            @Value("${email.throttle.default.burst:20}") int burst,
+            @Value("${email.throttle.default.max-connections:4}") int maxConnections,
+            @Value("${email.throttle.domain-limits:}") String domainLimits,
+            @Value("${email.throttle.max-wait-millis:2000}") long maxWaitMillis) {
+        this(registry, new Limit(ratePerSecond, burst, maxConnections), parse(domainLimits),
+                maxWaitMillis, System::nanoTime);
+    }
+
+    DomainThrottle(MeterRegistry registry, Limit defaultLimit, Map<String, Limit> overrides,
+                   long maxWaitMillis, LongSupplier nanoClock) {
+        this.defaultLimit = defaultLimit;
+        this.overrides = Map.copyOf(overrides);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.nanoClock = nanoClock;
+
+        this.waits = Timer.builder("email.throttle.waits")
+                .description("Time emails spent waiting for their domain's rate limit")
+                .register(registry);
+        this.rejectedByRate = Counter.builder("email.throttle.rejected")
+                .tag("reason", "rate")
+                .description("Emails put back on the queue because their domain was over its rate")
+                .register(registry);
+        this.rejectedByConnections = Counter.builder("email.throttle.rejected")
+                .tag("reason", "connections")
+                .description("Emails put back on the queue because their domain had no free connection")
+                .register(registry);
+        Gauge.builder("email.throttle.domains", domains, Map::size)
+                .description("Recipient domains currently tracked")
+                .register(registry);
+    }
+
+    public static String domainOf(String address) {
+        int at = address == null ? -1 : address.lastIndexOf('@');
+        return at < 0 ? "" : address.substring(at + 1).trim().toLowerCase();
+    }
+
+    /**
+     * Takes one of the domain's connection slots, waiting up to max-wait-millis.
+     * Returns null if none came free; otherwise the lease must be closed.
+     */
+    public Lease open(String domain) {
+        Domain d = domains.computeIfAbsent(domain, k -> new Domain(overrides.getOrDefault(k, defaultLimit)));
+        try {
+            if (!d.connections.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                rejectedByConnections.increment();
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return new Lease(d);
+    }
+
+    public final class Lease implements AutoCloseable {
+        private final Domain domain;
+        private boolean closed;
+
+        private Lease(Domain domain) {
+            this.domain = domain;
+        }
+
+        // Waits for the domain's next send slot; false if that is more than max-wait away
+        public boolean awaitSendSlot() {
+            long wait = domain.reserve(nanoClock.getAsLong(), maxWaitNanos);
+            if (wait < 0) {
+                rejectedByRate.increment();
+                return false;
+            }
+            if (wait > 0) {
+                waits.record(wait, TimeUnit.NANOSECONDS);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                domain.connections.release();
+            }
+        }
+    }
+
+    static final class Domain {
+        private final Semaphore connections;
+        private final long intervalNanos;
+        private final long burstNanos;
+        // Theoretical arrival time of the next send (GCRA)
+        private long nextFreeNanos = Long.MIN_VALUE;
+
+        Domain(Limit limit) {
+            this.connections = new Semaphore(limit.maxConnections());
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.ratePerSecond());
+            this.burstNanos = intervalNanos * (limit.burst() - 1);
+        }
+
+        // Nanos to wait before sending, or -1 if that is more than maxWaitNanos
+        synchronized long reserve(long now, long maxWaitNanos) {
+            long next = Math.max(nextFreeNanos, now);
+            long wait = next - burstNanos - now;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            nextFreeNanos = next + intervalNanos;
+            return Math.max(0, wait);
+        }
+    }
+
+    // "gmail.com:10:2, yahoo.com:5:2" -> domain, sends per second, concurrent connections
+    static Map<String, Limit> parse(String spec) {
+        Map<String, Limit> limits = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return limits;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("email.throttle.domain-limits entry must be domain:rate:connections, got " + entry);
+            }
+            double rate = Double.parseDouble(parts[1].trim());
+            limits.put(parts[0].trim().toLowerCase(),
+                    new Limit(rate, (int) Math.max(1, Math.ceil(rate)), Integer.parseInt(parts[2].trim())));
+        }
+        return limits;
+    }
+}
@@ -0,0 +1,262 @@
+package com.flightapp.emailservice.ticket;
+
+import com.flightapp.emailservice.event.BookingNotification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the e-ticket PDF: one A4 page per passenger.
+ *
+ * Everything that is the same on every ticket is encoded once, when the layout is built:
+ * the catalog, the two fonts (the standard Helvetica faces, which every PDF reader has,
+ * so nothing is embedded), and the page furniture (header band, labels, rules, footer).
+ * A render only writes the passenger and flight values at fixed positions and the
+ * cross-reference table, into a buffer the caller reuses.
+ *
+ * Immutable and safe to share between threads; each thread passes its own buffer.
+ */
+public final class ETicketLayout {
+
+    static final DateTimeFormatter WHEN = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm", Locale.ENGLISH);
+
+    private static final String FOOTER = "Please carry a valid photo ID. Check-in closes 45 minutes before departure.";
+
+    // Objects 1-4: catalog, pages (written per render), regular font, bold font
+    private static final byte[] HEADER = ascii("%PDF-1.4\n%âãÏÓ\n");
+    private static final byte[] CATALOG = ascii("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+    private static final byte[] FONT_REGULAR = ascii(
+            "3 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+    private static final byte[] FONT_BOLD = ascii(
+            "4 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+    private static final byte[] PAGE_RESOURCES = ascii(
+            " 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842]"
+                    + " /Resources << /Font << /F1 3 0 R /F2 4 0 R >> >> /Contents ");
+
+    private static final int FIRST_PAGE_OBJECT = 5;
+
+    private final byte[] pageFurniture;
+
+    public ETicketLayout() {
+        PdfBuffer content = new PdfBuffer(2048);
+        // Header band
+        content.ascii("q 0.11 0.27 0.53 rg 0 762 595 80 re f Q\n");
+        text(content, "F2", 24, "1 g", 40, 795, "E-TICKET");
+        text(content, "F1", 11, "1 g", 40, 776, "FlightApp");
+        // Labels
+        label(content, 40, 720, "PASSENGER");
+        label(content, 330, 720, "SEAT");
+        label(content, 430, 720, "PNR");
+        label(content, 40, 670, "FLIGHT");
+        label(content, 160, 670, "FROM");
+        label(content, 330, 670, "TO");
+        label(content, 40, 620, "DEPARTURE");
+        label(content, 330, 620, "ARRIVAL");
+        label(content, 40, 570, "TICKET");
+        label(content, 330, 570, "BOOKING TOTAL");
+        // Rules and footer
+        content.ascii("0.75 G 0.5 w 40 690 m 555 690 l S 40 640 m 555 640 l S 40 590 m 555 590 l S 40 540 m 555 540 l S\n");
+        text(content, "F1", 8, "0.4 g", 40, 60, FOOTER);
+        this.pageFurniture = content.toByteArray();
+    }
+
+    // Renders into out (which is reset first) and returns the PDF bytes
+    public byte[] render(BookingNotification n, PdfBuffer out) {
+        List<BookingNotification.Passenger> passengers = n.getPassengers() == null || n.getPassengers().isEmpty()
+                ? List.of(new BookingNotification.Passenger(null, null))
+                : n.getPassengers();
+        int pages = passengers.size();
+        int objectCount = FIRST_PAGE_OBJECT + 2 * pages;
+        int[] offsets = new int[objectCount];
+
+        out.reset();
+        out.write(HEADER);
+
+        offsets[1] = out.size();
+        out.write(CATALOG);
+
+        offsets[2] = out.size();
+        out.ascii("2 0 obj\n<< /Type /Pages /Count ").number(pages).ascii(" /Kids [");
+        for (int p = 0; p < pages; p++) {
+            out.number(FIRST_PAGE_OBJECT + 2 * p).ascii(" 0 R ");
+        }
+        out.ascii("] >>\nendobj\n");
+
+        offsets[3] = out.size();
+        out.write(FONT_REGULAR);
+        offsets[4] = out.size();
+        out.write(FONT_BOLD);
+
+        PdfBuffer content = out.scratch();
+        for (int p = 0; p < pages; p++) {
+            int pageObject = FIRST_PAGE_OBJECT + 2 * p;
+            offsets[pageObject] = out.size();
+            out.number(pageObject).write(PAGE_RESOURCES).number(pageObject + 1).ascii(" 0 R >>\nendobj\n");
+
+            content.reset();
+            pageValues(content, n, passengers.get(p), p + 1, pages);
+
+            offsets[pageObject + 1] = out.size();
+            out.number(pageObject + 1).ascii(" 0 obj\n<< /Length ")
+                    .number(pageFurniture.length + content.size()).ascii(" >>\nstream\n")
+                    .write(pageFurniture).write(content)
+                    .ascii("\nendstream\nendobj\n");
+        }
+
+        int xref = out.size();
+        out.ascii("xref\n0 ").number(objectCount).ascii("\n0000000000 65535 f \n");
+        for (int i = 1; i < objectCount; i++) {
+            out.padded(offsets[i], 10).ascii(" 00000 n \n");
+        }
+        out.ascii("trailer\n<< /Size ").number(objectCount).ascii(" /Root 1 0 R >>\nstartxref\n")
+                .number(xref).ascii("\n%%EOF\n");
+        return out.toByteArray();
+    }
+
+    private static void pageValues(PdfBuffer content, BookingNotification n, BookingNotification.Passenger passenger,
+                                   int page, int pages) {
+        BookingNotification.FlightInfo flight = n.getFlight();
+        value(content, 40, 700, passenger.getName());
+        value(content, 330, 700, passenger.getSeatNumber());
+        value(content, 430, 700, n.getPnr());
+        if (flight != null) {
+            value(content, 40, 650, flight.getFlightNumber());
+            value(content, 160, 650, flight.getFromCity());
+            value(content, 330, 650, flight.getToCity());
+            value(content, 40, 600, when(flight.getDepartureTime()));
+            value(content, 330, 600, when(flight.getArrivalTime()));
+        }
+        value(content, 40, 550, page + " of " + pages);
+        value(content, 330, 550, n.formattedTotal());
+    }
+
+    private static String when(LocalDateTime time) {
+        return time == null ? null : WHEN.format(time);
+    }
+
+    private static void label(PdfBuffer content, int x, int y, String text) {
+        text(content, "F1", 8, "0.4 g", x, y, text);
+    }
+
+    private static void value(PdfBuffer content, int x, int y, String text) {
+        text(content, "F2", 13, "0 g", x, y, text == null || text.isEmpty() ? "-" : text);
+    }
+
+    private static void text(PdfBuffer content, String font, int size, String color, int x, int y, String text) {
+        content.ascii("BT /").ascii(font).ascii(" ").number(size).ascii(" Tf ").ascii(color).ascii(" ")
+                .number(x).ascii(" ").number(y).ascii(" Td (").literal(text).ascii(") Tj ET\n");
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Growable byte buffer with the few PDF encodings the layout needs. Not thread-safe;
+     * meant to be kept and reused by one worker.
+     */
+    public static final class PdfBuffer {
+
+        // Buffers that grew past this are shrunk back on reset instead of pinning the memory
+        private static final int MAX_RETAINED = 256 * 1024;
+
+        private final int initialCapacity;
+        private byte[] bytes;
+        private int size;
+        private PdfBuffer scratch;
+
+        public PdfBuffer(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            this.bytes = new byte[initialCapacity];
+        }
+
+        public void reset() {
+            size = 0;
+            if (bytes.length > MAX_RETAINED) {
+                bytes = new byte[initialCapacity];
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Second buffer for content that has to be measured before it is written
+        PdfBuffer scratch() {
+            if (scratch == null) {
+                scratch = new PdfBuffer(1024);
+            }
+            return scratch;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        PdfBuffer write(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+            return this;
+        }
+
+        PdfBuffer write(PdfBuffer other) {
+            ensure(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        PdfBuffer ascii(String s) {
+            int n = s.length();
+            ensure(n);
+            for (int i = 0; i < n; i++) {
+                bytes[size++] = (byte) s.charAt(i);
+            }
+            return this;
+        }
+
+        PdfBuffer number(int value) {
+            return ascii(Integer.toString(value));
+        }
+
+        PdfBuffer padded(int value, int width) {
+            String digits = Integer.toString(value);
+            ensure(width);
+            for (int i = digits.length(); i < width; i++) {
+                bytes[size++] = '0';
+            }
+            return ascii(digits);
+        }
+
+        // Body of a PDF string literal in WinAnsi; characters it cannot show become '?'
+        PdfBuffer literal(String s) {
+            int n = s.length();
+            ensure(n * 2);
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c == '(' || c == ')' || c == '\\') {
+                    bytes[size++] = '\\';
+                    bytes[size++] = (byte) c;
+                } else if (c < 0x20) {
+                    bytes[size++] = ' ';
+                } else if (c > 0xff || (c >= 0x7f && c < 0xa0)) {
+                    bytes[size++] = '?';
+                } else {
+                    bytes[size++] = (byte) c;
+                }
+            }
+            return this;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
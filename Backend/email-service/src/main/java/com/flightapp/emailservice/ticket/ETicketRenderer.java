@@ -0,0 +1,124 @@
+package com.flightapp.emailservice.ticket;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders e-ticket PDFs off the listener threads, on a fixed pool sized to the CPUs.
+ *
+ * At most threads + queue-capacity renders are accepted at once. A caller that finds the
+ * pool full waits up to submit-timeout-millis for room, which slows the listener down
+ * (and, through prefetch, the broker) instead of piling up work; past that the render is
+ * rejected and the caller is expected to retry the email later.
+ *
+ * Each worker keeps its own output buffer, and all workers share one ETicketLayout, so
+ * fonts and page furniture are encoded once for the life of the service.
+ *
+ * Exposed as email.ticket.render, email.ticket.queue and email.ticket.rejected.
+ */
+@Slf4j
+@Component
+public class ETicketRenderer implements DisposableBean {
+
+    private final ETicketLayout layout = new ETicketLayout();
+    private final ThreadPoolExecutor pool;
+    private final Semaphore capacity;
+    private final long submitTimeoutMillis;
+    private final ThreadLocal<ETicketLayout.PdfBuffer> buffers =
+            ThreadLocal.withInitial(() -> new ETicketLayout.PdfBuffer(8 * 1024));
+
+    private final Timer renderTime;
+    private final Counter rejected;
+    private final Counter omitted;
+
+    public ETicketRenderer(
+            MeterRegistry registry,
+            @Value("${email.ticket.threads:0}") int threads,
+            @Value("${email.ticket.queue-capacity:256}") int queueCapacity,
+            @Value("${email.ticket.submit-timeout-millis:2000}") long submitTimeoutMillis) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger ids = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "eticket-" + ids.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.capacity = new Semaphore(workers + queueCapacity);
+        this.submitTimeoutMillis = submitTimeoutMillis;
+
+        this.renderTime = Timer.builder("email.ticket.render")
+                .description("Time to render one e-ticket PDF")
+                .register(registry);
+        this.rejected = Counter.builder("email.ticket.rejected")
+                .description("E-ticket renders turned away because the render pool was full")
+                .register(registry);
+        this.omitted = Counter.builder("email.ticket.omitted")
+                .description("Confirmations sent without their e-ticket because the last attempt could not render it")
+                .register(registry);
+        Gauge.builder("email.ticket.queue", pool, p -> p.getQueue().size())
+                .description("E-ticket renders waiting for a worker")
+                .register(registry);
+    }
+
+    /**
+     * Queues the ticket for rendering, waiting for room if the pool is full.
+     *
+     * @throws RejectedExecutionException if there was no room within submit-timeout-millis
+     */
+    public CompletableFuture<byte[]> render(BookingNotification notification) {
+        try {
+            if (!capacity.tryAcquire(submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new RejectedExecutionException("E-ticket render pool is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the e-ticket render pool", e);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return renderTime.record(() -> layout.render(notification, buffers.get()));
+                } finally {
+                    capacity.release();
+                }
+            }, pool);
+        } catch (RejectedExecutionException e) {
+            // Only after destroy(); the semaphore keeps the queue from ever filling up
+            capacity.release();
+            throw e;
+        }
+    }
+
+    public void recordOmitted() {
+        omitted.increment();
+    }
+
+    public static String fileName(BookingNotification notification) {
+        return "e-ticket-" + notification.getPnr() + ".pdf";
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("E-ticket render pool did not stop in time, {} renders dropped", pool.shutdownNow().size());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Emails already sent, keyed by PNR, event type and booking ids (see EmailDeduplicator.key)
+CREATE TABLE IF NOT EXISTS email_dedup (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    dedup_key VARCHAR(64) NOT NULL UNIQUE,
+    sent_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_dedup_sent_at ON email_dedup (sent_at);
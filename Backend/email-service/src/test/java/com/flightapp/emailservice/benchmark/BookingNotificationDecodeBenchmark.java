@@ -0,0 +1,91 @@
+package com.flightapp.emailservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.event.BookingNotificationConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode cost of a booking_email_queue message: the versioned JSON contract against the
+ * old free-text message (which carries less). Add -prof gc for allocation per decode.
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.emailservice.benchmark.BookingNotificationDecodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingNotificationDecodeBenchmark {
+
+    @Param({"1", "6"})
+    public int passengers;
+
+    private BookingNotificationConverter converter;
+    private Message json;
+    private Message legacyText;
+
+    @Setup
+    public void setUp() {
+        converter = new BookingNotificationConverter(new ObjectMapper().findAndRegisterModules());
+
+        List<BookingNotification.Passenger> list = new ArrayList<>();
+        StringBuilder names = new StringBuilder();
+        StringBuilder seats = new StringBuilder();
+        for (int i = 1; i <= passengers; i++) {
+            list.add(new BookingNotification.Passenger("Passenger " + i, String.valueOf(i)));
+            names.append(i == 1 ? "" : ", ").append("Passenger ").append(i);
+            seats.append(i == 1 ? "" : ", ").append(i);
+        }
+
+        json = converter.toMessage(BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .occurredAt(Instant.now())
+                .pnr("K7QW2MZP9X")
+                .email("alice@example.com")
+                .passengers(list)
+                .tickets(passengers)
+                .flight(new BookingNotification.FlightInfo(100, "AI-202", "Hyderabad", "Delhi",
+                        LocalDateTime.of(2026, 3, 1, 9, 30), LocalDateTime.of(2026, 3, 1, 11, 45)))
+                .totalAmount(BigDecimal.valueOf(4500L * passengers))
+                .build(), new MessageProperties());
+
+        MessageProperties text = new MessageProperties();
+        text.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        legacyText = new Message((" Booking Confirmed!\n" +
+                "PNR: K7QW2MZP9X\n" +
+                "Passenger: " + names + "\n" +
+                "Seat: " + seats + "\n" +
+                "Email: alice@example.com").getBytes(StandardCharsets.UTF_8), text);
+    }
+
+    @Benchmark
+    public BookingNotification versionedJson() {
+        return converter.fromMessage(json);
+    }
+
+    @Benchmark
+    public BookingNotification legacyText() {
+        return converter.fromMessage(legacyText);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingNotificationDecodeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.flightapp.emailservice.benchmark;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.ticket.ETicketLayout;
+import com.flightapp.emailservice.ticket.ETicketRenderer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * E-ticket PDFs per second: the layout alone with a reused or a fresh buffer, and
+ * through ETicketRenderer's CPU-sized pool with every core submitting.
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.emailservice.benchmark.ETicketRenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ETicketRenderBenchmark {
+
+    @Param({"1", "6"})
+    public int passengers;
+
+    private final ETicketLayout layout = new ETicketLayout();
+    private ETicketRenderer renderer;
+    private BookingNotification notification;
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        final ETicketLayout.PdfBuffer pdf = new ETicketLayout.PdfBuffer(8 * 1024);
+    }
+
+    @Setup
+    public void setUp() {
+        renderer = new ETicketRenderer(new SimpleMeterRegistry(), 0, 1_024, 10_000);
+
+        List<BookingNotification.Passenger> list = new ArrayList<>();
+        for (int i = 1; i <= passengers; i++) {
+            list.add(new BookingNotification.Passenger("Passenger " + i, String.valueOf(i)));
+        }
+        notification = BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .pnr("K7QW2MZP9X")
+                .email("alice@example.com")
+                .passengers(list)
+                .tickets(passengers)
+                .flight(new BookingNotification.FlightInfo(100, "AI-202", "Hyderabad", "Delhi",
+                        LocalDateTime.of(2026, 3, 1, 9, 30), LocalDateTime.of(2026, 3, 1, 11, 45)))
+                .totalAmount(BigDecimal.valueOf(4500L * passengers))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        renderer.destroy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] layout_reusedBuffer(Buffer buffer) {
+        return layout.render(notification, buffer.pdf);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] layout_freshBuffer() {
+        return layout.render(notification, new ETicketLayout.PdfBuffer(256));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] renderer_allCoresSubmitting() {
+        return renderer.render(notification).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ETicketRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
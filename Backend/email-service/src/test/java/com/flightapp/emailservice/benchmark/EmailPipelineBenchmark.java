@@ -0,0 +1,262 @@
+package com.flightapp.emailservice.benchmark;
+
+import com.flightapp.emailservice.EmailServiceApplication;
+import com.flightapp.emailservice.config.RabbitMQConfig;
+import com.flightapp.emailservice.consumer.PrefetchTuner;
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.support.EmbeddedAmqpBroker;
+import com.flightapp.emailservice.support.LocalSmtpServer;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end throughput of EmailConsumer and EmailSenderService without RabbitMQ or
+ * Mailtrap: the whole application runs against an in-process AMQP broker and
+ * LocalSmtpServer, and is fed a mix of confirmations (with e-tickets) and cancellations
+ * for several recipient domains.
+ *
+ * - drain: the queue is filled with the listener stopped, then the listener is started
+ *   and timed until the SMTP server has accepted every email (messages/sec, plus bytes
+ *   allocated per message on the listener, sender and e-ticket threads);
+ * - latency: notifications are published at half the drained rate and each one is timed
+ *   from publish until the SMTP server accepts it (p50/p99/max).
+ *
+ * Size with -Dpipeline.messages=20000 and -Dpipeline.smtp-delay-millis=0; application
+ * properties can be overridden as program arguments (e.g. --email.consumer.concurrency=8).
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.emailservice.benchmark.EmailPipelineBenchmark
+ */
+public class EmailPipelineBenchmark {
+
+    private static final int MESSAGES = Integer.getInteger("pipeline.messages", 20_000);
+    private static final long SMTP_DELAY_MILLIS = Long.getLong("pipeline.smtp-delay-millis", 0L);
+    private static final long PHASE_TIMEOUT_MINUTES = 10;
+
+    // The plain-text part carries "PNR: <pnr>" on its own line
+    private static final Pattern PNR_LINE = Pattern.compile("^PNR: (\\S+)$", Pattern.MULTILINE);
+
+    // Threads that do the pipeline's work: virtual-thread carriers (listener and per-domain
+    // senders), the e-ticket pool and the AMQP client's connection threads. Broker and SMTP
+    // stand-in threads are left out.
+    private static final List<String> PIPELINE_THREADS =
+            List.of("ForkJoinPool", "eticket-", "AMQP Connection", "rabbit");
+
+    private static final String[] DOMAINS = {"gmail.com", "outlook.com", "yahoo.com", "example.com", "corp.example.org"};
+    private static final String[][] ROUTES = {
+            {"AI-202", "Hyderabad", "Delhi"},
+            {"6E-611", "Bengaluru", "Mumbai"},
+            {"UK-815", "Chennai", "Kolkata"},
+            {"SG-134", "Pune", "Goa"},
+    };
+    private static final String[] NAMES = {"Asha Rao", "Vikram Iyer", "Meera Nair", "Rahul Verma", "Sara Khan", "Arjun Das"};
+
+    private static volatile Run current;
+
+    public static void main(String[] args) throws Exception {
+        try (EmbeddedAmqpBroker broker = new EmbeddedAmqpBroker();
+             LocalSmtpServer smtp = new LocalSmtpServer(SMTP_DELAY_MILLIS);
+             ConfigurableApplicationContext app = start(broker, smtp, args)) {
+
+            smtp.onMessage(content -> {
+                Run run = current;
+                if (run != null) {
+                    run.accepted(content);
+                }
+            });
+            RabbitTemplate template = app.getBean(RabbitTemplate.class);
+            RabbitListenerEndpointRegistry listeners = app.getBean(RabbitListenerEndpointRegistry.class);
+            Random random = new Random(42);
+
+            // Warm-up: JIT, SMTP and AMQP connections, e-ticket buffers
+            drain("warm-up", Math.max(1_000, MESSAGES / 10), template, listeners, random, false);
+            listeners.getListenerContainer(PrefetchTuner.LISTENER_ID).stop();
+
+            double rate = drain("drain", MESSAGES, template, listeners, random, true);
+            latency(MESSAGES, rate / 2, template, random);
+
+            System.out.printf("SMTP connections opened: %d%n", smtp.connections());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(EmbeddedAmqpBroker broker, LocalSmtpServer smtp,
+                                                        String[] overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--spring.rabbitmq.host=127.0.0.1",
+                "--spring.rabbitmq.port=" + broker.port(),
+                "--spring.rabbitmq.listener.simple.auto-startup=false",
+                "--spring.mail.host=127.0.0.1",
+                "--spring.mail.port=" + smtp.port(),
+                "--spring.mail.username=",
+                "--spring.mail.password=",
+                "--spring.mail.properties.mail.smtp.auth=false",
+                "--spring.mail.properties.mail.smtp.starttls.enable=false",
+                "--spring.datasource.url=jdbc:h2:mem:email-pipeline;DB_CLOSE_DELAY=-1",
+                // The broker has no TTL dead-lettering, so failures go straight to the DLQ
+                "--email.retry.max-attempts=1",
+                // Measure the pipeline, not the provider limits
+                "--email.throttle.default.rate-per-second=1000000",
+                "--email.throttle.default.burst=1000",
+                "--email.throttle.domain-limits="));
+        args.addAll(Arrays.asList(overrides));
+        return new SpringApplicationBuilder(EmailServiceApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static double drain(String phase, int count, RabbitTemplate template,
+                                RabbitListenerEndpointRegistry listeners, Random random, boolean report)
+            throws InterruptedException {
+        Run run = new Run(count, false);
+        current = run;
+        for (int i = 0; i < count; i++) {
+            template.convertAndSend("", RabbitMQConfig.EMAIL_QUEUE, notification(phase, i, random));
+        }
+
+        Map<Long, Long> allocatedBefore = pipelineAllocatedBytes();
+        long start = System.nanoTime();
+        listeners.getListenerContainer(PrefetchTuner.LISTENER_ID).start();
+        boolean finished = run.done.await(PHASE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedSince(allocatedBefore);
+
+        int received = count - (int) run.done.getCount();
+        double rate = received / (elapsed / 1e9);
+        if (report) {
+            System.out.printf("%s: %d of %d emails in %.2f s, %.0f msgs/sec%s%n", phase, received, count,
+                    elapsed / 1e9, rate, finished ? "" : " (timed out)");
+            System.out.printf("%s: %.1f MB/s allocated by the pipeline, %,d bytes per email%n", phase,
+                    allocated / (elapsed / 1e9) / (1024 * 1024), received == 0 ? 0 : allocated / received);
+        }
+        return rate;
+    }
+
+    private static void latency(int count, double ratePerSecond, RabbitTemplate template, Random random)
+            throws InterruptedException {
+        Run run = new Run(count, true);
+        current = run;
+        long interval = (long) (1e9 / Math.max(1, ratePerSecond));
+        long next = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            BookingNotification notification = notification("latency", i, random);
+            LockSupport.parkNanos(next - System.nanoTime());
+            run.publishedAt.put(notification.getPnr(), System.nanoTime());
+            template.convertAndSend("", RabbitMQConfig.EMAIL_QUEUE, notification);
+            next += interval;
+        }
+        boolean finished = run.done.await(PHASE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+
+        long[] sorted = Arrays.copyOf(run.latencies, run.recorded.get());
+        Arrays.sort(sorted);
+        System.out.printf("latency at %.0f msgs/sec: %d emails, p50 %.1f ms, p99 %.1f ms, max %.1f ms%s%n",
+                ratePerSecond, sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                percentile(sorted, 1.0), finished ? "" : " (timed out)");
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static BookingNotification notification(String phase, int i, Random random) {
+        String[] route = ROUTES[random.nextInt(ROUTES.length)];
+        LocalDateTime departure = LocalDateTime.of(2026, 3, 1, 6, 0).plusHours(random.nextInt(24 * 60));
+        boolean cancelled = random.nextInt(5) == 0;
+
+        int tickets = 1 + random.nextInt(4);
+        List<BookingNotification.Passenger> passengers = new ArrayList<>(tickets);
+        for (int p = 0; p < tickets; p++) {
+            passengers.add(new BookingNotification.Passenger(NAMES[random.nextInt(NAMES.length)],
+                    String.valueOf(1 + random.nextInt(180))));
+        }
+        return BookingNotification.builder()
+                .type(cancelled ? BookingNotification.Type.CANCELLED : BookingNotification.Type.CONFIRMED)
+                .occurredAt(Instant.now())
+                .pnr(String.format("%s%08d", phase.substring(0, 2).toUpperCase(), i))
+                .email("traveller" + random.nextInt(100_000) + "@" + DOMAINS[random.nextInt(DOMAINS.length)])
+                .passengers(passengers)
+                .tickets(tickets)
+                .flight(new BookingNotification.FlightInfo(1 + random.nextInt(500), route[0], route[1], route[2],
+                        departure, departure.plusMinutes(90 + random.nextInt(90))))
+                .totalAmount(BigDecimal.valueOf(4_500L * tickets))
+                .reason(cancelled ? "Cancelled by customer" : null)
+                .build();
+    }
+
+    // Bytes allocated so far by each live pipeline thread, by thread id
+    private static Map<Long, Long> pipelineAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocated = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (isPipelineThread(thread.getName())) {
+                allocated.put(thread.threadId(), threads.getThreadAllocatedBytes(thread.threadId()));
+            }
+        }
+        return allocated;
+    }
+
+    // Threads started since the snapshot count in full; threads that exited are missed
+    private static long allocatedSince(Map<Long, Long> before) {
+        long total = 0;
+        for (Map.Entry<Long, Long> after : pipelineAllocatedBytes().entrySet()) {
+            total += after.getValue() - before.getOrDefault(after.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private static boolean isPipelineThread(String name) {
+        for (String prefix : PIPELINE_THREADS) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Emails expected by one phase, and their publish times when latency is measured
+    private static final class Run {
+        final CountDownLatch done;
+        final Map<String, Long> publishedAt = new ConcurrentHashMap<>();
+        final long[] latencies;
+        final AtomicInteger recorded = new AtomicInteger();
+
+        Run(int count, boolean timed) {
+            this.done = new CountDownLatch(count);
+            this.latencies = new long[timed ? count : 0];
+        }
+
+        void accepted(String content) {
+            long now = System.nanoTime();
+            Matcher pnr = PNR_LINE.matcher(content);
+            Long published = pnr.find() ? publishedAt.remove(pnr.group(1)) : null;
+            if (published != null) {
+                latencies[recorded.getAndIncrement()] = now - published;
+            }
+            done.countDown();
+        }
+    }
+}
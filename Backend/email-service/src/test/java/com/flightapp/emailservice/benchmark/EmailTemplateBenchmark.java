@@ -0,0 +1,72 @@
+package com.flightapp.emailservice.benchmark;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.template.EmailTemplateEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTML e-ticket renders per second, on one core and on all cores.
+ * Run from the IDE, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.flightapp.emailservice.benchmark.EmailTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param({"1", "6"})
+    public int passengers;
+
+    private EmailTemplateEngine engine;
+    private BookingNotification notification;
+
+    @Setup
+    public void setUp() {
+        engine = new EmailTemplateEngine();
+
+        List<BookingNotification.Passenger> list = new ArrayList<>();
+        for (int i = 1; i <= passengers; i++) {
+            list.add(new BookingNotification.Passenger("Passenger " + i, String.valueOf(i)));
+        }
+        notification = BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .pnr("K7QW2MZP9X")
+                .email("alice@example.com")
+                .passengers(list)
+                .tickets(passengers)
+                .flight(new BookingNotification.FlightInfo(100, "AI-202", "Hyderabad", "Delhi",
+                        LocalDateTime.of(2026, 3, 1, 9, 30), LocalDateTime.of(2026, 3, 1, 11, 45)))
+                .totalAmount(BigDecimal.valueOf(4500L * passengers))
+                .build();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String render_singleThread() {
+        return engine.render(notification);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String render_allCores() {
+        return engine.render(notification);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,47 @@
+package com.flightapp.emailservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminTokenInterceptorTest {
+
+    @Test
+    void preHandle_matchingToken_passes() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(new AdminTokenInterceptor("s3cret").preHandle(request("s3cret"), response, null));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void preHandle_missingOrWrongToken_isForbidden() {
+        AdminTokenInterceptor interceptor = new AdminTokenInterceptor("s3cret");
+
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(null), missing, null));
+        assertEquals(403, missing.getStatus());
+
+        MockHttpServletResponse wrong = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("s3cre"), wrong, null));
+        assertEquals(403, wrong.getStatus());
+    }
+
+    @Test
+    void preHandle_noConfiguredToken_refusesEverything() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(new AdminTokenInterceptor("").preHandle(request(""), response, null));
+        assertEquals(403, response.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/email/admin/dead-letters");
+        if (token != null) {
+            request.addHeader(AdminTokenInterceptor.HEADER, token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,269 @@
+package com.flightapp.emailservice.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.emailservice.dedup.EmailDeduplicator;
+import com.flightapp.emailservice.event.BookingNotification;
+import com.flightapp.emailservice.event.BookingNotificationConverter;
+import com.flightapp.emailservice.retry.EmailRetryScheduler;
+import com.flightapp.emailservice.service.EmailSenderService;
+import com.flightapp.emailservice.service.OutgoingEmail;
+import com.flightapp.emailservice.template.EmailTemplateEngine;
+import com.flightapp.emailservice.ticket.ETicketRenderer;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class EmailConsumerTest {
+
+    @Mock
+    EmailSenderService emailSenderService;
+
+    @Mock
+    Channel channel;
+
+    @Mock
+    EmailRetryScheduler retryScheduler;
+
+    @Mock
+    EmailDeduplicator deduplicator;
+
+    @Mock
+    ETicketRenderer ticketRenderer;
+
+    private final BookingNotificationConverter converter =
+            new BookingNotificationConverter(new ObjectMapper().findAndRegisterModules());
+
+    EmailConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new EmailConsumer(emailSenderService, converter, new EmailTemplateEngine(), retryScheduler, deduplicator, ticketRenderer);
+    }
+
+    @Test
+    void consumeEmailBatch_settlesEachMessageOnItsOwn() throws Exception {
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{true, false});
+        Message sent = legacy(1, " Booking Confirmed!\nPNR: P1\nEmail: a@example.com");
+        Message unreadable = legacy(2, "not an email payload");
+        Message failed = notification(3, BookingNotification.builder()
+                .type(BookingNotification.Type.CANCELLED).pnr("P3").email("c@example.com").build());
+
+        consumer.consumeEmailBatch(List.of(sent, unreadable, failed), channel);
+
+        verify(retryScheduler).deadLetter(same(unreadable), anyString());
+        verify(retryScheduler).retry(eq(List.of(failed)), anyString());
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel).basicAck(3, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void consumeEmailBatch_senderBlowsUp_schedulesWholeBatchForRetry() throws Exception {
+        when(emailSenderService.sendBatch(anyList())).thenThrow(new IllegalStateException("boom"));
+        List<Message> batch = List.of(
+                legacy(1, " Booking Confirmed!\nPNR: P1\nEmail: a@example.com"),
+                legacy(2, " Booking Confirmed!\nPNR: P2\nEmail: b@example.com"));
+
+        consumer.consumeEmailBatch(batch, channel);
+
+        verify(retryScheduler).retry(eq(batch), contains("boom"));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void consumeEmailBatch_retryQueueUnavailable_fallsBackToRequeue() throws Exception {
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{false});
+        doThrow(new AmqpConnectException(new java.net.ConnectException()))
+                .when(retryScheduler).retry(anyList(), anyString());
+
+        consumer.consumeEmailBatch(List.of(legacy(4, " Booking Confirmed!\nPNR: P4\nEmail: d@example.com")), channel);
+
+        verify(channel).basicNack(4, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void consumeEmailBatch_alreadySentOrRepeatedInBatch_isAckedWithoutSending() throws Exception {
+        when(deduplicator.alreadySent(anyList())).thenReturn(Set.of("P1:CONFIRMED"));
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{true});
+        BookingNotification cancelled = BookingNotification.builder()
+                .type(BookingNotification.Type.CANCELLED).pnr("P1").email("a@example.com").build();
+
+        consumer.consumeEmailBatch(List.of(
+                legacy(1, " Booking Confirmed!\nPNR: P1\nEmail: a@example.com"),
+                notification(2, cancelled),
+                notification(3, cancelled)), channel);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailSenderService).sendBatch(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("Your Booking Status - Cancelled", captor.getValue().get(0).subject());
+        verify(deduplicator).markSent(List.of("P1:CANCELLED"));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel).basicAck(3, false);
+    }
+
+    @Test
+    void consumeEmailBatch_confirmationGetsETicketAttached() throws Exception {
+        byte[] pdf = "%PDF-1.4".getBytes(StandardCharsets.US_ASCII);
+        when(ticketRenderer.render(any())).thenReturn(CompletableFuture.completedFuture(pdf));
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{true, true});
+
+        consumer.consumeEmailBatch(List.of(
+                notification(1, BookingNotification.builder()
+                        .type(BookingNotification.Type.CONFIRMED).pnr("P1").email("a@example.com").build()),
+                notification(2, BookingNotification.builder()
+                        .type(BookingNotification.Type.CANCELLED).pnr("P2").email("b@example.com").build())),
+                channel);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailSenderService).sendBatch(captor.capture());
+        OutgoingEmail.Attachment ticket = captor.getValue().get(0).attachment();
+        assertEquals("e-ticket-P1.pdf", ticket.fileName());
+        assertEquals("application/pdf", ticket.contentType());
+        assertArrayEquals(pdf, ticket.content());
+        assertNull(captor.getValue().get(1).attachment());
+        verify(ticketRenderer, times(1)).render(any());
+    }
+
+    @Test
+    void consumeEmailBatch_renderPoolFull_retriesOnlyThatEmail() throws Exception {
+        when(ticketRenderer.render(any())).thenThrow(new RejectedExecutionException("full"));
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{true});
+        Message confirmed = notification(1, BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED).pnr("P1").email("a@example.com").build());
+
+        consumer.consumeEmailBatch(List.of(confirmed, notification(2, BookingNotification.builder()
+                .type(BookingNotification.Type.CANCELLED).pnr("P2").email("b@example.com").build())), channel);
+
+        verify(retryScheduler).retry(eq(List.of(confirmed)), anyString());
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+    }
+
+    @Test
+    void consumeEmailBatch_lastAttemptTicketFails_sendsConfirmationWithoutIt() throws Exception {
+        when(ticketRenderer.render(any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("bad font")));
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{true});
+        Message confirmed = notification(1, BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED).pnr("P1").email("a@example.com").build());
+        when(retryScheduler.isLastAttempt(confirmed)).thenReturn(true);
+
+        consumer.consumeEmailBatch(List.of(confirmed), channel);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailSenderService).sendBatch(captor.capture());
+        assertNull(captor.getValue().get(0).attachment());
+        verify(ticketRenderer).recordOmitted();
+        verify(retryScheduler, never()).retry(anyList(), anyString());
+        verify(retryScheduler, never()).deadLetter(any(), anyString());
+        verify(channel).basicAck(1, false);
+    }
+
+    @Test
+    void consumeEmailBatch_unknownTypeFromNewerProducer_isAckedWithoutSending() throws Exception {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(BookingNotification.CONTENT_TYPE);
+        props.setDeliveryTag(7);
+        byte[] body = "{\"version\":1,\"type\":\"REFUNDED\",\"pnr\":\"P7\",\"email\":\"r@example.com\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        consumer.consumeEmailBatch(List.of(new Message(body, props)), channel);
+
+        verify(channel).basicAck(7, false);
+        verifyNoInteractions(emailSenderService);
+    }
+
+    @Test
+    void consumeEmailBatch_rendersFlightPassengersAndAmount() throws Exception {
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{true});
+        BookingNotification n = BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .pnr("K7QW2MZP9X")
+                .email("alice@example.com")
+                .passengers(List.of(new BookingNotification.Passenger("Alice", "1"),
+                        new BookingNotification.Passenger("Bob", "2")))
+                .tickets(2)
+                .flight(new BookingNotification.FlightInfo(100, "AI-202", "Hyderabad", "Delhi",
+                        LocalDateTime.of(2026, 3, 1, 9, 30), null))
+                .totalAmount(new BigDecimal("9000.0"))
+                .build();
+
+        consumer.consumeEmailBatch(List.of(notification(1, n)), channel);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailSenderService).sendBatch(captor.capture());
+        OutgoingEmail email = captor.getValue().get(0);
+        assertEquals("Your Booking Status - Confirmed", email.subject());
+        assertEquals("""
+                Your booking is Confirmed.
+                PNR: K7QW2MZP9X
+                Flight: AI-202 Hyderabad -> Delhi, departs 2026-03-01T09:30
+                Passengers: Alice (seat 1), Bob (seat 2)
+                Total: 9000.00""", email.body());
+        assertTrue(email.htmlBody().contains("AI-202"));
+        assertTrue(email.htmlBody().contains("<td>Bob</td><td>2</td>"));
+    }
+
+    @Test
+    void consumeEmailBatch_floatWidenedTotal_isShownRoundedToCents() throws Exception {
+        when(emailSenderService.sendBatch(anyList())).thenReturn(new boolean[]{true});
+        // As written by producers that multiplied a float fare: 123.45f x 2
+        byte[] body = ("{\"version\":1,\"type\":\"CONFIRMED\",\"pnr\":\"K7QW2MZP9X\","
+                + "\"email\":\"alice@example.com\",\"tickets\":2,\"totalAmount\":246.89999389648438}")
+                .getBytes(StandardCharsets.UTF_8);
+        MessageProperties props = new MessageProperties();
+        props.setContentType(BookingNotification.CONTENT_TYPE);
+        props.setDeliveryTag(1);
+
+        consumer.consumeEmailBatch(List.of(new Message(body, props)), channel);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailSenderService).sendBatch(captor.capture());
+        OutgoingEmail email = captor.getValue().get(0);
+        assertTrue(email.body().endsWith("Total: 246.90"));
+        assertTrue(email.htmlBody().contains("246.90"));
+        assertFalse(email.htmlBody().contains("246.89"));
+    }
+
+    private static Message legacy(long tag, String body) {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        props.setDeliveryTag(tag);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), props);
+    }
+
+    private Message notification(long tag, BookingNotification n) {
+        MessageProperties props = new MessageProperties();
+        props.setDeliveryTag(tag);
+        return converter.toMessage(n, props);
+    }
+}
@@ -0,0 +1,115 @@
+package com.flightapp.emailservice.consumer;
+
+import com.flightapp.emailservice.service.EmailSenderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class PrefetchTunerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Mock
+    RabbitListenerEndpointRegistry listeners;
+
+    @Mock
+    AmqpAdmin admin;
+
+    @Mock
+    EmailSenderService sender;
+
+    @Mock
+    SimpleMessageListenerContainer container;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    PrefetchTuner tuner;
+
+    @BeforeEach
+    void setUp() {
+        // Batches of 50, so 100 in flight; aim for 2s of work, change at most once a minute
+        tuner = new PrefetchTuner(listeners, admin, sender, registry, 50, 50, 500, 2_000, 60, clock::get);
+    }
+
+    @Test
+    void desiredPrefetch_coversTargetBufferAndIsClamped() {
+        assertEquals(200, tuner.desiredPrefetch(10 * MS));
+        assertEquals(50, tuner.desiredPrefetch(1_000 * MS));
+        assertEquals(500, tuner.desiredPrefetch(MS / 10));
+        // No sends yet: keep what we have
+        assertEquals(100, tuner.desiredPrefetch(0));
+    }
+
+    @Test
+    void desiredPrefetch_neverBelowOneBatch() {
+        PrefetchTuner lowMin = new PrefetchTuner(listeners, admin, sender, new SimpleMeterRegistry(),
+                50, 10, 500, 2_000, 60, clock::get);
+
+        assertEquals(50, lowMin.desiredPrefetch(1_000 * MS));
+    }
+
+    @Test
+    void constructor_maxBelowBatchSize_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PrefetchTuner(listeners, admin, sender,
+                new SimpleMeterRegistry(), 50, 10, 40, 2_000, 60, clock::get));
+    }
+
+    @Test
+    void tune_slowRelay_lowersPrefetchAndRestartsConsumers() {
+        clock.set(TimeUnit.SECONDS.toNanos(61));
+        when(admin.getQueueInfo(anyString())).thenReturn(new QueueInformation("q", 1_234, 4));
+        when(sender.averageSendNanos()).thenReturn(100 * MS);
+        when(listeners.getListenerContainer(PrefetchTuner.LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+
+        tuner.tune();
+
+        // 2000 / 100 = 20, raised to one batch
+        verify(container).setPrefetchCount(50);
+        verify(container).stop();
+        verify(container).start();
+        assertEquals(50, registry.get("email.consumer.prefetch").gauge().value());
+        assertEquals(1_234, registry.get("email.queue.depth").gauge().value());
+        assertEquals(4, registry.get("email.queue.consumers").gauge().value());
+    }
+
+    @Test
+    void tune_smallOrTooFrequentChanges_areIgnored() {
+        // Large change, but less than a minute since start
+        when(sender.averageSendNanos()).thenReturn(100 * MS);
+        clock.set(TimeUnit.SECONDS.toNanos(30));
+        tuner.tune();
+
+        // 2000 / 18 = 111: within a quarter of 100
+        when(sender.averageSendNanos()).thenReturn(18 * MS);
+        clock.set(TimeUnit.SECONDS.toNanos(61));
+        tuner.tune();
+
+        verifyNoInteractions(listeners);
+        assertEquals(100, registry.get("email.consumer.prefetch").gauge().value());
+    }
+
+    @Test
+    void tune_brokerUnavailable_keepsRunning() {
+        when(admin.getQueueInfo(anyString())).thenThrow(new AmqpConnectException(new java.net.ConnectException()));
+
+        assertDoesNotThrow(() -> tuner.tune());
+        assertEquals(0, registry.get("email.queue.depth").gauge().value());
+    }
+}
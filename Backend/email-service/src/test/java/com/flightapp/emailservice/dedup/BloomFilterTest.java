@@ -0,0 +1,47 @@
+package com.flightapp.emailservice.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_neverMissesAddedKeys() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("PNR" + i + ":CONFIRMED");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("PNR" + i + ":CONFIRMED"));
+        }
+    }
+
+    @Test
+    void mightContain_falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("PNR" + i + ":CONFIRMED");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("PNR" + i + ":CANCELLED")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void constructor_sizesForExpectedKeys() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.001);
+
+        // About 14.4 bits and 10 hashes per key at 0.1%
+        assertEquals(14_377_600, filter.bitCount(), 64);
+        assertEquals(10, filter.hashCount());
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0));
+    }
+}
@@ -0,0 +1,147 @@
+package com.flightapp.emailservice.dedup;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class EmailDeduplicatorTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Mock
+    SentEmailRepository repo;
+
+    private final AtomicLong clock = new AtomicLong(1_767_225_600_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    EmailDeduplicator dedup;
+
+    @BeforeEach
+    void setUp() {
+        dedup = new EmailDeduplicator(repo, registry, Duration.ofHours(24), 10_000, 0.001, 1_000, clock::get);
+    }
+
+    @Test
+    void alreadySent_beforeFirstSync_checksTable() {
+        when(repo.findExisting(List.of("P1:CONFIRMED", "P2:CONFIRMED"))).thenReturn(List.of("P1:CONFIRMED"));
+
+        Set<String> sent = dedup.alreadySent(List.of("P1:CONFIRMED", "P2:CONFIRMED"));
+
+        assertEquals(Set.of("P1:CONFIRMED"), sent);
+        assertEquals(1.0, registry.get("email.dedup.duplicates").counter().count());
+    }
+
+    @Test
+    void alreadySent_afterSync_newKeysNeverTouchTable() {
+        when(repo.findSince(eq(0L), any(), anyInt())).thenReturn(List.of(new SentEmailRepository.Row(1, "P1:CONFIRMED")));
+        dedup.sync();
+
+        Set<String> sent = dedup.alreadySent(List.of("P2:CONFIRMED", "P3:CANCELLED"));
+
+        assertTrue(sent.isEmpty());
+        verify(repo, never()).findExisting(any());
+        assertEquals(2.0, registry.get("email.dedup.checks").tag("answered_by", "filter").counter().count());
+    }
+
+    @Test
+    void alreadySent_syncedKeyIsConfirmedByTableThenCached() {
+        when(repo.findSince(eq(0L), any(), anyInt())).thenReturn(List.of(new SentEmailRepository.Row(1, "P1:CONFIRMED")));
+        when(repo.findExisting(List.of("P1:CONFIRMED"))).thenReturn(List.of("P1:CONFIRMED"));
+        dedup.sync();
+
+        assertEquals(Set.of("P1:CONFIRMED"), dedup.alreadySent(List.of("P1:CONFIRMED")));
+        assertEquals(Set.of("P1:CONFIRMED"), dedup.alreadySent(List.of("P1:CONFIRMED")));
+
+        verify(repo, times(1)).findExisting(any());
+    }
+
+    @Test
+    void markSent_recordsKeyAndAnswersFromMemory() {
+        dedup.sync();
+
+        dedup.markSent(List.of("P4:CONFIRMED"));
+
+        verify(repo).insert(eq(List.of("P4:CONFIRMED")), any());
+        assertEquals(Set.of("P4:CONFIRMED"), dedup.alreadySent(List.of("P4:CONFIRMED")));
+        verify(repo, never()).findExisting(any());
+    }
+
+    @Test
+    void alreadySent_keysForgottenAfterTwoWindows() {
+        when(repo.findSince(eq(0L), any(), anyInt())).thenReturn(List.of(new SentEmailRepository.Row(1, "P5:CONFIRMED")));
+        when(repo.findExisting(List.of("P5:CONFIRMED"))).thenReturn(List.of());
+        dedup.sync();
+
+        // Rotated into the previous filter, so the table is still asked
+        clock.addAndGet(25 * HOUR);
+        assertTrue(dedup.alreadySent(List.of("P5:CONFIRMED")).isEmpty());
+        verify(repo).findExisting(List.of("P5:CONFIRMED"));
+
+        // Rotated out of both
+        clock.addAndGet(25 * HOUR);
+        assertTrue(dedup.alreadySent(List.of("P5:CONFIRMED")).isEmpty());
+        verify(repo, times(1)).findExisting(any());
+    }
+
+    @Test
+    void alreadySent_tableDown_sendsRatherThanBlocks() {
+        when(repo.findExisting(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertTrue(dedup.alreadySent(List.of("P6:CONFIRMED")).isEmpty());
+    }
+
+    @Test
+    void key_combinesPnrAndType() {
+        assertEquals("P1:CANCELLED", EmailDeduplicator.key(BookingNotification.builder()
+                .pnr("P1").type(BookingNotification.Type.CANCELLED).build()));
+        assertNull(EmailDeduplicator.key(BookingNotification.builder().type(BookingNotification.Type.CONFIRMED).build()));
+    }
+
+    @Test
+    void key_includesSortedBookingIds() {
+        assertEquals("P1:CONFIRMED:41,42,43", EmailDeduplicator.key(BookingNotification.builder()
+                .pnr("P1").type(BookingNotification.Type.CONFIRMED).bookingIds(List.of(43, 41, 42)).build()));
+    }
+
+    @Test
+    void key_manyBookingIds_hashedToFitColumn() {
+        List<Integer> ids = IntStream.rangeClosed(1_000_000, 1_000_020).boxed().toList();
+
+        String key = EmailDeduplicator.key(BookingNotification.builder()
+                .pnr("K7QW2MZP9X").type(BookingNotification.Type.CANCELLED).bookingIds(ids).build());
+
+        assertTrue(key.startsWith("K7QW2MZP9X:CANCELLED:#"));
+        assertTrue(key.length() <= 64);
+        assertNotEquals(key, EmailDeduplicator.key(BookingNotification.builder()
+                .pnr("K7QW2MZP9X").type(BookingNotification.Type.CANCELLED).bookingIds(ids.subList(1, 21)).build()));
+    }
+
+    @Test
+    void groupPassengersCancellingOneAfterAnother_areBothSent() {
+        dedup.sync();
+        BookingNotification first = BookingNotification.builder()
+                .pnr("K7QW2MZP9X").type(BookingNotification.Type.CANCELLED).bookingIds(List.of(41)).build();
+        BookingNotification second = BookingNotification.builder()
+                .pnr("K7QW2MZP9X").type(BookingNotification.Type.CANCELLED).bookingIds(List.of(42)).build();
+
+        dedup.markSent(List.of(EmailDeduplicator.key(first)));
+
+        assertTrue(dedup.alreadySent(List.of(EmailDeduplicator.key(second))).isEmpty());
+        assertEquals(Set.of(EmailDeduplicator.key(first)), dedup.alreadySent(List.of(EmailDeduplicator.key(first))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.flightapp.emailservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingNotificationConverterTest {
+
+    private final BookingNotificationConverter converter =
+            new BookingNotificationConverter(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void fromMessage_readsBookingServiceJson() {
+        BookingNotification n = converter.fromMessage(json("""
+                {"version":1,"type":"CONFIRMED","occurredAt":"2026-02-01T10:15:30.123456Z",
+                 "pnr":"K7QW2MZP9X","email":"alice@example.com",
+                 "passengers":[{"name":"Alice","seatNumber":"1"}],"tickets":1,
+                 "flight":{"id":100,"flightNumber":"AI-202","departureTime":"2026-03-01T09:30:00"},
+                 "totalAmount":4500.0}"""));
+
+        assertEquals(BookingNotification.Type.CONFIRMED, n.getType());
+        assertEquals("Alice", n.getPassengers().get(0).getName());
+        assertEquals("AI-202", n.getFlight().getFlightNumber());
+        assertEquals(9, n.getFlight().getDepartureTime().getHour());
+    }
+
+    @Test
+    void fromMessage_missingAndExtraFieldsAreTolerated() {
+        BookingNotification n = converter.fromMessage(json(
+                "{\"version\":1,\"type\":\"CANCELLED\",\"pnr\":\"P1\",\"seatClass\":\"J\"}"));
+
+        assertEquals(BookingNotification.Type.CANCELLED, n.getType());
+        assertNull(n.getFlight());
+        assertNull(n.getEmail());
+    }
+
+    @Test
+    void fromMessage_newerVersionIsRejected() {
+        assertThrows(MessageConversionException.class,
+                () -> converter.fromMessage(json("{\"version\":2,\"type\":\"CONFIRMED\",\"pnr\":\"P1\"}")));
+    }
+
+    @Test
+    void fromMessage_legacyTextStillUnderstood() {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        String text = " Booking Cancelled!\nPNR: GRP\nPassenger: Ann, Ben\nSeat: 3A, 4A\n"
+                + "Email: ann@example.com\nReason: Flight cancelled by the airline";
+
+        BookingNotification n = converter.fromMessage(new Message(text.getBytes(StandardCharsets.UTF_8), props));
+
+        assertEquals(BookingNotification.Type.CANCELLED, n.getType());
+        assertEquals("GRP", n.getPnr());
+        assertEquals("ann@example.com", n.getEmail());
+        assertEquals("4A", n.getPassengers().get(1).getSeatNumber());
+        assertEquals("Flight cancelled by the airline", n.getReason());
+    }
+
+    @Test
+    void toMessage_roundTrips() {
+        BookingNotification sent = BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED).pnr("P1").email("a@example.com").build();
+
+        Message message = converter.toMessage(sent, new MessageProperties());
+
+        assertEquals(BookingNotification.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(sent, converter.fromMessage(message));
+    }
+
+    private static Message json(String body) {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(BookingNotification.CONTENT_TYPE);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), props);
+    }
+}
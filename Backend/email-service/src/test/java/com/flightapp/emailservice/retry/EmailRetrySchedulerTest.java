@@ -0,0 +1,112 @@
+package com.flightapp.emailservice.retry;
+
+import com.flightapp.emailservice.config.RabbitMQConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class EmailRetrySchedulerTest {
+
+    @Mock
+    RabbitTemplate rabbitTemplate;
+
+    @Mock
+    RabbitOperations ops;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    EmailRetryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // 1s, 4s, 16s, 64s capped at 30s; jitter fixed at the top of the range
+        scheduler = new EmailRetryScheduler(rabbitTemplate, registry, 5, 1_000, 4, 30_000, () -> 1.0);
+        lenient().when(rabbitTemplate.invoke(any())).thenAnswer(inv ->
+                inv.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(ops));
+    }
+
+    @Test
+    void delayMillis_growsExponentiallyWithJitterAndCap() {
+        assertEquals(1_000, scheduler.delayMillis(1));
+        assertEquals(4_000, scheduler.delayMillis(2));
+        assertEquals(16_000, scheduler.delayMillis(3));
+        assertEquals(30_000, scheduler.delayMillis(4));
+
+        EmailRetryScheduler lowJitter = new EmailRetryScheduler(rabbitTemplate, registry, 5, 1_000, 4, 30_000, () -> 0.0);
+        assertEquals(500, lowJitter.delayMillis(1));
+        assertEquals(8_000, lowJitter.delayMillis(3));
+    }
+
+    @Test
+    void retry_firstFailure_goesToFirstDelayQueueWithTtl() {
+        scheduler.retry(List.of(message(0)), "relay down");
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(ops).send(eq(RabbitMQConfig.RETRY_EXCHANGE), eq(RabbitMQConfig.retryQueue(1)), sent.capture());
+        verify(ops).waitForConfirmsOrDie(anyLong());
+        MessageProperties props = sent.getValue().getMessageProperties();
+        assertEquals(1, EmailRetryScheduler.attemptsOf(sent.getValue()));
+        assertEquals("1000", props.getExpiration());
+        assertEquals("relay down", props.getHeader(EmailRetryScheduler.ERROR_HEADER));
+        assertEquals(MessageDeliveryMode.PERSISTENT, props.getDeliveryMode());
+        assertEquals(1.0, registry.get("email.retry.scheduled").counter().count());
+    }
+
+    @Test
+    void retry_outOfAttempts_goesToDeadLetterQueue() {
+        scheduler.retry(List.of(message(3), message(4)), "relay down");
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(ops).send(eq(RabbitMQConfig.RETRY_EXCHANGE), eq(RabbitMQConfig.retryQueue(4)), any(Message.class));
+        verify(ops).send(eq(RabbitMQConfig.RETRY_EXCHANGE), eq(RabbitMQConfig.DEAD_LETTER_ROUTING_KEY), sent.capture());
+        MessageProperties dead = sent.getValue().getMessageProperties();
+        assertEquals(5, EmailRetryScheduler.attemptsOf(sent.getValue()));
+        assertNull(dead.getExpiration());
+        assertNotNull(dead.getHeader(EmailRetryScheduler.DEAD_LETTERED_AT_HEADER));
+        assertEquals(1.0, registry.get("email.dead.lettered").counter().count());
+    }
+
+    @Test
+    void isLastAttempt_trueOnlyWhenAFailureWouldDeadLetter() {
+        assertFalse(scheduler.isLastAttempt(message(0)));
+        assertFalse(scheduler.isLastAttempt(message(3)));
+        assertTrue(scheduler.isLastAttempt(message(4)));
+    }
+
+    @Test
+    void deadLetter_keepsBodyAndRecordsError() {
+        Message original = message(0);
+
+        scheduler.deadLetter(original, "unreadable");
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(ops).send(eq(RabbitMQConfig.RETRY_EXCHANGE), eq(RabbitMQConfig.DEAD_LETTER_ROUTING_KEY), sent.capture());
+        assertArrayEquals(original.getBody(), sent.getValue().getBody());
+        assertEquals("unreadable", sent.getValue().getMessageProperties().getHeader(EmailRetryScheduler.ERROR_HEADER));
+    }
+
+    private static Message message(int attempts) {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        if (attempts > 0) {
+            props.setHeader(EmailRetryScheduler.ATTEMPTS_HEADER, attempts);
+        }
+        return new Message(" Booking Confirmed!\nPNR: P1\nEmail: a@example.com".getBytes(StandardCharsets.UTF_8), props);
+    }
+}
@@ -0,0 +1,204 @@
+package com.flightapp.emailservice.service;
+
+import com.flightapp.emailservice.support.LocalSmtpServer;
+import com.flightapp.emailservice.throttle.DomainThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailSenderServiceTest {
+
+    // Stands in for connect + STARTTLS + AUTH against a real relay
+    private static final long HANDSHAKE_MILLIS = 10;
+
+    private LocalSmtpServer smtp;
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool pool;
+    private EmailSenderService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new LocalSmtpServer(HANDSHAKE_MILLIS);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.port());
+        pool = new SmtpTransportPool(mailSender, 2, 30, 500, 5_000);
+        service = sender(mailSender, pool, unthrottled());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.destroy();
+        smtp.close();
+    }
+
+    @Test
+    void sendBatch_reusesOneConnectionAcrossBatches() {
+        for (int batch = 0; batch < 3; batch++) {
+            boolean[] sent = service.sendBatch(emails(20));
+            assertAllSent(sent);
+        }
+
+        assertEquals(60, smtp.messages());
+        assertEquals(1, smtp.connections());
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void sendBatch_rejectedRecipientOnlyFailsItsOwnEmail() {
+        smtp.rejectRecipient("bounce@example.com");
+        List<OutgoingEmail> emails = new ArrayList<>(emails(3));
+        emails.add(1, new OutgoingEmail("bounce@example.com", "Your Booking Status - Confirmed", "PNR: X"));
+
+        boolean[] sent = service.sendBatch(emails);
+
+        assertArrayEquals(new boolean[]{true, false, true, true}, sent);
+        assertEquals(3, smtp.messages());
+        assertEquals(1, smtp.connections());
+    }
+
+    @Test
+    void sendBatch_reconnectsAfterRelayDropsIdleConnection() {
+        assertAllSent(service.sendBatch(emails(5)));
+        smtp.dropConnections();
+
+        assertAllSent(service.sendBatch(emails(5)));
+
+        assertEquals(10, smtp.messages());
+        assertEquals(2, smtp.connections());
+    }
+
+    @Test
+    void sendBatch_retiresConnectionAfterMessageCap() throws Exception {
+        pool.destroy();
+        pool = new SmtpTransportPool(mailSender, 2, 30, 10, 5_000);
+        service = sender(mailSender, pool, unthrottled());
+
+        assertAllSent(service.sendBatch(emails(10)));
+        assertAllSent(service.sendBatch(emails(10)));
+
+        assertEquals(2, smtp.connections());
+    }
+
+    @Test
+    void sendBatch_htmlEmailGoesOutOverPool() {
+        boolean[] sent = service.sendBatch(List.of(new OutgoingEmail("a@example.com",
+                "Your Booking Status - Confirmed", "PNR: P1", "<p>PNR: <b>P1</b></p>")));
+
+        assertAllSent(sent);
+        assertEquals(1, smtp.messages());
+    }
+
+    @Test
+    void sendBatch_attachmentGoesOutOverPool() {
+        OutgoingEmail email = new OutgoingEmail("a@example.com", "Your Booking Status - Confirmed",
+                "PNR: P1", "<p>PNR: <b>P1</b></p>")
+                .withAttachment(new OutgoingEmail.Attachment("e-ticket-P1.pdf", "application/pdf",
+                        "%PDF-1.4".getBytes(StandardCharsets.US_ASCII)));
+
+        assertAllSent(service.sendBatch(List.of(email)));
+        assertEquals(1, smtp.messages());
+    }
+
+    @Test
+    void sendBatch_withoutPoolableSender_fallsBackToSendPerEmail() {
+        JavaMailSender plain = mock(JavaMailSender.class);
+        EmailSenderService fallback = sender(plain, new SmtpTransportPool(plain, 1, 30, 500, 5_000), unthrottled());
+
+        assertAllSent(fallback.sendBatch(emails(3)));
+        verify(plain, times(3)).send(any(org.springframework.mail.SimpleMailMessage.class));
+    }
+
+    @Test
+    void sendBatch_domainOverItsRate_onlyThatDomainIsHeldBack() {
+        // One send per second for slow.example, no waiting allowed
+        service = sender(mailSender, pool, new DomainThrottle(new SimpleMeterRegistry(), 1000, 1000, 4,
+                "slow.example:1:1", 0));
+        List<OutgoingEmail> emails = List.of(
+                new OutgoingEmail("a@slow.example", "s", "b"),
+                new OutgoingEmail("b@example.com", "s", "b"),
+                new OutgoingEmail("c@slow.example", "s", "b"),
+                new OutgoingEmail("d@example.com", "s", "b"));
+
+        boolean[] sent = service.sendBatch(emails);
+
+        assertArrayEquals(new boolean[]{true, true, false, true}, sent);
+        assertEquals(3, smtp.messages());
+    }
+
+    @Test
+    void sendBatch_domainsAreSentConcurrently() throws Exception {
+        pool.destroy();
+        pool = new SmtpTransportPool(mailSender, 4, 30, 500, 5_000);
+        service = sender(mailSender, pool, unthrottled());
+        List<OutgoingEmail> emails = IntStream.range(0, 40)
+                .mapToObj(i -> new OutgoingEmail("user" + i + "@domain" + (i % 4) + ".example", "s", "b"))
+                .toList();
+
+        assertAllSent(service.sendBatch(emails));
+
+        assertEquals(40, smtp.messages());
+        assertTrue(smtp.connections() > 1, "expected one connection per domain worker");
+        assertTrue(service.averageSendNanos() > 0);
+    }
+
+    @Test
+    void throughput_pooledBatchesVersusConnectionPerEmail() {
+        int count = 100;
+
+        long start = System.nanoTime();
+        for (OutgoingEmail email : emails(count)) {
+            service.sendEmail(email.to(), email.subject(), email.body());
+        }
+        long perEmailNanos = System.nanoTime() - start;
+        int perEmailConnections = smtp.connections();
+
+        start = System.nanoTime();
+        for (int i = 0; i < count; i += 50) {
+            assertAllSent(service.sendBatch(emails(50)));
+        }
+        long pooledNanos = System.nanoTime() - start;
+
+        System.out.printf("connection per email: %.0f msg/s over %d connections%n",
+                count * 1e9 / perEmailNanos, perEmailConnections);
+        System.out.printf("pooled batches:       %.0f msg/s over %d connections%n",
+                count * 1e9 / pooledNanos, smtp.connections() - perEmailConnections);
+
+        assertEquals(count, perEmailConnections);
+        assertEquals(1, smtp.connections() - perEmailConnections);
+        assertTrue(pooledNanos < perEmailNanos);
+    }
+
+    private static EmailSenderService sender(JavaMailSender mailSender, SmtpTransportPool pool, DomainThrottle throttle) {
+        return new EmailSenderService(mailSender, pool, throttle, new SimpleMeterRegistry());
+    }
+
+    private static DomainThrottle unthrottled() {
+        return new DomainThrottle(new SimpleMeterRegistry(), 100_000, 100_000, 16, "", 1_000);
+    }
+
+    private static List<OutgoingEmail> emails(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new OutgoingEmail("user" + i + "@example.com",
+                        "Your Booking Status - Confirmed", "Your booking is Confirmed.\nPNR: PNR" + i))
+                .toList();
+    }
+
+    private static void assertAllSent(boolean[] sent) {
+        for (boolean s : sent) {
+            assertTrue(s);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.flightapp.emailservice.support;
+
+import org.apache.qpid.server.SystemLauncher;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process AMQP 0-9-1 broker (Qpid Broker-J, in-memory store) standing in for RabbitMQ
+ * in benchmarks.
+ *
+ * Accepts guest/guest on the default virtual host. It speaks the protocol Spring AMQP uses,
+ * including publisher confirms, but not RabbitMQ's queue extensions such as per-queue TTL
+ * dead-lettering, so runs against it should not rely on the delayed-retry queues.
+ */
+public class EmbeddedAmqpBroker implements AutoCloseable {
+
+    private final SystemLauncher launcher = new SystemLauncher();
+    private final int port;
+
+    public EmbeddedAmqpBroker() throws Exception {
+        this.port = freePort();
+        URL config = EmbeddedAmqpBroker.class.getResource("/qpid-broker.json");
+        if (config == null) {
+            throw new IllegalStateException("qpid-broker.json not found on the test classpath");
+        }
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("type", "Memory");
+        attributes.put("initialConfigurationLocation", config.toExternalForm());
+        attributes.put("startupLoggedToSystemOut", false);
+        attributes.put("context", Map.of("qpid.amqp_port", String.valueOf(port)));
+        launcher.startup(attributes);
+    }
+
+    public int port() {
+        return port;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+}
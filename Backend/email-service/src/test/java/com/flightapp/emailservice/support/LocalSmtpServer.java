@@ -0,0 +1,160 @@
+package com.flightapp.emailservice.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Minimal in-process SMTP server standing in for Mailtrap in tests and benchmarks.
+ *
+ * Speaks just enough SMTP for Jakarta Mail (EHLO, MAIL, RCPT, DATA, RSET, NOOP, QUIT),
+ * counts connections and accepted messages, and can delay its greeting to imitate the
+ * TLS handshake and AUTH round trips of a real relay. A listener set with
+ * {@link #onMessage} sees the raw content of every accepted message.
+ */
+public class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final long greetingDelayMillis;
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger messages = new AtomicInteger();
+    private volatile Consumer<String> messageListener;
+
+    public LocalSmtpServer(long greetingDelayMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.greetingDelayMillis = greetingDelayMillis;
+        Thread acceptor = new Thread(this::acceptLoop, "local-smtp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    public int messages() {
+        return messages.get();
+    }
+
+    // RCPT TO for this address is answered with 550
+    public void rejectRecipient(String address) {
+        rejectedRecipients.add(address.toLowerCase());
+    }
+
+    // Called on the session thread before the message is acknowledged
+    public void onMessage(Consumer<String> listener) {
+        this.messageListener = listener;
+    }
+
+    // Simulates the relay timing out idle sessions
+    public void dropConnections() {
+        for (Socket socket : open) {
+            closeQuietly(socket);
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                open.add(socket);
+                Thread session = new Thread(() -> serve(socket), "local-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            OutputStream out = socket.getOutputStream();
+            if (greetingDelayMillis > 0) {
+                Thread.sleep(greetingDelayMillis);
+            }
+            reply(out, "220 localhost ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "RCPT" -> reply(out, isRejected(line) ? "550 No such user" : "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        Consumer<String> listener = messageListener;
+                        StringBuilder content = listener == null ? null : new StringBuilder(1024);
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // content is only kept when someone is listening
+                            if (content != null) {
+                                content.append(line).append('\n');
+                            }
+                        }
+                        messages.incrementAndGet();
+                        if (listener != null) {
+                            listener.accept(content.toString());
+                        }
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // client went away or the connection was dropped on purpose
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private boolean isRejected(String rcptLine) {
+        int start = rcptLine.indexOf('<');
+        int end = rcptLine.indexOf('>');
+        return start >= 0 && end > start
+                && rejectedRecipients.contains(rcptLine.substring(start + 1, end).toLowerCase());
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        dropConnections();
+    }
+}
@@ -0,0 +1,109 @@
+package com.flightapp.emailservice.template;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateEngineTest {
+
+    private final EmailTemplateEngine engine = new EmailTemplateEngine();
+
+    @Test
+    void render_confirmed_fillsItineraryPassengersAndTotal() {
+        String html = engine.render(confirmed());
+
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("<title>Your Booking Status - Confirmed</title>"));
+        assertTrue(html.contains(">K7QW2MZP9X</td>"));
+        assertTrue(html.contains("<td>AI-202</td>"));
+        assertTrue(html.contains("Sun, 1 Mar 2026 09:30"));
+        assertTrue(html.contains("<td>Alice</td><td>1</td>"));
+        assertTrue(html.contains("<td>Bob</td><td>2</td>"));
+        assertTrue(html.contains("<strong>9000.00</strong> for 2 ticket(s)"));
+    }
+
+    @Test
+    void render_escapesValues() {
+        BookingNotification n = confirmed();
+        n.setPassengers(List.of(new BookingNotification.Passenger("<script>alert('x')</script>", "1")));
+
+        String html = engine.render(n);
+
+        assertFalse(html.contains("<script>"));
+        assertTrue(html.contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;"));
+    }
+
+    @Test
+    void render_cancelledWithoutFlight_skipsOptionalSections() {
+        BookingNotification n = BookingNotification.builder()
+                .type(BookingNotification.Type.CANCELLED)
+                .pnr("GRP")
+                .email("ann@example.com")
+                .passengers(List.of(new BookingNotification.Passenger("Ann", "3A")))
+                .reason("Flight cancelled by the airline")
+                .build();
+
+        String html = engine.render(n);
+
+        assertTrue(html.contains("Reason: Flight cancelled by the airline"));
+        assertFalse(html.contains(">Flight</td>"));
+        assertFalse(html.contains("Total paid"));
+    }
+
+    @Test
+    void render_reusedBuffersDoNotLeakBetweenEmails() {
+        String first = engine.render(confirmed());
+        BookingNotification other = confirmed();
+        other.setPassengers(List.of(new BookingNotification.Passenger("Zed", "9")));
+
+        String second = engine.render(other);
+
+        assertEquals(first, engine.render(confirmed()));
+        assertFalse(second.contains("Alice"));
+    }
+
+    @Test
+    void compile_unknownFieldOrUnclosedSectionFailsAtStartup() {
+        Map<String, String> required = Map.of(
+                EmailTemplateEngine.CANCELLED, "{{pnr}}",
+                EmailTemplateEngine.CONFIRMED, "{{pnr}} {{seat}}");
+        assertThrows(IllegalStateException.class, () -> new EmailTemplateEngine(required));
+
+        assertThrows(IllegalStateException.class, () -> new EmailTemplateEngine(Map.of(
+                EmailTemplateEngine.CANCELLED, "{{pnr}}",
+                EmailTemplateEngine.CONFIRMED, "{{#passengers}}{{name}}")));
+
+        assertThrows(IllegalStateException.class, () -> new EmailTemplateEngine(Map.of(
+                EmailTemplateEngine.CONFIRMED, "{{pnr}}")));
+    }
+
+    @Test
+    void compile_inlinesPartialsIntoStaticText() {
+        EmailTemplateEngine small = new EmailTemplateEngine(Map.of(
+                "_header", "<h1>FlightApp</h1>",
+                EmailTemplateEngine.CONFIRMED, "{{> header}}<p>{{pnr}}</p>",
+                EmailTemplateEngine.CANCELLED, "{{> header}}<p>cancelled</p>"));
+
+        assertEquals("<h1>FlightApp</h1><p>K7QW2MZP9X</p>", small.render(confirmed()));
+    }
+
+    static BookingNotification confirmed() {
+        return BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .pnr("K7QW2MZP9X")
+                .email("alice@example.com")
+                .passengers(List.of(new BookingNotification.Passenger("Alice", "1"),
+                        new BookingNotification.Passenger("Bob", "2")))
+                .tickets(2)
+                .flight(new BookingNotification.FlightInfo(100, "AI-202", "Hyderabad", "Delhi",
+                        LocalDateTime.of(2026, 3, 1, 9, 30), LocalDateTime.of(2026, 3, 1, 11, 45)))
+                .totalAmount(new BigDecimal("9000.0"))
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.flightapp.emailservice.throttle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainThrottleTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void reserve_allowsBurstThenSpacesSendsByRate() {
+        // 10 per second with a burst of 3
+        DomainThrottle.Domain domain = new DomainThrottle.Domain(new DomainThrottle.Limit(10, 3, 1));
+
+        assertEquals(0, domain.reserve(0, 1_000 * MS));
+        assertEquals(0, domain.reserve(0, 1_000 * MS));
+        assertEquals(0, domain.reserve(0, 1_000 * MS));
+        assertEquals(100 * MS, domain.reserve(0, 1_000 * MS));
+        assertEquals(200 * MS, domain.reserve(0, 1_000 * MS));
+
+        // After a quiet second the burst is available again
+        long later = 2_000 * MS;
+        assertEquals(0, domain.reserve(later, 1_000 * MS));
+    }
+
+    @Test
+    void reserve_waitBeyondMaxIsRejectedWithoutTakingASlot() {
+        DomainThrottle.Domain domain = new DomainThrottle.Domain(new DomainThrottle.Limit(1, 1, 1));
+
+        assertEquals(0, domain.reserve(0, 500 * MS));
+        assertEquals(-1, domain.reserve(0, 500 * MS));
+        assertEquals(-1, domain.reserve(0, 500 * MS));
+        // The rejected calls did not push the next slot further out
+        assertEquals(0, domain.reserve(1_000 * MS, 500 * MS));
+    }
+
+    @Test
+    void open_capsConcurrentConnectionsPerDomain() {
+        DomainThrottle throttle = throttle(Map.of("slow.example", new DomainThrottle.Limit(100, 100, 1)), 0);
+
+        DomainThrottle.Lease first = throttle.open("slow.example");
+        assertNotNull(first);
+        assertNull(throttle.open("slow.example"));
+        // Other domains are not affected
+        assertNotNull(throttle.open("example.com"));
+
+        first.close();
+        first.close();
+        assertNotNull(throttle.open("slow.example"));
+        assertNull(throttle.open("slow.example"));
+    }
+
+    @Test
+    void awaitSendSlot_usesDomainOverrides() {
+        AtomicLong clock = new AtomicLong();
+        DomainThrottle throttle = new DomainThrottle(new SimpleMeterRegistry(),
+                new DomainThrottle.Limit(1000, 1000, 4), DomainThrottle.parse("slow.example:1:1"), 0, clock::get);
+
+        DomainThrottle.Lease slow = throttle.open("slow.example");
+        assertTrue(slow.awaitSendSlot());
+        assertFalse(slow.awaitSendSlot());
+
+        DomainThrottle.Lease fast = throttle.open("example.com");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(fast.awaitSendSlot());
+        }
+    }
+
+    @Test
+    void parse_readsDomainRateAndConnections() {
+        Map<String, DomainThrottle.Limit> limits = DomainThrottle.parse(" Gmail.com:10:2, yahoo.com:2.5:1");
+
+        assertEquals(new DomainThrottle.Limit(10, 10, 2), limits.get("gmail.com"));
+        assertEquals(new DomainThrottle.Limit(2.5, 3, 1), limits.get("yahoo.com"));
+        assertTrue(DomainThrottle.parse("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> DomainThrottle.parse("gmail.com:10"));
+        assertThrows(IllegalArgumentException.class, () -> DomainThrottle.parse("gmail.com:0:1"));
+    }
+
+    @Test
+    void domainOf_normalisesAddress() {
+        assertEquals("example.com", DomainThrottle.domainOf("User@Example.COM"));
+        assertEquals("", DomainThrottle.domainOf("no-at-sign"));
+        assertEquals("", DomainThrottle.domainOf(null));
+    }
+
+    private static DomainThrottle throttle(Map<String, DomainThrottle.Limit> overrides, long maxWaitMillis) {
+        return new DomainThrottle(new SimpleMeterRegistry(), new DomainThrottle.Limit(100, 100, 4),
+                overrides, maxWaitMillis, System::nanoTime);
+    }
+}
@@ -0,0 +1,108 @@
+package com.flightapp.emailservice.ticket;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETicketLayoutTest {
+
+    private final ETicketLayout layout = new ETicketLayout();
+
+    @Test
+    void render_onePagePerPassengerWithTheirDetails() {
+        String pdf = latin1(layout.render(notification(), new ETicketLayout.PdfBuffer(256)));
+
+        assertTrue(pdf.startsWith("%PDF-1.4"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+        assertTrue(pdf.contains("/Count 2"));
+        assertTrue(pdf.contains("(Alice) Tj"));
+        assertTrue(pdf.contains("(1A) Tj"));
+        assertTrue(pdf.contains("(Bob) Tj"));
+        assertTrue(pdf.contains("(K7QW2MZP9X) Tj"));
+        assertTrue(pdf.contains("(AI-202) Tj"));
+        assertTrue(pdf.contains("(01 Mar 2026 09:30) Tj"));
+        assertTrue(pdf.contains("(9000.00) Tj"));
+        assertTrue(pdf.contains("(1 of 2) Tj"));
+    }
+
+    @Test
+    void render_floatWidenedTotal_isPrintedRoundedToCents() {
+        BookingNotification n = notification();
+        n.setTotalAmount(new BigDecimal("246.89999389648438"));
+
+        String pdf = latin1(layout.render(n, new ETicketLayout.PdfBuffer(256)));
+
+        assertTrue(pdf.contains("(246.90) Tj"));
+    }
+
+    @Test
+    void render_crossReferenceAndLengthsPointAtTheRightBytes() {
+        String pdf = latin1(layout.render(notification(), new ETicketLayout.PdfBuffer(256)));
+
+        int xref = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref") + 10, pdf.lastIndexOf("\n%%EOF")));
+        assertTrue(pdf.startsWith("xref", xref));
+        String[] lines = pdf.substring(xref).split("\n");
+        int objects = Integer.parseInt(lines[1].split(" ")[1]);
+        for (int i = 1; i < objects; i++) {
+            int offset = Integer.parseInt(lines[2 + i].substring(0, 10));
+            assertTrue(pdf.startsWith(i + " 0 obj", offset), "object " + i);
+        }
+
+        Matcher stream = Pattern.compile("/Length (\\d+) >>\nstream\n").matcher(pdf);
+        int streams = 0;
+        while (stream.find()) {
+            int end = stream.end() + Integer.parseInt(stream.group(1));
+            assertTrue(pdf.startsWith("\nendstream", end));
+            streams++;
+        }
+        assertEquals(2, streams);
+    }
+
+    @Test
+    void render_escapesLiteralsAndReplacesUnsupportedCharacters() {
+        BookingNotification n = notification();
+        n.setPassengers(List.of(new BookingNotification.Passenger("Anne (Jr) \\ Müller 李", "2C")));
+
+        String pdf = latin1(layout.render(n, new ETicketLayout.PdfBuffer(256)));
+
+        assertTrue(pdf.contains("(Anne \\(Jr\\) \\\\ Müller ?) Tj"));
+    }
+
+    @Test
+    void render_reusedBufferGivesIdenticalOutput() {
+        ETicketLayout.PdfBuffer buffer = new ETicketLayout.PdfBuffer(64);
+        byte[] first = layout.render(notification(), buffer);
+
+        BookingNotification other = notification();
+        other.setPassengers(null);
+        layout.render(other, buffer);
+
+        assertArrayEquals(first, layout.render(notification(), buffer));
+    }
+
+    private static BookingNotification notification() {
+        return BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .pnr("K7QW2MZP9X")
+                .email("alice@example.com")
+                .passengers(List.of(new BookingNotification.Passenger("Alice", "1A"),
+                        new BookingNotification.Passenger("Bob", "1B")))
+                .tickets(2)
+                .flight(new BookingNotification.FlightInfo(100, "AI-202", "Hyderabad", "Delhi",
+                        LocalDateTime.of(2026, 3, 1, 9, 30), LocalDateTime.of(2026, 3, 1, 11, 45)))
+                .totalAmount(new BigDecimal("9000.00"))
+                .build();
+    }
+
+    private static String latin1(byte[] pdf) {
+        return new String(pdf, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.flightapp.emailservice.ticket;
+
+import com.flightapp.emailservice.event.BookingNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETicketRendererTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ETicketRenderer renderer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        renderer.destroy();
+    }
+
+    @Test
+    void render_producesPdfAndRecordsTime() throws Exception {
+        renderer = new ETicketRenderer(registry, 2, 16, 1_000);
+
+        byte[] pdf = renderer.render(notification("P1")).get(5, TimeUnit.SECONDS);
+
+        assertEquals("%PDF-1.4", new String(pdf, 0, 8, StandardCharsets.ISO_8859_1));
+        assertEquals(1, registry.get("email.ticket.render").timer().count());
+    }
+
+    @Test
+    void render_manyConcurrentTicketsAllComplete() throws Exception {
+        renderer = new ETicketRenderer(registry, 0, 1_000, 5_000);
+
+        List<CompletableFuture<byte[]>> tickets = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tickets.add(renderer.render(notification("P" + i)));
+        }
+
+        for (int i = 0; i < tickets.size(); i++) {
+            String pdf = new String(tickets.get(i).get(10, TimeUnit.SECONDS), StandardCharsets.ISO_8859_1);
+            assertTrue(pdf.contains("(P" + i + ") Tj"));
+        }
+    }
+
+    @Test
+    void render_poolAndQueueFull_rejectsAfterTimeout() throws Exception {
+        renderer = new ETicketRenderer(registry, 1, 1, 50);
+        // A notification whose getter blocks keeps the single worker busy
+        CountDownLatch release = new CountDownLatch(1);
+        BookingNotification slow = new BookingNotification() {
+            @Override
+            public List<Passenger> getPassengers() {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getPassengers();
+            }
+        };
+
+        CompletableFuture<byte[]> running = renderer.render(slow);
+        CompletableFuture<byte[]> queued = renderer.render(notification("P2"));
+
+        assertThrows(RejectedExecutionException.class, () -> renderer.render(notification("P3")));
+        assertEquals(1.0, registry.get("email.ticket.rejected").counter().count());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        // Room again once the backlog drains
+        assertNotNull(renderer.render(notification("P4")).get(5, TimeUnit.SECONDS));
+    }
+
+    private static BookingNotification notification(String pnr) {
+        return BookingNotification.builder()
+                .type(BookingNotification.Type.CONFIRMED)
+                .pnr(pnr)
+                .email("a@example.com")
+                .passengers(List.of(new BookingNotification.Passenger("Alice", "1A")))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.flightapp.flightservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    // Every change to a flight is published here as a full FlightResponse snapshot
+    public static final String FLIGHT_EVENTS_EXCHANGE = "flight_events_exchange";
+
+    // Seat releases from booking-service cancellations (same exchange booking-service declares)
+    public static final String BOOKING_EXCHANGE = "booking_exchange";
+    public static final String SEAT_RELEASE_QUEUE = "seat_release_queue";
+    public static final String SEAT_RELEASE_ROUTING_KEY = "seat_release_routing_key";
+
+    @Bean
+    public FanoutExchange flightEventsExchange() {
+        return new FanoutExchange(FLIGHT_EVENTS_EXCHANGE);
+    }
+
+    @Bean
+    public DirectExchange bookingExchange() {
+        return new DirectExchange(BOOKING_EXCHANGE);
+    }
+
+    @Bean
+    public Queue seatReleaseQueue() {
+        return new Queue(SEAT_RELEASE_QUEUE);
+    }
+
+    @Bean
+    public Binding seatReleaseBinding() {
+        return BindingBuilder.bind(seatReleaseQueue()).to(bookingExchange()).with(SEAT_RELEASE_ROUTING_KEY);
+    }
+
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+}
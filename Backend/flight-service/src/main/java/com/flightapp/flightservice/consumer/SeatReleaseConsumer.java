@@ -0,0 +1,20 @@
+package com.flightapp.flightservice.consumer;
+
+import com.flightapp.flightservice.config.RabbitMQConfig;
+import com.flightapp.flightservice.dto.event.SeatReleaseEvent;
+import com.flightapp.flightservice.service.SeatReleaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SeatReleaseConsumer {
+
+    private final SeatReleaseService seatReleaseService;
+
+    @RabbitListener(queues = RabbitMQConfig.SEAT_RELEASE_QUEUE)
+    public void onSeatRelease(SeatReleaseEvent event) {
+        seatReleaseService.record(event);
+    }
+}
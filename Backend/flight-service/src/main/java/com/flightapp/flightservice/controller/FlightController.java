@@ -31,6 +31,12 @@ public class FlightController {
         return ResponseEntity.ok(service.getAllFlights());
     }
 
+    // Bulk lookup, e.g. /flights/bulk?ids=1,2,3 (used by booking-service)
+    @GetMapping("/bulk")
+    public ResponseEntity<List<FlightResponse>> getByIds(@RequestParam("ids") List<Integer> ids) {
+        return ResponseEntity.ok(service.getFlightsByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FlightResponse> getById(@PathVariable Integer id) {
         return ResponseEntity.ok(service.getFlightById(id));
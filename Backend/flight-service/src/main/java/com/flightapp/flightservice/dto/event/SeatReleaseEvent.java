@@ -0,0 +1,15 @@
+package com.flightapp.flightservice.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sent by booking-service when a booking is cancelled
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReleaseEvent {
+    private Integer bookingId;
+    private Integer flightId;
+    private Integer seats;
+}
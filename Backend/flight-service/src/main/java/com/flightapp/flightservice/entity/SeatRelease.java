@@ -0,0 +1,36 @@
+package com.flightapp.flightservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per cancelled booking whose seats go back to the flight.
+// The booking id key makes redelivered events no-ops; applied rows are
+// kept for a while so late duplicates are still recognised.
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "seat_releases", indexes = @Index(name = "idx_seat_releases_applied", columnList = "applied"))
+public class SeatRelease {
+
+    @Id
+    private Integer bookingId;
+
+    @Column(nullable = false)
+    private Integer flightId;
+
+    @Column(nullable = false)
+    private Integer seats;
+
+    @Column(nullable = false)
+    private boolean applied;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+}
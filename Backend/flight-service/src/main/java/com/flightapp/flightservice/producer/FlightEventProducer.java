@@ -0,0 +1,27 @@
+package com.flightapp.flightservice.producer;
+
+import com.flightapp.flightservice.dto.response.FlightResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+import static com.flightapp.flightservice.config.RabbitMQConfig.FLIGHT_EVENTS_EXCHANGE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightEventProducer {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    // Best effort: consumers only keep caches, the database stays the source of truth
+    public void publishFlightChanged(FlightResponse flight) {
+        try {
+            rabbitTemplate.convertAndSend(FLIGHT_EVENTS_EXCHANGE, "", flight);
+        } catch (AmqpException ex) {
+            log.warn("Could not publish change event for flight {}: {}", flight.getId(), ex.getMessage());
+        }
+    }
+}
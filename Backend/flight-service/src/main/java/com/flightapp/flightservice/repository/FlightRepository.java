@@ -3,6 +3,9 @@ package com.flightapp.flightservice.repository;
 import com.flightapp.flightservice.dto.response.FlightResponse;
 import com.flightapp.flightservice.entity.Flight;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,4 +20,16 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
             String toCity,
             LocalDateTime start,
             LocalDateTime end);
+
+    // Single atomic increment, no read-modify-write
+    @Modifying
+    @Query("UPDATE Flight f SET f.seatsAvailable = f.seatsAvailable + :seats WHERE f.id = :id")
+    int addSeats(@Param("id") Integer id, @Param("seats") int seats);
+
+    // Takes seats only if enough are left, in one statement; 0 rows means not enough
+    // (or no such flight). Never overwrites seats a concurrent addSeats gave back.
+    @Modifying
+    @Query("UPDATE Flight f SET f.seatsAvailable = f.seatsAvailable - :seats " +
+            "WHERE f.id = :id AND f.seatsAvailable >= :seats")
+    int takeSeats(@Param("id") Integer id, @Param("seats") int seats);
 }
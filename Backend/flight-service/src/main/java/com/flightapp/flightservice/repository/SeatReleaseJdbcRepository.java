@@ -0,0 +1,47 @@
+package com.flightapp.flightservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Plain SQL for seat_releases: the insert must be conflict-safe and the claim
+// must mark and read pending rows in one statement.
+@Repository
+@RequiredArgsConstructor
+public class SeatReleaseJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Returns false when this booking's seats were already recorded
+    public boolean insertIfAbsent(int bookingId, int flightId, int seats, LocalDateTime receivedAt) {
+        return jdbcTemplate.update(
+                "INSERT INTO seat_releases (booking_id, flight_id, seats, applied, received_at) "
+                        + "VALUES (?, ?, ?, false, ?) ON CONFLICT (booking_id) DO NOTHING",
+                bookingId, flightId, seats, Timestamp.valueOf(receivedAt)) == 1;
+    }
+
+    // Marks every pending release as applied and returns the seat totals per flight.
+    // Rows inserted after the statement starts stay pending for the next round.
+    public Map<Integer, Integer> claimPendingTotals() {
+        return jdbcTemplate.query(
+                "UPDATE seat_releases SET applied = true WHERE applied = false RETURNING flight_id, seats",
+                rs -> {
+                    Map<Integer, Integer> totals = new HashMap<>();
+                    while (rs.next()) {
+                        totals.merge(rs.getInt("flight_id"), rs.getInt("seats"), Integer::sum);
+                    }
+                    return totals;
+                });
+    }
+
+    public int deleteAppliedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(
+                "DELETE FROM seat_releases WHERE applied = true AND received_at < ?",
+                Timestamp.valueOf(cutoff));
+    }
+}
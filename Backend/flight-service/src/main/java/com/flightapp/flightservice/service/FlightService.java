@@ -15,6 +15,9 @@ public interface FlightService {
 
     FlightResponse getFlightById(Integer id);
 
+    // Several flights in one query; unknown ids are skipped
+    List<FlightResponse> getFlightsByIds(List<Integer> ids);
+
     List<FlightResponse> searchFlight(SearchFlightRequest request);
 
     // Reduce seats after booking
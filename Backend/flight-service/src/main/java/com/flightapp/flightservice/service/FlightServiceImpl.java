@@ -7,10 +7,12 @@ import com.flightapp.flightservice.dto.response.FlightResponse;
 import com.flightapp.flightservice.entity.Flight;
 import com.flightapp.flightservice.exception.DuplicateFlightException;
 import com.flightapp.flightservice.exception.FlightNotFoundException;
+import com.flightapp.flightservice.producer.FlightEventProducer;
 import com.flightapp.flightservice.repository.FlightRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
@@ -21,6 +23,7 @@ import java.util.List;
 public class FlightServiceImpl implements FlightService {
 
     private final FlightRepository repo;
+    private final FlightEventProducer eventProducer;
 
     // ================= ADD FLIGHT =================
     @Override
@@ -63,6 +66,7 @@ public class FlightServiceImpl implements FlightService {
                 .build();
 
         repo.save(flight);
+        eventProducer.publishFlightChanged(mapToDto(flight));
         return new AddFlightResponse(flight.getId());
     }
 
@@ -83,6 +87,15 @@ public class FlightServiceImpl implements FlightService {
         return mapToDto(flight);
     }
 
+    // ================= GET BY IDS (BULK) =================
+    @Override
+    public List<FlightResponse> getFlightsByIds(List<Integer> ids) {
+        return repo.findAllById(ids)
+                .stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
     // ================= SEARCH (FIXED) =================
     @Override
     public List<FlightResponse> searchFlight(SearchFlightRequest req) {
@@ -124,18 +137,22 @@ public class FlightServiceImpl implements FlightService {
     }
 
     // ================= REDUCE SEATS =================
+    // Conditional UPDATE rather than read-modify-write, so seats given back by a
+    // concurrent SeatReleaseService flush are never overwritten
     @Override
+    @Transactional
     public void reduceSeats(Integer flightId, Integer count) {
-        Flight flight = repo.findById(flightId)
-                .orElseThrow(() -> new FlightNotFoundException("Flight Not Found"));
-
-        if (flight.getSeatsAvailable() < count) {
+        if (repo.takeSeats(flightId, count) == 0) {
+            if (!repo.existsById(flightId)) {
+                throw new FlightNotFoundException("Flight Not Found");
+            }
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     "Not enough seats available");
         }
 
-        flight.setSeatsAvailable(flight.getSeatsAvailable() - count);
-        repo.save(flight);
+        Flight flight = repo.findById(flightId)
+                .orElseThrow(() -> new FlightNotFoundException("Flight Not Found"));
+        eventProducer.publishFlightChanged(mapToDto(flight));
     }
 }
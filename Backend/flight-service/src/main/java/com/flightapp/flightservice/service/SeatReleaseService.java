@@ -0,0 +1,88 @@
+package com.flightapp.flightservice.service;
+
+import com.flightapp.flightservice.dto.event.SeatReleaseEvent;
+import com.flightapp.flightservice.producer.FlightEventProducer;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatReleaseJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives seats of cancelled bookings back to their flights.
+ *
+ * Each seat release event is only recorded (once per booking, so redeliveries do nothing).
+ * A scheduled flush then adds up everything recorded since the last round and applies one
+ * increment per flight, so a burst of cancellations on a flight becomes a single UPDATE.
+ */
+@Slf4j
+@Service
+public class SeatReleaseService {
+
+    private final SeatReleaseJdbcRepository releases;
+    private final FlightRepository flights;
+    private final FlightService flightService;
+    private final FlightEventProducer eventProducer;
+    private final TransactionTemplate tx;
+    private final long retentionDays;
+
+    public SeatReleaseService(
+            SeatReleaseJdbcRepository releases,
+            FlightRepository flights,
+            FlightService flightService,
+            FlightEventProducer eventProducer,
+            PlatformTransactionManager transactionManager,
+            @Value("${flight.seat-release.retention-days:7}") long retentionDays) {
+        this.releases = releases;
+        this.flights = flights;
+        this.flightService = flightService;
+        this.eventProducer = eventProducer;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+    }
+
+    public void record(SeatReleaseEvent event) {
+        if (event.getBookingId() == null || event.getFlightId() == null
+                || event.getSeats() == null || event.getSeats() < 1) {
+            log.warn("Ignoring invalid seat release {}", event);
+            return;
+        }
+        if (!releases.insertIfAbsent(event.getBookingId(), event.getFlightId(), event.getSeats(), LocalDateTime.now())) {
+            log.debug("Seat release for booking {} already recorded", event.getBookingId());
+        }
+    }
+
+    // ---------- COALESCED APPLY, ONE UPDATE PER FLIGHT ----------
+    @Scheduled(fixedDelayString = "${flight.seat-release.flush-interval-millis:2000}")
+    public void flush() {
+        Map<Integer, Integer> applied = tx.execute(status -> {
+            Map<Integer, Integer> totals = releases.claimPendingTotals();
+            totals.forEach(flights::addSeats);
+            return totals;
+        });
+
+        if (applied == null || applied.isEmpty()) {
+            return;
+        }
+        log.info("Returned seats to {} flights", applied.size());
+
+        // Let booking-service refresh its flight snapshots
+        flightService.getFlightsByIds(List.copyOf(applied.keySet()))
+                .forEach(eventProducer::publishFlightChanged);
+    }
+
+    @Scheduled(fixedDelayString = "${flight.seat-release.purge-interval-millis:3600000}")
+    public void purgeApplied() {
+        int removed = releases.deleteAppliedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            log.info("Purged {} applied seat releases", removed);
+        }
+    }
+}
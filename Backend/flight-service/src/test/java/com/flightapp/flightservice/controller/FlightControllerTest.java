@@ -111,6 +111,18 @@ class FlightControllerTest {
                                 .andExpect(jsonPath("$.flightNumber").value("F101"));
         }
 
+        @Test
+        void getFlightsByIds_success() throws Exception {
+                FlightResponse flight = new FlightResponse();
+                flight.setId(1);
+                flight.setFlightNumber("F101");
+                when(service.getFlightsByIds(List.of(1, 2))).thenReturn(List.of(flight));
+
+                mockMvc.perform(get("/flights/bulk").param("ids", "1,2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].flightNumber").value("F101"));
+        }
+
         @Test
         void getFlightById_notFound_throws() throws Exception {
                 when(service.getFlightById(1)).thenThrow(new FlightNotFoundException("Flight Not Found"));
@@ -7,16 +7,21 @@ import com.flightapp.flightservice.dto.response.FlightResponse;
 import com.flightapp.flightservice.entity.Flight;
 import com.flightapp.flightservice.exception.DuplicateFlightException;
 import com.flightapp.flightservice.exception.FlightNotFoundException;
+import com.flightapp.flightservice.producer.FlightEventProducer;
 import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatReleaseJdbcRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +34,9 @@ class FlightServiceImplTest {
     @Mock
     private FlightRepository repo;
 
+    @Mock
+    private FlightEventProducer eventProducer;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -56,6 +64,7 @@ class FlightServiceImplTest {
 
         assertEquals(1, response.getId());
         verify(repo, times(1)).save(any(Flight.class));
+        verify(eventProducer).publishFlightChanged(argThat(f -> f.getId() == 1 && f.getSeatsAvailable() == 100));
     }
 
     @Test
@@ -99,6 +108,18 @@ class FlightServiceImplTest {
         assertEquals("F101", res.getFlightNumber());
     }
 
+    @Test
+    void getFlightsByIds_returnsFoundFlights() {
+        Flight f1 = Flight.builder().id(1).flightNumber("F101").fromCity("A").toCity("B")
+                .departureTime(LocalDateTime.now()).arrivalTime(LocalDateTime.now())
+                .cost(100).seatsAvailable(50).build();
+        when(repo.findAllById(List.of(1, 2))).thenReturn(List.of(f1));
+
+        List<FlightResponse> flights = service.getFlightsByIds(List.of(1, 2));
+        assertEquals(1, flights.size());
+        assertEquals("F101", flights.get(0).getFlightNumber());
+    }
+
     @Test
     void getFlightById_notFound() {
         when(repo.findById(1)).thenReturn(Optional.empty());
@@ -148,4 +169,65 @@ class FlightServiceImplTest {
 
         assertThrows(FlightNotFoundException.class, () -> service.searchFlight(req));
     }
+
+    @Test
+    void reduceSeats_success_updatesAtomicallyAndPublishesSnapshot() {
+        Flight flight = Flight.builder().id(1).flightNumber("F101").fromCity("A").toCity("B")
+                .departureTime(LocalDateTime.now()).arrivalTime(LocalDateTime.now())
+                .cost(100).seatsAvailable(47).build();
+        when(repo.takeSeats(1, 3)).thenReturn(1);
+        when(repo.findById(1)).thenReturn(Optional.of(flight));
+
+        service.reduceSeats(1, 3);
+
+        verify(repo, never()).save(any());
+        verify(eventProducer).publishFlightChanged(argThat(f -> f.getSeatsAvailable() == 47));
+    }
+
+    @Test
+    void reduceSeats_notEnoughSeats_publishesNothing() {
+        when(repo.takeSeats(1, 3)).thenReturn(0);
+        when(repo.existsById(1)).thenReturn(true);
+
+        assertThrows(org.springframework.web.server.ResponseStatusException.class,
+                () -> service.reduceSeats(1, 3));
+        verify(repo, never()).save(any());
+        verifyNoInteractions(eventProducer);
+    }
+
+    @Test
+    void reduceSeats_unknownFlight_throwsNotFound() {
+        when(repo.takeSeats(9, 1)).thenReturn(0);
+        when(repo.existsById(9)).thenReturn(false);
+
+        assertThrows(FlightNotFoundException.class, () -> service.reduceSeats(9, 1));
+    }
+
+    @Test
+    void reduceSeats_flushLandingMidReduce_keepsReleasedSeats() {
+        // The flights row, changed only through the two atomic UPDATEs
+        AtomicInteger seats = new AtomicInteger(50);
+        SeatReleaseJdbcRepository releases = mock(SeatReleaseJdbcRepository.class);
+        when(releases.claimPendingTotals()).thenReturn(Map.of(1, 2));
+        SeatReleaseService seatReleases = new SeatReleaseService(releases, repo, service, eventProducer,
+                mock(PlatformTransactionManager.class), 7);
+
+        when(repo.addSeats(anyInt(), anyInt())).thenAnswer(inv -> {
+            seats.addAndGet(inv.getArgument(1));
+            return 1;
+        });
+        when(repo.takeSeats(eq(1), anyInt())).thenAnswer(inv -> {
+            // A flush commits while this booking is being processed
+            seatReleases.flush();
+            int n = inv.getArgument(1);
+            return seats.getAndUpdate(s -> s >= n ? s - n : s) >= n ? 1 : 0;
+        });
+        when(repo.findById(1)).thenAnswer(inv -> Optional.of(Flight.builder().id(1).seatsAvailable(seats.get()).build()));
+        when(repo.findAllById(any())).thenReturn(List.of());
+
+        service.reduceSeats(1, 3);
+
+        assertEquals(49, seats.get());
+        verify(repo, never()).save(any());
+    }
 }
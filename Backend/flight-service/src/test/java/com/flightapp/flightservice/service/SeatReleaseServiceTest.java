@@ -0,0 +1,112 @@
+package com.flightapp.flightservice.service;
+
+import com.flightapp.flightservice.dto.event.SeatReleaseEvent;
+import com.flightapp.flightservice.dto.response.FlightResponse;
+import com.flightapp.flightservice.producer.FlightEventProducer;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatReleaseJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SeatReleaseServiceTest {
+
+    @Mock
+    private SeatReleaseJdbcRepository releases;
+
+    @Mock
+    private FlightRepository flights;
+
+    @Mock
+    private FlightService flightService;
+
+    @Mock
+    private FlightEventProducer eventProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SeatReleaseService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new SeatReleaseService(releases, flights, flightService, eventProducer, transactionManager, 7);
+    }
+
+    @Test
+    void record_storesRelease() {
+        when(releases.insertIfAbsent(eq(10), eq(1), eq(2), any())).thenReturn(true);
+
+        service.record(new SeatReleaseEvent(10, 1, 2));
+
+        verify(releases).insertIfAbsent(eq(10), eq(1), eq(2), any());
+        verifyNoInteractions(flights);
+    }
+
+    @Test
+    void record_duplicateEvent_isHarmless() {
+        when(releases.insertIfAbsent(eq(10), eq(1), eq(2), any())).thenReturn(true).thenReturn(false);
+
+        service.record(new SeatReleaseEvent(10, 1, 2));
+        service.record(new SeatReleaseEvent(10, 1, 2));
+
+        verify(releases, times(2)).insertIfAbsent(eq(10), eq(1), eq(2), any());
+        verifyNoInteractions(flights);
+    }
+
+    @Test
+    void record_invalidEvent_isIgnored() {
+        service.record(new SeatReleaseEvent(null, 1, 2));
+        service.record(new SeatReleaseEvent(10, 1, 0));
+
+        verifyNoInteractions(releases);
+    }
+
+    @Test
+    void flush_appliesOneIncrementPerFlight() {
+        when(releases.claimPendingTotals()).thenReturn(Map.of(1, 5, 2, 1));
+        FlightResponse f1 = new FlightResponse();
+        f1.setId(1);
+        FlightResponse f2 = new FlightResponse();
+        f2.setId(2);
+        when(flightService.getFlightsByIds(any())).thenReturn(List.of(f1, f2));
+
+        service.flush();
+
+        verify(flights).addSeats(1, 5);
+        verify(flights).addSeats(2, 1);
+        verify(flights, times(2)).addSeats(anyInt(), anyInt());
+        verify(transactionManager).commit(any());
+        verify(eventProducer).publishFlightChanged(f1);
+        verify(eventProducer).publishFlightChanged(f2);
+    }
+
+    @Test
+    void flush_nothingPending_doesNothing() {
+        when(releases.claimPendingTotals()).thenReturn(Map.of());
+
+        service.flush();
+
+        verifyNoInteractions(flights, flightService, eventProducer);
+    }
+
+    @Test
+    void purgeApplied_deletesOldRows() {
+        when(releases.deleteAppliedBefore(any())).thenReturn(4);
+
+        service.purgeApplied();
+
+        verify(releases).deleteAppliedBefore(any());
+    }
+}
@@ -39,6 +39,7 @@ export class BookingHistoryComponent implements OnInit {
   }
 
   loadBookings(): void {
+    // getMyBookings follows the history pages to the end, so this is the full history
     this.bookingHistoryService.getMyBookings().subscribe({
       next: (bookings) => {
         // Sort bookings: BOOKED first (by date, newest first), then CANCELLED (by date, newest first)
@@ -1,9 +1,19 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, map, reduce } from 'rxjs/operators';
 import { AuthService } from './auth.service';
 import { Flight } from '../models/flight.models';
 
+// Rows per request; the backend returns history in pages, newest first
+const HISTORY_PAGE_SIZE = 100;
+const NEXT_PAGE_HEADER = 'X-Next-Before-Id';
+
+interface HistoryPage {
+  bookings: BookingHistory[];
+  nextBeforeId: string | null;
+}
+
 export interface BookingHistory {
   id: number;
   flightId: number;
@@ -31,10 +41,25 @@ export class BookingHistoryService {
     private readonly authService: AuthService
   ) {}
 
-  // Fetches all bookings for the logged-in user
+  // Fetches all bookings for the logged-in user, following the page cursor to the end
   getMyBookings(): Observable<BookingHistory[]> {
     const email = this.authService.getEmail();
-    return this.http.get<BookingHistory[]>(`${this.bookingApiUrl}/email/${email}`);
+    return this.getHistoryPage(email, null).pipe(
+      expand(page => page.nextBeforeId ? this.getHistoryPage(email, page.nextBeforeId) : EMPTY),
+      reduce((all, page) => all.concat(page.bookings), [] as BookingHistory[])
+    );
+  }
+
+  private getHistoryPage(email: string | null, beforeId: string | null): Observable<HistoryPage> {
+    let params = new HttpParams().set('size', HISTORY_PAGE_SIZE);
+    if (beforeId) {
+      params = params.set('beforeId', beforeId);
+    }
+    return this.http.get<BookingHistory[]>(`${this.bookingApiUrl}/email/${email}`, { params, observe: 'response' })
+      .pipe(map(response => ({
+        bookings: response.body ?? [],
+        nextBeforeId: response.headers.get(NEXT_PAGE_HEADER)
+      })));
   }
 
   // Fetch flight details by ID
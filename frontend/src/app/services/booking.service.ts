@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, map, reduce } from 'rxjs/operators';
 import { Flight } from '../models/flight.models';
 
 export interface BookingRequest {
@@ -54,8 +55,21 @@ export class BookingService {
     return this.http.post<BookingResponse>(this.bookingApiUrl, booking);
   }
 
+  // Every booking of the email: the backend pages history newest first, and
+  // X-Next-Before-Id is the cursor for the next (older) page
   getBookingsByEmail(email: string): Observable<Booking[]> {
-    return this.http.get<Booking[]>(`${this.bookingApiUrl}/email/${email}`);
+    const page = (beforeId: string | null) => {
+      let params = new HttpParams().set('size', 100);
+      if (beforeId) {
+        params = params.set('beforeId', beforeId);
+      }
+      return this.http.get<Booking[]>(`${this.bookingApiUrl}/email/${email}`, { params, observe: 'response' })
+        .pipe(map(response => ({ bookings: response.body ?? [], next: response.headers.get('X-Next-Before-Id') })));
+    };
+    return page(null).pipe(
+      expand(p => p.next ? page(p.next) : EMPTY),
+      reduce((all, p) => all.concat(p.bookings), [] as Booking[])
+    );
   }
 
   // Get booked seat numbers for a flight